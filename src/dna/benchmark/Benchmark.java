@@ -0,0 +1,53 @@
+package dna.benchmark;
+
+/**
+ *
+ * a single benchmark executed by the BenchmarkRunner. each iteration consists
+ * of a call to setUp(), which is not measured, followed by a measured call to
+ * run(). the duration of run() is divided by the number of operations it
+ * reports to obtain the duration per operation.
+ *
+ */
+public abstract class Benchmark {
+
+	private String name;
+
+	/** prevents the results of the operations from being optimized away **/
+	protected long sink;
+
+	public Benchmark(String name) {
+		this.name = name;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	/**
+	 * prepares the next iteration, e.g., by filling the list the operations
+	 * are executed on.
+	 */
+	public void setUp() throws Exception {
+	}
+
+	/**
+	 * executes the measured operations of an iteration.
+	 *
+	 * @return number of operations executed
+	 */
+	public abstract long run() throws Exception;
+
+	/**
+	 * releases the data of the last iteration.
+	 */
+	public void tearDown() {
+	}
+
+	public long getSink() {
+		return this.sink;
+	}
+
+	public String toString() {
+		return this.name;
+	}
+}
@@ -0,0 +1,83 @@
+package dna.benchmark;
+
+import java.util.Locale;
+
+/**
+ *
+ * durations (in nanoseconds per operation) of the measured iterations of a
+ * benchmark.
+ *
+ */
+public class BenchmarkResult {
+
+	public static final String delimiter = "\t";
+
+	private String name;
+
+	private double[] durations;
+
+	public BenchmarkResult(String name, double[] durations) {
+		this.name = name;
+		this.durations = durations;
+	}
+
+	public String getName() {
+		return this.name;
+	}
+
+	public double[] getDurations() {
+		return this.durations;
+	}
+
+	public double getMean() {
+		double sum = 0;
+		for (double d : this.durations) {
+			sum += d;
+		}
+		return sum / this.durations.length;
+	}
+
+	public double getStdDev() {
+		if (this.durations.length < 2) {
+			return 0;
+		}
+		double mean = this.getMean();
+		double sum = 0;
+		for (double d : this.durations) {
+			sum += (d - mean) * (d - mean);
+		}
+		return Math.sqrt(sum / (this.durations.length - 1));
+	}
+
+	public double getMin() {
+		double min = Double.MAX_VALUE;
+		for (double d : this.durations) {
+			min = Math.min(min, d);
+		}
+		return min;
+	}
+
+	/**
+	 *
+	 * @return name, mean, standard deviation, and minimum separated by the
+	 *         delimiter
+	 */
+	public String toString() {
+		return this.name + delimiter + format(this.getMean()) + delimiter
+				+ format(this.getStdDev()) + delimiter
+				+ format(this.getMin());
+	}
+
+	/**
+	 * parses a line written by toString(), only name and mean are restored.
+	 */
+	public static BenchmarkResult parse(String line) {
+		String[] temp = line.split(delimiter);
+		return new BenchmarkResult(temp[0],
+				new double[] { Double.parseDouble(temp[1]) });
+	}
+
+	static String format(double value) {
+		return String.format(Locale.US, "%.3f", value);
+	}
+}
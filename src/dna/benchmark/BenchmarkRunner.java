@@ -0,0 +1,137 @@
+package dna.benchmark;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import dna.io.Reader;
+import dna.io.Writer;
+import dna.util.Log;
+
+/**
+ *
+ * executes benchmarks: each benchmark is executed for the given number of
+ * warmup iterations (whose durations are discarded) followed by the given
+ * number of measured iterations. a benchmark that throws an exception is
+ * reported and skipped.
+ *
+ * the results can be written to a file and compared to the results of an
+ * earlier execution (baseline) in order to detect regressions.
+ *
+ */
+public class BenchmarkRunner {
+
+	private int warmup;
+
+	private int iterations;
+
+	private String filter;
+
+	/**
+	 *
+	 * @param warmup
+	 *            number of warmup iterations per benchmark
+	 * @param iterations
+	 *            number of measured iterations per benchmark
+	 * @param filter
+	 *            regular expression a benchmark's name must match to be
+	 *            executed (null to execute all)
+	 */
+	public BenchmarkRunner(int warmup, int iterations, String filter) {
+		this.warmup = warmup;
+		this.iterations = Math.max(1, iterations);
+		this.filter = filter;
+	}
+
+	public List<BenchmarkResult> run(List<Benchmark> benchmarks) {
+		List<BenchmarkResult> results = new ArrayList<BenchmarkResult>(
+				benchmarks.size());
+		for (Benchmark b : benchmarks) {
+			if (this.filter != null && !b.getName().matches(this.filter)) {
+				continue;
+			}
+			try {
+				BenchmarkResult result = this.run(b);
+				System.out.println(result);
+				results.add(result);
+			} catch (Exception e) {
+				Log.error("benchmark " + b.getName() + " failed: " + e);
+			}
+		}
+		return results;
+	}
+
+	public BenchmarkResult run(Benchmark b) throws Exception {
+		for (int i = 0; i < this.warmup; i++) {
+			this.iteration(b);
+		}
+		double[] durations = new double[this.iterations];
+		for (int i = 0; i < this.iterations; i++) {
+			durations[i] = this.iteration(b);
+		}
+		return new BenchmarkResult(b.getName(), durations);
+	}
+
+	/**
+	 *
+	 * @return duration of the iteration in nanoseconds per operation
+	 */
+	private double iteration(Benchmark b) throws Exception {
+		b.setUp();
+		long start = System.nanoTime();
+		long operations = b.run();
+		long duration = System.nanoTime() - start;
+		b.tearDown();
+		return (double) duration / Math.max(1, operations);
+	}
+
+	public static void write(List<BenchmarkResult> results, String dir,
+			String filename) throws IOException {
+		Writer w = new Writer(dir, filename);
+		for (BenchmarkResult r : results) {
+			w.writeln(r.toString());
+		}
+		w.close();
+	}
+
+	public static HashMap<String, BenchmarkResult> read(String dir,
+			String filename) throws IOException {
+		HashMap<String, BenchmarkResult> results = new HashMap<String, BenchmarkResult>();
+		Reader r = new Reader(dir, filename);
+		String line;
+		while ((line = r.readString()) != null) {
+			BenchmarkResult result = BenchmarkResult.parse(line);
+			results.put(result.getName(), result);
+		}
+		r.close();
+		return results;
+	}
+
+	/**
+	 * compares the mean durations of the given results to the ones of the
+	 * baseline and reports all benchmarks that became slower by more than the
+	 * given factor.
+	 *
+	 * @return number of regressions
+	 */
+	public static int compare(List<BenchmarkResult> results,
+			HashMap<String, BenchmarkResult> baseline, double tolerance) {
+		int regressions = 0;
+		for (BenchmarkResult r : results) {
+			BenchmarkResult b = baseline.get(r.getName());
+			if (b == null) {
+				continue;
+			}
+			double ratio = r.getMean() / b.getMean();
+			if (ratio > tolerance) {
+				Log.warn("regression: " + r.getName() + " takes "
+						+ BenchmarkResult.format(ratio) + " times as long ("
+						+ BenchmarkResult.format(b.getMean()) + " -> "
+						+ BenchmarkResult.format(r.getMean()) + " ns/op)");
+				regressions++;
+			}
+		}
+		return regressions;
+	}
+}
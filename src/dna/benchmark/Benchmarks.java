@@ -0,0 +1,91 @@
+package dna.benchmark;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import dna.util.Log;
+import dna.util.Log.LogLevel;
+
+/**
+ *
+ * executes the benchmark suites and prints the results (name, mean, standard
+ * deviation, and minimum duration in nanoseconds per operation).
+ *
+ * suites:
+ *
+ * datastructures - operations of all data structures (DataStructureBenchmarks)
+ *
+ * series - batch application and metric updates / recomputations
+ * (SeriesBenchmarks)
+ *
+ * optionally, the results are written to a file (to be used as baseline for
+ * later executions) and compared to a baseline file. the exit code is the
+ * number of benchmarks that became slower by more than the given factor.
+ *
+ */
+public class Benchmarks {
+
+	public static final long seed = 0;
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 5 || args.length > 8) {
+			System.err.println("5 to 8 arguments required");
+			System.err
+					.println("  0 - suite (datastructures, series, or all)");
+			System.err.println("  1 - warmup iterations");
+			System.err.println("  2 - measured iterations");
+			System.err.println("  3 - size (elements per list / nodes)");
+			System.err.println("  4 - filter (regex for benchmark names)");
+			System.err.println("       e.g., .*DHashSet.* or \"\" for all");
+			System.err.println("  5 - output file (optional, \"\" for none)");
+			System.err.println("  6 - baseline file (optional, \"\" for none)");
+			System.err.println("  7 - tolerated slowdown (optional, 1.1)");
+			return;
+		}
+		String suite = args[0];
+		int warmup = Integer.parseInt(args[1]);
+		int iterations = Integer.parseInt(args[2]);
+		int size = Integer.parseInt(args[3]);
+		String filter = args[4].length() == 0 ? null : args[4];
+		String output = args.length > 5 && args[5].length() > 0 ? args[5]
+				: null;
+		String baseline = args.length > 6 && args[6].length() > 0 ? args[6]
+				: null;
+		double tolerance = args.length > 7 ? Double.parseDouble(args[7]) : 1.1;
+
+		LogLevel logLevel = Log.getLogLevel();
+		Log.setLogLevel(LogLevel.warn);
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		if (suite.equals("datastructures") || suite.equals("all")) {
+			benchmarks.addAll(DataStructureBenchmarks.get(size, seed));
+		}
+		if (suite.equals("series") || suite.equals("all")) {
+			benchmarks.addAll(SeriesBenchmarks.get(size, 100, 10, seed));
+		}
+
+		BenchmarkRunner runner = new BenchmarkRunner(warmup, iterations,
+				filter);
+		List<BenchmarkResult> results = runner.run(benchmarks);
+
+		if (output != null) {
+			File f = new File(output);
+			BenchmarkRunner.write(results, dir(f), f.getName());
+		}
+		int regressions = 0;
+		if (baseline != null) {
+			File f = new File(baseline);
+			regressions = BenchmarkRunner.compare(results,
+					BenchmarkRunner.read(dir(f), f.getName()), tolerance);
+		}
+
+		Log.setLogLevel(logLevel);
+		System.exit(regressions);
+	}
+
+	private static String dir(File f) {
+		File dir = f.getAbsoluteFile().getParentFile();
+		return dir.getPath() + File.separator;
+	}
+}
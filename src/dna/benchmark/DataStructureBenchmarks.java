@@ -0,0 +1,221 @@
+package dna.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import dna.graph.ClassPointers;
+import dna.graph.IElement;
+import dna.graph.datastructures.DEmpty;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GDS;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.datastructures.IDataStructure;
+import dna.graph.datastructures.IEdgeListDatastructure;
+import dna.graph.datastructures.IEdgeListDatastructureReadable;
+import dna.graph.datastructures.INodeListDatastructure;
+import dna.graph.datastructures.INodeListDatastructureReadable;
+import dna.graph.datastructures.IReadable;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+
+/**
+ *
+ * benchmarks of the operations of all data structures (cf.
+ * ClassPointers.dataStructures) storing nodes or edges. each benchmark is
+ * named "datastructures/<data structure>/<element>/<operation>" and executes
+ * the operation once for each of the given number of elements (in random
+ * order):
+ *
+ * ADD - adds all elements to an empty list
+ *
+ * CONTAINS - checks for each element of a full list if it is contained
+ *
+ * GET - gets each element of a full list by its index (nodes) or the indices
+ * of its nodes (edges)
+ *
+ * REMOVE - removes all elements from a full list
+ *
+ * ITERATE - iterates over a full list
+ *
+ * RANDOM - draws a random element from a full list
+ *
+ * GET and RANDOM are only available for readable data structures.
+ *
+ */
+public class DataStructureBenchmarks {
+
+	public static enum Operation {
+		ADD, CONTAINS, GET, REMOVE, ITERATE, RANDOM
+	}
+
+	/**
+	 *
+	 * @param size
+	 *            number of elements stored in the lists
+	 * @param seed
+	 *            seed used to shuffle the elements
+	 * @return benchmarks of all data structures and operations
+	 */
+	@SuppressWarnings("unchecked")
+	public static List<Benchmark> get(int size, long seed) {
+		GraphDataStructure gds = GDS.directed();
+		Node[] nodes = new Node[size];
+		for (int i = 0; i < size; i++) {
+			nodes[i] = gds.newNodeInstance(i);
+		}
+		Edge[] edges = new Edge[size];
+		for (int i = 0; i < size; i++) {
+			edges[i] = gds.newEdgeInstance(nodes[i], nodes[(i + 1) % size]);
+		}
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		for (Class<?> ds : ClassPointers.dataStructures) {
+			if (ds == DEmpty.class) {
+				continue;
+			}
+			for (Operation o : Operation.values()) {
+				add(benchmarks, (Class<? extends IDataStructure>) ds,
+						ListType.GlobalNodeList, DirectedNode.class, nodes,
+						o, seed);
+				add(benchmarks, (Class<? extends IDataStructure>) ds,
+						ListType.GlobalEdgeList, DirectedEdge.class, edges,
+						o, seed);
+			}
+		}
+		return benchmarks;
+	}
+
+	private static void add(List<Benchmark> benchmarks,
+			Class<? extends IDataStructure> ds, ListType lt,
+			Class<? extends IElement> dt, IElement[] elements, Operation o,
+			long seed) {
+		IDataStructure list;
+		try {
+			list = GraphDataStructure.constructList(lt, ds, dt);
+		} catch (RuntimeException e) {
+			return;
+		}
+		boolean supported = list.canStore(dt);
+		if (Node.class.isAssignableFrom(dt)) {
+			supported &= list instanceof INodeListDatastructure;
+		} else {
+			supported &= list instanceof IEdgeListDatastructure;
+		}
+		if (o == Operation.GET || o == Operation.RANDOM) {
+			supported &= list instanceof IReadable;
+		}
+		if (supported) {
+			benchmarks.add(new DataStructureBenchmark(ds, lt, dt, elements, o,
+					seed));
+		}
+	}
+
+	public static class DataStructureBenchmark extends Benchmark {
+
+		private Class<? extends IDataStructure> ds;
+
+		private ListType lt;
+
+		private Class<? extends IElement> dt;
+
+		private IElement[] elements;
+
+		private Operation operation;
+
+		private Random rand;
+
+		private IDataStructure list;
+
+		/** elements in the order in which the operation accesses them **/
+		private IElement[] order;
+
+		public DataStructureBenchmark(Class<? extends IDataStructure> ds,
+				ListType lt, Class<? extends IElement> dt,
+				IElement[] elements, Operation operation, long seed) {
+			super("datastructures/" + ds.getSimpleName() + "/"
+					+ dt.getSimpleName() + "/" + operation);
+			this.ds = ds;
+			this.lt = lt;
+			this.dt = dt;
+			this.elements = elements;
+			this.operation = operation;
+			this.rand = new Random(seed);
+		}
+
+		@Override
+		public void setUp() {
+			this.list = GraphDataStructure.constructList(this.lt, this.ds,
+					this.dt);
+			this.list.reinitializeWithSize(this.elements.length);
+			List<IElement> order = new ArrayList<IElement>(
+					this.elements.length);
+			Collections.addAll(order, this.elements);
+			if (this.operation != Operation.ADD) {
+				for (IElement e : order) {
+					this.list.add(e);
+				}
+			}
+			Collections.shuffle(order, this.rand);
+			this.order = order.toArray(new IElement[order.size()]);
+		}
+
+		@Override
+		public long run() {
+			switch (this.operation) {
+			case ADD:
+				for (IElement e : this.order) {
+					this.sink += this.list.add(e) ? 1 : 0;
+				}
+				break;
+			case CONTAINS:
+				for (IElement e : this.order) {
+					this.sink += this.list.contains(e) ? 1 : 0;
+				}
+				break;
+			case GET:
+				if (Node.class.isAssignableFrom(this.dt)) {
+					INodeListDatastructureReadable l = (INodeListDatastructureReadable) this.list;
+					for (IElement e : this.order) {
+						this.sink += l.get(((Node) e).getIndex()) == null ? 0
+								: 1;
+					}
+				} else {
+					IEdgeListDatastructureReadable l = (IEdgeListDatastructureReadable) this.list;
+					for (IElement e : this.order) {
+						Edge edge = (Edge) e;
+						this.sink += l.get(edge.getN1Index(),
+								edge.getN2Index()) == null ? 0 : 1;
+					}
+				}
+				break;
+			case REMOVE:
+				for (IElement e : this.order) {
+					this.sink += this.list.remove(e) ? 1 : 0;
+				}
+				break;
+			case ITERATE:
+				for (IElement e : this.list) {
+					this.sink += e == null ? 0 : 1;
+				}
+				break;
+			case RANDOM:
+				IReadable readable = (IReadable) this.list;
+				for (int i = 0; i < this.order.length; i++) {
+					this.sink += readable.getRandom() == null ? 0 : 1;
+				}
+				break;
+			}
+			return this.order.length;
+		}
+
+		@Override
+		public void tearDown() {
+			this.list = null;
+			this.order = null;
+		}
+	}
+}
@@ -0,0 +1,221 @@
+package dna.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import dna.graph.datastructures.GDS;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.generators.GraphGenerator;
+import dna.graph.generators.evolvingNetworks.BarabasiAlbertGraph;
+import dna.graph.generators.random.RandomGraph;
+import dna.metrics.IMetric;
+import dna.metrics.algorithms.Algorithms;
+import dna.metrics.assortativity.AssortativityR;
+import dna.metrics.assortativity.AssortativityU;
+import dna.metrics.clustering.UndirectedClusteringCoefficientR;
+import dna.metrics.clustering.UndirectedClusteringCoefficientU;
+import dna.metrics.degree.DegreeDistributionR;
+import dna.metrics.degree.DegreeDistributionU;
+import dna.metrics.motifs.UndirectedMotifsR;
+import dna.metrics.motifs.UndirectedMotifsU;
+import dna.metrics.paths.UnweightedAllPairsShortestPathsR;
+import dna.metrics.paths.UnweightedAllPairsShortestPathsU;
+import dna.metrics.richClub.RichClubConnectivityByDegreeR;
+import dna.metrics.richClub.RichClubConnectivityByDegreeU;
+import dna.series.Series;
+import dna.series.SeriesGeneration;
+import dna.updates.generators.BatchGenerator;
+import dna.updates.generators.evolvingNetworks.BarabasiAlbertBatch;
+import dna.updates.generators.random.RandomBatch;
+import dna.util.Rand;
+
+/**
+ *
+ * end-to-end benchmarks of the generation and application of batches (using
+ * SeriesGeneration, without writing any data). each iteration generates the
+ * initial graph and computes the initial metrics (not measured) and then
+ * generates and applies the given number of batches. the duration is reported
+ * per batch.
+ *
+ * "batches/<graph>" applies the batches without any metrics, its duration is
+ * the baseline for "metrics/<graph>/<metric>" which additionally updates
+ * (U) or recomputes (R) a metric.
+ *
+ * the graphs are undirected random graphs (RandomGraph with RandomBatch) and
+ * scale-free graphs (BarabasiAlbertGraph with BarabasiAlbertBatch) with the
+ * given number of nodes and an average degree of 10.
+ *
+ */
+public class SeriesBenchmarks {
+
+	/**
+	 * creates new instances of the metrics for each iteration.
+	 */
+	public static interface MetricFactory {
+		public IMetric[] create();
+	}
+
+	/**
+	 *
+	 * @param nodes
+	 *            number of nodes of the initial graphs
+	 * @param batchSize
+	 *            number of updates per batch
+	 * @param batches
+	 *            number of batches per iteration
+	 * @param seed
+	 *            seed to initialize Rand with before each iteration
+	 * @return batch and metric benchmarks for all graphs
+	 */
+	public static List<Benchmark> get(int nodes, int batchSize, int batches,
+			long seed) {
+		GraphDataStructure gds = GDS.undirected();
+		int m = 5;
+
+		List<Benchmark> benchmarks = new ArrayList<Benchmark>();
+		add(benchmarks, "RandomGraph", new RandomGraph(gds, nodes, nodes * m),
+				new RandomBatch(0, 0, batchSize / 2, batchSize / 2), batches,
+				seed);
+		add(benchmarks, "BarabasiAlbertGraph", new BarabasiAlbertGraph(gds,
+				4 * m, 4 * m * m, nodes - 4 * m, m), new BarabasiAlbertBatch(
+				Math.max(1, batchSize / m), m), batches, seed);
+		return benchmarks;
+	}
+
+	private static void add(List<Benchmark> benchmarks, String graph,
+			GraphGenerator gg, BatchGenerator bg, int batches, long seed) {
+		benchmarks.add(new SeriesBenchmark("batches/" + graph, gg, bg,
+				new MetricFactory() {
+					public IMetric[] create() {
+						return new IMetric[0];
+					}
+				}, batches, seed));
+		for (MetricFactory metric : metrics()) {
+			String name = metric.create()[0].getClass().getSimpleName();
+			benchmarks.add(new SeriesBenchmark("metrics/" + graph + "/"
+					+ name, gg, bg, metric, batches, seed));
+		}
+	}
+
+	/**
+	 *
+	 * @return factories for the R and U variants of the major metrics
+	 */
+	public static List<MetricFactory> metrics() {
+		List<MetricFactory> metrics = new ArrayList<MetricFactory>();
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new DegreeDistributionR() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new DegreeDistributionU() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new UndirectedClusteringCoefficientR() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new UndirectedClusteringCoefficientU() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new AssortativityR() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new AssortativityU() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new RichClubConnectivityByDegreeR() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new RichClubConnectivityByDegreeU() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new UndirectedMotifsR() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new UndirectedMotifsU() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new UnweightedAllPairsShortestPathsR() };
+			}
+		});
+		metrics.add(new MetricFactory() {
+			public IMetric[] create() {
+				return new IMetric[] { new UnweightedAllPairsShortestPathsU() };
+			}
+		});
+		return metrics;
+	}
+
+	public static class SeriesBenchmark extends Benchmark {
+
+		private GraphGenerator gg;
+
+		private BatchGenerator bg;
+
+		private MetricFactory metrics;
+
+		private int batches;
+
+		private long seed;
+
+		private Series series;
+
+		private Algorithms algorithms;
+
+		public SeriesBenchmark(String name, GraphGenerator gg,
+				BatchGenerator bg, MetricFactory metrics, int batches,
+				long seed) {
+			super(name);
+			this.gg = gg;
+			this.bg = bg;
+			this.metrics = metrics;
+			this.batches = batches;
+			this.seed = seed;
+		}
+
+		@Override
+		public void setUp() throws Exception {
+			Rand.init(this.seed);
+			this.bg.reset();
+			this.series = new Series(this.gg, this.bg, this.metrics.create(),
+					null, this.getName());
+			this.algorithms = new Algorithms(this.series.getMetrics());
+			SeriesGeneration.generateInitialData(this.series, this.algorithms);
+		}
+
+		@Override
+		public long run() throws Exception {
+			for (int i = 0; i < this.batches; i++) {
+				this.sink += SeriesGeneration.generateNextBatch(this.series,
+						this.algorithms).getTimestamp();
+			}
+			return this.batches;
+		}
+
+		@Override
+		public void tearDown() {
+			this.series = null;
+			this.algorithms = null;
+		}
+	}
+}
@@ -0,0 +1,287 @@
+package dna.graph;
+
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.graph.weights.IWeighted;
+import dna.graph.weights.Weight;
+import dna.graph.weights.doubleW.DoubleWeight;
+import dna.graph.weights.intW.IntWeight;
+import dna.graph.weights.longW.LongWeight;
+
+/**
+ * Immutable snapshot of a graph in compressed sparse row (CSR) format.
+ *
+ * Nodes are addressed by their index. The neighbors of the node with index i
+ * are stored in targets[offsets[i]] ... targets[offsets[i + 1] - 1] in the
+ * same order in which the edges are iterated in the original graph. For
+ * undirected graphs, these are all neighbors, for directed graphs the
+ * destinations of all outgoing edges. For directed graphs, the sources of all
+ * incoming edges are stored in inTargets / inOffsets in the same manner.
+ *
+ * If requested, the weights of all edges are stored in weights (parallel to
+ * targets and inTargets). Only IntWeight, LongWeight, and DoubleWeight can be
+ * converted.
+ *
+ * A snapshot does not reflect any changes applied to the graph after its
+ * creation. It is intended to be created once after a batch has been applied
+ * so that the recomputation of metrics can traverse the graph using primitive
+ * arrays only. All arrays returned by the getters are the internal ones and
+ * must not be modified.
+ */
+public class CSRGraph {
+
+	private long timestamp;
+
+	private boolean directed;
+
+	private int maxNodeIndex;
+
+	private int[] nodes;
+
+	private boolean[] contained;
+
+	private int[] offsets;
+
+	private int[] targets;
+
+	private double[] weights;
+
+	private int[] inOffsets;
+
+	private int[] inTargets;
+
+	private double[] inWeights;
+
+	private CSRGraph() {
+	}
+
+	/**
+	 * creates a snapshot of the current state of the given graph without edge
+	 * weights
+	 *
+	 * @param g
+	 *            graph to freeze
+	 * @return snapshot of g
+	 */
+	public static CSRGraph freeze(IGraph g) {
+		return CSRGraph.freeze(g, false);
+	}
+
+	/**
+	 * creates a snapshot of the current state of the given graph
+	 *
+	 * @param g
+	 *            graph to freeze
+	 * @param withWeights
+	 *            if true, the weights of all edges are stored as well
+	 * @return snapshot of g
+	 */
+	public static CSRGraph freeze(IGraph g, boolean withWeights) {
+		CSRGraph csr = new CSRGraph();
+		csr.timestamp = g.getTimestamp();
+		csr.directed = g.isDirected();
+		csr.maxNodeIndex = g.getMaxNodeIndex();
+
+		int size = csr.maxNodeIndex + 1;
+		csr.nodes = new int[g.getNodeCount()];
+		csr.contained = new boolean[size];
+		csr.offsets = new int[size + 1];
+		if (csr.directed) {
+			csr.inOffsets = new int[size + 1];
+		}
+
+		// degrees & offsets
+		int i = 0;
+		for (IElement n_ : g.getNodes()) {
+			Node n = (Node) n_;
+			csr.nodes[i++] = n.getIndex();
+			csr.contained[n.getIndex()] = true;
+			if (csr.directed) {
+				csr.offsets[n.getIndex() + 1] = ((DirectedNode) n)
+						.getOutDegree();
+				csr.inOffsets[n.getIndex() + 1] = ((DirectedNode) n)
+						.getInDegree();
+			} else {
+				csr.offsets[n.getIndex() + 1] = ((UndirectedNode) n)
+						.getDegree();
+			}
+		}
+		CSRGraph.accumulate(csr.offsets);
+		csr.targets = new int[csr.offsets[size]];
+		if (withWeights) {
+			csr.weights = new double[csr.targets.length];
+		}
+		if (csr.directed) {
+			CSRGraph.accumulate(csr.inOffsets);
+			csr.inTargets = new int[csr.inOffsets[size]];
+			if (withWeights) {
+				csr.inWeights = new double[csr.inTargets.length];
+			}
+		}
+
+		// targets
+		for (int index : csr.nodes) {
+			Node n = g.getNode(index);
+			if (csr.directed) {
+				DirectedNode node = (DirectedNode) n;
+				int pos = csr.offsets[index];
+				for (IElement e_ : node.getOutgoingEdges()) {
+					DirectedEdge e = (DirectedEdge) e_;
+					csr.targets[pos] = e.getDst().getIndex();
+					if (withWeights) {
+						csr.weights[pos] = CSRGraph.getWeight(e);
+					}
+					pos++;
+				}
+				pos = csr.inOffsets[index];
+				for (IElement e_ : node.getIncomingEdges()) {
+					DirectedEdge e = (DirectedEdge) e_;
+					csr.inTargets[pos] = e.getSrc().getIndex();
+					if (withWeights) {
+						csr.inWeights[pos] = CSRGraph.getWeight(e);
+					}
+					pos++;
+				}
+			} else {
+				UndirectedNode node = (UndirectedNode) n;
+				int pos = csr.offsets[index];
+				for (IElement e_ : node.getEdges()) {
+					UndirectedEdge e = (UndirectedEdge) e_;
+					csr.targets[pos] = e.getDifferingNode(node).getIndex();
+					if (withWeights) {
+						csr.weights[pos] = CSRGraph.getWeight(e);
+					}
+					pos++;
+				}
+			}
+		}
+
+		return csr;
+	}
+
+	private static void accumulate(int[] offsets) {
+		for (int i = 1; i < offsets.length; i++) {
+			offsets[i] += offsets[i - 1];
+		}
+	}
+
+	private static double getWeight(IElement e) {
+		if (!(e instanceof IWeighted)) {
+			throw new RuntimeException("edge " + e + " is not weighted");
+		}
+		Weight w = ((IWeighted) e).getWeight();
+		if (w instanceof IntWeight) {
+			return ((IntWeight) w).getWeight();
+		} else if (w instanceof DoubleWeight) {
+			return ((DoubleWeight) w).getWeight();
+		} else if (w instanceof LongWeight) {
+			return ((LongWeight) w).getWeight();
+		}
+		throw new RuntimeException("cannot convert weight of type "
+				+ w.getClass().getSimpleName() + " to double");
+	}
+
+	/**
+	 *
+	 * @return timestamp of the graph when the snapshot was created
+	 */
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	public boolean isDirected() {
+		return this.directed;
+	}
+
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	public int getNodeCount() {
+		return this.nodes.length;
+	}
+
+	public int getEdgeCount() {
+		return this.directed ? this.targets.length : this.targets.length / 2;
+	}
+
+	/**
+	 *
+	 * @return indexes of all nodes (in the order of g.getNodes())
+	 */
+	public int[] getNodes() {
+		return this.nodes;
+	}
+
+	public boolean containsNode(int index) {
+		return index >= 0 && index <= this.maxNodeIndex
+				&& this.contained[index];
+	}
+
+	/**
+	 *
+	 * @param index
+	 *            node index
+	 * @return number of neighbors (undirected) or outgoing edges (directed) of
+	 *         the node
+	 */
+	public int getDegree(int index) {
+		return this.offsets[index + 1] - this.offsets[index];
+	}
+
+	/**
+	 *
+	 * @param index
+	 *            node index
+	 * @return number of incoming edges of the node (directed only)
+	 */
+	public int getInDegree(int index) {
+		return this.inOffsets[index + 1] - this.inOffsets[index];
+	}
+
+	public int[] getOffsets() {
+		return this.offsets;
+	}
+
+	public int[] getTargets() {
+		return this.targets;
+	}
+
+	/**
+	 *
+	 * @return edge weights parallel to getTargets(), null in case the snapshot
+	 *         was created without weights
+	 */
+	public double[] getWeights() {
+		return this.weights;
+	}
+
+	/**
+	 *
+	 * @return offsets of the incoming edges, null for undirected graphs
+	 */
+	public int[] getInOffsets() {
+		return this.inOffsets;
+	}
+
+	/**
+	 *
+	 * @return sources of the incoming edges, null for undirected graphs
+	 */
+	public int[] getInTargets() {
+		return this.inTargets;
+	}
+
+	/**
+	 *
+	 * @return edge weights parallel to getInTargets(), null for undirected
+	 *         graphs or in case the snapshot was created without weights
+	 */
+	public double[] getInWeights() {
+		return this.inWeights;
+	}
+
+}
@@ -2,6 +2,7 @@ package dna.graph;
 
 import com.google.common.collect.ObjectArrays;
 
+import dna.graph.datastructures.DAdaptiveList;
 import dna.graph.datastructures.DArray;
 import dna.graph.datastructures.DArrayDeque;
 import dna.graph.datastructures.DArrayList;
@@ -11,6 +12,7 @@ import dna.graph.datastructures.DHashMap;
 import dna.graph.datastructures.DHashMultimap;
 import dna.graph.datastructures.DHashSet;
 import dna.graph.datastructures.DHashTable;
+import dna.graph.datastructures.DIndexArray;
 import dna.graph.datastructures.DLinkedHashMultimap;
 import dna.graph.datastructures.DLinkedList;
 import dna.graph.edges.DirectedEdge;
@@ -42,7 +44,8 @@ public class ClassPointers {
 	public static final Class[] dataStructures = { DArray.class,
 			DArrayDeque.class, DArrayList.class, DHashArrayList.class,
 			DHashMap.class, DHashMultimap.class, DHashSet.class, DHashTable.class,
-			DLinkedHashMultimap.class, DLinkedList.class, DEmpty.class };
+			DLinkedHashMultimap.class, DLinkedList.class, DEmpty.class,
+			DIndexArray.class, DAdaptiveList.class };
 
 	public static final Class[] graphGenerators = { CliqueGraph.class,
 			RingGraph.class, BarabasiAlbertGraph.class, RandomGraph.class,
@@ -6,17 +6,20 @@ import java.util.Iterator;
 import com.google.common.collect.Iterables;
 
 import dna.graph.DNAGraphFactory.DNAGraphType;import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.EdgeIndex;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
 import dna.graph.datastructures.IEdgeListDatastructure;
 import dna.graph.datastructures.IEdgeListDatastructureReadable;
 import dna.graph.datastructures.INodeListDatastructure;
 import dna.graph.datastructures.INodeListDatastructureReadable;
+import dna.graph.datastructures.count.OperationSampling;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.Edge;
 import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.Node;
 import dna.graph.weights.NodeTypeFilter;
+import dna.util.Config;
 import dna.util.Log;
 
 /**
@@ -35,6 +38,12 @@ public class Graph implements IGraph{
 	private long timestamp;
 	protected GraphDataStructure gds;
 
+	/**
+	 * index of the edges by their nodes used for containsEdge and getEdge
+	 * instead of the edge list, null if disabled (GRAPH_EDGE_INDEX)
+	 */
+	protected EdgeIndex edgeIndex;
+
 	public Graph(String name, long timestamp, GraphDataStructure gds) {
 		this.name = name;
 		this.timestamp = timestamp;
@@ -43,19 +52,35 @@ public class Graph implements IGraph{
 		this.edges = (IEdgeListDatastructure) gds
 				.newList(ListType.GlobalEdgeList);
 		this.gds = gds;
+		if (Config.getBoolean("GRAPH_EDGE_INDEX")) {
+			this.edgeIndex = new EdgeIndex(0);
+		}
 	}
 
 	public Graph(String name, long timestamp, GraphDataStructure gds,
 			int nodeSize, int edgeSize) {
 		this(name, timestamp, gds);
+		if (this.edgeIndex != null) {
+			this.edgeIndex = new EdgeIndex(edgeSize);
+		}
 	}
 
 	public boolean addNode(Node n) {
 		return nodes.add(n);
 	}
 
+	/**
+	 * adds the given node without checking whether it is already contained,
+	 * e.g., when a graph is loaded in bulk (cf. GraphSnapshot). the caller must
+	 * ensure that each node is added only once.
+	 */
+	public void addNodeUnchecked(Node n) {
+		nodes.addUnchecked(n);
+	}
+
 	public boolean containsNode(Node n) {
-		return nodes.contains(n);
+		return OperationSampling.contains(ListType.GlobalNodeList,
+				nodes.contains(n));
 	}
 
 	/**
@@ -67,7 +92,8 @@ public class Graph implements IGraph{
 	public Node getNode(int index) {
 		if (!gds.isReadable(nodes))
 			throw new RuntimeException("This is not a readable graph");
-		return ((INodeListDatastructureReadable) this.nodes).get(index);
+		return OperationSampling.get(ListType.GlobalNodeList,
+				((INodeListDatastructureReadable) this.nodes).get(index));
 	}
 
 	/**
@@ -78,7 +104,8 @@ public class Graph implements IGraph{
 	public Node getRandomNode() {
 		if (!gds.isReadable(nodes))
 			throw new RuntimeException("This is not a readable graph");
-		return (Node) ((INodeListDatastructureReadable) nodes).getRandom();
+		return (Node) OperationSampling.getRandom(ListType.GlobalNodeList,
+				((INodeListDatastructureReadable) nodes).getRandom());
 	}
 
 	/**
@@ -98,7 +125,8 @@ public class Graph implements IGraph{
 	}
 
 	public boolean removeNode(Node n) {
-		return nodes.remove(n);
+		return OperationSampling.remove(ListType.GlobalNodeList,
+				nodes.remove(n));
 	}
 
 	/**
@@ -116,24 +144,53 @@ public class Graph implements IGraph{
 	 * @return
 	 */
 	public int getNodeCount() {
-		return nodes.size();
+		return OperationSampling.size(ListType.GlobalNodeList, nodes.size());
 	}
 
 	public boolean addEdge(Edge e) {
-		return edges.add(e);
+		if (this.edgeIndex == null) {
+			return edges.add(e);
+		}
+		if (this.edgeIndex.contains(e.getN1Index(), e.getN2Index())) {
+			return false;
+		}
+		return edges.add(e) && this.edgeIndex.add(e);
 		// return this.containsNodes(e) && edges.add(e);
 	}
 
+	/**
+	 * adds the given edge without checking whether it is already contained,
+	 * e.g., when a graph is loaded in bulk (cf. GraphSnapshot). the caller must
+	 * ensure that each edge is added only once. the edge is not added to the
+	 * lists of its nodes.
+	 */
+	public void addEdgeUnchecked(Edge e) {
+		edges.addUnchecked(e);
+		if (this.edgeIndex != null) {
+			this.edgeIndex.add(e);
+		}
+	}
+
 	public boolean containsEdge(Node n1, Node n2) {
+		if (this.edgeIndex != null) {
+			return this.getIndexedEdge(n1.getIndex(), n2.getIndex()) != null;
+		}
 		return containsEdge(gds.getDummyEdge(n1, n2));
 	}
 
 	public boolean containsEdge(int n1, int n2) {
+		if (this.edgeIndex != null) {
+			return this.getIndexedEdge(n1, n2) != null;
+		}
 		return containsEdge(gds.getDummyEdge(n1, n2));
 	}
 
 	public boolean containsEdge(Edge e) {
-		return edges.contains(e);
+		if (this.edgeIndex != null) {
+			return this.edgeIndex.contains(e.getN1Index(), e.getN2Index());
+		}
+		return OperationSampling.contains(ListType.GlobalEdgeList,
+				edges.contains(e));
 	}
 
 	public boolean containsNodes(Edge e) {
@@ -157,10 +214,26 @@ public class Graph implements IGraph{
 	 *            n1, Node n2
 	 */
 	public Edge getEdge(Node n1, Node n2) {
+		if (this.edgeIndex != null) {
+			return this.getIndexedEdge(n1.getIndex(), n2.getIndex());
+		}
 		if (!gds.isReadable(edges))
 			throw new RuntimeException("This is not a readable graph");
-		return ((IEdgeListDatastructureReadable) edges).get(gds.getDummyEdge(
-				n1, n2));
+		return OperationSampling.get(ListType.GlobalEdgeList,
+				((IEdgeListDatastructureReadable) edges).get(gds.getDummyEdge(
+						n1, n2)));
+	}
+
+	/**
+	 * looks up the edge between the given nodes in the edge index without
+	 * creating a dummy edge, i.e., the smaller index comes first for
+	 * undirected edges (as stored by UndirectedEdge)
+	 */
+	private Edge getIndexedEdge(int n1, int n2) {
+		if (n1 > n2 && !this.gds.createsDirected()) {
+			return this.edgeIndex.get(n2, n1);
+		}
+		return this.edgeIndex.get(n1, n2);
 	}
 
 	/**
@@ -171,7 +244,8 @@ public class Graph implements IGraph{
 	public Edge getRandomEdge() {
 		if (!gds.isReadable(edges))
 			throw new RuntimeException("This is not a readable graph");
-		return (Edge) ((IEdgeListDatastructureReadable) edges).getRandom();
+		return (Edge) OperationSampling.getRandom(ListType.GlobalEdgeList,
+				((IEdgeListDatastructureReadable) edges).getRandom());
 	}
 
 	/**
@@ -186,7 +260,12 @@ public class Graph implements IGraph{
 	}
 
 	public boolean removeEdge(Edge e) {
-		return edges.remove(e);
+		boolean removed = OperationSampling.remove(ListType.GlobalEdgeList,
+				edges.remove(e));
+		if (removed && this.edgeIndex != null) {
+			this.edgeIndex.remove(e);
+		}
+		return removed;
 	}
 
 	/**
@@ -195,7 +274,7 @@ public class Graph implements IGraph{
 	 * @return
 	 */
 	public int getEdgeCount() {
-		return edges.size();
+		return OperationSampling.size(ListType.GlobalEdgeList, edges.size());
 	}
 
 	/**
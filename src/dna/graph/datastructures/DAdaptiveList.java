@@ -0,0 +1,368 @@
+package dna.graph.datastructures;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.util.Config;
+import dna.util.Rand;
+
+/**
+ * Data structure to store IElements in a list that adapts to its size. The
+ * elements are always kept in a densely packed array. As long as the list is
+ * small, elements are found by a linear scan of this array. Once the list
+ * grows beyond ADAPTIVE_LIST_PROMOTION_SIZE elements, an open-addressing hash
+ * table mapping each element to its position in the packed array is built
+ * (promotion). It is dropped again when the list shrinks to
+ * ADAPTIVE_LIST_DEMOTION_SIZE elements (demotion).
+ *
+ * This is intended for local node and edge lists of graphs with skewed degree
+ * distributions: the many low-degree nodes pay neither time nor memory for
+ * hashing while the few high-degree nodes get constant-time lookups. A
+ * removed element is replaced by the last element of the packed array.
+ */
+public class DAdaptiveList extends DataStructureReadable implements
+		INodeListDatastructureReadable, IEdgeListDatastructureReadable {
+
+	private static final int PromotionSize = Math.max(1,
+			Config.getInt("ADAPTIVE_LIST_PROMOTION_SIZE"));
+
+	private static final int DemotionSize = Math.min(PromotionSize - 1,
+			Config.getInt("ADAPTIVE_LIST_DEMOTION_SIZE"));
+
+	private IElement[] elements;
+	private int count;
+	private int maxNodeIndex;
+
+	/**
+	 * positions (+1) of the elements in the packed array, 0 marks an empty
+	 * slot; null as long as the list is not promoted
+	 */
+	private int[] table;
+
+	public DAdaptiveList(ListType lt, Class<? extends IElement> dT) {
+		super(lt, dT);
+	}
+
+	@Override
+	public void init(Class<? extends IElement> dT, int initialSize,
+			boolean firstTime) {
+		this.elements = new IElement[initialSize];
+		this.count = 0;
+		this.maxNodeIndex = -1;
+		this.table = null;
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		if (element instanceof Edge)
+			return this.add((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	protected boolean add_(Node element) {
+		if (element == null)
+			return false;
+		this.append(element);
+		if (element.getIndex() > this.maxNodeIndex) {
+			this.maxNodeIndex = element.getIndex();
+		}
+		return true;
+	}
+
+	@Override
+	protected boolean add_(Edge element) {
+		if (element == null)
+			return false;
+		this.append(element);
+		return true;
+	}
+
+	private void append(IElement element) {
+		if (this.count == this.elements.length) {
+			this.elements = Arrays.copyOf(this.elements,
+					Math.max(1, this.elements.length * 2));
+		}
+		this.elements[this.count] = element;
+		this.count++;
+		if (this.table != null) {
+			if (this.count * 2 > this.table.length) {
+				this.rehash(this.table.length * 2);
+			} else {
+				this.insert(this.count - 1);
+			}
+		} else if (this.count > PromotionSize) {
+			this.rehash(Integer.highestOneBit(this.count) * 4);
+		}
+	}
+
+	@Override
+	public boolean contains(IElement element) {
+		if (element instanceof Node)
+			return this.contains((Node) element);
+		if (element instanceof Edge)
+			return this.contains((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean contains(Node element) {
+		return this.positionOf(element) != -1;
+	}
+
+	@Override
+	public boolean contains(Edge element) {
+		return this.positionOf(element) != -1;
+	}
+
+	@Override
+	public boolean remove(IElement element) {
+		if (element instanceof Node)
+			return this.remove((Node) element);
+		if (element instanceof Edge)
+			return this.remove((Edge) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		int pos = this.positionOf(element);
+		if (pos == -1) {
+			return false;
+		}
+		this.removeAt(pos);
+		if (element.getIndex() == this.maxNodeIndex) {
+			this.maxNodeIndex = -1;
+			for (int i = 0; i < this.count; i++) {
+				this.maxNodeIndex = Math.max(this.maxNodeIndex,
+						((Node) this.elements[i]).getIndex());
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public boolean remove(Edge element) {
+		int pos = this.positionOf(element);
+		if (pos == -1) {
+			return false;
+		}
+		this.removeAt(pos);
+		return true;
+	}
+
+	private void removeAt(int pos) {
+		int last = this.count - 1;
+		if (this.table != null) {
+			this.delete(this.slotOf(pos));
+			if (pos != last) {
+				this.table[this.slotOf(last)] = pos + 1;
+			}
+		}
+		this.elements[pos] = this.elements[last];
+		this.elements[last] = null;
+		this.count--;
+		if (this.table != null && this.count <= DemotionSize) {
+			this.table = null;
+		}
+	}
+
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	@Override
+	public Node get(int index) {
+		if (this.table == null) {
+			for (int i = 0; i < this.count; i++) {
+				if (((Node) this.elements[i]).getIndex() == index)
+					return (Node) this.elements[i];
+			}
+			return null;
+		}
+		int mask = this.table.length - 1;
+		int slot = spread(index) & mask;
+		while (this.table[slot] != 0) {
+			Node n = (Node) this.elements[this.table[slot] - 1];
+			if (n.getIndex() == index)
+				return n;
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	@Override
+	public Edge get(int n1, int n2) {
+		if (this.table == null) {
+			for (int i = 0; i < this.count; i++) {
+				Edge e = (Edge) this.elements[i];
+				if (e.getN1Index() == n1 && e.getN2Index() == n2)
+					return e;
+			}
+			return null;
+		}
+		int mask = this.table.length - 1;
+		int slot = spread(hash(n1, n2)) & mask;
+		while (this.table[slot] != 0) {
+			Edge e = (Edge) this.elements[this.table[slot] - 1];
+			if (e.getN1Index() == n1 && e.getN2Index() == n2)
+				return e;
+			slot = (slot + 1) & mask;
+		}
+		return null;
+	}
+
+	@Override
+	public Edge get(Edge element) {
+		return get(element.getN1Index(), element.getN2Index());
+	}
+
+	@Override
+	public IElement getRandom() {
+		if (this.count == 0)
+			return null;
+		return this.elements[Rand.rand.nextInt(this.count)];
+	}
+
+	@Override
+	public Collection<IElement> getElements() {
+		return Collections.unmodifiableList(Arrays.asList(this.elements)
+				.subList(0, this.count));
+	}
+
+	@Override
+	protected Iterator<IElement> iterator_() {
+		return new DAdaptiveListIterator();
+	}
+
+	private class DAdaptiveListIterator implements Iterator<IElement> {
+		private int pos = 0;
+
+		@Override
+		public boolean hasNext() {
+			return this.pos < count;
+		}
+
+		@Override
+		public IElement next() {
+			if (this.pos >= count) {
+				throw new NoSuchElementException();
+			}
+			return elements[this.pos++];
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("Not allowed");
+		}
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	public void prepareForGC() {
+		this.elements = null;
+		this.table = null;
+	}
+
+	/**
+	 *
+	 * @return position of the given element in the packed array, -1 if it is
+	 *         not contained
+	 */
+	private int positionOf(IElement element) {
+		if (this.table == null) {
+			for (int i = 0; i < this.count; i++) {
+				if (this.elements[i].equals(element))
+					return i;
+			}
+			return -1;
+		}
+		int mask = this.table.length - 1;
+		int slot = spread(hash(element)) & mask;
+		while (this.table[slot] != 0) {
+			if (this.elements[this.table[slot] - 1].equals(element))
+				return this.table[slot] - 1;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 *
+	 * @return slot of the hash table referencing the given position
+	 */
+	private int slotOf(int pos) {
+		int mask = this.table.length - 1;
+		int slot = spread(hash(this.elements[pos])) & mask;
+		while (this.table[slot] != pos + 1) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void insert(int pos) {
+		int mask = this.table.length - 1;
+		int slot = spread(hash(this.elements[pos])) & mask;
+		while (this.table[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		this.table[slot] = pos + 1;
+	}
+
+	/**
+	 * empties the given slot and moves subsequent entries of the same probe
+	 * sequence back so that no lookup stops early at the freed slot
+	 */
+	private void delete(int slot) {
+		int mask = this.table.length - 1;
+		int free = slot;
+		this.table[free] = 0;
+		int i = (free + 1) & mask;
+		while (this.table[i] != 0) {
+			int home = spread(hash(this.elements[this.table[i] - 1])) & mask;
+			if (((i - home) & mask) >= ((i - free) & mask)) {
+				this.table[free] = this.table[i];
+				this.table[i] = 0;
+				free = i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private void rehash(int capacity) {
+		this.table = new int[capacity];
+		for (int i = 0; i < this.count; i++) {
+			this.insert(i);
+		}
+	}
+
+	private static int hash(IElement element) {
+		if (element instanceof Node)
+			return ((Node) element).getIndex();
+		Edge e = (Edge) element;
+		return hash(e.getN1Index(), e.getN2Index());
+	}
+
+	private static int hash(int n1, int n2) {
+		return n1 * 31 + n2;
+	}
+
+	private static int spread(int h) {
+		h *= 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
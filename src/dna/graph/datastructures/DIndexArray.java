@@ -0,0 +1,204 @@
+package dna.graph.datastructures;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import dna.graph.IElement;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.Node;
+import dna.util.Rand;
+
+/**
+ * Data structure to store nodes addressed by their index. The nodes are kept
+ * in a densely packed array while a second (primitive) array maps each node
+ * index to the position of the node in the packed array. This allows for
+ * constant-time get, contains, and remove by node index as well as iteration
+ * and random selection without skipping empty slots. A removed node is
+ * replaced by the last node in the packed array.
+ *
+ * This data structure can only be used as global node list: the position
+ * array is sized by the max node index in the list, so using it as a local
+ * node list would take memory in the order of the number of nodes for each
+ * node.
+ */
+public class DIndexArray extends DataStructureReadable implements
+		INodeListDatastructureReadable {
+	private IElement[] elements;
+	private int[] positions;
+	private int count;
+	private int maxNodeIndex;
+
+	public DIndexArray(ListType lt, Class<? extends IElement> dT) {
+		super(lt, dT);
+		if (lt != ListType.GlobalNodeList) {
+			throw new RuntimeException(
+					"DIndexArray can only be used as global node list, not as "
+							+ lt);
+		}
+	}
+
+	public void init(Class<? extends IElement> dT, int initialSize,
+			boolean firstTime) {
+		this.elements = new IElement[initialSize];
+		this.positions = new int[initialSize];
+		Arrays.fill(this.positions, -1);
+		this.count = 0;
+		this.maxNodeIndex = -1;
+	}
+
+	public boolean add(IElement element) {
+		if (element instanceof Node)
+			return this.add((Node) element);
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	protected boolean add_(Node element) {
+		int index = element.getIndex();
+		if (index >= this.positions.length) {
+			int oldLength = this.positions.length;
+			this.positions = Arrays.copyOf(this.positions,
+					Math.max(index + 1, oldLength * 2));
+			Arrays.fill(this.positions, oldLength, this.positions.length, -1);
+		} else if (this.positions[index] != -1) {
+			return false;
+		}
+		if (this.count == this.elements.length) {
+			this.elements = Arrays.copyOf(this.elements,
+					Math.max(1, this.elements.length * 2));
+		}
+		this.elements[this.count] = element;
+		this.positions[index] = this.count;
+		this.count++;
+		if (index > this.maxNodeIndex) {
+			this.maxNodeIndex = index;
+		}
+		return true;
+	}
+
+	@Override
+	protected boolean add_(Edge element) {
+		throw new RuntimeException("Can't handle element of type "
+				+ element.getClass() + " here");
+	}
+
+	@Override
+	public boolean contains(IElement element) {
+		if (element instanceof Node)
+			return this.contains((Node) element);
+		return false;
+	}
+
+	@Override
+	public boolean contains(Node element) {
+		return this.position(element.getIndex()) != -1;
+	}
+
+	public boolean remove(IElement element) {
+		if (element instanceof Node)
+			return this.remove((Node) element);
+		throw new RuntimeException("Cannot remove a non-node from a node list");
+	}
+
+	@Override
+	public boolean remove(Node element) {
+		int index = element.getIndex();
+		int pos = this.position(index);
+		if (pos == -1) {
+			return false;
+		}
+
+		// move last element into the freed position
+		this.count--;
+		if (pos != this.count) {
+			Node last = (Node) this.elements[this.count];
+			this.elements[pos] = last;
+			this.positions[last.getIndex()] = pos;
+		}
+		this.elements[this.count] = null;
+		this.positions[index] = -1;
+
+		if (index == this.maxNodeIndex) {
+			int max = index - 1;
+			while (max >= 0 && this.positions[max] == -1) {
+				max--;
+			}
+			this.maxNodeIndex = max;
+		}
+		return true;
+	}
+
+	private int position(int index) {
+		if (index < 0 || index >= this.positions.length) {
+			return -1;
+		}
+		return this.positions[index];
+	}
+
+	@Override
+	public int size() {
+		return this.count;
+	}
+
+	@Override
+	public Node get(int index) {
+		int pos = this.position(index);
+		if (pos == -1) {
+			return null;
+		}
+		return (Node) this.elements[pos];
+	}
+
+	@Override
+	public int getMaxNodeIndex() {
+		return this.maxNodeIndex;
+	}
+
+	@Override
+	public IElement getRandom() {
+		if (this.count == 0)
+			return null;
+		return this.elements[Rand.rand.nextInt(this.count)];
+	}
+
+	@Override
+	public Collection<IElement> getElements() {
+		return Collections.unmodifiableList(Arrays.asList(this.elements)
+				.subList(0, this.count));
+	}
+
+	@Override
+	protected Iterator<IElement> iterator_() {
+		return new DIndexArrayIterator();
+	}
+
+	private class DIndexArrayIterator implements Iterator<IElement> {
+		private int pos = 0;
+
+		@Override
+		public boolean hasNext() {
+			return this.pos < count;
+		}
+
+		@Override
+		public IElement next() {
+			if (this.pos >= count) {
+				throw new NoSuchElementException();
+			}
+			return elements[this.pos++];
+		}
+
+		@Override
+		public void remove() {
+			throw new RuntimeException("Not allowed");
+		}
+	}
+
+	public void prepareForGC() {
+		this.elements = null;
+		this.positions = null;
+	}
+}
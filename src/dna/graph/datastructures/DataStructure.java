@@ -3,6 +3,8 @@ package dna.graph.datastructures;
 import java.util.Iterator;
 
 import dna.graph.IElement;
+import dna.graph.datastructures.count.OperationCount.Operation;
+import dna.graph.datastructures.count.OperationSampling;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
 
@@ -106,6 +108,7 @@ public abstract class DataStructure implements IDataStructure {
 		this.listType = lt;
 		dataType = dT;
 		this.init(dT, defaultSize, true);
+		OperationSampling.sample(lt, Operation.INIT);
 	}
 
 	public void reinitializeWithSize(int reinitSize) {
@@ -117,22 +120,38 @@ public abstract class DataStructure implements IDataStructure {
 
 	public final boolean add(Node n) {
 		canAdd(n);
-		if (!overrideContainsCheck && this.contains(n))
-			return false;
-		return this.add_(n);
+		boolean added = (overrideContainsCheck || !this.contains(n))
+				&& this.add_(n);
+		OperationSampling.sample(this.listType,
+				added ? Operation.ADD_SUCCESS : Operation.ADD_FAILURE);
+		return added;
 	}
 
 	protected abstract boolean add_(Node n);
 
+	public final void addUnchecked(Node n) {
+		canAdd(n);
+		this.add_(n);
+		OperationSampling.sample(this.listType, Operation.ADD_SUCCESS);
+	}
+
 	public final boolean add(Edge e) {
 		canAdd(e);
-		if (!overrideContainsCheck && this.contains(e))
-			return false;
-		return this.add_(e);
+		boolean added = (overrideContainsCheck || !this.contains(e))
+				&& this.add_(e);
+		OperationSampling.sample(this.listType,
+				added ? Operation.ADD_SUCCESS : Operation.ADD_FAILURE);
+		return added;
 	}
 
 	protected abstract boolean add_(Edge e);
 
+	public final void addUnchecked(Edge e) {
+		canAdd(e);
+		this.add_(e);
+		OperationSampling.sample(this.listType, Operation.ADD_SUCCESS);
+	}
+
 	public boolean canAdd(IElement element) {
 		if (!dataType.isInstance(element))
 			throw new RuntimeException("Datatype to be stored here: "
@@ -177,6 +196,7 @@ public abstract class DataStructure implements IDataStructure {
 	protected abstract Iterator<IElement> iterator_();
 
 	public Iterator<IElement> iterator() {
+		OperationSampling.sample(this.listType, Operation.ITERATE);
 		return this.iterator_();
 	}
 
@@ -0,0 +1,149 @@
+package dna.graph.datastructures;
+
+import dna.graph.edges.Edge;
+
+/**
+ * Index of the edges of a graph by the indexes of their nodes, independent of
+ * the data structure used for the graph's edge list (cf. GRAPH_EDGE_INDEX).
+ * The pair (n1, n2) is packed into a single long key which is stored in an
+ * open-addressing hash table with linear probing, i.e., an edge is found in
+ * constant time without creating any objects. The index does not check the
+ * edge list itself, it must be updated on every addition and removal of an
+ * edge (as done by Graph).
+ */
+public class EdgeIndex {
+
+	private long[] keys;
+
+	/** edges stored with the keys, null marks an empty slot **/
+	private Edge[] edges;
+
+	private int count;
+
+	/** 64 - log2(capacity), used to map the hashed key to a slot **/
+	private int shift;
+
+	/**
+	 *
+	 * @param expectedSize
+	 *            number of edges the index is initially sized for
+	 */
+	public EdgeIndex(int expectedSize) {
+		int capacity = 8;
+		while (capacity < 2 * (long) expectedSize && capacity < 1 << 30) {
+			capacity <<= 1;
+		}
+		this.init(capacity);
+	}
+
+	private void init(int capacity) {
+		this.keys = new long[capacity];
+		this.edges = new Edge[capacity];
+		this.count = 0;
+		this.shift = 64 - Integer.numberOfTrailingZeros(capacity);
+	}
+
+	/**
+	 *
+	 * @return false if an edge between the same nodes is already indexed
+	 */
+	public boolean add(Edge e) {
+		long key = key(e.getN1Index(), e.getN2Index());
+		int mask = this.keys.length - 1;
+		int slot = this.slot(key);
+		while (this.edges[slot] != null) {
+			if (this.keys[slot] == key)
+				return false;
+			slot = (slot + 1) & mask;
+		}
+		this.keys[slot] = key;
+		this.edges[slot] = e;
+		this.count++;
+		if (this.count * 2 > this.keys.length && this.keys.length < 1 << 30) {
+			this.rehash(this.keys.length * 2);
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @return false if no edge between the nodes of e is indexed
+	 */
+	public boolean remove(Edge e) {
+		int slot = this.find(key(e.getN1Index(), e.getN2Index()));
+		if (slot == -1) {
+			return false;
+		}
+		this.delete(slot);
+		this.count--;
+		return true;
+	}
+
+	public boolean contains(int n1, int n2) {
+		return this.find(key(n1, n2)) != -1;
+	}
+
+	/**
+	 *
+	 * @return indexed edge from n1 to n2, null if there is none
+	 */
+	public Edge get(int n1, int n2) {
+		int slot = this.find(key(n1, n2));
+		return slot == -1 ? null : this.edges[slot];
+	}
+
+	public int size() {
+		return this.count;
+	}
+
+	private int find(long key) {
+		int mask = this.keys.length - 1;
+		int slot = this.slot(key);
+		while (this.edges[slot] != null) {
+			if (this.keys[slot] == key)
+				return slot;
+			slot = (slot + 1) & mask;
+		}
+		return -1;
+	}
+
+	/**
+	 * empties the given slot and moves subsequent entries of the same probe
+	 * sequence back so that no lookup stops early at the freed slot
+	 */
+	private void delete(int slot) {
+		int mask = this.keys.length - 1;
+		int free = slot;
+		this.edges[free] = null;
+		int i = (free + 1) & mask;
+		while (this.edges[i] != null) {
+			int home = this.slot(this.keys[i]);
+			if (((i - home) & mask) >= ((i - free) & mask)) {
+				this.keys[free] = this.keys[i];
+				this.edges[free] = this.edges[i];
+				this.edges[i] = null;
+				free = i;
+			}
+			i = (i + 1) & mask;
+		}
+	}
+
+	private void rehash(int capacity) {
+		long[] keys = this.keys;
+		Edge[] edges = this.edges;
+		this.init(capacity);
+		for (int i = 0; i < keys.length; i++) {
+			if (edges[i] != null) {
+				this.add(edges[i]);
+			}
+		}
+	}
+
+	private int slot(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> this.shift);
+	}
+
+	private static long key(int n1, int n2) {
+		return ((long) n1 << 32) | (n2 & 0xffffffffL);
+	}
+}
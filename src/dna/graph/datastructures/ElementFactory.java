@@ -0,0 +1,506 @@
+package dna.graph.datastructures;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.HashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+import dna.graph.IElement;
+import dna.graph.IGraph;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.DirectedWeightedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.edges.UndirectedWeightedEdge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.DirectedWeightedNode;
+import dna.graph.nodes.Node;
+import dna.graph.nodes.UndirectedNode;
+import dna.graph.nodes.UndirectedWeightedNode;
+import dna.graph.weights.Weight;
+import dna.graph.weights.Weight.WeightSelection;
+
+/**
+ * Creates the nodes, edges, weights, and lists of a GraphDataStructure. The
+ * constructors are resolved only once per type (and per node class in case of
+ * edges) and kept as method handles, i.e., creating an element does not
+ * require any reflective lookup of its constructor.
+ *
+ * Nodes and edges are created by a creator object which is bound once per
+ * factory. For the built-in node and edge types, the creator calls the
+ * constructor directly. If a program uses a single node and edge type, the
+ * call of the creator is monomorphic and is inlined like a plain constructor
+ * call. Creators of all other types invoke the resolved method handle.
+ *
+ * The handles are resolved lazily since not every type provides all
+ * constructors (e.g., a node type without a weighted constructor). A factory
+ * can be used by multiple threads: resolving a creator twice is harmless and
+ * the per-class edge creators are kept in concurrent maps.
+ */
+public class ElementFactory {
+
+	private static final MethodHandles.Lookup lookup = MethodHandles
+			.publicLookup();
+
+	private static final MethodType listType = MethodType.methodType(
+			IDataStructure.class, ListType.class, Class.class);
+
+	private static final ConcurrentHashMap<Class<?>, MethodHandle> lists = new ConcurrentHashMap<Class<?>, MethodHandle>();
+
+	private Class<? extends Node> nodeType;
+	private Class<? extends Edge> edgeType;
+	private Class<? extends Weight> nodeWeightType;
+	private Class<? extends Weight> edgeWeightType;
+
+	private NodeCreator node;
+	private MethodHandle nodeFromString;
+	private NodeCreator weightedNode;
+
+	private MethodHandle edgeFromString;
+	private MethodHandle edgeFromStringWithNodes;
+
+	/** creators for the class of the last source node (cf. newEdge) **/
+	private EdgeCreator edge;
+	private EdgeCreator weightedEdge;
+
+	/** edge creators by class of the source / destination node **/
+	private ConcurrentHashMap<Class<?>, EdgeCreator> edges = new ConcurrentHashMap<Class<?>, EdgeCreator>();
+	private ConcurrentHashMap<Class<?>, EdgeCreator> weightedEdges = new ConcurrentHashMap<Class<?>, EdgeCreator>();
+
+	private MethodHandle nodeWeight;
+	private MethodHandle nodeWeightFromString;
+	private MethodHandle edgeWeight;
+	private MethodHandle edgeWeightFromString;
+
+	public ElementFactory(Class<? extends Node> nodeType,
+			Class<? extends Edge> edgeType,
+			Class<? extends Weight> nodeWeightType,
+			Class<? extends Weight> edgeWeightType) {
+		this.nodeType = nodeType;
+		this.edgeType = edgeType;
+		this.nodeWeightType = nodeWeightType;
+		this.edgeWeightType = edgeWeightType;
+	}
+
+	/*
+	 * NODES
+	 */
+
+	public Node newNode(int index, GraphDataStructure gds) {
+		if (this.node == null) {
+			this.node = this.resolveNode(false);
+		}
+		try {
+			return this.node.create(index, null, gds);
+		} catch (Throwable t) {
+			throw failed("node", t);
+		}
+	}
+
+	public Node newNode(String str, GraphDataStructure gds) {
+		if (this.nodeFromString == null) {
+			this.nodeFromString = resolve("node", this.nodeType, MethodType
+					.methodType(Node.class, String.class,
+							GraphDataStructure.class));
+		}
+		try {
+			return (Node) this.nodeFromString.invokeExact(str, gds);
+		} catch (Throwable t) {
+			throw failed("node", t);
+		}
+	}
+
+	public Node newWeightedNode(int index, Weight weight,
+			GraphDataStructure gds) {
+		if (this.weightedNode == null) {
+			this.weightedNode = this.resolveNode(true);
+		}
+		try {
+			return this.weightedNode.create(index, weight, gds);
+		} catch (Throwable t) {
+			throw failed("weighted node", t);
+		}
+	}
+
+	private NodeCreator resolveNode(boolean weighted) {
+		NodeCreator c = builtInNode(this.nodeType, weighted);
+		if (c != null) {
+			return c;
+		}
+		if (weighted) {
+			return new HandleNodeCreator(resolve("weighted node",
+					this.nodeType, MethodType.methodType(Node.class,
+							int.class, Weight.class, GraphDataStructure.class)),
+					true);
+		}
+		return new HandleNodeCreator(resolve("node", this.nodeType,
+				MethodType.methodType(Node.class, int.class,
+						GraphDataStructure.class)), false);
+	}
+
+	/*
+	 * EDGES
+	 */
+
+	public Edge newEdge(Node src, Node dst) {
+		EdgeCreator c = this.edge;
+		if (c == null || c.nodeClass != src.getClass()) {
+			c = this.getEdgeCreator(src.getClass(), false);
+			this.edge = c;
+		}
+		try {
+			return c.create(src, dst, null);
+		} catch (Throwable t) {
+			throw failed("edge", t);
+		}
+	}
+
+	public Edge newWeightedEdge(Node src, Node dst, Weight weight) {
+		EdgeCreator c = this.weightedEdge;
+		if (c == null || c.nodeClass != src.getClass()) {
+			c = this.getEdgeCreator(src.getClass(), true);
+			this.weightedEdge = c;
+		}
+		try {
+			return c.create(src, dst, weight);
+		} catch (Throwable t) {
+			throw failed("weighted edge", t);
+		}
+	}
+
+	public Edge newEdge(String str, IGraph graph) {
+		if (this.edgeFromString == null) {
+			this.edgeFromString = resolve("edge", this.edgeType, MethodType
+					.methodType(Edge.class, String.class, IGraph.class));
+		}
+		try {
+			return (Edge) this.edgeFromString.invokeExact(str, graph);
+		} catch (Throwable t) {
+			throw failed("edge", t);
+		}
+	}
+
+	public Edge newEdge(String str, IGraph graph,
+			HashMap<Integer, Node> addedNodes) {
+		if (this.edgeFromStringWithNodes == null) {
+			this.edgeFromStringWithNodes = resolve("edge", this.edgeType,
+					MethodType.methodType(Edge.class, String.class,
+							IGraph.class, HashMap.class));
+		}
+		try {
+			return (Edge) this.edgeFromStringWithNodes.invokeExact(str, graph,
+					addedNodes);
+		} catch (Throwable t) {
+			throw failed("edge", t);
+		}
+	}
+
+	private EdgeCreator getEdgeCreator(Class<?> nodeClass, boolean weighted) {
+		ConcurrentHashMap<Class<?>, EdgeCreator> creators = this.edges;
+		if (weighted) {
+			creators = this.weightedEdges;
+		}
+		EdgeCreator c = creators.get(nodeClass);
+		if (c == null) {
+			c = builtInEdge(this.edgeType, nodeClass, weighted);
+			if (c == null) {
+				c = new HandleEdgeCreator(nodeClass, this.resolveEdge(
+						nodeClass, weighted), weighted);
+			}
+			creators.put(nodeClass, c);
+		}
+		return c;
+	}
+
+	/**
+	 * Resolves the edge constructor for the given node class: a constructor
+	 * taking two nodes of exactly this class or, if there is none, of the
+	 * closest super class.
+	 */
+	private MethodHandle resolveEdge(Class<?> nodeClass, boolean weighted) {
+		MethodType type = weighted ? MethodType.methodType(Edge.class,
+				Node.class, Node.class, Weight.class) : MethodType.methodType(
+				Edge.class, Node.class, Node.class);
+		for (Class<?> c = nodeClass; c != null
+				&& Node.class.isAssignableFrom(c); c = c.getSuperclass()) {
+			try {
+				return lookup.findConstructor(
+						this.edgeType,
+						weighted ? MethodType.methodType(void.class, c, c,
+								Weight.class) : MethodType.methodType(
+								void.class, c, c)).asType(type);
+			} catch (NoSuchMethodException | IllegalAccessException e) {
+				continue;
+			}
+		}
+		throw new RuntimeException("No edge constructor for nodetype "
+				+ nodeClass + " in edge type " + this.edgeType + " found");
+	}
+
+	/*
+	 * WEIGHTS
+	 */
+
+	public Weight newNodeWeight(WeightSelection ws) {
+		if (this.nodeWeight == null) {
+			this.nodeWeight = resolveWeight(this.nodeWeightType,
+					WeightSelection.class);
+		}
+		try {
+			return (Weight) this.nodeWeight.invokeExact(ws);
+		} catch (Throwable t) {
+			throw failed("weight", t);
+		}
+	}
+
+	public Weight newNodeWeight(String s) {
+		if (this.nodeWeightFromString == null) {
+			this.nodeWeightFromString = resolveWeight(this.nodeWeightType,
+					String.class);
+		}
+		try {
+			return (Weight) this.nodeWeightFromString.invokeExact(s);
+		} catch (Throwable t) {
+			throw failed("weight", t);
+		}
+	}
+
+	public Weight newEdgeWeight(WeightSelection ws) {
+		if (this.edgeWeight == null) {
+			this.edgeWeight = resolveWeight(this.edgeWeightType,
+					WeightSelection.class);
+		}
+		try {
+			return (Weight) this.edgeWeight.invokeExact(ws);
+		} catch (Throwable t) {
+			throw failed("weight", t);
+		}
+	}
+
+	public Weight newEdgeWeight(String s) {
+		if (this.edgeWeightFromString == null) {
+			this.edgeWeightFromString = resolveWeight(this.edgeWeightType,
+					String.class);
+		}
+		try {
+			return (Weight) this.edgeWeightFromString.invokeExact(s);
+		} catch (Throwable t) {
+			throw failed("weight", t);
+		}
+	}
+
+	private static MethodHandle resolveWeight(
+			Class<? extends Weight> weightType, Class<?> parameter) {
+		if (weightType == null) {
+			throw new RuntimeException(
+					"Can not generate new weight instance as weightClass is NULL");
+		}
+		return resolve("weight", weightType,
+				MethodType.methodType(Weight.class, parameter));
+	}
+
+	/*
+	 * LISTS
+	 */
+
+	/**
+	 * Creates a new list of the given class. The constructor of each list
+	 * class is resolved once and shared by all factories.
+	 */
+	public static IDataStructure newList(ListType lt,
+			Class<? extends IDataStructure> sourceClass,
+			Class<? extends IElement> storedDataType) {
+		MethodHandle c = lists.get(sourceClass);
+		if (c == null) {
+			c = resolve("list", sourceClass, listType);
+			lists.put(sourceClass, c);
+		}
+		try {
+			return (IDataStructure) c.invokeExact(lt, storedDataType);
+		} catch (Throwable t) {
+			throw failed("list", t);
+		}
+	}
+
+	/*
+	 * CREATORS
+	 */
+
+	/**
+	 * Creates the nodes of a single type, unweighted creators ignore the
+	 * weight.
+	 */
+	private static abstract class NodeCreator {
+		abstract Node create(int index, Weight weight, GraphDataStructure gds)
+				throws Throwable;
+	}
+
+	/**
+	 * Creates the edges of a single type for source nodes of the given class,
+	 * unweighted creators ignore the weight.
+	 */
+	private static abstract class EdgeCreator {
+		private final Class<?> nodeClass;
+
+		EdgeCreator(Class<?> nodeClass) {
+			this.nodeClass = nodeClass;
+		}
+
+		abstract Edge create(Node src, Node dst, Weight weight)
+				throws Throwable;
+	}
+
+	private static class HandleNodeCreator extends NodeCreator {
+		private final MethodHandle c;
+		private final boolean weighted;
+
+		HandleNodeCreator(MethodHandle c, boolean weighted) {
+			this.c = c;
+			this.weighted = weighted;
+		}
+
+		Node create(int index, Weight weight, GraphDataStructure gds)
+				throws Throwable {
+			if (this.weighted) {
+				return (Node) this.c.invokeExact(index, weight, gds);
+			}
+			return (Node) this.c.invokeExact(index, gds);
+		}
+	}
+
+	private static class HandleEdgeCreator extends EdgeCreator {
+		private final MethodHandle c;
+		private final boolean weighted;
+
+		HandleEdgeCreator(Class<?> nodeClass, MethodHandle c,
+				boolean weighted) {
+			super(nodeClass);
+			this.c = c;
+			this.weighted = weighted;
+		}
+
+		Edge create(Node src, Node dst, Weight weight) throws Throwable {
+			if (this.weighted) {
+				return (Edge) this.c.invokeExact(src, dst, weight);
+			}
+			return (Edge) this.c.invokeExact(src, dst);
+		}
+	}
+
+	/**
+	 * @return creator calling the constructor of the given built-in node type
+	 *         directly, null for all other types
+	 */
+	private static NodeCreator builtInNode(Class<?> nodeType,
+			boolean weighted) {
+		if (nodeType == DirectedNode.class && !weighted) {
+			return new NodeCreator() {
+				Node create(int index, Weight weight, GraphDataStructure gds) {
+					return new DirectedNode(index, gds);
+				}
+			};
+		} else if (nodeType == UndirectedNode.class && !weighted) {
+			return new NodeCreator() {
+				Node create(int index, Weight weight, GraphDataStructure gds) {
+					return new UndirectedNode(index, gds);
+				}
+			};
+		} else if (nodeType == DirectedWeightedNode.class && !weighted) {
+			return new NodeCreator() {
+				Node create(int index, Weight weight, GraphDataStructure gds) {
+					return new DirectedWeightedNode(index, gds);
+				}
+			};
+		} else if (nodeType == DirectedWeightedNode.class) {
+			return new NodeCreator() {
+				Node create(int index, Weight weight, GraphDataStructure gds) {
+					return new DirectedWeightedNode(index, weight, gds);
+				}
+			};
+		} else if (nodeType == UndirectedWeightedNode.class && !weighted) {
+			return new NodeCreator() {
+				Node create(int index, Weight weight, GraphDataStructure gds) {
+					return new UndirectedWeightedNode(index, gds);
+				}
+			};
+		} else if (nodeType == UndirectedWeightedNode.class) {
+			return new NodeCreator() {
+				Node create(int index, Weight weight, GraphDataStructure gds) {
+					return new UndirectedWeightedNode(index, weight, gds);
+				}
+			};
+		}
+		return null;
+	}
+
+	/**
+	 * @return creator calling the constructor of the given built-in edge type
+	 *         directly, null for all other types or if the node class does
+	 *         not match the edge type
+	 */
+	private static EdgeCreator builtInEdge(Class<?> edgeType,
+			Class<?> nodeClass, boolean weighted) {
+		boolean directed = DirectedNode.class.isAssignableFrom(nodeClass);
+		boolean undirected = UndirectedNode.class.isAssignableFrom(nodeClass);
+		if (edgeType == DirectedEdge.class && directed && !weighted) {
+			return new EdgeCreator(nodeClass) {
+				Edge create(Node src, Node dst, Weight weight) {
+					return new DirectedEdge((DirectedNode) src,
+							(DirectedNode) dst);
+				}
+			};
+		} else if (edgeType == UndirectedEdge.class && undirected
+				&& !weighted) {
+			return new EdgeCreator(nodeClass) {
+				Edge create(Node src, Node dst, Weight weight) {
+					return new UndirectedEdge((UndirectedNode) src,
+							(UndirectedNode) dst);
+				}
+			};
+		} else if (edgeType == DirectedWeightedEdge.class && directed
+				&& weighted) {
+			return new EdgeCreator(nodeClass) {
+				Edge create(Node src, Node dst, Weight weight) {
+					return new DirectedWeightedEdge((DirectedNode) src,
+							(DirectedNode) dst, weight);
+				}
+			};
+		} else if (edgeType == UndirectedWeightedEdge.class && undirected
+				&& weighted) {
+			return new EdgeCreator(nodeClass) {
+				Edge create(Node src, Node dst, Weight weight) {
+					return new UndirectedWeightedEdge((UndirectedNode) src,
+							(UndirectedNode) dst, weight);
+				}
+			};
+		}
+		return null;
+	}
+
+	/*
+	 * HELPERS
+	 */
+
+	/**
+	 * Resolves the public constructor of the given class with the parameters
+	 * of the given type, adapted to return the type's return type.
+	 */
+	private static MethodHandle resolve(String element, Class<?> c,
+			MethodType type) {
+		try {
+			return lookup.findConstructor(c,
+					type.changeReturnType(void.class)).asType(type);
+		} catch (NoSuchMethodException | IllegalAccessException e) {
+			throw failed(element, e);
+		}
+	}
+
+	private static RuntimeException failed(String element, Throwable t) {
+		RuntimeException rt = new RuntimeException("Could not generate new "
+				+ element + " instance: " + t.getMessage());
+		rt.setStackTrace(t.getStackTrace());
+		return rt;
+	}
+}
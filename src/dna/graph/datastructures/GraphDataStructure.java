@@ -1,9 +1,7 @@
 package dna.graph.datastructures;
 
 import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.EnumMap;
 import java.util.HashMap;
 import java.util.Map.Entry;
@@ -21,14 +19,11 @@ import dna.graph.edges.DummyDirectedEdge;
 import dna.graph.edges.DummyUndirectedBlueprintsEdge;
 import dna.graph.edges.DummyUndirectedEdge;
 import dna.graph.edges.Edge;
-import dna.graph.edges.IEdgeDummy;
 import dna.graph.edges.UndirectedBlueprintsEdge;
 import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.DirectedBlueprintsNode;
-import dna.graph.nodes.DirectedNode;
 import dna.graph.nodes.Node;
 import dna.graph.nodes.UndirectedBlueprintsNode;
-import dna.graph.nodes.UndirectedNode;
 import dna.graph.weights.IWeighted;
 import dna.graph.weights.Weight;
 import dna.graph.weights.Weight.WeightSelection;
@@ -49,11 +44,10 @@ public class GraphDataStructure implements Cloneable {
 	private Class<? extends Weight> edgeWeightType;
 	private WeightSelection nodeWeightSelection;
 	private WeightSelection edgeWeightSelection;
-	private Constructor<?> lastWeightedEdgeConstructor = null;
-	private Constructor<?> lastEdgeConstructor = null;
+	/** created lazily, reset whenever one of the element types changes **/
+	private ElementFactory factory = null;
 
 	private IEdgeListDatastructure emptyList = new DEmpty(null);
-	private IEdgeDummy edgeDummy;
 
 	private EnumMap<ListType, Class<? extends IDataStructure>> listTypes;
 	private EnumMap<ListType, Integer> defaultListSizes;
@@ -194,6 +188,10 @@ public class GraphDataStructure implements Cloneable {
 				&& getListClass(ListType.LocalOutEdgeList, list) == DEmpty.class)
 			return false;
 
+		// DIndexArray is sized by the max node index, only a global node list
+		if (getListClass(ListType.LocalNodeList, list) == DIndexArray.class)
+			return false;
+
 		return true;
 	}
 
@@ -301,10 +299,27 @@ public class GraphDataStructure implements Cloneable {
 
 	public void setNodeType(Class<? extends Node> newNodeType) {
 		this.nodeType = newNodeType;
+		this.factory = null;
 	}
 
 	public void setEdgeType(Class<? extends Edge> edgeType) {
 		this.edgeType = edgeType;
+		this.factory = null;
+	}
+
+	/**
+	 * 
+	 * @return factory that creates the nodes, edges, and weights of the
+	 *         current types
+	 */
+	public ElementFactory getFactory() {
+		ElementFactory factory = this.factory;
+		if (factory == null) {
+			factory = new ElementFactory(this.nodeType, this.edgeType,
+					this.nodeWeightType, this.edgeWeightType);
+			this.factory = factory;
+		}
+		return factory;
 	}
 
 	public IGraph newGraphInstance(String name, long timestamp, int nodes,
@@ -371,16 +386,7 @@ public class GraphDataStructure implements Cloneable {
 	public static IDataStructure constructList(ListType lt,
 			Class<? extends IDataStructure> sourceClass,
 			Class<? extends IElement> storedDataType) {
-		IDataStructure res = null;
-		try {
-			res = sourceClass.getConstructor(ListType.class,
-					storedDataType.getClass()).newInstance(lt, storedDataType);
-		} catch (InstantiationException | IllegalAccessException
-				| IllegalArgumentException | InvocationTargetException
-				| NoSuchMethodException | SecurityException e) {
-			e.printStackTrace();
-		}
-		return res;
+		return ElementFactory.newList(lt, sourceClass, storedDataType);
 	}
 
 	public IDataStructure newList(ListType listType) {
@@ -422,46 +428,14 @@ public class GraphDataStructure implements Cloneable {
 	}
 
 	public Node newNodeInstance(int index) {
-		Constructor<? extends Node> c;
-
 		if (this.createsWeightedNodes()) {
 			return newWeightedNode(index);
 		}
-
-		try {
-			c = nodeType.getConstructor(int.class, GraphDataStructure.class);
-			return c.newInstance(index, this);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
+		return this.getFactory().newNode(index, this);
 	}
 
 	public Node newNodeInstance(String str) {
-		Constructor<? extends Node> c;
-		try {
-			c = nodeType.getConstructor(String.class, GraphDataStructure.class);
-			return c.newInstance(str, this);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new node instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
+		return this.getFactory().newNode(str, this);
 	}
 
 	public Node newWeightedNode(int index) {
@@ -470,24 +444,7 @@ public class GraphDataStructure implements Cloneable {
 	}
 
 	public Node newWeightedNode(int index, Weight weight) {
-		Constructor<? extends Node> c;
-		try {
-			c = (Constructor<? extends Node>) nodeType.getConstructor(
-					int.class, Weight.class, GraphDataStructure.class);
-			return c.newInstance(index, weight, this);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted node instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted node instance: "
-							+ e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
+		return this.getFactory().newWeightedNode(index, weight, this);
 	}
 
 	public Edge newEdgeInstance(Node src, Node dst) {
@@ -499,102 +456,16 @@ public class GraphDataStructure implements Cloneable {
 		if (this.createsWeightedEdges()) {
 			return this.newWeightedEdge(src, dst);
 		}
-
-		if (this.lastEdgeConstructor != null) {
-			// Try to use cached constructor, but throw it away if it is not the
-			// correct one
-			try {
-				return edgeType.cast(this.lastEdgeConstructor.newInstance(src,
-						dst));
-			} catch (InstantiationException | IllegalAccessException
-					| IllegalArgumentException | InvocationTargetException
-					| ClassCastException e) {
-				this.lastEdgeConstructor = null;
-			}
-		}
-
-		Constructor<?>[] cList = edgeType.getConstructors();
-		Constructor<?> cNeeded = null;
-
-		// First: search matching constructor for src.getClass and dst.getClass
-		Class<?>[] cRequired = new Class[] { src.getClass(), dst.getClass() };
-		cNeeded = getConstructor(cList, cRequired);
-
-		// Okay, check for super types if needed
-		if (cNeeded == null) {
-			Class<?> superType;
-			superType = src.getClass().getSuperclass();
-			while (cNeeded == null && Node.class.isAssignableFrom(superType)) {
-				cRequired = new Class[] { superType, superType };
-				for (Constructor<?> c : cList) {
-					if (Arrays.equals(c.getParameterTypes(), cRequired)) {
-						cNeeded = c;
-					}
-				}
-				superType = superType.getSuperclass();
-			}
-		}
-
-		if (cNeeded == null) {
-			throw new RuntimeException("No edge constructor for nodetype "
-					+ src.getClass() + " in edge type " + edgeType + " found");
-		}
-
-		try {
-			this.lastEdgeConstructor = cNeeded;
-			return edgeType.cast(cNeeded.newInstance(src, dst));
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
+		return this.getFactory().newEdge(src, dst);
 	}
 
 	public Edge newEdgeInstance(String str, IGraph graph,
 			HashMap<Integer, Node> addedNodes) {
-		Constructor<? extends Edge> c;
-		try {
-			c = edgeType.getConstructor(String.class, IGraph.class,
-					HashMap.class);
-			return c.newInstance(str, graph, addedNodes);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
+		return this.getFactory().newEdge(str, graph, addedNodes);
 	}
 
 	public Edge newEdgeInstance(String str, IGraph graph) {
-		Constructor<? extends Edge> c;
-		try {
-			c = edgeType.getConstructor(String.class, IGraph.class);
-			return c.newInstance(str, graph);
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new edge instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
+		return this.getFactory().newEdge(str, graph);
 	}
 
 	public Edge getDummyEdge(Node n1, Node n2) {
@@ -607,36 +478,33 @@ public class GraphDataStructure implements Cloneable {
 			return getDummyEdge(n1.getIndex(), n2.getIndex());
 	}
 
+	/**
+	 * creates a new dummy edge for a single lookup (e.g., Node.hasEdge). it is
+	 * not shared, i.e., the graph can be read by multiple threads
+	 * concurrently.
+	 */
 	public Edge getDummyEdge(int n1, int n2) {
-		if (edgeDummy == null) {
-			if (createsDirected()) {
-				DirectedNode node1 = new DirectedNode(1, this);
-				DirectedNode node2 = new DirectedNode(2, this);
-				edgeDummy = new DummyDirectedEdge(node1, node2);
-			} else {
-				UndirectedNode node1 = new UndirectedNode(1, this);
-				UndirectedNode node2 = new UndirectedNode(2, this);
-				edgeDummy = new DummyUndirectedEdge(node1, node2);
-			}
+		if (createsDirected()) {
+			return new DummyDirectedEdge(n1, n2);
+		} else {
+			return new DummyUndirectedEdge(n1, n2);
 		}
-		edgeDummy.setNodes(n1, n2);
-		return (Edge) edgeDummy;
 	}
 	
 	public Edge getDummyGDBEdge(int n1, int n2) {
-		if (edgeDummy == null) {
-			if (createsDirected()) {
-				DirectedBlueprintsNode node1 = new DirectedBlueprintsNode(1, this);
-				DirectedBlueprintsNode node2 = new DirectedBlueprintsNode(2, this);
-				edgeDummy = new DummyDirectedBlueprintsEdge(node1, node2);
-			} else {
-				UndirectedBlueprintsNode node1 = new UndirectedBlueprintsNode(1, this);
-				UndirectedBlueprintsNode node2 = new UndirectedBlueprintsNode(2, this);
-				edgeDummy = new DummyUndirectedBlueprintsEdge(node1, node2);
-			}
+		if (createsDirected()) {
+			DirectedBlueprintsNode node1 = new DirectedBlueprintsNode(n1,
+					this);
+			DirectedBlueprintsNode node2 = new DirectedBlueprintsNode(n2,
+					this);
+			return new DummyDirectedBlueprintsEdge(node1, node2);
+		} else {
+			UndirectedBlueprintsNode node1 = new UndirectedBlueprintsNode(n1,
+					this);
+			UndirectedBlueprintsNode node2 = new UndirectedBlueprintsNode(n2,
+					this);
+			return new DummyUndirectedBlueprintsEdge(node1, node2);
 		}
-		edgeDummy.setNodes(n1, n2);
-		return (Edge) edgeDummy;
 	}
 
 	public Constructor<?> getConstructor(Constructor<?>[] list,
@@ -669,126 +537,33 @@ public class GraphDataStructure implements Cloneable {
 					"Could not generate new edge instance for non-equal node classes "
 							+ src.getClass() + " and " + dst.getClass());
 		}
-
-		if (this.lastWeightedEdgeConstructor != null) {
-			// Try to use cached constructor, but throw it away if it is not the
-			// correct one
-			try {
-				return (Edge) edgeType.cast(this.lastWeightedEdgeConstructor
-						.newInstance(src, dst, weight));
-			} catch (InstantiationException | IllegalAccessException
-					| IllegalArgumentException | InvocationTargetException
-					| ClassCastException e) {
-				this.lastWeightedEdgeConstructor = null;
-			}
-		}
-
-		Constructor<?>[] cList = edgeType.getConstructors();
-		Constructor<?> cNeeded = null;
-
-		// First: search matching constructor for src.getClass and dst.getClass
-		Class<?>[] cRequired = new Class[] { src.getClass(), dst.getClass(),
-				Weight.class };
-		cNeeded = getConstructor(cList, cRequired);
-
-		// Okay, check for super types if needed
-		if (cNeeded == null) {
-			Class<?> superType;
-			superType = src.getClass().getSuperclass();
-			while (cNeeded == null && Node.class.isAssignableFrom(superType)) {
-				cRequired = new Class[] { superType, superType, Weight.class };
-				cNeeded = getConstructor(cList, cRequired);
-				superType = superType.getSuperclass();
-			}
-		}
-
-		if (cNeeded == null) {
-			throw new RuntimeException("No edge constructor for nodetype "
-					+ src.getClass() + " in edge type " + edgeType + " found");
-		}
-
-		try {
-			this.lastWeightedEdgeConstructor = cNeeded;
-			return (Edge) edgeType.cast(cNeeded.newInstance(src, dst, weight));
-		} catch (InvocationTargetException ite) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted edge instance: "
-							+ ite.getTargetException().getMessage());
-			rt.setStackTrace(ite.getTargetException().getStackTrace());
-			throw rt;
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weighted edge instance: "
-							+ e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
-	}
-
-	private Weight newWeight(Class<? extends Weight> weightClass,
-			WeightSelection ws) {
-		Constructor<?> c;
-		Weight w = null;
-
-		if (weightClass == null) {
-			throw new RuntimeException(
-					"Can not generate new weight instance as weightClass is NULL");
-		}
-
-		try {
-			c = weightClass.getConstructor(WeightSelection.class);
-			w = (Weight) c.newInstance(ws);
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weight instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
-		}
-		return w;
+		return this.getFactory().newWeightedEdge(src, dst, weight);
 	}
 
-	private Weight newWeight(Class<? extends Weight> weightClass, String s) {
-		Constructor<?> c;
-		Weight w = null;
-
-		if (weightClass == null) {
-			throw new RuntimeException(
-					"Can not generate new weight instance as weightClass is NULL");
-		}
-
-		/**
-		 * Legacy parsing of "old" weights
-		 */
+	/**
+	 * Legacy parsing of "old" weights
+	 */
+	private static String stripLegacyPrefix(String s) {
 		if (s.startsWith("(W)")) {
-			s = s.substring(4);
-		}
-
-		try {
-			c = weightClass.getConstructor(String.class);
-			w = (Weight) c.newInstance(s);
-		} catch (Exception e) {
-			RuntimeException rt = new RuntimeException(
-					"Could not generate new weight instance: " + e.getMessage());
-			rt.setStackTrace(e.getStackTrace());
-			throw rt;
+			return s.substring(4);
 		}
-		return w;
+		return s;
 	}
 
 	public Weight newNodeWeight(WeightSelection ws) {
-		return newWeight(nodeWeightType, ws);
+		return this.getFactory().newNodeWeight(ws);
 	}
 
 	public Weight newEdgeWeight(WeightSelection ws) {
-		return newWeight(edgeWeightType, ws);
+		return this.getFactory().newEdgeWeight(ws);
 	}
 
 	public Weight newNodeWeight(String s) {
-		return newWeight(nodeWeightType, s);
+		return this.getFactory().newNodeWeight(stripLegacyPrefix(s));
 	}
 
 	public Weight newEdgeWeight(String s) {
-		return newWeight(edgeWeightType, s);
+		return this.getFactory().newEdgeWeight(stripLegacyPrefix(s));
 	}
 
 	public boolean createsWeightedNodes() {
@@ -903,39 +678,82 @@ public class GraphDataStructure implements Cloneable {
 	 * @param g
 	 */
 	public void switchDatastructures(GraphDataStructure newGDS, IGraph g) {
+		if (!this.isSwitchable()) {
+			return;
+		}
+
+		for (ListType lt : ListType.values()) {
+			if (this.getListClass(lt) != newGDS.getListClass(lt)) {
+				g.switchDataStructure(lt, newGDS.getListClass(lt));
+			}
+		}
+
+		System.gc();
+
+		for (ListType lt : ListType.values()) {
+			this.listTypes.put(lt, newGDS.getListClass(lt));
+		}
+	}
+
+	/**
+	 * Switch only the global lists of graph g to the data structures of
+	 * newGDS and adopt all list types of newGDS, i.e., nodes created from now
+	 * on already use the new local lists. The local lists of the existing
+	 * nodes are NOT switched and must be switched by the caller, e.g., node
+	 * by node as done by the hotswap migration.
+	 * 
+	 * @param newGDS
+	 * @param g
+	 * @return local list types whose data structure changes, null in case
+	 *         switching is rejected
+	 */
+	public ListType[] switchGlobalDatastructures(GraphDataStructure newGDS,
+			IGraph g) {
+		if (!this.isSwitchable()) {
+			return null;
+		}
+
+		ArrayList<ListType> local = new ArrayList<ListType>();
+		for (ListType lt : ListType.values()) {
+			if (this.getListClass(lt) == newGDS.getListClass(lt)) {
+				continue;
+			}
+			if (lt == ListType.GlobalEdgeList || lt == ListType.GlobalNodeList) {
+				g.switchDataStructure(lt, newGDS.getListClass(lt));
+			} else {
+				local.add(lt);
+			}
+		}
+
+		for (ListType lt : ListType.values()) {
+			this.listTypes.put(lt, newGDS.getListClass(lt));
+		}
+		return local.toArray(new ListType[local.size()]);
+	}
+
+	private boolean isSwitchable() {
 		if (!this.isReadable(getListClass(ListType.GlobalEdgeList))) {
 			System.err
 					.println("Reject switching data structures, as graph edge list of type "
 							+ this.getListClass(ListType.GlobalEdgeList)
 							+ " cannot be converted");
-			return;
+			return false;
 		}
 		if (!this.isReadable(getListClass(ListType.LocalEdgeList))) {
 			System.err
 					.println("Reject switching data structures, as node edge list of type "
 							+ this.getListClass(ListType.LocalEdgeList)
 							+ " cannot be converted");
-			return;
+			return false;
 		}
 		if (!this.isReadable(getListClass(ListType.GlobalNodeList))) {
 			System.err
 					.println("Reject switching data structures, as node list of type "
 							+ this.getListClass(ListType.GlobalNodeList)
 							+ " cannot be converted");
-			return;
-		}
-
-		for (ListType lt : ListType.values()) {
-			if (this.getListClass(lt) != newGDS.getListClass(lt)) {
-				g.switchDataStructure(lt, newGDS.getListClass(lt));
-			}
-		}
-
-		System.gc();
-
-		for (ListType lt : ListType.values()) {
-			this.listTypes.put(lt, newGDS.getListClass(lt));
+			return false;
 		}
+		return true;
 	}
 
 	// private ComparableEntry getCostData(Class<? extends IDataStructure> ds,
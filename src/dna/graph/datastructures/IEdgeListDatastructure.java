@@ -11,6 +11,14 @@ public interface IEdgeListDatastructure extends IDataStructure {
 	 */
 	public boolean add(Edge element);
 
+	/**
+	 * Add an edge to this data structure without checking whether it is
+	 * already contained, the caller must ensure that it is not
+	 * 
+	 * @param element
+	 */
+	public void addUnchecked(Edge element);
+
 	/**
 	 * Check whether an edge is contained in this data structure
 	 * 
@@ -11,6 +11,14 @@ public interface INodeListDatastructure extends IDataStructure {
 	 */
 	public boolean add(Node element);
 
+	/**
+	 * Add a node to this data structure without checking whether it is
+	 * already contained, the caller must ensure that it is not
+	 * 
+	 * @param element
+	 */
+	public void addUnchecked(Node element);
+
 	/**
 	 * Check whether a node is contained in this data structure
 	 * 
@@ -0,0 +1,348 @@
+package dna.graph.datastructures.cost;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import dna.graph.IElement;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GDS;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.datastructures.IDataStructure;
+import dna.graph.datastructures.IEdgeListDatastructureReadable;
+import dna.graph.datastructures.INodeListDatastructureReadable;
+import dna.graph.datastructures.IReadable;
+import dna.graph.datastructures.count.OperationCount.Operation;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.util.Config;
+import dna.util.Log;
+
+/**
+ *
+ * measures the cost functions of data structures on the current machine. in
+ * contrast to RuntimeMeasurement, no files are written or read and the
+ * measurements are meant to be short enough to be executed at startup (cf.
+ * Hotswap.initRecommendation).
+ *
+ * for each list size, the lists are filled and all operations are executed
+ * (about) operations many times in several rounds. the cost of an operation
+ * is the median of its average runtime per round in nanoseconds, which masks
+ * rounds disturbed by garbage collection or compilation. additions and
+ * removals are executed in steps of at most 10% of the list size so that the
+ * size stays close to the measured one. small lists are measured on several
+ * lists at once so that each measured interval contains enough operations to
+ * be timed reliably.
+ *
+ */
+public class CostCalibration {
+
+	/** minimum number of operations per measured time interval **/
+	private static final int minOperations = 100;
+
+	/** minimum number of rounds (measurements per operation) **/
+	private static final int minRounds = 5;
+
+	private static long sink = 0;
+
+	/**
+	 *
+	 * calibrates the cost functions using the list sizes and number of
+	 * operations specified by HOTSWAP_CALIBRATION_SIZES and
+	 * HOTSWAP_CALIBRATION_OPERATIONS
+	 *
+	 * @param dataStructures
+	 *            data structures to calibrate
+	 * @return cost functions of the given data structures
+	 */
+	public static CostFunctionsSMap calibrate(
+			Class<? extends IDataStructure>[] dataStructures) {
+		String[] temp = Config.get("HOTSWAP_CALIBRATION_SIZES").split(",");
+		int[] sizes = new int[temp.length];
+		for (int i = 0; i < temp.length; i++) {
+			sizes[i] = Integer.parseInt(temp[i].trim());
+		}
+		return calibrate(dataStructures, sizes,
+				Config.getInt("HOTSWAP_CALIBRATION_OPERATIONS"));
+	}
+
+	public static CostFunctionsSMap calibrate(
+			Class<? extends IDataStructure>[] dataStructures, int[] sizes,
+			int operations) {
+		CostFunctionsSMap map = new CostFunctionsSMap();
+		for (Class<? extends IDataStructure> ds : dataStructures) {
+			map.add(calibrate(ds, sizes, operations));
+		}
+		return map;
+	}
+
+	/**
+	 *
+	 * as CostFunctionsS, we do not distinguish between directed and
+	 * undirected elements: nodes are measured using DirectedNode and edges
+	 * using DirectedEdge.
+	 *
+	 * @return cost functions of ds for nodes and edges
+	 */
+	public static CostFunctionsS calibrate(
+			Class<? extends IDataStructure> ds, int[] sizes, int operations) {
+		return new CostFunctionsS(ds, calibrate(ds, DirectedNode.class,
+				sizes, operations), calibrate(ds, DirectedEdge.class, sizes,
+				operations));
+	}
+
+	public static CostFunctions calibrate(Class<? extends IDataStructure> ds,
+			Class<? extends IElement> dt, int[] sizes, int operations) {
+		IElement[] pool = getElements(dt, 2 * max(sizes) + 1);
+		Random rand = new Random(0);
+		double[][] costs = new double[Operation.values().length][sizes.length];
+		try {
+			// warmup, results are discarded
+			measure(ds, dt, pool, sizes[0], operations, rand);
+			for (int i = 0; i < sizes.length; i++) {
+				double[] c = measure(ds, dt, pool, sizes[i], operations, rand);
+				for (Operation o : Operation.values()) {
+					costs[o.ordinal()][i] = c[o.ordinal()];
+				}
+			}
+		} catch (RuntimeException e) {
+			Log.warn("cannot calibrate " + ds.getSimpleName() + " for "
+					+ dt.getSimpleName() + ": " + e);
+			for (double[] c : costs) {
+				Arrays.fill(c, Integer.MAX_VALUE);
+			}
+		}
+
+		CostFunctions c = new CostFunctions(ds, dt);
+		c.INIT = f(sizes, costs, Operation.INIT);
+		c.ADD_SUCCESS = f(sizes, costs, Operation.ADD_SUCCESS);
+		c.ADD_FAILURE = f(sizes, costs, Operation.ADD_FAILURE);
+		c.RANDOM_ELEMENT = f(sizes, costs, Operation.RANDOM_ELEMENT);
+		c.SIZE = f(sizes, costs, Operation.SIZE);
+		c.ITERATE = f(sizes, costs, Operation.ITERATE);
+		c.CONTAINS_SUCCESS = f(sizes, costs, Operation.CONTAINS_SUCCESS);
+		c.CONTAINS_FAILURE = f(sizes, costs, Operation.CONTAINS_FAILURE);
+		c.GET_SUCCESS = f(sizes, costs, Operation.GET_SUCCESS);
+		c.GET_FAILURE = f(sizes, costs, Operation.GET_FAILURE);
+		c.REMOVE_SUCCESS = f(sizes, costs, Operation.REMOVE_SUCCESS);
+		c.REMOVE_FAILURE = f(sizes, costs, Operation.REMOVE_FAILURE);
+		return c;
+	}
+
+	private static CostFunction f(int[] sizes, double[][] costs, Operation o) {
+		return new CostFunctionMeasured(sizes, costs[o.ordinal()]);
+	}
+
+	private static int max(int[] values) {
+		int max = values[0];
+		for (int v : values) {
+			max = Math.max(max, v);
+		}
+		return max;
+	}
+
+	private static IElement[] getElements(Class<? extends IElement> dt,
+			int count) {
+		GraphDataStructure gds = GDS.directed();
+		Node[] nodes = new Node[count + 1];
+		for (int i = 0; i < nodes.length; i++) {
+			nodes[i] = gds.newNodeInstance(i);
+		}
+		if (Node.class.isAssignableFrom(dt)) {
+			return Arrays.copyOf(nodes, count, IElement[].class);
+		}
+		IElement[] edges = new IElement[count];
+		for (int i = 0; i < count; i++) {
+			edges[i] = gds.newEdgeInstance(nodes[i], nodes[i + 1]);
+		}
+		return edges;
+	}
+
+	/**
+	 *
+	 * @return average runtime (in nanoseconds) of each operation on lists of
+	 *         the given size
+	 */
+	private static double[] measure(Class<? extends IDataStructure> ds,
+			Class<? extends IElement> dt, IElement[] pool, int size,
+			int operations, Random rand) {
+		ListType lt = Node.class.isAssignableFrom(dt) ? ListType.GlobalNodeList
+				: ListType.GlobalEdgeList;
+		int step = Math.max(1, Math.min(size / 10, minOperations));
+		IDataStructure[] lists = new IDataStructure[Math.max(1, minOperations
+				/ step)];
+		int rounds = Math.max(minRounds, operations / (step * lists.length));
+		double[][] costs = new double[Operation.values().length][rounds];
+		for (double[] c : costs) {
+			Arrays.fill(c, Double.NaN);
+		}
+
+		// elements[0, size) are contained in the lists
+		IElement[] elements = pool.clone();
+		IElement[] present = new IElement[step];
+		IElement[] absent = new IElement[step];
+
+		for (int r = 0; r < rounds; r++) {
+			long start = System.nanoTime();
+			for (int l = 0; l < lists.length; l++) {
+				lists[l] = GraphDataStructure.constructList(lt, ds, dt);
+				lists[l].reinitializeWithSize(size);
+			}
+			record(costs, Operation.INIT, r, start, lists.length);
+		}
+		for (IDataStructure list : lists) {
+			for (int i = 0; i < size; i++) {
+				list.add(elements[i]);
+			}
+		}
+
+		for (int r = 0; r < rounds; r++) {
+			long start = System.nanoTime();
+			for (IDataStructure list : lists) {
+				for (int i = size; i < size + step; i++) {
+					list.add(elements[i]);
+				}
+			}
+			record(costs, Operation.ADD_SUCCESS, r, start, step
+					* lists.length);
+
+			// move the elements to remove to [size, size + step)
+			for (int i = 0; i < step; i++) {
+				swap(elements, rand.nextInt(size + step - i), size + step - 1
+						- i);
+			}
+			start = System.nanoTime();
+			for (IDataStructure list : lists) {
+				for (int i = size; i < size + step; i++) {
+					list.remove(elements[i]);
+				}
+			}
+			record(costs, Operation.REMOVE_SUCCESS, r, start, step
+					* lists.length);
+
+			for (int i = 0; i < step; i++) {
+				present[i] = elements[rand.nextInt(size)];
+				absent[i] = elements[size
+						+ rand.nextInt(elements.length - size)];
+			}
+			measure(lists, present, absent, costs, r);
+		}
+
+		double[] medians = new double[costs.length];
+		for (int i = 0; i < costs.length; i++) {
+			Arrays.sort(costs[i]);
+			medians[i] = Double.isNaN(costs[i][0]) ? Integer.MAX_VALUE
+					: costs[i][rounds / 2];
+		}
+		return medians;
+	}
+
+	/**
+	 * measures all operations that do not change the lists
+	 */
+	private static void measure(IDataStructure[] lists, IElement[] present,
+			IElement[] absent, double[][] costs, int round) {
+		int ops = present.length * lists.length;
+		long s = 0;
+
+		long start = System.nanoTime();
+		for (IDataStructure list : lists) {
+			for (IElement e : present) {
+				s += list.add(e) ? 1 : 0;
+			}
+		}
+		record(costs, Operation.ADD_FAILURE, round, start, ops);
+
+		start = System.nanoTime();
+		for (IDataStructure list : lists) {
+			for (IElement e : present) {
+				s += list.contains(e) ? 1 : 0;
+			}
+		}
+		record(costs, Operation.CONTAINS_SUCCESS, round, start, ops);
+
+		start = System.nanoTime();
+		for (IDataStructure list : lists) {
+			for (IElement e : absent) {
+				s += list.contains(e) ? 1 : 0;
+			}
+		}
+		record(costs, Operation.CONTAINS_FAILURE, round, start, ops);
+
+		start = System.nanoTime();
+		for (IDataStructure list : lists) {
+			for (IElement e : absent) {
+				s += list.remove(e) ? 1 : 0;
+			}
+		}
+		record(costs, Operation.REMOVE_FAILURE, round, start, ops);
+
+		start = System.nanoTime();
+		for (IDataStructure list : lists) {
+			for (int i = 0; i < present.length; i++) {
+				s += list.size();
+			}
+		}
+		record(costs, Operation.SIZE, round, start, ops);
+
+		start = System.nanoTime();
+		for (IDataStructure list : lists) {
+			for (IElement e : list) {
+				s += e == null ? 0 : 1;
+			}
+		}
+		record(costs, Operation.ITERATE, round, start, lists.length);
+
+		if (lists[0] instanceof IReadable) {
+			start = System.nanoTime();
+			for (IDataStructure list : lists) {
+				for (int i = 0; i < present.length; i++) {
+					s += ((IReadable) list).getRandom() == null ? 0 : 1;
+				}
+			}
+			record(costs, Operation.RANDOM_ELEMENT, round, start, ops);
+
+			start = System.nanoTime();
+			for (IDataStructure list : lists) {
+				for (IElement e : present) {
+					s += get(list, e) == null ? 0 : 1;
+				}
+			}
+			record(costs, Operation.GET_SUCCESS, round, start, ops);
+
+			start = System.nanoTime();
+			for (IDataStructure list : lists) {
+				for (IElement e : absent) {
+					s += get(list, e) == null ? 0 : 1;
+				}
+			}
+			record(costs, Operation.GET_FAILURE, round, start, ops);
+		}
+		sink += s;
+	}
+
+	private static IElement get(IDataStructure list, IElement e) {
+		if (e instanceof Node) {
+			return ((INodeListDatastructureReadable) list).get(((Node) e)
+					.getIndex());
+		}
+		Edge edge = (Edge) e;
+		return ((IEdgeListDatastructureReadable) list).get(
+				edge.getN1Index(), edge.getN2Index());
+	}
+
+	/**
+	 * records the average runtime of ops operations started at start
+	 */
+	private static void record(double[][] costs, Operation o, int round,
+			long start, int ops) {
+		costs[o.ordinal()][round] = (double) (System.nanoTime() - start) / ops;
+	}
+
+	private static void swap(IElement[] elements, int i, int j) {
+		IElement temp = elements[i];
+		elements[i] = elements[j];
+		elements[j] = temp;
+	}
+}
@@ -0,0 +1,55 @@
+package dna.graph.datastructures.cost;
+
+/**
+ *
+ * cost function based on runtimes measured for a few list sizes on the
+ * current machine (cf. CostCalibration). between two measured sizes, the cost
+ * is interpolated linearly. below the smallest size, the cost of the smallest
+ * size is assumed. beyond the largest size, the growth between the two
+ * largest sizes is extrapolated.
+ *
+ */
+public class CostFunctionMeasured extends CostFunction {
+	private int[] sizes;
+	private double[] costs;
+
+	/**
+	 *
+	 * @param sizes
+	 *            list sizes (in ascending order)
+	 * @param costs
+	 *            measured cost of the operation for each list size
+	 */
+	public CostFunctionMeasured(int[] sizes, double[] costs) {
+		if (sizes.length == 0 || sizes.length != costs.length) {
+			throw new IllegalArgumentException("expected one cost per size ("
+					+ sizes.length + " sizes / " + costs.length + " costs)");
+		}
+		this.sizes = sizes;
+		this.costs = costs;
+	}
+
+	@Override
+	public double getCost(int size) {
+		if (size <= this.sizes[0] || this.sizes.length == 1) {
+			return this.costs[0];
+		}
+		int i = 1;
+		while (i < this.sizes.length - 1 && size > this.sizes[i]) {
+			i++;
+		}
+		double slope = (this.costs[i] - this.costs[i - 1])
+				/ (this.sizes[i] - this.sizes[i - 1]);
+		return Math.max(0, this.costs[i - 1] + slope
+				* (size - this.sizes[i - 1]));
+	}
+
+	public String toString() {
+		StringBuffer buff = new StringBuffer();
+		for (int i = 0; i < this.sizes.length; i++) {
+			buff.append((i == 0 ? "" : ", ") + this.sizes[i] + ": "
+					+ this.costs[i]);
+		}
+		return buff.toString();
+	}
+}
@@ -38,7 +38,7 @@ public class CostFunctions {
 	 * @param ds
 	 *            datastructure
 	 */
-	private CostFunctions(Class<? extends IDataStructure> ds,
+	protected CostFunctions(Class<? extends IDataStructure> ds,
 			Class<? extends IElement> dt) {
 		this.ds = ds;
 		this.dt = dt;
@@ -0,0 +1,172 @@
+package dna.graph.datastructures.cost;
+
+import java.lang.reflect.Constructor;
+
+import dna.graph.datastructures.DArrayList;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GDS;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
+import dna.util.Timer;
+
+/**
+ *
+ * compares the creation of nodes, edges, and lists via reflection (looking up
+ * the constructor for each element, as GraphDataStructure used to do) with the
+ * creation via the cached constructors of GraphDataStructure (cf.
+ * ElementFactory) and a plain constructor call.
+ *
+ * for each kind of element, count many elements are created in each of the
+ * given number of rounds. the first round is a warmup, the durations of the
+ * remaining rounds are averaged and printed as nanoseconds per element.
+ *
+ */
+public class ElementCreationBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length != 2) {
+			System.err.println("2 arguments required");
+			System.err.println("  0 - number of elements created per round");
+			System.err.println("  1 - rounds (the first one is a warmup)");
+			return;
+		}
+		int count = Integer.parseInt(args[0]);
+		int rounds = Integer.parseInt(args[1]);
+		ElementCreationBenchmark b = new ElementCreationBenchmark(
+				GDS.directed(), count);
+
+		System.out.println("element\treflection\tfactory\tconstructor");
+		for (Kind kind : Kind.values()) {
+			System.out.println(kind + "\t"
+					+ b.measure(kind, Path.REFLECTION, rounds) + "\t"
+					+ b.measure(kind, Path.FACTORY, rounds) + "\t"
+					+ b.measure(kind, Path.CONSTRUCTOR, rounds));
+		}
+	}
+
+	public static enum Kind {
+		NODE, EDGE, LIST
+	}
+
+	public static enum Path {
+		REFLECTION, FACTORY, CONSTRUCTOR
+	}
+
+	private GraphDataStructure gds;
+
+	private int count;
+
+	private Node[] nodes;
+
+	/** keeps the created elements so they are not optimized away **/
+	private Object[] created;
+
+	/**
+	 *
+	 * @param gds
+	 *            directed gds (the plain constructor calls create DirectedNode
+	 *            and DirectedEdge instances)
+	 * @param count
+	 *            number of elements created per round
+	 */
+	public ElementCreationBenchmark(GraphDataStructure gds, int count) {
+		this.gds = gds;
+		this.count = count;
+		this.created = new Object[count];
+		this.nodes = new Node[count + 1];
+		for (int i = 0; i < this.nodes.length; i++) {
+			this.nodes[i] = gds.newNodeInstance(i);
+		}
+	}
+
+	/**
+	 *
+	 * @return average duration (in nanoseconds) to create a single element of
+	 *         the given kind via the given path
+	 */
+	public double measure(Kind kind, Path path, int rounds) throws Exception {
+		long duration = 0;
+		for (int r = 0; r < rounds; r++) {
+			Timer t = new Timer();
+			this.create(kind, path);
+			t.end();
+			if (r > 0 || rounds == 1) {
+				duration += t.getDutation();
+			}
+		}
+		return (double) duration / Math.max(1, rounds - 1) / this.count;
+	}
+
+	/**
+	 * each combination of kind and path has its own loop so that the call
+	 * sites of one path are not profiled with the types of the others.
+	 */
+	private void create(Kind kind, Path path) throws Exception {
+		Class<? extends Node> nodeType = this.gds.getNodeType();
+		Class<? extends Edge> edgeType = this.gds.getEdgeType();
+		switch (kind) {
+		case NODE:
+			if (path == Path.REFLECTION) {
+				for (int i = 0; i < this.count; i++) {
+					Constructor<? extends Node> c = nodeType.getConstructor(
+							int.class, GraphDataStructure.class);
+					this.created[i] = c.newInstance(i, this.gds);
+				}
+			} else if (path == Path.FACTORY) {
+				for (int i = 0; i < this.count; i++) {
+					this.created[i] = this.gds.newNodeInstance(i);
+				}
+			} else {
+				for (int i = 0; i < this.count; i++) {
+					this.created[i] = new DirectedNode(i, this.gds);
+				}
+			}
+			break;
+		case EDGE:
+			if (path == Path.REFLECTION) {
+				for (int i = 0; i < this.count; i++) {
+					Node src = this.nodes[i];
+					Node dst = this.nodes[i + 1];
+					Constructor<? extends Edge> c = edgeType.getConstructor(
+							src.getClass(), dst.getClass());
+					this.created[i] = c.newInstance(src, dst);
+				}
+			} else if (path == Path.FACTORY) {
+				for (int i = 0; i < this.count; i++) {
+					this.created[i] = this.gds.newEdgeInstance(this.nodes[i],
+							this.nodes[i + 1]);
+				}
+			} else {
+				for (int i = 0; i < this.count; i++) {
+					this.created[i] = new DirectedEdge(
+							(DirectedNode) this.nodes[i],
+							(DirectedNode) this.nodes[i + 1]);
+				}
+			}
+			break;
+		case LIST:
+			if (path == Path.REFLECTION) {
+				for (int i = 0; i < this.count; i++) {
+					this.created[i] = DArrayList.class.getConstructor(
+							ListType.class, Class.class).newInstance(
+							ListType.GlobalNodeList, Node.class);
+				}
+			} else if (path == Path.FACTORY) {
+				for (int i = 0; i < this.count; i++) {
+					this.created[i] = GraphDataStructure.constructList(
+							ListType.GlobalNodeList, DArrayList.class,
+							Node.class);
+				}
+			} else {
+				for (int i = 0; i < this.count; i++) {
+					this.created[i] = new DArrayList(ListType.GlobalNodeList,
+							Node.class);
+				}
+			}
+			break;
+		}
+	}
+}
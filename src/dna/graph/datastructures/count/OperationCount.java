@@ -61,6 +61,56 @@ public class OperationCount {
 	public int GET_SUCCESS = 0;
 	public int GET_FAILURE = 0;
 
+	/**
+	 *
+	 * @param o
+	 *            operation
+	 * @param count
+	 *            number of executions of o to add to its count
+	 */
+	public void add(Operation o, int count) {
+		switch (o) {
+		case INIT:
+			this.INIT += count;
+			break;
+		case ADD_SUCCESS:
+			this.ADD_SUCCESS += count;
+			break;
+		case ADD_FAILURE:
+			this.ADD_FAILURE += count;
+			break;
+		case RANDOM_ELEMENT:
+			this.RANDOM_ELEMENT += count;
+			break;
+		case SIZE:
+			this.SIZE += count;
+			break;
+		case ITERATE:
+			this.ITERATE += count;
+			break;
+		case CONTAINS_SUCCESS:
+			this.CONTAINS_SUCCESS += count;
+			break;
+		case CONTAINS_FAILURE:
+			this.CONTAINS_FAILURE += count;
+			break;
+		case GET_SUCCESS:
+			this.GET_SUCCESS += count;
+			break;
+		case GET_FAILURE:
+			this.GET_FAILURE += count;
+			break;
+		case REMOVE_SUCCESS:
+			this.REMOVE_SUCCESS += count;
+			break;
+		case REMOVE_FAILURE:
+			this.REMOVE_FAILURE += count;
+			break;
+		default:
+			break;
+		}
+	}
+
 	public String toString() {
 		StringBuffer buff = new StringBuffer();
 		buff.append("count for " + listCount + " x " + listSize + " lists ("
@@ -0,0 +1,291 @@
+package dna.graph.datastructures.count;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.ListIterator;
+
+import dna.graph.IGraph;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.count.OperationCount.AggregationType;
+import dna.graph.datastructures.count.OperationCount.Operation;
+import dna.graph.edges.DirectedEdge;
+import dna.util.Config;
+
+/**
+ *
+ * low-overhead alternative to the operation counting performed by the
+ * CountingAspects / CountingOperationsAspects. instead of intercepting every
+ * operation on a data structure, only about every OPERATION_SAMPLING_RATE-th
+ * operation is recorded. the gaps between two recorded operations are drawn
+ * at random (uniformly from 1 to 2 * rate - 1) so that periodic access
+ * patterns (e.g., contains followed by add) cannot alias with the sampling.
+ *
+ * the samples are recorded in counters local to the executing thread, i.e.,
+ * operations executed concurrently (e.g., by parallel metrics) are counted
+ * without any synchronization. the counts are combined (and scaled by the
+ * sampling rate) when a round is ended, which must happen while no other
+ * thread is executing operations (e.g., between two batches). the counters of
+ * terminated threads are then merged and discarded. only the last
+ * OPERATION_SAMPLING_ROUNDS rounds are kept.
+ *
+ * the operations are reported by the data structures (INIT, ADD, ITERATE) and
+ * by the graph and nodes for all other operations on their lists.
+ *
+ */
+public class OperationSampling {
+
+	public static final int rate = Math.max(1,
+			Config.getInt("OPERATION_SAMPLING_RATE"));
+
+	private static final int operations = Operation.values().length;
+
+	private static final int counters = ListType.values().length * operations;
+
+	/** maximum number of rounds kept **/
+	public static final int maxRounds = Math.max(1,
+			Config.getInt("OPERATION_SAMPLING_ROUNDS"));
+
+	protected static boolean enabled = false;
+
+	public static void enable() {
+		enabled = true;
+	}
+
+	public static void disable() {
+		enabled = false;
+	}
+
+	public static boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 *
+	 * counters of a single thread, only written by this thread
+	 *
+	 */
+	private static class Sampler {
+		private long[] counts = new long[counters];
+
+		private int skip;
+
+		private int seed;
+
+		private Thread thread;
+
+		private Sampler(Thread thread, int seed) {
+			this.thread = thread;
+			this.seed = seed == 0 ? 1 : seed;
+			this.skip = this.nextSkip();
+		}
+
+		private int nextSkip() {
+			// xorshift, cheaper than a (thread-local) Random
+			this.seed ^= this.seed << 13;
+			this.seed ^= this.seed >>> 17;
+			this.seed ^= this.seed << 5;
+			return 1 + (this.seed & 0x7fffffff) % (2 * rate - 1);
+		}
+	}
+
+	private static final ArrayList<Sampler> samplers = new ArrayList<Sampler>();
+
+	private static final ThreadLocal<Sampler> sampler = new ThreadLocal<Sampler>() {
+		@Override
+		protected Sampler initialValue() {
+			Thread t = Thread.currentThread();
+			Sampler s = new Sampler(t, System.identityHashCode(t)
+					^ (int) System.nanoTime());
+			synchronized (samplers) {
+				samplers.add(s);
+			}
+			return s;
+		}
+	};
+
+	/**
+	 *
+	 * records the execution of operation o on a list of type lt (if it is
+	 * selected as a sample)
+	 *
+	 * @param lt
+	 *            list type
+	 * @param o
+	 *            executed operation
+	 */
+	public static void sample(ListType lt, Operation o) {
+		if (!enabled) {
+			return;
+		}
+		Sampler s = sampler.get();
+		if (--s.skip > 0) {
+			return;
+		}
+		s.skip = s.nextSkip();
+		s.counts[lt.ordinal() * operations + o.ordinal()]++;
+	}
+
+	public static boolean contains(ListType lt, boolean contained) {
+		sample(lt, contained ? Operation.CONTAINS_SUCCESS
+				: Operation.CONTAINS_FAILURE);
+		return contained;
+	}
+
+	public static <T> T get(ListType lt, T element) {
+		sample(lt, element != null ? Operation.GET_SUCCESS
+				: Operation.GET_FAILURE);
+		return element;
+	}
+
+	public static <T> T getRandom(ListType lt, T element) {
+		sample(lt, Operation.RANDOM_ELEMENT);
+		return element;
+	}
+
+	public static boolean remove(ListType lt, boolean removed) {
+		sample(lt, removed ? Operation.REMOVE_SUCCESS
+				: Operation.REMOVE_FAILURE);
+		return removed;
+	}
+
+	public static int size(ListType lt, int size) {
+		sample(lt, Operation.SIZE);
+		return size;
+	}
+
+	/*
+	 * ROUNDS
+	 */
+
+	/** totals of all threads at the end of the last round **/
+	private static long[] last = new long[counters];
+
+	/** counts of the samplers of terminated threads **/
+	private static long[] terminated = new long[counters];
+
+	private static LinkedList<OperationCounts> rounds = new LinkedList<OperationCounts>();
+
+	private static long[] totals() {
+		synchronized (samplers) {
+			Iterator<Sampler> iter = samplers.iterator();
+			while (iter.hasNext()) {
+				Sampler s = iter.next();
+				if (!s.thread.isAlive()) {
+					for (int i = 0; i < counters; i++) {
+						terminated[i] += s.counts[i];
+					}
+					iter.remove();
+				}
+			}
+			long[] totals = terminated.clone();
+			for (Sampler s : samplers) {
+				for (int i = 0; i < counters; i++) {
+					totals[i] += s.counts[i];
+				}
+			}
+			return totals;
+		}
+	}
+
+	/**
+	 * discards all rounds as well as the operations sampled since the end of
+	 * the last round, e.g., at the beginning of a new run
+	 */
+	public static void reset() {
+		last = totals();
+		rounds = new LinkedList<OperationCounts>();
+	}
+
+	/**
+	 *
+	 * ends the current round, i.e., estimates the operation counts from the
+	 * operations sampled since the end of the last round and records them
+	 * together with the list sizes of the given graph. the oldest round is
+	 * discarded in case more than maxRounds rounds are recorded.
+	 *
+	 * @param g
+	 *            graph the operations have been executed on
+	 * @return estimated operation counts of the ended round
+	 */
+	public static OperationCounts endRound(IGraph g) {
+		long[] totals = totals();
+		OperationCounts ocs = g.getGraphDatastructures().isEdgeType(
+				DirectedEdge.class) ? new OperationCountsDirected()
+				: new OperationCountsUndirected();
+		for (ListType lt : ListType.values()) {
+			OperationCount oc = getOperationCount(ocs, lt);
+			if (oc == null) {
+				continue;
+			}
+			for (Operation o : Operation.values()) {
+				int index = lt.ordinal() * operations + o.ordinal();
+				oc.add(o, (int) Math.min(Integer.MAX_VALUE,
+						(totals[index] - last[index]) * rate));
+			}
+		}
+		ocs.setSizes(g);
+		last = totals;
+		rounds.add(ocs);
+		if (rounds.size() > maxRounds) {
+			rounds.removeFirst();
+		}
+		return ocs;
+	}
+
+	private static OperationCount getOperationCount(OperationCounts ocs,
+			ListType lt) {
+		if (lt == ListType.GlobalNodeList) {
+			return ocs.V;
+		} else if (lt == ListType.GlobalEdgeList) {
+			return ocs.E;
+		} else if (ocs instanceof OperationCountsUndirected) {
+			OperationCountsUndirected u = (OperationCountsUndirected) ocs;
+			return lt == ListType.LocalEdgeList ? u.adj : null;
+		}
+		OperationCountsDirected d = (OperationCountsDirected) ocs;
+		switch (lt) {
+		case LocalInEdgeList:
+			return d.in;
+		case LocalOutEdgeList:
+			return d.out;
+		case LocalNodeList:
+			return d.neighbors;
+		default:
+			return null;
+		}
+	}
+
+	/**
+	 *
+	 * @return number of rounds ended since the last reset (at most
+	 *         maxRounds)
+	 */
+	public static int getRounds() {
+		return rounds.size();
+	}
+
+	/**
+	 *
+	 * @param rounds
+	 *            number of rounds to combine
+	 * @param at
+	 *            aggregation type used for the list sizes
+	 * @return sum of the operation counts of the last rounds
+	 */
+	public static OperationCounts addLastRounds(int rounds,
+			AggregationType at) {
+		if (OperationSampling.rounds.size() < rounds) {
+			throw new IllegalArgumentException("cannot get last " + rounds
+					+ " rounds from only " + OperationSampling.rounds.size()
+					+ " rounds in list");
+		}
+		OperationCounts[] last = new OperationCounts[rounds];
+		ListIterator<OperationCounts> li = OperationSampling.rounds
+				.listIterator(OperationSampling.rounds.size());
+		for (int i = rounds - 1; i >= 0; i--) {
+			last[i] = li.previous();
+		}
+		return last[0].add(at, last);
+	}
+}
@@ -9,20 +9,25 @@ import dna.graph.datastructures.DHashMap;
 import dna.graph.datastructures.DHashSet;
 import dna.graph.datastructures.DHashTable;
 import dna.graph.datastructures.DataStructure;
+import dna.graph.datastructures.DataStructure.ListType;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
 import dna.graph.datastructures.config.DSConfig;
 import dna.graph.datastructures.config.DSConfigDirected;
 import dna.graph.datastructures.config.DSConfigUndirected;
+import dna.graph.datastructures.cost.CostCalibration;
 import dna.graph.datastructures.cost.CostEstimation;
 import dna.graph.datastructures.cost.CostFunctionsS;
 import dna.graph.datastructures.cost.CostFunctionsSMap;
 import dna.graph.datastructures.count.Counting;
 import dna.graph.datastructures.count.OperationCount.AggregationType;
 import dna.graph.datastructures.count.OperationCounts;
+import dna.graph.datastructures.count.OperationSampling;
 import dna.graph.datastructures.recommendation.Recommendation;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.nodes.DirectedNode;
+import dna.util.Config;
+import dna.util.Log;
 
 public class Hotswap {
 
@@ -48,41 +53,84 @@ public class Hotswap {
 
 	public static Recommendation r = null;
 
+	/**
+	 * number of nodes whose local lists are switched after each batch
+	 * (HOTSWAP_MIGRATION_CHUNK_SIZE), 0 to switch all lists at once
+	 */
+	public static int migrationChunkSize = Config
+			.getInt("HOTSWAP_MIGRATION_CHUNK_SIZE");
+
+	/** incremental switch of the local lists that is in progress **/
+	protected static Migration migration = null;
+
+	/** data structures considered for recommendations **/
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public static final Class<? extends IDataStructure>[] dataStructures = new Class[] {
+			DArray.class, DArrayList.class, DHashSet.class, DHashMap.class,
+			DHashTable.class };
+
+	/**
+	 * initializes the recommendation with cost functions that are either
+	 * measured on the current machine (HOTSWAP_CALIBRATION) or read from the
+	 * fitted functions. this is done once when hotswapping is enabled, the
+	 * operations executed by the calibration are neither counted nor sampled.
+	 */
 	public static void initRecommendation() {
 		if (r != null) {
 			return;
 		}
+		if (Config.getBoolean("HOTSWAP_CALIBRATION")) {
+			pauseCounting();
+			try {
+				r = new Recommendation(
+						CostCalibration.calibrate(dataStructures));
+			} finally {
+				resumeCounting();
+			}
+			return;
+		}
 		final String measurements = "measurements_thinner/";
 		CostFunctionsSMap map = new CostFunctionsSMap();
 		try {
-			map.add(CostFunctionsS.read(measurements, DArray.class,
-					DirectedNode.class, DirectedEdge.class));
-			map.add(CostFunctionsS.read(measurements, DArrayList.class,
-					DirectedNode.class, DirectedEdge.class));
-			map.add(CostFunctionsS.read(measurements, DHashSet.class,
-					DirectedNode.class, DirectedEdge.class));
-			map.add(CostFunctionsS.read(measurements, DHashMap.class,
-					DirectedNode.class, DirectedEdge.class));
-			map.add(CostFunctionsS.read(measurements, DHashTable.class,
-					DirectedNode.class, DirectedEdge.class));
+			for (Class<? extends IDataStructure> ds : dataStructures) {
+				map.add(CostFunctionsS.read(measurements, ds,
+						DirectedNode.class, DirectedEdge.class));
+			}
 		} catch (NumberFormatException | IOException e) {
 			e.printStackTrace();
 		}
 		r = new Recommendation(map);
 	}
 
+	/**
+	 * 
+	 * @return number of batches for which operation counts are available,
+	 *         sampled ones if OperationSampling is enabled
+	 */
+	public static int getRounds() {
+		if (OperationSampling.isEnabled())
+			return OperationSampling.getRounds();
+		return Counting.batchApplication == null ? 0
+				: Counting.batchApplication.size();
+	}
+
 	public static OperationCounts getCurrentOperationCounts() {
-		if (batches > Counting.batchApplication.size())
+		if (batches > getRounds())
 			return null;
+		if (OperationSampling.isEnabled())
+			return OperationSampling.addLastRounds(batches,
+					AggregationType.LAST);
 		return Counting.addLastRounds(batches, AggregationType.LAST);
 	}
 
 	public static DSConfig recommendConfig(OperationCounts ocs,
 			GraphDataStructure currentGds) {
-		if (Counting.batchApplication.size() < batches)
+		if (ocs == null || getRounds() < batches)
 			return null;
-		if (r == null)
-			initRecommendation();
+		if (r == null) {
+			Log.warn("no recommendation initialized (Hotswap.enable)");
+			return null;
+		}
 		DSConfig current = DSConfig.convert(currentGds);
 		return r.recommendFastestConfig(ocs, batches, amortization, current);
 	}
@@ -100,11 +148,22 @@ public class Hotswap {
 		System.out.println("     " + current);
 		System.out.println("  => " + cfg);
 
-		Counting.disable();
-		DataStructure.disableContainsOnAddition();
-		g.getGraphDatastructures().switchDatastructures(cfg.getGDS(), g);
-		DataStructure.enableContainsOnAddition();
-		Counting.enable();
+		pause();
+		GraphDataStructure gds = g.getGraphDatastructures();
+		if (migration != null) {
+			// the new migration only covers the lists changed by this swap
+			migration.finish();
+			migration = null;
+		}
+		if (migrationChunkSize > 0) {
+			ListType[] local = gds.switchGlobalDatastructures(cfg.getGDS(), g);
+			if (local != null && local.length > 0) {
+				migration = new Migration(g, local);
+			}
+		} else {
+			gds.switchDatastructures(cfg.getGDS(), g);
+		}
+		resume();
 
 		// if (current instanceof DSConfigDirected) {
 		// execute(g, (DSConfigDirected) current, (DSConfigDirected) cfg);
@@ -115,6 +174,88 @@ public class Hotswap {
 		return true;
 	}
 
+	/**
+	 * 
+	 * recommends a configuration based on the sampled operation counts of the
+	 * last batches and swaps to it if it differs from the current one. this
+	 * replaces HotswapAspects in case the operations are sampled
+	 * (OperationSampling) instead of counted by the counting aspects.
+	 * 
+	 * @param g
+	 *            graph to swap the data structures of
+	 * @return true if the data structures have been swapped
+	 */
+	public static boolean swap(IGraph g) {
+		OperationCounts ocs = getCurrentOperationCounts();
+		DSConfig cfg = recommendConfig(ocs, g.getGraphDatastructures());
+		DSConfig current = DSConfig.convert(g.getGraphDatastructures());
+		return cfg != null && !current.equals(cfg)
+				&& execute(g, ocs, current, cfg);
+	}
+
+	/**
+	 * 
+	 * continues the incremental switch of the local lists started by the
+	 * last swap (in case migrationChunkSize > 0) by switching the lists of the
+	 * next migrationChunkSize nodes. a migration of another graph (e.g., from
+	 * a previous run) is discarded.
+	 * 
+	 * @param g
+	 *            current graph
+	 * @return number of nodes that remain to be switched
+	 */
+	public static int migrate(IGraph g) {
+		if (migration == null) {
+			return 0;
+		}
+		if (migration.getGraph() != g) {
+			migration = null;
+			return 0;
+		}
+		pause();
+		int remaining = migration.step(migrationChunkSize);
+		resume();
+		if (remaining == 0) {
+			migration = null;
+		}
+		return remaining;
+	}
+
+	private static boolean counting;
+	private static boolean sampling;
+
+	/**
+	 * disables the counting of operations and contains checks while lists
+	 * are switched
+	 */
+	private static void pause() {
+		pauseCounting();
+		DataStructure.disableContainsOnAddition();
+	}
+
+	private static void resume() {
+		DataStructure.enableContainsOnAddition();
+		resumeCounting();
+	}
+
+	/**
+	 * disables the counting and sampling of operations, e.g., while the cost
+	 * functions are calibrated
+	 */
+	private static void pauseCounting() {
+		counting = Counting.isEnabled();
+		sampling = OperationSampling.isEnabled();
+		Counting.disable();
+		OperationSampling.disable();
+	}
+
+	private static void resumeCounting() {
+		if (counting)
+			Counting.enable();
+		if (sampling)
+			OperationSampling.enable();
+	}
+
 	public static void testDynamic(int batches, int amortization,
 			DSConfig current) {
 		OperationCounts ocs = Counting.addLastRounds(batches,
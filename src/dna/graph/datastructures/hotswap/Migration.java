@@ -0,0 +1,94 @@
+package dna.graph.datastructures.hotswap;
+
+import dna.graph.IElement;
+import dna.graph.IGraph;
+import dna.graph.datastructures.DataStructure.ListType;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.nodes.Node;
+
+/**
+ *
+ * incremental switch of the local lists of all nodes of a graph to the data
+ * structures of its graph data structure (cf. Hotswap.migrate). the nodes are
+ * switched in chunks, e.g., one chunk between two batches, instead of all at
+ * once.
+ *
+ * since the lists of a single node are always switched together, every node
+ * is either completely migrated or not at all, i.e., the graph can be read
+ * and modified as usual during the migration. nodes added during the
+ * migration already use the new data structures. nodes removed during the
+ * migration are still switched but are not referenced afterwards.
+ *
+ */
+public class Migration {
+
+	private IGraph g;
+
+	private ListType[] listTypes;
+
+	/** nodes of the graph when the migration started **/
+	private Node[] nodes;
+
+	/** index of the next node to switch **/
+	private int next;
+
+	/**
+	 *
+	 * @param g
+	 *            graph whose global lists and graph data structure have
+	 *            already been switched (cf.
+	 *            GraphDataStructure.switchGlobalDatastructures)
+	 * @param listTypes
+	 *            local list types to switch
+	 */
+	public Migration(IGraph g, ListType[] listTypes) {
+		this.g = g;
+		this.listTypes = listTypes;
+		this.nodes = new Node[g.getNodeCount()];
+		int i = 0;
+		for (IElement n : g.getNodes()) {
+			this.nodes[i++] = (Node) n;
+		}
+		this.next = 0;
+	}
+
+	public IGraph getGraph() {
+		return this.g;
+	}
+
+	/**
+	 *
+	 * switches the local lists of the next nodes
+	 *
+	 * @param count
+	 *            maximum number of nodes to switch
+	 * @return number of nodes that remain to be switched
+	 */
+	public int step(int count) {
+		GraphDataStructure gds = this.g.getGraphDatastructures();
+		int end = (int) Math.min(this.nodes.length, (long) this.next + count);
+		for (; this.next < end; this.next++) {
+			for (ListType lt : this.listTypes) {
+				this.nodes[this.next].switchDataStructure(lt,
+						gds.newList(lt, gds.getListClass(lt)));
+			}
+			this.nodes[this.next] = null;
+		}
+		return this.getRemaining();
+	}
+
+	/**
+	 * switches the local lists of all remaining nodes
+	 */
+	public void finish() {
+		this.step(Integer.MAX_VALUE);
+	}
+
+	public int getRemaining() {
+		return this.nodes.length - this.next;
+	}
+
+	public boolean isFinished() {
+		return this.next >= this.nodes.length;
+	}
+}
@@ -1,5 +1,6 @@
 package dna.graph.edges;
 
+import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.nodes.DirectedNode;
 
 public class DummyDirectedEdge extends DirectedEdge implements IEdgeDummy {
@@ -8,8 +9,26 @@ public class DummyDirectedEdge extends DirectedEdge implements IEdgeDummy {
 		super(src, dst);
 	}
 
+	/**
+	 * creates a dummy edge for a single lookup, its nodes only carry the
+	 * given indexes and have no lists
+	 */
+	public DummyDirectedEdge(int src, int dst) {
+		super(new Key(src), new Key(dst));
+	}
+
 	public void setNodes(int n1, int n2) {
 		this.n1.setIndex(n1);
 		this.n2.setIndex(n2);
 	}
+
+	private static class Key extends DirectedNode {
+		public Key(int index) {
+			super(index, null);
+		}
+
+		@Override
+		public void init(GraphDataStructure gds) {
+		}
+	}
 }
@@ -1,5 +1,6 @@
 package dna.graph.edges;
 
+import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.nodes.UndirectedNode;
 
 public class DummyUndirectedEdge extends UndirectedEdge implements IEdgeDummy {
@@ -8,8 +9,26 @@ public class DummyUndirectedEdge extends UndirectedEdge implements IEdgeDummy {
 		super(src, dst);
 	}
 
+	/**
+	 * creates a dummy edge for a single lookup, its nodes only carry the
+	 * given indexes and have no lists
+	 */
+	public DummyUndirectedEdge(int n1, int n2) {
+		super(new Key(n1), new Key(n2));
+	}
+
 	public void setNodes(int n1, int n2) {
 		this.n1.setIndex(Math.min(n1, n2));
 		this.n2.setIndex(Math.max(n1, n2));
 	}
+
+	private static class Key extends UndirectedNode {
+		public Key(int index) {
+			super(index, null);
+		}
+
+		@Override
+		public void init(GraphDataStructure gds) {
+		}
+	}
 }
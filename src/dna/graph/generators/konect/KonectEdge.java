@@ -1,5 +1,9 @@
 package dna.graph.generators.konect;
 
+import java.io.IOException;
+
+import dna.io.ByteTokenizer;
+
 public class KonectEdge implements Comparable<KonectEdge> {
 
 	public static final String separator = "\\s+";
@@ -31,6 +35,14 @@ public class KonectEdge implements Comparable<KonectEdge> {
 		this.timestamp = Long.parseLong(temp[3]);
 	}
 
+	public KonectEdge(ByteTokenizer tokenizer, double offset, double factor)
+			throws IOException {
+		this.n1 = tokenizer.nextInt();
+		this.n2 = tokenizer.nextInt();
+		this.weight = (tokenizer.nextDouble() + offset) * factor;
+		this.timestamp = tokenizer.nextLong();
+	}
+
 	@Override
 	public int compareTo(KonectEdge o) {
 		long temp = this.timestamp - o.timestamp;
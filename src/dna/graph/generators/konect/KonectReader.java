@@ -7,7 +7,8 @@ import java.util.HashMap;
 
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.nodes.Node;
-import dna.io.Reader;
+import dna.io.ByteTokenizer;
+import dna.util.Config;
 
 public class KonectReader {
 
@@ -27,7 +28,7 @@ public class KonectReader {
 	public String filename;
 	public String name;
 
-	protected Reader reader;
+	protected ByteTokenizer tokenizer;
 
 	public GraphDataStructure gds;
 
@@ -55,7 +56,8 @@ public class KonectReader {
 		this.dir = dir;
 		this.filename = filename;
 		this.name = name;
-		this.reader = new Reader(dir, filename);
+		this.tokenizer = new ByteTokenizer(dir, filename, KonectEdge.separator,
+				Config.get("COMMENT_PREFIX"));
 		this.gds = gds;
 		this.edgeType = edgeType;
 		this.edgeParameter = edgeParameter;
@@ -104,9 +106,8 @@ public class KonectReader {
 	public KonectEdge peekNew() {
 		if (this.peek == null) {
 			try {
-				String line = this.reader.readString();
-				if (line != null) {
-					KonectEdge edge = new KonectEdge(line, offset, factor);
+				KonectEdge edge = this.nextEdge();
+				if (edge != null) {
 					if (this.revert != null) {
 						KonectEdge reversion = new KonectEdge(edge.n1, edge.n2,
 								-1, edge.timestamp + durability);
@@ -140,9 +141,8 @@ public class KonectReader {
 	public KonectEdge readEdgeNew() {
 		if (this.peek == null) {
 			try {
-				String line = this.reader.readString();
-				if (line != null) {
-					KonectEdge edge = new KonectEdge(line, offset, factor);
+				KonectEdge edge = this.nextEdge();
+				if (edge != null) {
 					if (this.revert != null) {
 						KonectEdge reversion = new KonectEdge(edge.n1, edge.n2,
 								-1, edge.timestamp + durability);
@@ -194,11 +194,10 @@ public class KonectReader {
 			this.peek = null;
 			return temp;
 		}
-		String line = this.reader.readString();
-		if (line == null) {
+		KonectEdge edge = this.nextEdge();
+		if (edge == null) {
 			return null;
 		} else {
-			KonectEdge edge = new KonectEdge(line, offset, factor);
 			if (this.revert != null) {
 				KonectEdge reversion = new KonectEdge(edge.n1, edge.n2, -1,
 						edge.timestamp);
@@ -208,6 +207,18 @@ public class KonectReader {
 		}
 	}
 
+	/**
+	 *
+	 * @return next edge read from the file, null if its end has been reached
+	 * @throws IOException
+	 */
+	protected KonectEdge nextEdge() throws IOException {
+		if (!this.tokenizer.nextLine()) {
+			return null;
+		}
+		return new KonectEdge(this.tokenizer, this.offset, this.factor);
+	}
+
 	protected int index;
 	protected HashMap<Integer, Node> nodes = new HashMap<Integer, Node>();
 
@@ -221,6 +232,6 @@ public class KonectReader {
 	}
 
 	public void close() throws IOException {
-		this.reader.close();
+		this.tokenizer.close();
 	}
 }
@@ -5,7 +5,7 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 
-import dna.io.Reader;
+import dna.io.ByteTokenizer;
 import dna.util.Log;
 import dna.util.Timer;
 
@@ -111,13 +111,13 @@ public class TimestampedReader {
 		Timer t = new Timer("");
 		this.edges = new ArrayList<TimestampedEdge>();
 		this.currentIndex = 0;
-		Reader reader = new Reader(this.dir, this.filename, commentPrefix, true);
+		ByteTokenizer tokenizer = new ByteTokenizer(this.dir, this.filename,
+				this.separator, this.commentPrefix);
 		this.ids = new HashMap<String, Integer>();
-		String line = null;
-		while ((line = reader.readString()) != null) {
-			this.edges.add(this.getEdge(line));
+		while (tokenizer.nextLine()) {
+			this.edges.add(this.getEdge(tokenizer));
 		}
-		reader.close();
+		tokenizer.close();
 		Log.debug("reading konect file: " + t.end());
 		t = new Timer("");
 		Collections.sort(this.edges);
@@ -204,18 +204,19 @@ public class TimestampedReader {
 		return this.edges.get(this.edges.size() - 1).getTimestamp();
 	}
 
-	private TimestampedEdge getEdge(String line) {
-		String[] temp = line.split(separator);
-		int from = this.getIndex(temp[0]);
-		int to = this.getIndex(temp[1]);
-		long timestamp = Long.parseLong(temp[2]);
+	private TimestampedEdge getEdge(ByteTokenizer tokenizer)
+			throws IOException {
+		int from = this.getIndex(tokenizer);
+		int to = this.getIndex(tokenizer);
+		long timestamp = tokenizer.nextLong();
 		return new TimestampedEdge(from, to, timestamp);
 	}
 
-	private int getIndex(String original) {
+	private int getIndex(ByteTokenizer tokenizer) throws IOException {
 		if (!this.remapIndex) {
-			return Integer.parseInt(original);
+			return tokenizer.nextInt();
 		}
+		String original = tokenizer.nextToken();
 		if (this.ids.containsKey(original)) {
 			return this.ids.get(original);
 		} else {
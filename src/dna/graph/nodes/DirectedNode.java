@@ -10,6 +10,7 @@ import dna.graph.datastructures.IEdgeListDatastructure;
 import dna.graph.datastructures.IEdgeListDatastructureReadable;
 import dna.graph.datastructures.INodeListDatastructure;
 import dna.graph.datastructures.INodeListDatastructureReadable;
+import dna.graph.datastructures.count.OperationSampling;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.Edge;
 
@@ -44,8 +45,12 @@ public class DirectedNode extends Node {
 		if (!(eIn instanceof DirectedEdge))
 			return false;
 		DirectedEdge e = (DirectedEdge) eIn;
-		return e.getSrcIndex() == this.index && this.out.contains(e)
-				|| e.getDstIndex() == this.index && this.in.contains(e);
+		return e.getSrcIndex() == this.index
+				&& OperationSampling.contains(ListType.LocalOutEdgeList,
+						this.out.contains(e))
+				|| e.getDstIndex() == this.index
+				&& OperationSampling.contains(ListType.LocalInEdgeList,
+						this.in.contains(e));
 	}
 
 	@Override
@@ -54,15 +59,23 @@ public class DirectedNode extends Node {
 			return false;
 		DirectedEdge e = (DirectedEdge) eIn;
 		if (e.getSrc().getIndex() == this.index) {
-			boolean success = !this.out.contains(e) && this.out.add(e);
-			if (success && this.in.contains(e.invert())) {
+			boolean success = !OperationSampling.contains(
+					ListType.LocalOutEdgeList, this.out.contains(e))
+					&& this.out.add(e);
+			if (success
+					&& OperationSampling.contains(ListType.LocalInEdgeList,
+							this.in.contains(e.invert()))) {
 				success &= this.neighbors.add(e.getDst());
 			}
 			return success;
 		}
 		if (e.getDst().getIndex() == this.index) {
-			boolean success = !this.in.contains(e) && this.in.add(e);
-			if (success && this.out.contains(e.invert())) {
+			boolean success = !OperationSampling.contains(
+					ListType.LocalInEdgeList, this.in.contains(e))
+					&& this.in.add(e);
+			if (success
+					&& OperationSampling.contains(ListType.LocalOutEdgeList,
+							this.out.contains(e.invert()))) {
 				success &= this.neighbors.add(e.getSrc());
 			}
 			return success;
@@ -70,18 +83,46 @@ public class DirectedNode extends Node {
 		return false;
 	}
 
+	/**
+	 * adds the given edge to the in- or outgoing edges of this node without
+	 * checking whether it is already contained, e.g., when a graph is loaded
+	 * in bulk (cf. GraphSnapshot). in contrast to addEdge, the caller must
+	 * ensure that each edge is added only once and add the neighbors of this
+	 * node (cf. addNeighborUnchecked).
+	 */
+	public void addEdgeUnchecked(DirectedEdge e) {
+		if (e.getSrcIndex() == this.index) {
+			this.out.addUnchecked(e);
+		} else if (e.getDstIndex() == this.index) {
+			this.in.addUnchecked(e);
+		}
+	}
+
+	/**
+	 * adds the given node to the neighbors of this node without checking
+	 * whether it is already contained (cf. addEdgeUnchecked), i.e., the edges
+	 * in both directions between both nodes must exist.
+	 */
+	public void addNeighborUnchecked(DirectedNode n) {
+		this.neighbors.addUnchecked(n);
+	}
+
 	@Override
 	public boolean removeEdge(Edge eIn) {
 		if (!(eIn instanceof DirectedEdge))
 			return false;
 		DirectedEdge e = (DirectedEdge) eIn;
 		if (e.getSrc().getIndex() == this.index) {
-			this.neighbors.remove(e.getDst());
-			return this.out.remove(e);
+			OperationSampling.remove(ListType.LocalNodeList,
+					this.neighbors.remove(e.getDst()));
+			return OperationSampling.remove(ListType.LocalOutEdgeList,
+					this.out.remove(e));
 		}
 		if (e.getDst().getIndex() == this.index) {
-			this.neighbors.remove(e.getSrc());
-			return this.in.remove(e);
+			OperationSampling.remove(ListType.LocalNodeList,
+					this.neighbors.remove(e.getSrc()));
+			return OperationSampling.remove(ListType.LocalInEdgeList,
+					this.in.remove(e));
 		}
 		return false;
 	}
@@ -104,11 +145,13 @@ public class DirectedNode extends Node {
 	}
 
 	public int getNeighborCount() {
-		return this.neighbors.size();
+		return OperationSampling.size(ListType.LocalNodeList,
+				this.neighbors.size());
 	}
 
 	public boolean hasNeighbor(DirectedNode n) {
-		return this.neighbors.contains(n);
+		return OperationSampling.contains(ListType.LocalNodeList,
+				this.neighbors.contains(n));
 	}
 
 	@Override
@@ -117,11 +160,13 @@ public class DirectedNode extends Node {
 	}
 
 	public int getInDegree() {
-		return this.in.size();
+		return OperationSampling.size(ListType.LocalInEdgeList,
+				this.in.size());
 	}
 
 	public int getOutDegree() {
-		return this.out.size();
+		return OperationSampling.size(ListType.LocalOutEdgeList,
+				this.out.size());
 	}
 
 	public void print() {
@@ -155,10 +200,12 @@ public class DirectedNode extends Node {
 		case LocalInEdgeList:
 			this.in = (IEdgeListDatastructure) ((IEdgeListDatastructureReadable) this.in)
 					.switchTo(newDatastructure);
+			this.all = Iterables.unmodifiableIterable(Iterables.concat(in, out));
 			break;
 		case LocalOutEdgeList:
 			this.out = (IEdgeListDatastructure) ((IEdgeListDatastructureReadable) this.out)
 					.switchTo(newDatastructure);
+			this.all = Iterables.unmodifiableIterable(Iterables.concat(in, out));
 			break;
 		default:
 			break;
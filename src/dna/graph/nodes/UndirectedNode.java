@@ -6,7 +6,9 @@ import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.datastructures.IDataStructure;
 import dna.graph.datastructures.IEdgeListDatastructure;
 import dna.graph.datastructures.IEdgeListDatastructureReadable;
+import dna.graph.datastructures.count.OperationSampling;
 import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
 
 public class UndirectedNode extends Node {
 	private IEdgeListDatastructure edges;
@@ -26,7 +28,8 @@ public class UndirectedNode extends Node {
 
 	@Override
 	public int getDegree() {
-		return this.edges.size();
+		return OperationSampling.size(ListType.LocalEdgeList,
+				this.edges.size());
 	}
 
 	public void print() {
@@ -36,17 +39,31 @@ public class UndirectedNode extends Node {
 
 	@Override
 	public boolean hasEdge(Edge e) {
-		return this.edges.contains(e);
+		return OperationSampling.contains(ListType.LocalEdgeList,
+				this.edges.contains(e));
 	}
 
 	@Override
 	public boolean addEdge(Edge e) {
-		return !this.edges.contains(e) && this.edges.add(e);
+		return !OperationSampling.contains(ListType.LocalEdgeList,
+				this.edges.contains(e))
+				&& this.edges.add(e);
+	}
+
+	/**
+	 * adds the given edge to the edges of this node without checking whether
+	 * it is already contained, e.g., when a graph is loaded in bulk (cf.
+	 * GraphSnapshot). in contrast to addEdge, the caller must ensure that each
+	 * edge is added only once.
+	 */
+	public void addEdgeUnchecked(UndirectedEdge e) {
+		this.edges.addUnchecked(e);
 	}
 
 	@Override
 	public boolean removeEdge(Edge e) {
-		return this.edges.remove(e);
+		return OperationSampling.remove(ListType.LocalEdgeList,
+				this.edges.remove(e));
 	}
 
 	@Override
@@ -0,0 +1,571 @@
+package dna.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.regex.Pattern;
+
+/**
+ * Reads a text file line by line and token by token directly from its bytes.
+ * The file is memory-mapped in windows of up to 256 MB which are copied into
+ * a small reusable byte array in chunks of 64 KB. Integers and doubles are
+ * parsed from the bytes of their tokens without creating any Strings.
+ *
+ * Typical usage for a file with two integers per line:
+ *
+ * while (tokenizer.nextLine()) { int n1 = tokenizer.nextInt(); int n2 =
+ * tokenizer.nextInt(); }
+ *
+ * nextLine() skips the remainder of the current line as well as empty lines
+ * and lines starting with the comment prefix. Tokens are separated by the
+ * given separator, a regular expression as for String.split. In case the
+ * separator is null or only consists of whitespace (as well as for the
+ * regular expressions "\\s+" and "\\s"), tokens are separated by any
+ * sequence of spaces and tabs. A separator that only matches a literal string
+ * (e.g., "," or "\\t") is matched directly in the bytes of the file. For all
+ * other separators (e.g., "[,;]"), the remainder of each line is read as a
+ * String and split by the regular expression.
+ */
+public class ByteTokenizer {
+
+	private static final int WindowSize = 1 << 28;
+
+	private static final int ChunkSize = 1 << 16;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/** exactly representable powers of ten **/
+	private static final double[] PowersOfTen = { 1e0, 1e1, 1e2, 1e3, 1e4,
+			1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15, 1e16,
+			1e17, 1e18, 1e19, 1e20, 1e21, 1e22 };
+
+	private RandomAccessFile file;
+
+	private FileChannel channel;
+
+	/** currently mapped window of the file **/
+	private ByteBuffer window;
+
+	/** position of the current window in the file **/
+	private long windowStart;
+
+	/** bytes copied from the window, the next byte is chunk[position] **/
+	private byte[] chunk;
+
+	private int position;
+
+	private int limit;
+
+	private byte[] separator;
+
+	/** separator that is not a literal, null otherwise **/
+	private Pattern pattern;
+
+	/** tokens of the current line split by the pattern, null if not split **/
+	private String[] tokens;
+
+	private int nextToken;
+
+	private byte[] commentPrefix;
+
+	/** true, if the tokenizer is positioned at the beginning of a line **/
+	private boolean lineStart;
+
+	/** number of line breaks read so far **/
+	private int lineBreaks;
+
+	private byte[] token;
+
+	private int tokenLength;
+
+	public ByteTokenizer(String dir, String filename)
+			throws FileNotFoundException {
+		this(dir, filename, null, null);
+	}
+
+	/**
+	 *
+	 * @param dir
+	 *            directory of the file
+	 * @param filename
+	 *            name of the file
+	 * @param separator
+	 *            separator between the tokens of a line as a regular
+	 *            expression (null for whitespace)
+	 * @param commentPrefix
+	 *            prefix of lines that are skipped (null to skip no lines)
+	 * @throws FileNotFoundException
+	 */
+	public ByteTokenizer(String dir, String filename, String separator,
+			String commentPrefix) throws FileNotFoundException {
+		this.file = new RandomAccessFile(dir + filename, "r");
+		this.channel = this.file.getChannel();
+		this.window = ByteBuffer.allocate(0);
+		this.windowStart = 0;
+		this.chunk = new byte[ChunkSize];
+		this.position = 0;
+		this.limit = 0;
+		if (separator != null && separator.trim().length() > 0
+				&& !separator.equals("\\s+") && !separator.equals("\\s")) {
+			String literal = getLiteral(separator);
+			if (literal != null) {
+				this.separator = literal.getBytes(UTF8);
+			} else {
+				this.pattern = Pattern.compile(separator);
+			}
+		}
+		if (commentPrefix != null && commentPrefix.length() > 0) {
+			this.commentPrefix = commentPrefix.getBytes(UTF8);
+		}
+		this.lineStart = true;
+		this.lineBreaks = 0;
+		this.token = new byte[64];
+	}
+
+	/*
+	 * LINES
+	 */
+
+	/**
+	 * Moves to the beginning of the next line that is neither empty nor a
+	 * comment.
+	 *
+	 * @return false, if the end of the file has been reached
+	 * @throws IOException
+	 */
+	public boolean nextLine() throws IOException {
+		if (!this.lineStart) {
+			this.skipLine();
+		}
+		while (true) {
+			int b = this.peek();
+			if (b < 0) {
+				return false;
+			} else if (b == '\n' || b == '\r') {
+				this.skipLine();
+			} else if (this.commentPrefix != null
+					&& this.matches(this.commentPrefix)) {
+				this.skipLine();
+			} else {
+				this.lineStart = false;
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * Reads the remainder of the current line (or the next line in case the
+	 * tokenizer is positioned at the beginning of a line) without skipping
+	 * empty lines or comments.
+	 *
+	 * @return remainder of the line, null if the end of the file has been
+	 *         reached
+	 * @throws IOException
+	 */
+	public String readLine() throws IOException {
+		if (this.lineStart && this.peek() < 0) {
+			return null;
+		}
+		this.tokenLength = 0;
+		int b;
+		while ((b = this.peek()) >= 0 && b != '\n' && b != '\r') {
+			this.append(b);
+			this.skip();
+		}
+		this.skipLine();
+		return new String(this.token, 0, this.tokenLength, UTF8);
+	}
+
+	/**
+	 *
+	 * @return true, if the current line contains another token
+	 * @throws IOException
+	 */
+	public boolean hasNext() throws IOException {
+		if (this.lineStart) {
+			return false;
+		}
+		if (this.tokens != null) {
+			return this.nextToken < this.tokens.length;
+		}
+		if (this.separator == null && this.pattern == null) {
+			this.skipWhitespace();
+		}
+		int b = this.peek();
+		return b >= 0 && b != '\n' && b != '\r';
+	}
+
+	/**
+	 *
+	 * @return number of the current line (starting with 1)
+	 */
+	public int getLineNumber() {
+		return this.lineBreaks + 1;
+	}
+
+	public void close() throws IOException {
+		this.channel.close();
+		this.file.close();
+	}
+
+	/*
+	 * TOKENS
+	 */
+
+	public String nextToken() throws IOException {
+		if (!this.readToken()) {
+			throw new NoSuchElementException(this.missing());
+		}
+		return new String(this.token, 0, this.tokenLength, UTF8);
+	}
+
+	public int nextInt() throws IOException {
+		long value = this.nextLong();
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw new NumberFormatException(this.invalid("int"));
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Parses the next token as an int like nextInt but only accepts the
+	 * canonical representation of its value (as given by Integer.toString),
+	 * i.e., tokens like "+7", "007", or "-0" are rejected. Hence, two tokens
+	 * are equal if and only if their values are.
+	 */
+	public int nextCanonicalInt() throws IOException {
+		int value = this.nextInt();
+		byte[] t = this.token;
+		int i = t[0] == '-' ? 1 : 0;
+		if (t[0] == '+' || t[i] == '0' && (i == 1 || this.tokenLength > 1)) {
+			throw new NumberFormatException(this.invalid("canonical int"));
+		}
+		return value;
+	}
+
+	public long nextLong() throws IOException {
+		if (!this.readToken() || this.tokenLength == 0) {
+			throw new NumberFormatException(this.missing());
+		}
+		byte[] t = this.token;
+		int length = this.tokenLength;
+		int i = 0;
+		boolean negative = t[0] == '-';
+		if (t[0] == '-' || t[0] == '+') {
+			i++;
+		}
+		if (i == length || length - i > 18) {
+			return Long.parseLong(this.tokenAsString());
+		}
+		long value = 0;
+		for (; i < length; i++) {
+			int digit = t[i] - '0';
+			if (digit < 0 || digit > 9) {
+				throw new NumberFormatException(this.invalid("long"));
+			}
+			value = value * 10 + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parses decimal numbers with up to 18 significant digits and an exponent
+	 * of at most 22 directly, all others (as well as NaN and Infinity) are
+	 * passed to Double.parseDouble.
+	 */
+	public double nextDouble() throws IOException {
+		if (!this.readToken() || this.tokenLength == 0) {
+			throw new NumberFormatException(this.missing());
+		}
+		byte[] t = this.token;
+		int length = this.tokenLength;
+		int i = 0;
+		boolean negative = t[0] == '-';
+		if (t[0] == '-' || t[0] == '+') {
+			i++;
+		}
+		long mantissa = 0;
+		int digits = 0;
+		int exponent = 0;
+		for (; i < length && t[i] >= '0' && t[i] <= '9'; i++) {
+			mantissa = mantissa * 10 + (t[i] - '0');
+			digits++;
+		}
+		if (i < length && t[i] == '.') {
+			for (i++; i < length && t[i] >= '0' && t[i] <= '9'; i++) {
+				mantissa = mantissa * 10 + (t[i] - '0');
+				digits++;
+				exponent--;
+			}
+		}
+		if (i < length && (t[i] == 'e' || t[i] == 'E') && digits > 0) {
+			int e = 0;
+			boolean negativeE = false;
+			i++;
+			if (i < length && (t[i] == '-' || t[i] == '+')) {
+				negativeE = t[i] == '-';
+				i++;
+			}
+			int start = i;
+			for (; i < length && t[i] >= '0' && t[i] <= '9' && e < 1000; i++) {
+				e = e * 10 + (t[i] - '0');
+			}
+			if (i == start) {
+				digits = 0;
+			}
+			exponent += negativeE ? -e : e;
+		}
+		if (i < length || digits == 0 || digits > 18
+				|| mantissa >= (1L << 53) || exponent < -22 || exponent > 22) {
+			return Double.parseDouble(this.tokenAsString());
+		}
+		double value = exponent >= 0 ? mantissa * PowersOfTen[exponent]
+				: mantissa / PowersOfTen[-exponent];
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Copies the next token of the current line into the token buffer and
+	 * skips the separator following it.
+	 *
+	 * @return false, if the current line contains no further token
+	 */
+	private boolean readToken() throws IOException {
+		this.tokenLength = 0;
+		if (this.lineStart) {
+			return false;
+		}
+		if (this.pattern != null) {
+			return this.readPatternToken();
+		}
+		int b;
+		if (this.separator == null) {
+			this.skipWhitespace();
+			do {
+				// scans the current chunk without any further checks
+				byte[] chunk = this.chunk;
+				int limit = this.limit;
+				for (int i = this.position; i < limit; i++) {
+					b = chunk[i];
+					if (b == ' ' || b == '\t' || b == '\n' || b == '\r') {
+						this.position = i;
+						return this.tokenLength > 0;
+					}
+					this.append(b);
+				}
+				this.position = limit;
+			} while (this.fill(1));
+			return this.tokenLength > 0;
+		}
+		if ((b = this.peek()) < 0 || b == '\n' || b == '\r') {
+			return false;
+		}
+		while ((b = this.peek()) >= 0 && b != '\n' && b != '\r') {
+			if (b == this.separator[0] && this.matches(this.separator)) {
+				this.position += this.separator.length;
+				break;
+			}
+			this.append(b);
+			this.skip();
+		}
+		return true;
+	}
+
+	/**
+	 * Splits the remainder of the current line by the pattern (when reading
+	 * its first token) and copies the next one of these tokens into the token
+	 * buffer.
+	 */
+	private boolean readPatternToken() throws IOException {
+		if (this.tokens == null) {
+			int b;
+			while ((b = this.peek()) >= 0 && b != '\n' && b != '\r') {
+				this.append(b);
+				this.skip();
+			}
+			this.tokens = this.pattern.split(this.tokenAsString());
+			this.nextToken = 0;
+			this.tokenLength = 0;
+		}
+		if (this.nextToken == this.tokens.length) {
+			return false;
+		}
+		for (byte b : this.tokens[this.nextToken++].getBytes(UTF8)) {
+			this.append(b);
+		}
+		return true;
+	}
+
+	/**
+	 *
+	 * @return the string matched by the given regular expression in case it
+	 *         only consists of literal and escaped characters (e.g., "\\|" or
+	 *         "\\t"), null otherwise
+	 */
+	private static String getLiteral(String regex) {
+		if (regex.startsWith("\\Q") && regex.endsWith("\\E")
+				&& regex.indexOf("\\E") == regex.length() - 2) {
+			return regex.substring(2, regex.length() - 2);
+		}
+		StringBuilder literal = new StringBuilder(regex.length());
+		for (int i = 0; i < regex.length(); i++) {
+			char c = regex.charAt(i);
+			if (c != '\\') {
+				if ("[](){}.*+?^$|".indexOf(c) >= 0) {
+					return null;
+				}
+				literal.append(c);
+				continue;
+			}
+			if (++i == regex.length()) {
+				return null;
+			}
+			c = regex.charAt(i);
+			switch (c) {
+			case 't':
+				literal.append('\t');
+				break;
+			case 'n':
+				literal.append('\n');
+				break;
+			case 'r':
+				literal.append('\r');
+				break;
+			case 'f':
+				literal.append('\f');
+				break;
+			default:
+				if (Character.isLetterOrDigit(c)) {
+					// character classes (e.g., \d), back references, ...
+					return null;
+				}
+				literal.append(c);
+				break;
+			}
+		}
+		return literal.toString();
+	}
+
+	private void append(int b) {
+		if (this.tokenLength == this.token.length) {
+			this.token = Arrays.copyOf(this.token, this.token.length * 2);
+		}
+		this.token[this.tokenLength++] = (byte) b;
+	}
+
+	private String tokenAsString() {
+		return new String(this.token, 0, this.tokenLength, UTF8);
+	}
+
+	private String missing() {
+		return "missing value in line " + this.getLineNumber();
+	}
+
+	private String invalid(String type) {
+		return "invalid " + type + " '" + this.tokenAsString() + "' in line "
+				+ this.getLineNumber();
+	}
+
+	/*
+	 * BYTES
+	 */
+
+	/**
+	 *
+	 * @return next byte of the file without consuming it, -1 at its end
+	 */
+	private int peek() throws IOException {
+		if (this.position == this.limit && !this.fill(1)) {
+			return -1;
+		}
+		return this.chunk[this.position] & 0xFF;
+	}
+
+	private void skip() {
+		this.position++;
+	}
+
+	private void skipWhitespace() throws IOException {
+		int b;
+		while ((b = this.peek()) == ' ' || b == '\t') {
+			this.skip();
+		}
+	}
+
+	/** skips the remainder of the current line including the line break **/
+	private void skipLine() throws IOException {
+		int b;
+		while ((b = this.peek()) >= 0) {
+			this.skip();
+			if (b == '\n') {
+				this.lineBreaks++;
+				break;
+			}
+		}
+		this.lineStart = true;
+		this.tokens = null;
+	}
+
+	/**
+	 *
+	 * @return true, if the next bytes of the file equal the given ones
+	 */
+	private boolean matches(byte[] bytes) throws IOException {
+		if (this.limit - this.position < bytes.length
+				&& !this.fill(bytes.length)) {
+			return false;
+		}
+		for (int i = 0; i < bytes.length; i++) {
+			if (this.chunk[this.position + i] != bytes[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Moves the unread bytes to the beginning of the chunk and fills it with
+	 * the following bytes of the file (mapping its next window if necessary).
+	 *
+	 * @return true, if at least the given number of bytes can be read
+	 */
+	private boolean fill(int bytes) throws IOException {
+		int unread = this.limit - this.position;
+		System.arraycopy(this.chunk, this.position, this.chunk, 0, unread);
+		this.position = 0;
+		this.limit = unread;
+		while (this.limit < this.chunk.length) {
+			if (!this.window.hasRemaining() && !this.map()) {
+				break;
+			}
+			int count = Math.min(this.chunk.length - this.limit,
+					this.window.remaining());
+			this.window.get(this.chunk, this.limit, count);
+			this.limit += count;
+		}
+		return this.limit >= bytes;
+	}
+
+	/**
+	 * Maps the next window of the file.
+	 *
+	 * @return false, if the end of the file has been reached
+	 */
+	private boolean map() throws IOException {
+		long start = this.windowStart + this.window.position();
+		long size = this.channel.size();
+		if (start >= size) {
+			return false;
+		}
+		this.windowStart = start;
+		this.window = this.channel.map(MapMode.READ_ONLY, start,
+				Math.min(WindowSize, size - start));
+		return true;
+	}
+}
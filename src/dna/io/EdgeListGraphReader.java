@@ -1,59 +1,190 @@
 package dna.io;
 
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashMap;
 
 import dna.graph.IGraph;
 import dna.graph.datastructures.GraphDataStructure;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.util.Config;
 
+/**
+ * Reads a graph from a list of edges, one per line as the ids of its two
+ * nodes separated by the given separator. The ids are mapped to the node
+ * indices 0, 1, 2, ... in the order of their first occurrence, edges between
+ * the same ids are skipped.
+ *
+ * Ids are distinguished by their text, i.e., ids with the same value but a
+ * different text (e.g., 7, 007, and +7) denote different nodes. As long as all
+ * ids are ints in their canonical representation (cf.
+ * ByteTokenizer.nextCanonicalInt), they are parsed as ints directly from the
+ * bytes of the file. Otherwise, the file is read again with the ids mapped as
+ * Strings.
+ */
 public class EdgeListGraphReader {
 
 	public static IGraph read(String dir, String filename, String separator,
 			GraphDataStructure gds) throws IOException {
+		EdgeList list;
+		try {
+			list = readInts(dir, filename, separator);
+		} catch (NumberFormatException e) {
+			list = readStrings(dir, filename, separator);
+		}
+
+		IGraph g = gds.newGraphInstance(filename, 0, list.nodes, list.edges);
+		for (int i = 0; i < list.nodes; i++) {
+			g.addNode(gds.newNodeInstance(i));
+		}
+
+		for (int i = 0; i < list.edges; i++) {
+			Node n1 = g.getNode(list.src[i]);
+			Node n2 = g.getNode(list.dst[i]);
+			Edge e = gds.newEdgeInstance(n1, n2);
+			g.addEdge(e);
+			n1.addEdge(e);
+			n2.addEdge(e);
+		}
+
+		return g;
+	}
+
+	private static EdgeList readInts(String dir, String filename,
+			String separator) throws IOException {
+		EdgeList list = new EdgeList();
+		IdMap mapping = new IdMap();
+		ByteTokenizer tokenizer = new ByteTokenizer(dir, filename, separator,
+				Config.get("COMMENT_PREFIX"));
+		try {
+			while (tokenizer.nextLine()) {
+				int n1 = tokenizer.nextCanonicalInt();
+				int n2 = tokenizer.nextCanonicalInt();
+				if (n1 != n2) {
+					list.add(mapping.getIndex(n1), mapping.getIndex(n2));
+				}
+			}
+		} finally {
+			tokenizer.close();
+		}
+		list.nodes = mapping.size();
+		return list;
+	}
 
+	private static EdgeList readStrings(String dir, String filename,
+			String separator) throws IOException {
+		EdgeList list = new EdgeList();
 		HashMap<String, Integer> mapping = new HashMap<String, Integer>();
-		int nodes = 0;
-		int edges = 0;
-		Reader reader = new Reader(dir, filename);
-		String line = null;
-		while ((line = reader.readString()) != null) {
-			String[] temp = line.split(separator);
-			if (temp[0].equals(temp[1])) {
-				continue;
+		ByteTokenizer tokenizer = new ByteTokenizer(dir, filename, separator,
+				Config.get("COMMENT_PREFIX"));
+		try {
+			while (tokenizer.nextLine()) {
+				String n1 = tokenizer.nextToken();
+				String n2 = tokenizer.nextToken();
+				if (n1.equals(n2)) {
+					continue;
+				}
+				Integer index1 = mapping.get(n1);
+				if (index1 == null) {
+					index1 = mapping.size();
+					mapping.put(n1, index1);
+				}
+				Integer index2 = mapping.get(n2);
+				if (index2 == null) {
+					index2 = mapping.size();
+					mapping.put(n2, index2);
+				}
+				list.add(index1, index2);
 			}
-			if (!mapping.containsKey(temp[0])) {
-				mapping.put(temp[0], nodes++);
+		} finally {
+			tokenizer.close();
+		}
+		list.nodes = mapping.size();
+		return list;
+	}
+
+	/**
+	 * Node indices of the edges read from the file.
+	 */
+	private static class EdgeList {
+		private int nodes = 0;
+		private int edges = 0;
+		private int[] src = new int[1024];
+		private int[] dst = new int[1024];
+
+		private void add(int index1, int index2) {
+			if (this.edges == this.src.length) {
+				this.src = Arrays.copyOf(this.src, this.edges * 2);
+				this.dst = Arrays.copyOf(this.dst, this.edges * 2);
 			}
-			if (!mapping.containsKey(temp[1])) {
-				mapping.put(temp[1], nodes++);
+			this.src[this.edges] = index1;
+			this.dst[this.edges] = index2;
+			this.edges++;
+		}
+	}
+
+	/**
+	 * Maps int ids to the indices 0, 1, 2, ... in the order of their first
+	 * occurrence. The ids are stored in an open-addressing hash table with
+	 * linear probing, i.e., neither the ids nor the indices are boxed.
+	 */
+	private static class IdMap {
+		private int[] ids = new int[1024];
+
+		/** index + 1 of the id in the same slot, 0 marks an empty slot **/
+		private int[] indices = new int[1024];
+
+		private int size = 0;
+
+		/** 32 - log2(capacity), used to map the hashed id to a slot **/
+		private int shift = 22;
+
+		/**
+		 *
+		 * @return index of the given id, assigned if it is not mapped yet
+		 */
+		private int getIndex(int id) {
+			int mask = this.ids.length - 1;
+			int slot = this.slot(id);
+			while (this.indices[slot] != 0) {
+				if (this.ids[slot] == id)
+					return this.indices[slot] - 1;
+				slot = (slot + 1) & mask;
+			}
+			this.ids[slot] = id;
+			this.indices[slot] = ++this.size;
+			if (this.size * 2 > this.ids.length) {
+				this.rehash();
 			}
-			edges++;
+			return this.size - 1;
 		}
-		reader.close();
 
-		IGraph g = gds.newGraphInstance(filename, 0, nodes, edges);
-		for (int i = 0; i < nodes; i++) {
-			g.addNode(gds.newNodeInstance(i));
+		private int size() {
+			return this.size;
 		}
 
-		reader = new Reader(dir, filename);
-		while ((line = reader.readString()) != null) {
-			String[] temp = line.split(separator);
-			if (temp[0].equals(temp[1])) {
-				continue;
+		private void rehash() {
+			int[] ids = this.ids;
+			int[] indices = this.indices;
+			this.ids = new int[ids.length * 2];
+			this.indices = new int[ids.length * 2];
+			this.shift--;
+			int mask = this.ids.length - 1;
+			for (int i = 0; i < ids.length; i++) {
+				if (indices[i] != 0) {
+					int slot = this.slot(ids[i]);
+					while (this.indices[slot] != 0) {
+						slot = (slot + 1) & mask;
+					}
+					this.ids[slot] = ids[i];
+					this.indices[slot] = indices[i];
+				}
 			}
-			Node src = g.getNode(mapping.get(temp[0]));
-			Node dst = g.getNode(mapping.get(temp[1]));
-			Edge e = gds.newEdgeInstance(src, dst);
-			g.addEdge(e);
-			src.addEdge(e);
-			dst.addEdge(e);
 		}
 
-		reader.close();
-		return g;
+		private int slot(int id) {
+			return (id * 0x9E3779B9) >>> this.shift;
+		}
 	}
-
 }
@@ -15,6 +15,10 @@ public class GraphReader {
 
 	public static IGraph read(String dir, String filename, GraphDataStructure ds)
 			throws IOException {
+		if (GraphSnapshot.isSnapshot(dir, filename)) {
+			return GraphSnapshot.read(dir, filename, ds);
+		}
+
 		Reader reader = new Reader(dir, filename);
 
 		reader.readKeyword(GraphWriter.nameKeyword);
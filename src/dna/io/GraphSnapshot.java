@@ -0,0 +1,611 @@
+package dna.io;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import dna.graph.Graph;
+import dna.graph.IElement;
+import dna.graph.IGraph;
+import dna.graph.datastructures.GraphDataStructure;
+import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.Edge;
+import dna.graph.edges.UndirectedEdge;
+import dna.graph.nodes.Node;
+import dna.graph.weights.IWeighted;
+import dna.graph.weights.Weight;
+import dna.graph.weights.doubleW.DoubleWeight;
+import dna.graph.weights.intW.IntWeight;
+import dna.graph.weights.longW.LongWeight;
+import dna.util.Config;
+import dna.util.ParallelExecution;
+
+/**
+ * Compact binary snapshot of a graph, an alternative to the text format of
+ * GraphWriter / GraphReader that avoids writing and parsing one line per node
+ * and edge.
+ *
+ * After a header (name, data structures, timestamp, counts, and the weight
+ * column types), the file consists of a node block followed by the edge
+ * blocks. The node block contains the sorted node indices (delta-encoded
+ * varints). Each edge block contains up to GRAPH_SNAPSHOT_BLOCK_SIZE edges,
+ * sorted by their first and second node, as adjacency lists: the first node
+ * (delta to the previous one), the number of its edges, and the second nodes
+ * (the first one relative to the first node, the others relative to their
+ * predecessor). Node and edge weights follow the indices of their block as a
+ * column of ints, longs, or doubles (for IntWeight, LongWeight, and
+ * DoubleWeight) or of strings (for all other weights).
+ *
+ * The blocks are prefixed by their length and memory-mapped by the reader.
+ * As each edge block can be decoded independently (only requiring the nodes
+ * of the graph), they are decoded by GRAPH_SNAPSHOT_THREADS threads before
+ * the edges are added to the graph in their original order.
+ *
+ * Since a snapshot contains every node and edge exactly once, the reader
+ * builds the lists of the graph and its nodes in bulk, i.e., without the
+ * contains check of each addition (cf. Graph.addNodeUnchecked and
+ * Graph.addEdgeUnchecked). For a directed graph, the neighbors of each node
+ * are determined from the sorted edges instead.
+ */
+public class GraphSnapshot {
+
+	private static final int Magic = 0x444E4147;
+
+	private static final int Version = 1;
+
+	private static final Charset UTF8 = Charset.forName("UTF-8");
+
+	/*
+	 * WEIGHT COLUMNS
+	 */
+
+	private static final byte NoWeights = 0;
+	private static final byte IntWeights = 1;
+	private static final byte LongWeights = 2;
+	private static final byte DoubleWeights = 3;
+	private static final byte StringWeights = 4;
+
+	/*
+	 * WRITE
+	 */
+
+	public static boolean write(IGraph g, String dir, String filename) {
+		return write(g, dir, filename,
+				Config.getInt("GRAPH_SNAPSHOT_BLOCK_SIZE"));
+	}
+
+	/**
+	 *
+	 * @param g
+	 *            graph to write
+	 * @param dir
+	 *            directory to write the snapshot to
+	 * @param filename
+	 *            name of the snapshot file
+	 * @param blockSize
+	 *            maximum number of edges per edge block
+	 * @return true, if the snapshot was written successfully
+	 */
+	public static boolean write(IGraph g, String dir, String filename,
+			int blockSize) {
+		GraphDataStructure gds = g.getGraphDatastructures();
+		byte nodeColumn = gds.createsWeightedNodes() ? getColumn(gds
+				.getNodeWeightType()) : NoWeights;
+		byte edgeColumn = gds.createsWeightedEdges() ? getColumn(gds
+				.getEdgeWeightType()) : NoWeights;
+		Node[] nodes = getSortedNodes(g);
+		Edge[] edges = getSortedEdges(g);
+		blockSize = Math.max(1, blockSize);
+		int blocks = (edges.length + blockSize - 1) / blockSize;
+
+		DataOutputStream out = null;
+		try {
+			(new File(dir)).mkdirs();
+			out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(dir + filename)));
+			out.writeInt(Magic);
+			out.writeInt(Version);
+			out.writeUTF(g.getName());
+			out.writeUTF(gds.getDataStructures());
+			out.writeLong(g.getTimestamp());
+			out.writeInt(nodes.length);
+			out.writeInt(edges.length);
+			out.writeByte(nodeColumn);
+			out.writeByte(edgeColumn);
+			out.writeInt(blocks);
+
+			Encoder block = new Encoder();
+			block.writeVarint(nodes.length);
+			int previous = 0;
+			for (Node n : nodes) {
+				block.writeVarint(n.getIndex() - previous);
+				previous = n.getIndex();
+			}
+			for (Node n : nodes) {
+				block.writeWeight(nodeColumn, n);
+			}
+			block.writeBlock(out);
+
+			for (int b = 0; b < blocks; b++) {
+				int from = b * blockSize;
+				int to = Math.min(edges.length, from + blockSize);
+				block.reset();
+				block.writeVarint(to - from);
+				int src = 0;
+				int i = from;
+				while (i < to) {
+					int n1 = edges[i].getN1Index();
+					int degree = 1;
+					while (i + degree < to
+							&& edges[i + degree].getN1Index() == n1) {
+						degree++;
+					}
+					block.writeVarint(n1 - src);
+					block.writeVarint(degree);
+					int dst = n1;
+					for (int j = i; j < i + degree; j++) {
+						int n2 = edges[j].getN2Index();
+						if (j == i) {
+							block.writeVarint(zigzag(n2 - n1));
+						} else {
+							block.writeVarint(n2 - dst);
+						}
+						dst = n2;
+					}
+					src = n1;
+					i += degree;
+				}
+				for (int j = from; j < to; j++) {
+					block.writeWeight(edgeColumn, edges[j]);
+				}
+				block.writeBlock(out);
+			}
+			return true;
+		} catch (IOException e) {
+			e.printStackTrace();
+			return false;
+		} finally {
+			try {
+				if (out != null)
+					out.close();
+			} catch (IOException e) {
+				e.printStackTrace();
+			}
+		}
+	}
+
+	private static Node[] getSortedNodes(IGraph g) {
+		ArrayList<Node> nodes = new ArrayList<Node>(g.getNodeCount());
+		for (IElement n : g.getNodes()) {
+			if (n != null)
+				nodes.add((Node) n);
+		}
+		Node[] sorted = nodes.toArray(new Node[nodes.size()]);
+		Arrays.sort(sorted, new Comparator<Node>() {
+			public int compare(Node n1, Node n2) {
+				return Integer.compare(n1.getIndex(), n2.getIndex());
+			}
+		});
+		return sorted;
+	}
+
+	private static Edge[] getSortedEdges(IGraph g) {
+		ArrayList<Edge> edges = new ArrayList<Edge>(g.getEdgeCount());
+		for (IElement e : g.getEdges()) {
+			if (e != null)
+				edges.add((Edge) e);
+		}
+		Edge[] sorted = edges.toArray(new Edge[edges.size()]);
+		Arrays.sort(sorted, new Comparator<Edge>() {
+			public int compare(Edge e1, Edge e2) {
+				int c = Integer.compare(e1.getN1Index(), e2.getN1Index());
+				if (c != 0)
+					return c;
+				return Integer.compare(e1.getN2Index(), e2.getN2Index());
+			}
+		});
+		return sorted;
+	}
+
+	private static byte getColumn(Class<? extends Weight> weightType) {
+		if (weightType == IntWeight.class) {
+			return IntWeights;
+		} else if (weightType == LongWeight.class) {
+			return LongWeights;
+		} else if (weightType == DoubleWeight.class) {
+			return DoubleWeights;
+		}
+		return StringWeights;
+	}
+
+	/*
+	 * READ
+	 */
+
+	public static IGraph read(String dir, String filename) throws IOException {
+		return read(dir, filename, null);
+	}
+
+	public static IGraph read(String dir, String filename,
+			GraphDataStructure gds) throws IOException {
+		return read(dir, filename, gds,
+				Config.getInt("GRAPH_SNAPSHOT_THREADS"));
+	}
+
+	/**
+	 *
+	 * @param dir
+	 *            directory of the snapshot
+	 * @param filename
+	 *            name of the snapshot file
+	 * @param gds
+	 *            data structures of the graph (null to use the ones stored in
+	 *            the snapshot)
+	 * @param threads
+	 *            number of threads used to decode the edge blocks (values <=
+	 *            0 use the number of available processors)
+	 * @return graph read from the snapshot
+	 * @throws IOException
+	 */
+	public static IGraph read(String dir, String filename,
+			GraphDataStructure gds, int threads) throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(dir + filename, "r");
+		try {
+			if (raf.readInt() != Magic) {
+				throw new IOException(dir + filename
+						+ " is not a graph snapshot");
+			}
+			int version = raf.readInt();
+			if (version != Version) {
+				throw new IOException("unsupported graph snapshot version "
+						+ version + " of " + dir + filename);
+			}
+			String name = raf.readUTF();
+			String gdsString = raf.readUTF();
+			long timestamp = raf.readLong();
+			int nodeCount = raf.readInt();
+			int edgeCount = raf.readInt();
+			byte nodeColumn = raf.readByte();
+			byte edgeColumn = raf.readByte();
+			int blocks = raf.readInt();
+
+			GraphDataStructure stored = new GraphDataStructure(gdsString);
+			if (gds == null) {
+				gds = stored;
+			}
+			if (!gds.createsWeightedNodes()) {
+				nodeColumn = NoWeights;
+			}
+			if (!gds.createsWeightedEdges()) {
+				edgeColumn = NoWeights;
+			}
+			IGraph g = gds.newGraphInstance(name, timestamp, nodeCount,
+					edgeCount);
+
+			FileChannel channel = raf.getChannel();
+			long position = raf.getFilePointer();
+			ByteBuffer nodeBlock = map(channel, position);
+			position += 4 + nodeBlock.capacity();
+			readNodes(g, gds, nodeBlock, nodeColumn);
+
+			List<EdgeBlock> tasks = new ArrayList<EdgeBlock>(blocks);
+			for (int b = 0; b < blocks; b++) {
+				ByteBuffer edgeBlock = map(channel, position);
+				position += 4 + edgeBlock.capacity();
+				tasks.add(new EdgeBlock(g, gds, edgeBlock, edgeColumn));
+			}
+			List<Edge[]> edges = ParallelExecution.invokeAll(tasks,
+					ParallelExecution.getThreads(threads));
+			if (gds.usesGraphDatabase()
+					|| gds.createsDirected() != stored.createsDirected()) {
+				// edges of a directed snapshot read as undirected ones can
+				// occur twice, they are added with all checks
+				for (Edge[] block : edges) {
+					for (Edge e : block) {
+						g.addEdge(e);
+						e.connectToNodes();
+					}
+				}
+			} else {
+				addEdges((Graph) g, edges, edgeCount);
+			}
+			return g;
+		} finally {
+			raf.close();
+		}
+	}
+
+	/**
+	 * Adds the decoded edges to the graph and to the lists of their nodes
+	 * without any contains check. For a directed graph, the source of an edge
+	 * is a neighbor of its destination if the inverted edge exists, which is
+	 * looked up in the sorted keys of all edges.
+	 *
+	 * @param edges
+	 *            decoded edges of all blocks, sorted by their first and second
+	 *            node
+	 */
+	private static void addEdges(Graph g, List<Edge[]> edges, int edgeCount) {
+		long[] keys = null;
+		if (g.isDirected()) {
+			keys = new long[edgeCount];
+			int i = 0;
+			for (Edge[] block : edges) {
+				for (Edge e : block) {
+					keys[i++] = key(e.getN1Index(), e.getN2Index());
+				}
+			}
+		}
+		for (Edge[] block : edges) {
+			for (Edge e : block) {
+				g.addEdgeUnchecked(e);
+				if (e instanceof DirectedEdge) {
+					DirectedEdge d = (DirectedEdge) e;
+					d.getSrc().addEdgeUnchecked(d);
+					if (d.getSrc() == d.getDst()) {
+						continue;
+					}
+					d.getDst().addEdgeUnchecked(d);
+					if (Arrays.binarySearch(keys,
+							key(d.getDstIndex(), d.getSrcIndex())) >= 0) {
+						d.getSrc().addNeighborUnchecked(d.getDst());
+					}
+				} else {
+					UndirectedEdge u = (UndirectedEdge) e;
+					u.getNode1().addEdgeUnchecked(u);
+					if (u.getNode1() != u.getNode2()) {
+						u.getNode2().addEdgeUnchecked(u);
+					}
+				}
+			}
+		}
+	}
+
+	private static long key(int n1, int n2) {
+		return ((long) n1 << 32) | (n2 & 0xffffffffL);
+	}
+
+	/**
+	 *
+	 * @return true, if the given file starts like a graph snapshot
+	 */
+	public static boolean isSnapshot(String dir, String filename) {
+		File f = new File(dir + filename);
+		if (!f.isFile() || f.length() < 4) {
+			return false;
+		}
+		try {
+			DataInputStream in = new DataInputStream(new FileInputStream(f));
+			try {
+				return in.readInt() == Magic;
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	private static ByteBuffer map(FileChannel channel, long position)
+			throws IOException {
+		ByteBuffer length = ByteBuffer.allocate(4);
+		while (length.hasRemaining()) {
+			if (channel.read(length, position + length.position()) < 0) {
+				throw new IOException("unexpected end of graph snapshot");
+			}
+		}
+		length.flip();
+		return channel.map(MapMode.READ_ONLY, position + 4, length.getInt());
+	}
+
+	private static void readNodes(IGraph g, GraphDataStructure gds,
+			ByteBuffer block, byte column) {
+		int[] indices = new int[readVarint(block)];
+		int index = 0;
+		for (int i = 0; i < indices.length; i++) {
+			index += readVarint(block);
+			indices[i] = index;
+		}
+		for (int i = 0; i < indices.length; i++) {
+			Node n;
+			if (column == NoWeights) {
+				n = gds.newNodeInstance(indices[i]);
+			} else {
+				n = gds.newWeightedNode(indices[i],
+						readWeight(block, column, gds, true));
+			}
+			if (g instanceof Graph) {
+				((Graph) g).addNodeUnchecked(n);
+			} else {
+				g.addNode(n);
+			}
+		}
+	}
+
+	/**
+	 * Decodes the edges of an edge block.
+	 */
+	private static class EdgeBlock implements Callable<Edge[]> {
+
+		private IGraph g;
+
+		private GraphDataStructure gds;
+
+		private ByteBuffer block;
+
+		private byte column;
+
+		public EdgeBlock(IGraph g, GraphDataStructure gds, ByteBuffer block,
+				byte column) {
+			this.g = g;
+			this.gds = gds;
+			this.block = block;
+			this.column = column;
+		}
+
+		@Override
+		public Edge[] call() {
+			Edge[] edges = new Edge[readVarint(this.block)];
+			int[] n1 = new int[edges.length];
+			int[] n2 = new int[edges.length];
+			int src = 0;
+			int i = 0;
+			while (i < edges.length) {
+				src += readVarint(this.block);
+				int degree = readVarint(this.block);
+				int dst = src + unzigzag(readVarint(this.block));
+				for (int j = 0; j < degree; j++) {
+					if (j > 0) {
+						dst += readVarint(this.block);
+					}
+					n1[i] = src;
+					n2[i] = dst;
+					i++;
+				}
+			}
+			for (i = 0; i < edges.length; i++) {
+				Node node1 = this.g.getNode(n1[i]);
+				Node node2 = this.g.getNode(n2[i]);
+				if (this.column == NoWeights) {
+					edges[i] = this.gds.newEdgeInstance(node1, node2);
+				} else {
+					edges[i] = this.gds.newWeightedEdge(node1, node2,
+							readWeight(this.block, this.column, this.gds,
+									false));
+				}
+			}
+			return edges;
+		}
+	}
+
+	/*
+	 * WEIGHTS
+	 */
+
+	private static Weight readWeight(ByteBuffer block, byte column,
+			GraphDataStructure gds, boolean node) {
+		Class<? extends Weight> type = node ? gds.getNodeWeightType() : gds
+				.getEdgeWeightType();
+		String value;
+		switch (column) {
+		case IntWeights:
+			int i = block.getInt();
+			if (type == IntWeight.class)
+				return new IntWeight(i);
+			value = Integer.toString(i);
+			break;
+		case LongWeights:
+			long l = block.getLong();
+			if (type == LongWeight.class)
+				return new LongWeight(l);
+			value = Long.toString(l);
+			break;
+		case DoubleWeights:
+			double d = block.getDouble();
+			if (type == DoubleWeight.class)
+				return new DoubleWeight(d);
+			value = Double.toString(d);
+			break;
+		default:
+			byte[] bytes = new byte[readVarint(block)];
+			block.get(bytes);
+			value = new String(bytes, UTF8);
+			break;
+		}
+		return node ? gds.newNodeWeight(value) : gds.newEdgeWeight(value);
+	}
+
+	/*
+	 * ENCODING
+	 */
+
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static int readVarint(ByteBuffer block) {
+		int value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = block.get();
+			value |= (b & 0x7F) << shift;
+			shift += 7;
+		} while (b < 0);
+		return value;
+	}
+
+	/**
+	 * Buffer for the content of a single block.
+	 */
+	private static class Encoder extends ByteArrayOutputStream {
+
+		public Encoder() {
+			super(1 << 16);
+		}
+
+		public void writeVarint(int value) {
+			while ((value & ~0x7F) != 0) {
+				this.write((value & 0x7F) | 0x80);
+				value >>>= 7;
+			}
+			this.write(value);
+		}
+
+		public void writeWeight(byte column, IElement element) {
+			if (column == NoWeights) {
+				return;
+			}
+			Weight w = ((IWeighted) element).getWeight();
+			switch (column) {
+			case IntWeights:
+				this.writeLong(((IntWeight) w).getWeight(), 4);
+				break;
+			case LongWeights:
+				this.writeLong(((LongWeight) w).getWeight(), 8);
+				break;
+			case DoubleWeights:
+				this.writeLong(Double.doubleToRawLongBits(((DoubleWeight) w)
+						.getWeight()), 8);
+				break;
+			default:
+				byte[] bytes = w.asString().getBytes(UTF8);
+				this.writeVarint(bytes.length);
+				this.write(bytes, 0, bytes.length);
+				break;
+			}
+		}
+
+		/** writes the lowest bytes of the given value (big-endian) **/
+		private void writeLong(long value, int bytes) {
+			for (int i = bytes - 1; i >= 0; i--) {
+				this.write((int) (value >>> (8 * i)));
+			}
+		}
+
+		/** writes the length of the block followed by its content **/
+		public void writeBlock(DataOutputStream out) throws IOException {
+			out.writeInt(this.size());
+			this.writeTo(out);
+		}
+	}
+}
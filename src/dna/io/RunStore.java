@@ -0,0 +1,1195 @@
+package dna.io;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.Channels;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+import dna.io.filesystem.Dir;
+import dna.io.filesystem.Files;
+import dna.metrics.IMetric;
+import dna.series.aggdata.AggregatedBatch;
+import dna.series.aggdata.AggregatedBatch.BatchReadMode;
+import dna.series.aggdata.AggregatedBinnedDistribution;
+import dna.series.aggdata.AggregatedDistribution;
+import dna.series.aggdata.AggregatedDistributionList;
+import dna.series.aggdata.AggregatedMetric;
+import dna.series.aggdata.AggregatedMetricList;
+import dna.series.aggdata.AggregatedNodeValueList;
+import dna.series.aggdata.AggregatedNodeValueListList;
+import dna.series.aggdata.AggregatedRunTimeList;
+import dna.series.aggdata.AggregatedValue;
+import dna.series.aggdata.AggregatedValueList;
+import dna.series.data.BatchData;
+import dna.series.data.MetricData;
+import dna.series.data.RunData;
+import dna.series.data.RunTime;
+import dna.series.data.Value;
+import dna.series.data.distr.BinnedDistr;
+import dna.series.data.distr.BinnedDoubleDistr;
+import dna.series.data.distr.BinnedIntDistr;
+import dna.series.data.distr.BinnedLongDistr;
+import dna.series.data.distr.Distr;
+import dna.series.data.distr.Distr.DistrType;
+import dna.series.data.distr.QualityDistr;
+import dna.series.data.distr.QualityDoubleDistr;
+import dna.series.data.distr.QualityIntDistr;
+import dna.series.data.distr.QualityLongDistr;
+import dna.series.data.nodevaluelists.NodeNodeValueList;
+import dna.series.data.nodevaluelists.NodeNodeValueList.Storage;
+import dna.series.data.nodevaluelists.NodeValueList;
+import dna.series.data.nodevaluelists.SparseNodeNodeValueList;
+import dna.series.lists.DistributionList;
+import dna.series.lists.List;
+import dna.series.lists.MetricDataList;
+import dna.series.lists.NodeNodeValueListList;
+import dna.series.lists.NodeValueListList;
+import dna.series.lists.RunTimeList;
+import dna.series.lists.ValueList;
+import dna.util.Config;
+
+/**
+ * Binary, append-only store for the data of all batches of a run (or of the
+ * aggregation of a series) in a single file, used instead of one directory
+ * per batch in case GENERATION_AS_ZIP is set to "store".
+ *
+ * After a short header, the file contains one record per appended batch. A
+ * record consists of a header (timestamp, number of columns and lengths),
+ * the column data and a directory of its columns. Each value list,
+ * distribution and nodevaluelist is a column, the directory lists its kind,
+ * metric, name and position. The data of all single values is stored in
+ * front of the distributions, which are followed by the nodevaluelists, so
+ * that each BatchReadMode reads a single contiguous range of a record into
+ * memory (or only its directory).
+ *
+ * The nodenodevaluelists are stored behind all other columns. As they can
+ * grow larger than a single array (e.g., a dense list of 20k nodes takes
+ * more than 3 GB), they are neither buffered when written nor read at once
+ * but streamed from and to the file. Sparse nodenodevaluelists are stored as
+ * their (row, column, value) entries, all other nodenodevaluelists row by
+ * row.
+ *
+ * The index of all records (by timestamp) is built by reading the record
+ * directories only and extended in case more records are appended. In case
+ * a timestamp was appended multiple times, its last record is used.
+ */
+public class RunStore {
+
+	private static final int Magic = 0x444E4153;
+
+	private static final int Version = 2;
+
+	/** timestamp, columns, directory length and data length of a record **/
+	private static final int RecordHeader = 24;
+
+	/*
+	 * COLUMN KINDS
+	 */
+
+	private static final byte Values = 1;
+	private static final byte GeneralRuntimes = 2;
+	private static final byte MetricRuntimes = 3;
+	private static final byte Metric = 4;
+	private static final byte MetricValues = 5;
+	private static final byte Distribution = 6;
+	private static final byte NodeValues = 7;
+	private static final byte NodeNodeValues = 8;
+
+	private static final byte AggregatedValues = 11;
+	private static final byte AggregatedGeneralRuntimes = 12;
+	private static final byte AggregatedMetricRuntimes = 13;
+	private static final byte AggregatedMetric = 14;
+	private static final byte AggregatedMetricValues = 15;
+	private static final byte AggregatedDistribution = 16;
+	private static final byte AggregatedBinnedDistribution = 17;
+	private static final byte AggregatedNodeValues = 18;
+
+	/*
+	 * COLUMN GROUPS (order of the data within a record)
+	 */
+
+	private static final int SingleValues = 0;
+	private static final int Distributions = 1;
+	private static final int NodeValueLists = 2;
+	private static final int NodeNodeValueLists = 3;
+
+	private static HashMap<String, RunStore> stores = new HashMap<String, RunStore>();
+
+	private String path;
+
+	private long indexed;
+
+	private HashMap<Long, Record> records;
+
+	private long[] timestamps;
+
+	private RunStore(String path) {
+		this.path = path;
+		this.reset();
+	}
+
+	/**
+	 *
+	 * @param dir
+	 *            directory of the series
+	 * @param run
+	 *            id of the run
+	 * @return the store of the specified run
+	 */
+	public static RunStore getRunStore(String dir, int run) {
+		return RunStore.get(dir + Files.getRunStoreFilename(run));
+	}
+
+	/**
+	 *
+	 * @param dir
+	 *            directory of the series
+	 * @return the store of the aggregation of the series
+	 */
+	public static RunStore getAggregationStore(String dir) {
+		return RunStore.get(dir + Files.getAggregationStoreFilename());
+	}
+
+	/**
+	 * Returns the store that contains the data located at the given dir.
+	 *
+	 * Example: Input-Dir: "data/scenario.1/series/run.0/batch.0/" or
+	 * "data/scenario.1/series/run.0/" will return the store
+	 * "data/scenario.1/series/run.0.store", Input-Dir:
+	 * "data/scenario.1/series/aggr/batch.0/" the store
+	 * "data/scenario.1/series/aggr.store".
+	 */
+	public static RunStore getIntelligent(String dir) {
+		String[] splits = dir.split(Dir.delimiter);
+
+		// iterate over splits last to first
+		for (int i = splits.length - 1; i >= 0; i--) {
+			boolean run = splits[i].startsWith(Config
+					.get("PREFIX_RUNDATA_DIR"));
+			boolean aggr = splits[i].equals(Config.get("RUN_AGGREGATION"));
+			if (run || aggr) {
+				// build dir string
+				String tempDir = "";
+				for (int j = 0; j < i; j++)
+					tempDir += splits[j] + Dir.delimiter;
+
+				if (aggr)
+					return RunStore.getAggregationStore(tempDir);
+				return RunStore.getRunStore(tempDir, Dir.getRun(splits[i]));
+			}
+		}
+		throw new IllegalArgumentException("no run or aggregation dir in '"
+				+ dir + "'");
+	}
+
+	private static synchronized RunStore get(String path) {
+		RunStore store = RunStore.stores.get(path);
+		if (store == null) {
+			store = new RunStore(path);
+			RunStore.stores.put(path, store);
+		}
+		return store;
+	}
+
+	/**
+	 * Removes the store of the specified run from the cache of opened stores,
+	 * e.g., after the run has been generated or aggregated. The store is
+	 * indexed again in case it is accessed afterwards.
+	 */
+	public static void closeRunStore(String dir, int run) {
+		RunStore.close(dir + Files.getRunStoreFilename(run));
+	}
+
+	/**
+	 * Removes the store of the aggregation from the cache of opened stores.
+	 */
+	public static void closeAggregationStore(String dir) {
+		RunStore.close(dir + Files.getAggregationStoreFilename());
+	}
+
+	private static synchronized void close(String path) {
+		RunStore.stores.remove(path);
+	}
+
+	public String getPath() {
+		return this.path;
+	}
+
+	public boolean exists() {
+		return new File(this.path).exists();
+	}
+
+	/** Deletes the store, e.g., before a run is generated again. **/
+	public synchronized void delete() {
+		new File(this.path).delete();
+		this.reset();
+	}
+
+	private void reset() {
+		this.indexed = 0;
+		this.records = new HashMap<Long, Record>();
+		this.timestamps = new long[0];
+	}
+
+	/*
+	 * INDEX
+	 */
+
+	/** Returns the (sorted) timestamps of all batches in the store. **/
+	public synchronized long[] getTimestamps() throws IOException {
+		this.update();
+		return this.timestamps;
+	}
+
+	public synchronized boolean contains(long timestamp) throws IOException {
+		this.update();
+		return this.records.containsKey(timestamp);
+	}
+
+	/**
+	 * Adds the records appended since the last call to the index, the whole
+	 * index is rebuilt in case the file has been replaced by a shorter one.
+	 */
+	private void update() throws IOException {
+		File f = new File(this.path);
+		long length = f.length();
+		if (length < this.indexed) {
+			this.reset();
+		}
+		if (length == this.indexed) {
+			return;
+		}
+
+		RandomAccessFile file = new RandomAccessFile(f, "r");
+		try {
+			if (this.indexed == 0) {
+				if (file.readInt() != Magic) {
+					throw new IOException("'" + this.path
+							+ "' is not a run store");
+				}
+				int version = file.readInt();
+				if (version != Version) {
+					throw new IOException("unsupported version "
+							+ version + " of run store '" + this.path + "'");
+				}
+				this.indexed = file.getFilePointer();
+			}
+
+			while (this.indexed + RecordHeader <= length) {
+				file.seek(this.indexed);
+				long timestamp = file.readLong();
+				int columns = file.readInt();
+				int dirLength = file.readInt();
+				long dataLength = file.readLong();
+				long data = this.indexed + RecordHeader;
+				if (dataLength < 0 || data + dataLength + dirLength > length) {
+					// record is still being written
+					break;
+				}
+
+				byte[] dir = new byte[dirLength];
+				file.seek(data + dataLength);
+				file.readFully(dir);
+				this.records.put(timestamp, new Record(data,
+						Column.read(dir, columns, data)));
+				this.indexed = data + dataLength + dirLength;
+			}
+		} finally {
+			file.close();
+		}
+
+		this.timestamps = new long[this.records.size()];
+		int i = 0;
+		for (long timestamp : this.records.keySet()) {
+			this.timestamps[i++] = timestamp;
+		}
+		Arrays.sort(this.timestamps);
+	}
+
+	/*
+	 * WRITE
+	 */
+
+	/** Appends the batch to the store. **/
+	public synchronized void append(BatchData b) throws IOException {
+		RecordWriter w = new RecordWriter();
+
+		RunStore.writeValues(w.column(SingleValues), b.getValues());
+		w.close(Values, "", "", 0);
+		RunStore.writeRuntimes(w.column(SingleValues), b.getGeneralRuntimes());
+		w.close(GeneralRuntimes, "", "", 0);
+		RunStore.writeRuntimes(w.column(SingleValues), b.getMetricRuntimes());
+		w.close(MetricRuntimes, "", "", 0);
+
+		for (MetricData m : b.getMetrics().getList()) {
+			w.column(SingleValues);
+			w.close(Metric, m.getName(), "", m.getType().ordinal());
+
+			if (Config.getBoolean("GENERATION_WRITE_VALUES")
+					&& m.getValues().size() > 0) {
+				RunStore.writeValues(w.column(SingleValues), m.getValues());
+				w.close(MetricValues, m.getName(), "", 0);
+			}
+			if (Config.getBoolean("GENERATION_WRITE_DISTRIBUTONS")) {
+				for (Distr<?, ?> d : m.getDistributions().getList()) {
+					RunStore.writeDistr(w.column(Distributions), d);
+					w.close(Distribution, m.getName(), d.getName(), d
+							.getDistrType().ordinal());
+				}
+			}
+			if (Config.getBoolean("GENERATION_WRITE_NVL")) {
+				for (NodeValueList n : m.getNodeValues().getList()) {
+					RunStore.writeDoubles(w.column(NodeValueLists),
+							n.getValues());
+					w.close(NodeValues, m.getName(), n.getName(), 0);
+				}
+			}
+			if (Config.getBoolean("GENERATION_WRITE_NNVL")) {
+				for (NodeNodeValueList n : m.getNodeNodeValues().getList()) {
+					w.add(m.getName(), n);
+				}
+			}
+		}
+
+		this.append(w, b.getTimestamp());
+	}
+
+	/** Appends the aggregated batch to the store. **/
+	public synchronized void append(AggregatedBatch b) throws IOException {
+		RecordWriter w = new RecordWriter();
+
+		RunStore.writeAggregatedValues(w.column(SingleValues), b.getValues());
+		w.close(AggregatedValues, "", "", 0);
+		RunStore.writeAggregatedValues(w.column(SingleValues),
+				b.getGeneralRuntimes());
+		w.close(AggregatedGeneralRuntimes, "",
+				RunStore.getName(b.getGeneralRuntimes()), 0);
+		RunStore.writeAggregatedValues(w.column(SingleValues),
+				b.getMetricRuntimes());
+		w.close(AggregatedMetricRuntimes, "",
+				RunStore.getName(b.getMetricRuntimes()), 0);
+
+		for (AggregatedMetric m : b.getMetrics().getList()) {
+			w.column(SingleValues);
+			w.close(AggregatedMetric, m.getName(), "", 0);
+
+			if (m.getValues().size() > 0) {
+				RunStore.writeAggregatedValues(w.column(SingleValues),
+						m.getValues());
+				w.close(AggregatedMetricValues, m.getName(), "", 0);
+			}
+			for (AggregatedDistribution d : m.getDistributions().getList()) {
+				DataOutputStream out = w.column(Distributions);
+				if (d instanceof AggregatedBinnedDistribution) {
+					// first value is scaled by the binsize (as in text files)
+					double binsize = ((AggregatedBinnedDistribution) d)
+							.getBinsize();
+					RunStore.writeAggregatedValues(out, d.getValues(), binsize);
+					w.close(AggregatedBinnedDistribution, m.getName(),
+							d.getName(), 0);
+				} else {
+					RunStore.writeAggregatedValues(out, d.getValues(), 1);
+					w.close(AggregatedDistribution, m.getName(), d.getName(),
+							0);
+				}
+			}
+			for (AggregatedNodeValueList n : m.getNodeValues().getList()) {
+				RunStore.writeAggregatedValues(w.column(NodeValueLists),
+						n.getValues(), 1);
+				w.close(AggregatedNodeValues, m.getName(), n.getName(), 0);
+			}
+		}
+
+		this.append(w, b.getTimestamp());
+	}
+
+	private void append(RecordWriter w, long timestamp) throws IOException {
+		File f = new File(this.path);
+		f.getParentFile().mkdirs();
+		if (!f.exists() || f.length() == 0) {
+			DataOutputStream out = new DataOutputStream(new FileOutputStream(
+					f));
+			try {
+				out.writeInt(Magic);
+				out.writeInt(Version);
+			} finally {
+				out.close();
+			}
+		}
+
+		RandomAccessFile file = new RandomAccessFile(f, "rw");
+		try {
+			w.write(file, timestamp);
+		} finally {
+			file.close();
+		}
+	}
+
+	private static void writeValues(DataOutputStream out, ValueList values)
+			throws IOException {
+		out.writeInt(values.size());
+		for (Value v : values.getList()) {
+			out.writeUTF(v.getName());
+			out.writeDouble(v.getValue());
+		}
+	}
+
+	private static void writeRuntimes(DataOutputStream out,
+			RunTimeList runtimes) throws IOException {
+		out.writeInt(runtimes.size());
+		for (RunTime r : runtimes.getList()) {
+			out.writeUTF(r.getName());
+			out.writeDouble(r.getRuntime());
+		}
+	}
+
+	private static void writeDistr(DataOutputStream out, Distr<?, ?> d)
+			throws IOException {
+		out.writeUTF(d.getBinSize().toString());
+		if (d instanceof BinnedDistr) {
+			BinnedDistr<?> binned = (BinnedDistr<?>) d;
+			out.writeLong(binned.getDenominator());
+			long[] values = binned.getValues();
+			out.writeInt(values.length);
+			for (long v : values) {
+				out.writeLong(v);
+			}
+		} else {
+			RunStore.writeDoubles(out, ((QualityDistr<?>) d).getValues());
+		}
+	}
+
+	/**
+	 * Writes the list row by row, mapped lists are not materialized as a whole.
+	 */
+	private static void writeRows(DataOutputStream out, NodeNodeValueList n)
+			throws IOException {
+		int rows = n.getSize();
+		out.writeInt(rows);
+		for (int i = 0; i < rows; i++) {
+			RunStore.writeDoubles(out, n.getValuesByIndex(i));
+		}
+	}
+
+	/** Writes the size and the set values as (row, column, value). **/
+	private static void writeEntries(DataOutputStream out,
+			SparseNodeNodeValueList n) throws IOException {
+		int rows = n.getSize();
+		out.writeInt(rows);
+		out.writeLong(n.getEntries());
+		for (int i = 0; i < rows; i++) {
+			for (int k = 0; k < n.getEntryCount(i); k++) {
+				out.writeInt(i);
+				out.writeInt(n.getEntryColumn(i, k));
+				out.writeDouble(n.getEntryValue(i, k));
+			}
+		}
+	}
+
+	private static void writeDoubles(DataOutputStream out, double[] values)
+			throws IOException {
+		out.writeInt(values == null ? -1 : values.length);
+		for (int i = 0; values != null && i < values.length; i++) {
+			out.writeDouble(values[i]);
+		}
+	}
+
+	private static void writeAggregatedValues(DataOutputStream out,
+			List<AggregatedValue> values) throws IOException {
+		out.writeInt(values.size());
+		for (AggregatedValue v : values.getList()) {
+			out.writeUTF(v.getName());
+			RunStore.writeDoubles(out, v.getValues());
+		}
+	}
+
+	private static void writeAggregatedValues(DataOutputStream out,
+			AggregatedValue[] values, double scale) throws IOException {
+		out.writeInt(values == null ? -1 : values.length);
+		for (int i = 0; values != null && i < values.length; i++) {
+			out.writeUTF(values[i].getName());
+			double[] v = values[i].getValues();
+			if (scale != 1 && v != null && v.length > 0) {
+				v = v.clone();
+				v[0] *= scale;
+			}
+			RunStore.writeDoubles(out, v);
+		}
+	}
+
+	private static String getName(AggregatedRunTimeList list) {
+		return list.getName() == null ? "" : list.getName();
+	}
+
+	/*
+	 * READ
+	 */
+
+	/**
+	 * Reads all batches of the store.
+	 *
+	 * @param run
+	 *            id of the returned run
+	 * @param batchReadMode
+	 *            specifies which columns are read
+	 */
+	public RunData readRun(int run, BatchReadMode batchReadMode)
+			throws IOException {
+		long[] timestamps = this.getTimestamps();
+		RunData runData = new RunData(run, timestamps.length);
+		for (long timestamp : timestamps) {
+			runData.getBatches().add(this.readBatch(timestamp, batchReadMode));
+		}
+		return runData;
+	}
+
+	/**
+	 * Reads the batch with the given timestamp.
+	 *
+	 * @param timestamp
+	 *            timestamp of the batch
+	 * @param batchReadMode
+	 *            specifies which columns are read
+	 * @return the batch or null in case the store does not contain it
+	 */
+	public synchronized BatchData readBatch(long timestamp,
+			BatchReadMode batchReadMode) throws IOException {
+		this.update();
+		Record r = this.records.get(timestamp);
+		if (r == null) {
+			return null;
+		}
+		ReadMode m = new ReadMode(batchReadMode);
+		RecordReader in = new RecordReader(this.path, r, m);
+
+		ValueList values = new ValueList();
+		RunTimeList generalRuntimes = new RunTimeList();
+		RunTimeList metricRuntimes = new RunTimeList();
+		MetricDataList metrics = new MetricDataList();
+
+		MetricData metric = null;
+		for (Column c : r.columns) {
+			switch (c.kind) {
+			case Values:
+				if (m.values)
+					RunStore.readValues(in.get(c), values);
+				break;
+			case GeneralRuntimes:
+				if (m.values)
+					generalRuntimes = RunStore.readRuntimes(in.get(c));
+				break;
+			case MetricRuntimes:
+				if (m.values)
+					metricRuntimes = RunStore.readRuntimes(in.get(c));
+				break;
+			case Metric:
+				metric = new MetricData(c.metric,
+						IMetric.MetricType.values()[c.type], new ValueList(),
+						new DistributionList(), new NodeValueListList(),
+						new NodeNodeValueListList());
+				metrics.add(metric);
+				break;
+			case MetricValues:
+				if (m.singleValues)
+					RunStore.readValues(in.get(c), metric.getValues());
+				break;
+			case Distribution:
+				metric.getDistributions().add(
+						RunStore.readDistr(c, m.distributions ? in.get(c)
+								: null));
+				break;
+			case NodeValues:
+				if (m.nodeValues)
+					metric.getNodeValues().add(
+							new NodeValueList(c.name, RunStore.readDoubles(in
+									.get(c))));
+				else
+					metric.getNodeValues().add(new NodeValueList(c.name, 0));
+				break;
+			case NodeNodeValues:
+				NodeNodeValueList nnvl = new NodeNodeValueList(c.name, null);
+				if (m.nodeValues) {
+					DataInputStream nnvlIn = in.get(c);
+					try {
+						if (c.type == Storage.sparse.ordinal())
+							nnvl = RunStore.readEntries(c.name, nnvlIn);
+						else
+							nnvl = RunStore.readRows(c.name, nnvlIn);
+					} finally {
+						nnvlIn.close();
+					}
+				}
+				metric.getNodeNodeValues().add(nnvl);
+				break;
+			default:
+				throw new IOException("unexpected column kind "
+						+ c.kind + " in batch record of '" + this.path + "'");
+			}
+		}
+
+		return new BatchData(timestamp, values, generalRuntimes,
+				metricRuntimes, metrics);
+	}
+
+	/**
+	 * Reads the aggregated batch with the given timestamp.
+	 *
+	 * @param timestamp
+	 *            timestamp of the batch
+	 * @param batchReadMode
+	 *            specifies which columns are read
+	 * @return the aggregated batch or null in case the store does not contain
+	 *         it
+	 */
+	public synchronized AggregatedBatch readAggregatedBatch(long timestamp,
+			BatchReadMode batchReadMode) throws IOException {
+		this.update();
+		Record r = this.records.get(timestamp);
+		if (r == null) {
+			return null;
+		}
+		ReadMode m = new ReadMode(batchReadMode);
+		RecordReader in = new RecordReader(this.path, r, m);
+
+		AggregatedValueList values = new AggregatedValueList();
+		AggregatedRunTimeList generalRuntimes = null;
+		AggregatedRunTimeList metricRuntimes = null;
+		AggregatedMetricList metrics = new AggregatedMetricList();
+
+		AggregatedMetric metric = null;
+		for (Column c : r.columns) {
+			switch (c.kind) {
+			case AggregatedValues:
+				if (m.values)
+					RunStore.readAggregatedValues(in.get(c), values);
+				break;
+			case AggregatedGeneralRuntimes:
+				generalRuntimes = new AggregatedRunTimeList(c.name);
+				if (m.values)
+					RunStore.readAggregatedValues(in.get(c), generalRuntimes);
+				break;
+			case AggregatedMetricRuntimes:
+				metricRuntimes = new AggregatedRunTimeList(c.name);
+				if (m.values)
+					RunStore.readAggregatedValues(in.get(c), metricRuntimes);
+				break;
+			case AggregatedMetric:
+				metric = new AggregatedMetric(c.metric,
+						new AggregatedValueList(),
+						new AggregatedDistributionList(),
+						new AggregatedNodeValueListList());
+				metrics.add(metric);
+				break;
+			case AggregatedMetricValues:
+				if (m.singleValues)
+					RunStore.readAggregatedValues(in.get(c), metric.getValues());
+				break;
+			case AggregatedDistribution:
+				if (m.distributions)
+					metric.getDistributions().add(
+							new AggregatedDistribution(c.name, RunStore
+									.readAggregatedValues(in.get(c))));
+				else
+					metric.getDistributions().add(
+							new AggregatedDistribution(c.name));
+				break;
+			case AggregatedBinnedDistribution:
+				metric.getDistributions().add(
+						new AggregatedBinnedDistribution(c.name,
+								m.distributions ? RunStore
+										.readAggregatedValues(in.get(c))
+										: null));
+				break;
+			case AggregatedNodeValues:
+				if (m.nodeValues)
+					metric.getNodeValues().add(
+							new AggregatedNodeValueList(c.name, RunStore
+									.readAggregatedValues(in.get(c))));
+				else
+					metric.getNodeValues().add(
+							new AggregatedNodeValueList(c.name));
+				break;
+			default:
+				throw new IOException("unexpected column kind "
+						+ c.kind + " in aggregated batch record of '"
+						+ this.path + "'");
+			}
+		}
+
+		return new AggregatedBatch(timestamp, values, generalRuntimes,
+				metricRuntimes, metrics);
+	}
+
+	private static void readValues(DataInputStream in, ValueList values)
+			throws IOException {
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			values.add(new Value(in.readUTF(), in.readDouble()));
+		}
+	}
+
+	private static RunTimeList readRuntimes(DataInputStream in)
+			throws IOException {
+		int size = in.readInt();
+		RunTimeList runtimes = new RunTimeList(size);
+		for (int i = 0; i < size; i++) {
+			runtimes.add(new RunTime(in.readUTF(), in.readDouble()));
+		}
+		return runtimes;
+	}
+
+	private static Distr<?, ?> readDistr(Column c, DataInputStream in)
+			throws IOException {
+		if (c.type < 0 || c.type >= DistrType.values().length) {
+			throw new IOException("unknown type " + c.type
+					+ " of distribution '" + c.name + "'");
+		}
+		DistrType type = DistrType.values()[c.type];
+		if (in == null) {
+			switch (type) {
+			case BINNED_DOUBLE:
+				return new BinnedDoubleDistr(c.name);
+			case BINNED_INT:
+				return new BinnedIntDistr(c.name);
+			case BINNED_LONG:
+				return new BinnedLongDistr(c.name);
+			case QUALITY_DOUBLE:
+				return new QualityDoubleDistr(c.name);
+			case QUALITY_INT:
+				return new QualityIntDistr(c.name);
+			case QUALITY_LONG:
+				return new QualityLongDistr(c.name);
+			default:
+				throw new IOException("unsupported type " + type
+						+ " of distribution '" + c.name + "'");
+			}
+		}
+
+		String binSize = in.readUTF();
+		switch (type) {
+		case BINNED_DOUBLE:
+		case BINNED_INT:
+		case BINNED_LONG:
+			long denominator = in.readLong();
+			long[] values = new long[in.readInt()];
+			for (int i = 0; i < values.length; i++) {
+				values[i] = in.readLong();
+			}
+			if (type == DistrType.BINNED_DOUBLE)
+				return new BinnedDoubleDistr(c.name, binSize, values,
+						denominator);
+			if (type == DistrType.BINNED_INT)
+				return new BinnedIntDistr(c.name, binSize, values, denominator);
+			return new BinnedLongDistr(c.name, binSize, values, denominator);
+		case QUALITY_DOUBLE:
+			return new QualityDoubleDistr(c.name, binSize,
+					RunStore.readDoubles(in));
+		case QUALITY_INT:
+			return new QualityIntDistr(c.name, binSize,
+					RunStore.readDoubles(in));
+		case QUALITY_LONG:
+			return new QualityLongDistr(c.name, binSize,
+					RunStore.readDoubles(in));
+		default:
+			throw new IOException("unsupported type " + type
+					+ " of distribution '" + c.name + "'");
+		}
+	}
+
+	/**
+	 * Reads a list written row by row, it is mapped in case its size exceeds
+	 * NODENODEVALUELIST_MAPPED_SIZE.
+	 */
+	private static NodeNodeValueList readRows(String name, DataInputStream in)
+			throws IOException {
+		int rows = in.readInt();
+		Storage storage = NodeNodeValueList.getReadStorage(rows);
+		if (storage == Storage.mapped) {
+			NodeNodeValueList nnvl = NodeNodeValueList.create(name, rows,
+					storage);
+			for (int i = 0; i < rows; i++) {
+				nnvl.setValuesByIndex(i, RunStore.readDoubles(in));
+			}
+			return nnvl;
+		}
+		double[][] rowValues = new double[rows][];
+		for (int i = 0; i < rows; i++) {
+			rowValues[i] = RunStore.readDoubles(in);
+		}
+		return new NodeNodeValueList(name, rowValues);
+	}
+
+	/** Reads a sparse list written as (row, column, value) entries. **/
+	private static NodeNodeValueList readEntries(String name,
+			DataInputStream in) throws IOException {
+		NodeNodeValueList nnvl = NodeNodeValueList.create(name, in.readInt(),
+				Storage.sparse);
+		long entries = in.readLong();
+		for (long k = 0; k < entries; k++) {
+			nnvl.setValue(in.readInt(), in.readInt(), in.readDouble());
+		}
+		return nnvl;
+	}
+
+	private static double[] readDoubles(DataInputStream in) throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		double[] values = new double[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = in.readDouble();
+		}
+		return values;
+	}
+
+	private static void readAggregatedValues(DataInputStream in,
+			List<AggregatedValue> list) throws IOException {
+		int size = in.readInt();
+		for (int i = 0; i < size; i++) {
+			list.add(new AggregatedValue(in.readUTF(), RunStore
+					.readDoubles(in)));
+		}
+	}
+
+	private static AggregatedValue[] readAggregatedValues(DataInputStream in)
+			throws IOException {
+		int size = in.readInt();
+		if (size < 0) {
+			return null;
+		}
+		AggregatedValue[] values = new AggregatedValue[size];
+		for (int i = 0; i < size; i++) {
+			values[i] = new AggregatedValue(in.readUTF(),
+					RunStore.readDoubles(in));
+		}
+		return values;
+	}
+
+	/*
+	 * RECORDS
+	 */
+
+	/** A record of the store, i.e., the columns of a single batch. **/
+	private static class Record {
+		private long data;
+
+		private Column[] columns;
+
+		public Record(long data, Column[] columns) {
+			this.data = data;
+			this.columns = columns;
+		}
+	}
+
+	/** Entry of the directory of a record. **/
+	private static class Column {
+		private byte kind;
+
+		private String metric;
+
+		private String name;
+
+		private int type;
+
+		/** group of the column, only set while the record is written **/
+		private int group;
+
+		/** offset in the file (or in its group while being written) **/
+		private long offset;
+
+		private long length;
+
+		private Column() {
+		}
+
+		private Column(byte kind, String metric, String name, int type,
+				int group, long offset, long length) {
+			this.kind = kind;
+			this.metric = metric;
+			this.name = name;
+			this.type = type;
+			this.group = group;
+			this.offset = offset;
+			this.length = length;
+		}
+
+		private static Column[] read(byte[] dir, int columns, long data)
+				throws IOException {
+			DataInputStream in = new DataInputStream(new ByteArrayInputStream(
+					dir));
+			Column[] c = new Column[columns];
+			for (int i = 0; i < columns; i++) {
+				c[i] = new Column();
+				c[i].kind = in.readByte();
+				c[i].metric = in.readUTF();
+				c[i].name = in.readUTF();
+				c[i].type = in.readByte();
+				c[i].offset = data + in.readLong();
+				c[i].length = in.readLong();
+			}
+			return c;
+		}
+
+		private int getGroup() {
+			switch (this.kind) {
+			case Distribution:
+			case AggregatedDistribution:
+			case AggregatedBinnedDistribution:
+				return Distributions;
+			case NodeValues:
+			case AggregatedNodeValues:
+				return NodeValueLists;
+			case NodeNodeValues:
+				return NodeNodeValueLists;
+			default:
+				return SingleValues;
+			}
+		}
+	}
+
+	/** Columns to read for a BatchReadMode (as for batch directories). **/
+	private static class ReadMode {
+		private boolean values;
+
+		private boolean singleValues;
+
+		private boolean distributions;
+
+		private boolean nodeValues;
+
+		public ReadMode(BatchReadMode batchReadMode) {
+			switch (batchReadMode) {
+			case readOnlySingleValues:
+				this.values = true;
+				this.singleValues = true;
+				break;
+			case readOnlyDistAndNvl:
+				this.distributions = true;
+				this.nodeValues = true;
+				break;
+			case readNoValues:
+				break;
+			default:
+				this.values = true;
+				this.singleValues = true;
+				this.distributions = true;
+				this.nodeValues = true;
+				break;
+			}
+		}
+
+		private boolean isRead(Column c) {
+			switch (c.getGroup()) {
+			case Distributions:
+				return this.distributions;
+			case NodeValueLists:
+			case NodeNodeValueLists:
+				return this.nodeValues;
+			default:
+				switch (c.kind) {
+				case Values:
+				case GeneralRuntimes:
+				case MetricRuntimes:
+				case AggregatedValues:
+				case AggregatedGeneralRuntimes:
+				case AggregatedMetricRuntimes:
+					return this.values;
+				case MetricValues:
+				case AggregatedMetricValues:
+					return this.singleValues;
+				default:
+					return false;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads the (contiguous) range of a record that contains all columns to
+	 * read at once and provides the single columns. Nodenodevaluelists are
+	 * not part of this range but streamed from the file.
+	 */
+	private static class RecordReader {
+		private String path;
+
+		private byte[] data;
+
+		private long offset;
+
+		public RecordReader(String path, Record r, ReadMode m)
+				throws IOException {
+			this.path = path;
+			long from = Long.MAX_VALUE;
+			long to = Long.MIN_VALUE;
+			for (Column c : r.columns) {
+				if (c.length > 0 && m.isRead(c)
+						&& c.getGroup() != NodeNodeValueLists) {
+					from = Math.min(from, c.offset);
+					to = Math.max(to, c.offset + c.length);
+				}
+			}
+			if (from > to) {
+				this.data = new byte[0];
+				this.offset = r.data;
+				return;
+			}
+			if (to - from > Integer.MAX_VALUE) {
+				throw new IOException("cannot read " + (to - from)
+						+ " bytes of a record of '" + path + "' at once");
+			}
+
+			this.data = new byte[(int) (to - from)];
+			this.offset = from;
+			RandomAccessFile file = new RandomAccessFile(path, "r");
+			try {
+				file.seek(from);
+				file.readFully(this.data);
+			} finally {
+				file.close();
+			}
+		}
+
+		/**
+		 * Returns the data of the column, the returned stream must be closed
+		 * in case of a nodenodevaluelist.
+		 */
+		public DataInputStream get(Column c) throws IOException {
+			if (c.getGroup() == NodeNodeValueLists) {
+				FileInputStream file = new FileInputStream(this.path);
+				file.getChannel().position(c.offset);
+				return new DataInputStream(new BufferedInputStream(file));
+			}
+			return new DataInputStream(new ByteArrayInputStream(this.data,
+					(int) (c.offset - this.offset), (int) c.length));
+		}
+	}
+
+	/**
+	 * Collects the columns of a record (in separate buffers per group) and
+	 * writes the record. Nodenodevaluelists are only collected and streamed
+	 * to the file when the record is written.
+	 */
+	private static class RecordWriter {
+		private ByteArrayOutputStream[] bytes;
+
+		private DataOutputStream[] groups;
+
+		private ArrayList<Column> columns;
+
+		private ArrayList<NodeNodeValueList> nodeNodeValues;
+
+		private int group;
+
+		private int start;
+
+		public RecordWriter() {
+			this.bytes = new ByteArrayOutputStream[NodeNodeValueLists];
+			this.groups = new DataOutputStream[NodeNodeValueLists];
+			for (int i = 0; i < this.groups.length; i++) {
+				this.bytes[i] = new ByteArrayOutputStream();
+				this.groups[i] = new DataOutputStream(this.bytes[i]);
+			}
+			this.columns = new ArrayList<Column>();
+			this.nodeNodeValues = new ArrayList<NodeNodeValueList>();
+		}
+
+		/** Starts a new column in the given (buffered) group. **/
+		public DataOutputStream column(int group) {
+			this.group = group;
+			this.start = this.groups[group].size();
+			return this.groups[group];
+		}
+
+		/** Finishes the current column. **/
+		public void close(byte kind, String metric, String name, int type) {
+			this.columns.add(new Column(kind, metric, name, type, this.group,
+					this.start, this.groups[this.group].size() - this.start));
+		}
+
+		/** Adds a nodenodevaluelist as column, it is written with the record. **/
+		public void add(String metric, NodeNodeValueList n) {
+			Storage storage = n instanceof SparseNodeNodeValueList ? Storage.sparse
+					: Storage.dense;
+			this.columns.add(new Column(NodeNodeValues, metric, n.getName(),
+					storage.ordinal(), NodeNodeValueLists, 0, 0));
+			this.nodeNodeValues.add(n);
+		}
+
+		/**
+		 * Appends the record to the file. The data length in its header is
+		 * only set once the record is complete, until then it is skipped by
+		 * readers of the store.
+		 */
+		public void write(RandomAccessFile file, long timestamp)
+				throws IOException {
+			long record = file.length();
+			long data = record + RecordHeader;
+			file.seek(record);
+			DataOutputStream out = new DataOutputStream(
+					new BufferedOutputStream(Channels.newOutputStream(file
+							.getChannel())));
+
+			out.writeLong(timestamp);
+			out.writeInt(this.columns.size());
+			out.writeInt(0);
+			out.writeLong(-1);
+
+			long[] base = new long[this.groups.length];
+			for (int i = 1; i < base.length; i++) {
+				base[i] = base[i - 1] + this.groups[i - 1].size();
+			}
+			for (ByteArrayOutputStream b : this.bytes) {
+				b.writeTo(out);
+			}
+
+			int next = 0;
+			for (Column c : this.columns) {
+				if (c.group != NodeNodeValueLists) {
+					c.offset += base[c.group];
+					continue;
+				}
+				NodeNodeValueList n = this.nodeNodeValues.get(next++);
+				out.flush();
+				c.offset = file.getFilePointer() - data;
+				if (n instanceof SparseNodeNodeValueList) {
+					RunStore.writeEntries(out, (SparseNodeNodeValueList) n);
+				} else {
+					RunStore.writeRows(out, n);
+				}
+				out.flush();
+				c.length = file.getFilePointer() - data - c.offset;
+			}
+			out.flush();
+			long dataLength = file.getFilePointer() - data;
+
+			ByteArrayOutputStream dirBytes = new ByteArrayOutputStream();
+			DataOutputStream dir = new DataOutputStream(dirBytes);
+			for (Column c : this.columns) {
+				dir.writeByte(c.kind);
+				dir.writeUTF(c.metric);
+				dir.writeUTF(c.name);
+				dir.writeByte(c.type);
+				dir.writeLong(c.offset);
+				dir.writeLong(c.length);
+			}
+			dirBytes.writeTo(out);
+			out.flush();
+
+			file.seek(record + 12);
+			file.writeInt(dirBytes.size());
+			file.writeLong(dataLength);
+		}
+	}
+}
@@ -86,7 +86,8 @@ public class SNAPGraphReader {
 	 * @throws IOException
 	 *             in case the file does not exist
 	 */
-	public static IGraph read(String dir, String filename, GraphDataStructure ds)
+	public static IGraph read(String dir, String filename,
+			GraphDataStructure ds)
 			throws IOException {
 
 		HashMap<Integer, Integer> map = new HashMap<Integer, Integer>();
@@ -94,12 +95,12 @@ public class SNAPGraphReader {
 		// instead
 		// HashMap<Long, Integer> map = new HashMap<Long, Integer>();
 
-		// Creates the reader
-		Reader reader = new Reader(dir, filename, false);
+		// Creates the tokenizer (ids are separated by tabs or spaces)
+		ByteTokenizer tokenizer = new ByteTokenizer(dir, filename);
 
 		// Check if the SNAP graph is directed or undirected and creates a GDS
 		// if necessary
-		String structure = reader.readString();
+		String structure = tokenizer.readLine();
 		if (ds == null) {
 			if (structure.contains(Config.get("SNAP_GRAPH_KEYWORD_DIRECTED"))) {
 
@@ -117,11 +118,11 @@ public class SNAPGraphReader {
 		}
 
 		// Gets the name of the SNAP graph
-		String name = reader.readString();
+		String name = tokenizer.readLine();
 		name = name.substring(name.indexOf(" ") + 1);
 
 		// Gets the node count
-		String nodeAndEdgeCount = reader.readString();
+		String nodeAndEdgeCount = tokenizer.readLine();
 		int offset = nodeAndEdgeCount.indexOf(Config
 				.get("SNAP_GRAPH_KEYWORD_NODE_COUNT"))
 				+ Config.get("SNAP_GRAPH_KEYWORD_NODE_COUNT").length();
@@ -143,7 +144,7 @@ public class SNAPGraphReader {
 		IGraph g = ds.newGraphInstance(name, 0, nodeCount, edgeCount);
 
 		// Reads and adds the edges
-		String line = reader.readString();
+		String line = tokenizer.readLine();
 		int nodeID = 0;
 
 		// ############ Notification system ############
@@ -157,7 +158,7 @@ public class SNAPGraphReader {
 		// ############ End of Notification ############
 
 		if (line.contains(Config.get("SNAP_GRAPH_KEYWORD_EDGES_LIST"))) {
-			while ((line = reader.readString()) != null) {
+			while (tokenizer.nextLine()) {
 
 				// ############ Notification system ############
 				if (((double) nodeID / (double) nodeCount) >= percentage) {
@@ -167,19 +168,12 @@ public class SNAPGraphReader {
 				}
 				// ############ End of Notification ############
 
-				int tabIndex = line.indexOf('\t');
-				int srcIndex = Integer.parseInt(line.substring(0, tabIndex));
-				int destIndex = Integer.parseInt(line.substring(tabIndex + 1,
-						line.length()));
-
-				// For the case the IDs are too long to be seperated through a
-				// tab use this instead
-				// int tabIndex = line.indexOf(' ');
+				int srcIndex = tokenizer.nextInt();
+				int destIndex = tokenizer.nextInt();
 
 				// For the case you use the <long, int> HashMap
-				// long srcIndex = Long.parseLong(line.substring(0, tabIndex));
-				// long destIndex = Long.parseLong(line.substring(tabIndex + 1,
-				// line.length()));
+				// long srcIndex = tokenizer.nextLong();
+				// long destIndex = tokenizer.nextLong();
 
 				Node src;
 				Node dest;
@@ -210,8 +204,8 @@ public class SNAPGraphReader {
 			}
 		}
 
-		// Closes the reader, returns the graph
-		reader.close();
+		// Closes the tokenizer, returns the graph
+		tokenizer.close();
 		return g;
 	}
 
@@ -8,6 +8,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 
+import dna.io.RunStore;
 import dna.io.ZipReader;
 import dna.io.filter.PrefixFilenameFilter;
 import dna.metrics.IMetric;
@@ -96,6 +97,15 @@ public class Dir {
 				ZipReader.closeReadFilesystem();
 				return tempBatches;
 			}
+		} else if (Config.get("GENERATION_AS_ZIP").equals("store")) {
+			RunStore store = RunStore.getIntelligent(dir);
+			if (store.exists()) {
+				long[] timestamps = store.getTimestamps();
+				String[] tempBatches = new String[timestamps.length];
+				for (int i = 0; i < timestamps.length; i++)
+					tempBatches[i] = Files.getBatchFilename(timestamps[i]);
+				return tempBatches;
+			}
 		} else {
 			return Dir.getBatches(dir);
 		}
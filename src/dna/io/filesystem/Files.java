@@ -34,6 +34,18 @@ public class Files {
 		return Config.get("RUN_AGGREGATION") + Config.get("SUFFIX_ZIP_FILE");
 	}
 
+	/*
+	 * RUN STORE FILENAMES
+	 */
+	public static String getRunStoreFilename(int run) {
+		return Config.get("PREFIX_RUNDATA_DIR") + run
+				+ Config.get("SUFFIX_STORE_FILE");
+	}
+
+	public static String getAggregationStoreFilename() {
+		return Config.get("RUN_AGGREGATION") + Config.get("SUFFIX_STORE_FILE");
+	}
+
 	/*
 	 * DISTRIBUTION
 	 */
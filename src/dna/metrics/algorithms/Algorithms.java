@@ -19,6 +19,13 @@ public class Algorithms {
 	public IBeforeER[] beforeUpdateER;
 	public IBeforeEW[] beforeUpdateEW;
 
+	public IBeforeNAs[] beforeNAs;
+	public IBeforeNRs[] beforeNRs;
+	public IBeforeNWs[] beforeNWs;
+	public IBeforeEAs[] beforeEAs;
+	public IBeforeERs[] beforeERs;
+	public IBeforeEWs[] beforeEWs;
+
 	public IAfterNA[] afterUpdateNA;
 	public IAfterNR[] afterUpdateNR;
 	public IAfterNW[] afterUpdateNW;
@@ -26,6 +33,13 @@ public class Algorithms {
 	public IAfterER[] afterUpdateER;
 	public IAfterEW[] afterUpdateEW;
 
+	public IAfterNAs[] afterNAs;
+	public IAfterNRs[] afterNRs;
+	public IAfterNWs[] afterNWs;
+	public IAfterEAs[] afterEAs;
+	public IAfterERs[] afterERs;
+	public IAfterEWs[] afterEWs;
+
 	public IAfterBatch[] afterBatch;
 
 	public Algorithms(IMetric[] metrics) {
@@ -40,52 +54,113 @@ public class Algorithms {
 		this.beforeBatch = (IBeforeBatch[]) this.get(IBeforeBatch.class)
 				.toArray(new IBeforeBatch[this.count(IBeforeBatch.class)]);
 
-		this.beforeUpdateNA = (IBeforeNA[]) this.get(IBeforeNA.class).toArray(
-				new IBeforeNA[this.count(IBeforeNA.class)]);
-		this.beforeUpdateNR = (IBeforeNR[]) this.get(IBeforeNR.class).toArray(
-				new IBeforeNR[this.count(IBeforeNR.class)]);
-		this.beforeUpdateNW = (IBeforeNW[]) this.get(IBeforeNW.class).toArray(
-				new IBeforeNW[this.count(IBeforeNW.class)]);
-		this.beforeUpdateEA = (IBeforeEA[]) this.get(IBeforeEA.class).toArray(
-				new IBeforeEA[this.count(IBeforeEA.class)]);
-		this.beforeUpdateER = (IBeforeER[]) this.get(IBeforeER.class).toArray(
-				new IBeforeER[this.count(IBeforeER.class)]);
-		this.beforeUpdateEW = (IBeforeEW[]) this.get(IBeforeEW.class).toArray(
-				new IBeforeEW[this.count(IBeforeEW.class)]);
-
-		this.afterUpdateNA = (IAfterNA[]) this.get(IAfterNA.class).toArray(
-				new IAfterNA[this.count(IAfterNA.class)]);
-		this.afterUpdateNR = (IAfterNR[]) this.get(IAfterNR.class).toArray(
-				new IAfterNR[this.count(IAfterNR.class)]);
-		this.afterUpdateNW = (IAfterNW[]) this.get(IAfterNW.class).toArray(
-				new IAfterNW[this.count(IAfterNW.class)]);
-		this.afterUpdateEA = (IAfterEA[]) this.get(IAfterEA.class).toArray(
-				new IAfterEA[this.count(IAfterEA.class)]);
-		this.afterUpdateER = (IAfterER[]) this.get(IAfterER.class).toArray(
-				new IAfterER[this.count(IAfterER.class)]);
-		this.afterUpdateEW = (IAfterEW[]) this.get(IAfterEW.class).toArray(
-				new IAfterEW[this.count(IAfterEW.class)]);
+		this.beforeUpdateNA = (IBeforeNA[]) this.get(IBeforeNA.class,
+				IBeforeNAs.class).toArray(
+				new IBeforeNA[this.count(IBeforeNA.class, IBeforeNAs.class)]);
+		this.beforeUpdateNR = (IBeforeNR[]) this.get(IBeforeNR.class,
+				IBeforeNRs.class).toArray(
+				new IBeforeNR[this.count(IBeforeNR.class, IBeforeNRs.class)]);
+		this.beforeUpdateNW = (IBeforeNW[]) this.get(IBeforeNW.class,
+				IBeforeNWs.class).toArray(
+				new IBeforeNW[this.count(IBeforeNW.class, IBeforeNWs.class)]);
+		this.beforeUpdateEA = (IBeforeEA[]) this.get(IBeforeEA.class,
+				IBeforeEAs.class).toArray(
+				new IBeforeEA[this.count(IBeforeEA.class, IBeforeEAs.class)]);
+		this.beforeUpdateER = (IBeforeER[]) this.get(IBeforeER.class,
+				IBeforeERs.class).toArray(
+				new IBeforeER[this.count(IBeforeER.class, IBeforeERs.class)]);
+		this.beforeUpdateEW = (IBeforeEW[]) this.get(IBeforeEW.class,
+				IBeforeEWs.class).toArray(
+				new IBeforeEW[this.count(IBeforeEW.class, IBeforeEWs.class)]);
+
+		this.beforeNAs = (IBeforeNAs[]) this.get(IBeforeNAs.class).toArray(
+				new IBeforeNAs[this.count(IBeforeNAs.class)]);
+		this.beforeNRs = (IBeforeNRs[]) this.get(IBeforeNRs.class).toArray(
+				new IBeforeNRs[this.count(IBeforeNRs.class)]);
+		this.beforeNWs = (IBeforeNWs[]) this.get(IBeforeNWs.class).toArray(
+				new IBeforeNWs[this.count(IBeforeNWs.class)]);
+		this.beforeEAs = (IBeforeEAs[]) this.get(IBeforeEAs.class).toArray(
+				new IBeforeEAs[this.count(IBeforeEAs.class)]);
+		this.beforeERs = (IBeforeERs[]) this.get(IBeforeERs.class).toArray(
+				new IBeforeERs[this.count(IBeforeERs.class)]);
+		this.beforeEWs = (IBeforeEWs[]) this.get(IBeforeEWs.class).toArray(
+				new IBeforeEWs[this.count(IBeforeEWs.class)]);
+
+		this.afterUpdateNA = (IAfterNA[]) this.get(IAfterNA.class,
+				IAfterNAs.class).toArray(
+				new IAfterNA[this.count(IAfterNA.class, IAfterNAs.class)]);
+		this.afterUpdateNR = (IAfterNR[]) this.get(IAfterNR.class,
+				IAfterNRs.class).toArray(
+				new IAfterNR[this.count(IAfterNR.class, IAfterNRs.class)]);
+		this.afterUpdateNW = (IAfterNW[]) this.get(IAfterNW.class,
+				IAfterNWs.class).toArray(
+				new IAfterNW[this.count(IAfterNW.class, IAfterNWs.class)]);
+		this.afterUpdateEA = (IAfterEA[]) this.get(IAfterEA.class,
+				IAfterEAs.class).toArray(
+				new IAfterEA[this.count(IAfterEA.class, IAfterEAs.class)]);
+		this.afterUpdateER = (IAfterER[]) this.get(IAfterER.class,
+				IAfterERs.class).toArray(
+				new IAfterER[this.count(IAfterER.class, IAfterERs.class)]);
+		this.afterUpdateEW = (IAfterEW[]) this.get(IAfterEW.class,
+				IAfterEWs.class).toArray(
+				new IAfterEW[this.count(IAfterEW.class, IAfterEWs.class)]);
+
+		this.afterNAs = (IAfterNAs[]) this.get(IAfterNAs.class).toArray(
+				new IAfterNAs[this.count(IAfterNAs.class)]);
+		this.afterNRs = (IAfterNRs[]) this.get(IAfterNRs.class).toArray(
+				new IAfterNRs[this.count(IAfterNRs.class)]);
+		this.afterNWs = (IAfterNWs[]) this.get(IAfterNWs.class).toArray(
+				new IAfterNWs[this.count(IAfterNWs.class)]);
+		this.afterEAs = (IAfterEAs[]) this.get(IAfterEAs.class).toArray(
+				new IAfterEAs[this.count(IAfterEAs.class)]);
+		this.afterERs = (IAfterERs[]) this.get(IAfterERs.class).toArray(
+				new IAfterERs[this.count(IAfterERs.class)]);
+		this.afterEWs = (IAfterEWs[]) this.get(IAfterEWs.class).toArray(
+				new IAfterEWs[this.count(IAfterEWs.class)]);
 
 		this.afterBatch = (IAfterBatch[]) this.get(IAfterBatch.class).toArray(
 				new IAfterBatch[this.count(IAfterBatch.class)]);
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings({ "rawtypes" })
 	private int count(Class test) {
+		return this.count(test, null);
+	}
+
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private int count(Class test, Class exclude) {
 		int counter = 0;
 		for (IMetric m : this.metrics) {
-			if (test.isAssignableFrom(m.getClass())) {
+			if (test.isAssignableFrom(m.getClass())
+					&& (exclude == null || !exclude.isAssignableFrom(m
+							.getClass()))) {
 				counter++;
 			}
 		}
 		return counter;
 	}
 
-	@SuppressWarnings({ "rawtypes", "unchecked" })
+	@SuppressWarnings({ "rawtypes" })
 	private ArrayList<IMetric> get(Class test) {
+		return this.get(test, null);
+	}
+
+	/**
+	 * 
+	 * @param test
+	 *            interface the metrics must implement
+	 * @param exclude
+	 *            interface the metrics must not implement (can be null), e.g.,
+	 *            the batch-oriented alternative of test
+	 * @return all metrics implementing test but not exclude
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private ArrayList<IMetric> get(Class test, Class exclude) {
 		ArrayList<IMetric> list = new ArrayList<IMetric>();
 		for (IMetric m : this.metrics) {
-			if (test.isAssignableFrom(m.getClass())) {
+			if (test.isAssignableFrom(m.getClass())
+					&& (exclude == null || !exclude.isAssignableFrom(m
+							.getClass()))) {
 				list.add(m);
 			}
 		}
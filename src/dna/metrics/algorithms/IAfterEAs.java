@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.EdgeAddition;
+
+/**
+ * Batch-oriented alternative to IAfterEA: the metric receives all
+ * EdgeAdditions of a batch at once after they have been applied to the graph
+ * (updates that could not be applied are not contained). A metric
+ * implementing both interfaces is only passed the whole slice.
+ */
+public interface IAfterEAs extends IDynamicAlgorithm {
+	public boolean applyAfterEAs(Iterable<EdgeAddition> eas);
+}
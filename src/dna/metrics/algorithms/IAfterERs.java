@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.EdgeRemoval;
+
+/**
+ * Batch-oriented alternative to IAfterER: the metric receives all
+ * EdgeRemovals of a batch at once after they have been applied to the graph
+ * (updates that could not be applied are not contained). A metric
+ * implementing both interfaces is only passed the whole slice.
+ */
+public interface IAfterERs extends IDynamicAlgorithm {
+	public boolean applyAfterERs(Iterable<EdgeRemoval> ers);
+}
@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.EdgeWeight;
+
+/**
+ * Batch-oriented alternative to IAfterEW: the metric receives all
+ * EdgeWeights of a batch at once after they have been applied to the graph
+ * (updates that could not be applied are not contained). A metric
+ * implementing both interfaces is only passed the whole slice.
+ */
+public interface IAfterEWs extends IDynamicAlgorithm {
+	public boolean applyAfterEWs(Iterable<EdgeWeight> ews);
+}
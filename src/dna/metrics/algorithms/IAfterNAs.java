@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.NodeAddition;
+
+/**
+ * Batch-oriented alternative to IAfterNA: the metric receives all
+ * NodeAdditions of a batch at once after they have been applied to the graph
+ * (updates that could not be applied are not contained). A metric
+ * implementing both interfaces is only passed the whole slice.
+ */
+public interface IAfterNAs extends IDynamicAlgorithm {
+	public boolean applyAfterNAs(Iterable<NodeAddition> nas);
+}
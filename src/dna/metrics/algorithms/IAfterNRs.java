@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.NodeRemoval;
+
+/**
+ * Batch-oriented alternative to IAfterNR: the metric receives all
+ * NodeRemovals of a batch at once after they have been applied to the graph
+ * (updates that could not be applied are not contained). A metric
+ * implementing both interfaces is only passed the whole slice.
+ */
+public interface IAfterNRs extends IDynamicAlgorithm {
+	public boolean applyAfterNRs(Iterable<NodeRemoval> nrs);
+}
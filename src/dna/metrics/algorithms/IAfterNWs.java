@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.NodeWeight;
+
+/**
+ * Batch-oriented alternative to IAfterNW: the metric receives all
+ * NodeWeights of a batch at once after they have been applied to the graph
+ * (updates that could not be applied are not contained). A metric
+ * implementing both interfaces is only passed the whole slice.
+ */
+public interface IAfterNWs extends IDynamicAlgorithm {
+	public boolean applyAfterNWs(Iterable<NodeWeight> nws);
+}
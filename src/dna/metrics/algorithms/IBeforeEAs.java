@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.EdgeAddition;
+
+/**
+ * Batch-oriented alternative to IBeforeEA: the metric receives all
+ * EdgeAdditions of a batch at once before the first one is applied to the
+ * graph. A metric implementing both interfaces is only passed the whole
+ * slice.
+ */
+public interface IBeforeEAs extends IDynamicAlgorithm {
+	public boolean applyBeforeEAs(Iterable<EdgeAddition> eas);
+}
@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.EdgeRemoval;
+
+/**
+ * Batch-oriented alternative to IBeforeER: the metric receives all
+ * EdgeRemovals of a batch at once before the first one is applied to the
+ * graph. A metric implementing both interfaces is only passed the whole
+ * slice.
+ */
+public interface IBeforeERs extends IDynamicAlgorithm {
+	public boolean applyBeforeERs(Iterable<EdgeRemoval> ers);
+}
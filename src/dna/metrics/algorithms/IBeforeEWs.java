@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.EdgeWeight;
+
+/**
+ * Batch-oriented alternative to IBeforeEW: the metric receives all
+ * EdgeWeights of a batch at once before the first one is applied to the
+ * graph. A metric implementing both interfaces is only passed the whole
+ * slice.
+ */
+public interface IBeforeEWs extends IDynamicAlgorithm {
+	public boolean applyBeforeEWs(Iterable<EdgeWeight> ews);
+}
@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.NodeAddition;
+
+/**
+ * Batch-oriented alternative to IBeforeNA: the metric receives all
+ * NodeAdditions of a batch at once before the first one is applied to the
+ * graph. A metric implementing both interfaces is only passed the whole
+ * slice.
+ */
+public interface IBeforeNAs extends IDynamicAlgorithm {
+	public boolean applyBeforeNAs(Iterable<NodeAddition> nas);
+}
@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.NodeRemoval;
+
+/**
+ * Batch-oriented alternative to IBeforeNR: the metric receives all
+ * NodeRemovals of a batch at once before the first one is applied to the
+ * graph. A metric implementing both interfaces is only passed the whole
+ * slice.
+ */
+public interface IBeforeNRs extends IDynamicAlgorithm {
+	public boolean applyBeforeNRs(Iterable<NodeRemoval> nrs);
+}
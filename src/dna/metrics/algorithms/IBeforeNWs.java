@@ -0,0 +1,13 @@
+package dna.metrics.algorithms;
+
+import dna.updates.update.NodeWeight;
+
+/**
+ * Batch-oriented alternative to IBeforeNW: the metric receives all
+ * NodeWeights of a batch at once before the first one is applied to the
+ * graph. A metric implementing both interfaces is only passed the whole
+ * slice.
+ */
+public interface IBeforeNWs extends IDynamicAlgorithm {
+	public boolean applyBeforeNWs(Iterable<NodeWeight> nws);
+}
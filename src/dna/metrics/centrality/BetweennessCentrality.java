@@ -1,8 +1,5 @@
 package dna.metrics.centrality;
 
-import java.util.HashMap;
-import java.util.Map.Entry;
-
 import dna.graph.IElement;
 import dna.graph.IGraph;
 import dna.graph.nodes.Node;
@@ -137,11 +134,11 @@ public abstract class BetweennessCentrality extends Metric implements IMetric {
 		}
 	}
 
-	protected int sumSPFromHM(HashMap<Node, Integer> spc, Node n) {
+	protected int sumSPFromArray(int[] spc, int n) {
 		int sum = 0;
-		for (Entry<Node, Integer> e : spc.entrySet()) {
-			if (!e.getKey().equals(n)) {
-				sum += e.getValue();
+		for (int i = 0; i < spc.length; i++) {
+			if (i != n) {
+				sum += spc[i];
 			}
 		}
 		return sum;
@@ -1,129 +1,165 @@
 package dna.metrics.centrality;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.LinkedList;
-import java.util.Queue;
-import java.util.Stack;
-
-import dna.graph.IElement;
-import dna.graph.edges.DirectedEdge;
-import dna.graph.edges.UndirectedEdge;
-import dna.graph.nodes.DirectedNode;
-import dna.graph.nodes.Node;
-import dna.graph.nodes.UndirectedNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import dna.graph.CSRGraph;
 import dna.metrics.algorithms.IRecomputation;
 import dna.series.data.distr.BinnedDoubleDistr;
 import dna.series.data.nodevaluelists.NodeValueList;
-
+import dna.util.Config;
+import dna.util.ParallelExecution;
+
+/**
+ * Recomputation of the betweenness centrality using the algorithm of Brandes.
+ * The single-source computations can be distributed among multiple threads,
+ * each thread computes the dependencies of an (interleaved) subset of all
+ * source nodes using its own arrays. Their results are added up afterwards.
+ */
 public class BetweennessCentralityR extends BetweennessCentrality implements
 		IRecomputation {
 
+	protected int threads;
+
 	public BetweennessCentralityR() {
+		this(Config.getInt("RECOMPUTATION_THREADS"));
+	}
+
+	/**
+	 * 
+	 * @param threads
+	 *            number of threads used for the recomputation (values <= 0
+	 *            use the number of available processors)
+	 */
+	public BetweennessCentralityR(int threads) {
 		super("BetweennessCentralityR");
+		this.threads = ParallelExecution.getThreads(threads);
 	}
 
 	@Override
 	public boolean recompute() {
-
-		this.bCC = new NodeValueList("BC_Score",
-				new double[this.g.getMaxNodeIndex() + 1]);
 		this.binnedBC = new BinnedDoubleDistr("Normalized-BC", 0.01d);
 		this.bCSum = 0d;
 		this.sumShortestPaths = 0;
 
-		Queue<Node> q = new LinkedList<Node>();
-		Stack<Node> s = new Stack<Node>();
-
-		for (IElement ie : g.getNodes()) {
-			Node n = (Node) ie;
-			// stage ONE
-			s.clear();
-			q.clear();
-			HashMap<Node, HashSet<Node>> p = new HashMap<Node, HashSet<Node>>();
-			HashMap<Node, Integer> d = new HashMap<Node, Integer>();
-			HashMap<Node, Integer> spc = new HashMap<Node, Integer>();
-			HashMap<Node, Double> sums = new HashMap<Node, Double>();
-
-			for (IElement ieE : g.getNodes()) {
-				Node t = (Node) ieE;
-				if (t == n) {
-					d.put(t, 0);
-					spc.put(t, 1);
-				} else {
-					spc.put(t, 0);
-					d.put(t, Integer.MAX_VALUE);
-				}
-				sums.put(t, 0d);
-				p.put(t, new HashSet<Node>());
+		CSRGraph csr = CSRGraph.freeze(this.g);
+		int workers = Math.max(1, Math.min(this.threads, csr.getNodeCount()));
+		List<Sources> tasks = new ArrayList<Sources>(workers);
+		for (int i = 0; i < workers; i++) {
+			tasks.add(new Sources(csr, i, workers));
+		}
+		List<Sources> results = ParallelExecution.invokeAll(tasks, workers);
+
+		double[] bc = results.get(0).bc;
+		this.bCSum = results.get(0).bCSum;
+		this.sumShortestPaths = results.get(0).sumShortestPaths;
+		for (int i = 1; i < results.size(); i++) {
+			Sources s = results.get(i);
+			for (int j = 0; j < bc.length; j++) {
+				bc[j] += s.bc[j];
 			}
+			this.bCSum += s.bCSum;
+			this.sumShortestPaths += s.sumShortestPaths;
+		}
+		this.bCC = new NodeValueList("BC_Score", bc);
+
+		return true;
+	}
+
+	/**
+	 * Computes the dependencies for the sources csr.getNodes()[first],
+	 * csr.getNodes()[first + step], ...
+	 */
+	protected static class Sources implements Callable<Sources> {
 
-			q.add(n);
+		private CSRGraph csr;
+		private int first;
+		private int step;
+
+		private double[] bc;
+		private double bCSum;
+		private int sumShortestPaths;
+
+		public Sources(CSRGraph csr, int first, int step) {
+			this.csr = csr;
+			this.first = first;
+			this.step = step;
+		}
+
+		@Override
+		public Sources call() {
+			int[] nodes = csr.getNodes();
+			int[] offsets = csr.getOffsets();
+			int[] targets = csr.getTargets();
+
+			int size = csr.getMaxNodeIndex() + 1;
+			this.bc = new double[size];
+			int[] d = new int[size];
+			int[] spc = new int[size];
+			double[] sums = new double[size];
+			Arrays.fill(d, Integer.MAX_VALUE);
+
+			// nodes in the order they are visited (queue of stage 2 and, in
+			// reverse order, stack of stage 3)
+			int[] visited = new int[nodes.length];
+
+			for (int k = this.first; k < nodes.length; k += this.step) {
+				int n = nodes[k];
+
+				// stage ONE
+				d[n] = 0;
+				spc[n] = 1;
+				visited[0] = n;
+				int head = 0;
+				int tail = 1;
 
-			if (DirectedNode.class.isAssignableFrom(this.g
-					.getGraphDatastructures().getNodeType())) {
 				// stage 2
-				while (!q.isEmpty()) {
-					DirectedNode v = (DirectedNode) q.poll();
-					s.push(v);
-					for (IElement iEdges : v.getOutgoingEdges()) {
-						DirectedEdge edge = (DirectedEdge) iEdges;
-						DirectedNode w = (DirectedNode) edge
-								.getDifferingNode(v);
-
-						if (d.get(w).equals(Integer.MAX_VALUE)) {
-							q.add(w);
-							d.put(w, d.get(v) + 1);
+				while (head < tail) {
+					int v = visited[head++];
+					for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+						int w = targets[i];
+						if (d[w] == Integer.MAX_VALUE) {
+							visited[tail++] = w;
+							d[w] = d[v] + 1;
 						}
-						if (d.get(w).equals(d.get(v) + 1)) {
-							spc.put(w, spc.get(w) + spc.get(v));
-							p.get(w).add(v);
+						if (d[w] == d[v] + 1) {
+							spc[w] += spc[v];
 						}
 					}
 				}
-			} else if (UndirectedNode.class.isAssignableFrom(this.g
-					.getGraphDatastructures().getNodeType())) {
-				// stage 2
-				while (!q.isEmpty()) {
-					UndirectedNode v = (UndirectedNode) q.poll();
-					s.push(v);
-
-					for (IElement iEdges : v.getEdges()) {
-						UndirectedEdge edge = (UndirectedEdge) iEdges;
-						UndirectedNode w = (UndirectedNode) edge
-								.getDifferingNode(v);
-
-						if (d.get(w).equals(Integer.MAX_VALUE)) {
-							q.add(w);
-							d.put(w, d.get(v) + 1);
-						}
-						if (d.get(w).equals(d.get(v) + 1)) {
-							spc.put(w, spc.get(w) + spc.get(v));
-							p.get(w).add(v);
+
+				// stage 3 (parents of w are all v with d[v] + 1 == d[w], the
+				// dependencies are therefore accumulated from the successors)
+				for (int j = tail - 1; j >= 0; j--) {
+					int v = visited[j];
+					for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+						int w = targets[i];
+						if (d[w] == d[v] + 1) {
+							sums[v] += spc[v] * (1 + sums[w]) / spc[w];
 						}
 					}
+					if (v != n) {
+						this.bc[v] += sums[v];
+						this.bCSum += sums[v] - 3;
+					}
 				}
-			}
 
-			// stage 3
-			while (!s.isEmpty()) {
-				Node w = s.pop();
-				for (Node parent : p.get(w)) {
-					double sumForCurretConnection = spc.get(parent)
-							* (1 + sums.get(w)) / spc.get(w);
-					sums.put(parent, sums.get(parent) + sumForCurretConnection);
-				}
-				if (w != n) {
-					double currentScore = this.bCC.getValue(w.getIndex());
-					this.bCC.setValue(w.getIndex(), currentScore + sums.get(w));
-					this.bCSum += sums.get(w) - 3;
+				// sum of shortest paths & reset
+				for (int j = 0; j < tail; j++) {
+					int t = visited[j];
+					if (t != n) {
+						this.sumShortestPaths += spc[t];
+					}
+					d[t] = Integer.MAX_VALUE;
+					spc[t] = 0;
+					sums[t] = 0;
 				}
 			}
 
-			sumShortestPaths += sumSPFromHM(spc, n);
-
+			return this;
 		}
-		return true;
 	}
 
 }
@@ -1,12 +1,12 @@
 package dna.metrics.centrality;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.Map.Entry;
 import java.util.Queue;
-import java.util.Stack;
 
 import dna.graph.IElement;
 import dna.graph.edges.DirectedEdge;
@@ -26,18 +26,31 @@ import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
 
+/**
+ * Incremental computation of the betweenness centrality. For each root node,
+ * the shortest path tree (distances, number of shortest paths, accumulated
+ * dependencies, and parents of all nodes) is stored in a ShortestPathTree,
+ * i.e., in primitive arrays indexed by node index.
+ */
 public class BetweennessCentralityU extends BetweennessCentrality implements
 		IAfterNA, IAfterNR, IAfterEA, IAfterER {
 
+	private static final Node[] noParents = new Node[0];
+
 	Queue<Node>[] qLevel;
 	Queue<Node>[] qALevel;
-	HashMap<Node, Long> visited;
+	long[] visited;
 	long counter;
 
-	protected HashMap<Node, HashMap<Node, HashSet<Node>>> parents;
-	protected HashMap<Node, HashMap<Node, Integer>> distances;
-	protected HashMap<Node, HashMap<Node, Integer>> spcs;
-	protected HashMap<Node, HashMap<Node, Double>> accSums;
+	/**
+	 * shortest path trees of all root nodes, indexed by the index of the root
+	 */
+	protected ShortestPathTree[] trees;
+
+	/**
+	 * length of all arrays indexed by node index
+	 */
+	protected int capacity;
 
 	public BetweennessCentralityU() {
 		super("BetweennessCentralityU");
@@ -52,50 +65,33 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 		this.bCSum = 0d;
 		this.sumShortestPaths = 0;
 
-		// this.bC = new HashMap<Node, Double>();
-		this.parents = new HashMap<>();
-		this.distances = new HashMap<>();
-		this.spcs = new HashMap<>();
-		this.accSums = new HashMap<>();
+		this.capacity = this.g.getMaxNodeIndex() + 1;
+		this.trees = new ShortestPathTree[this.capacity];
 
 		int length = 1000;
 		qALevel = new LinkedList[length];
 		qLevel = new LinkedList[length];
-		visited = new HashMap<Node, Long>();
+		visited = new long[this.capacity];
 		counter = 0;
 		for (int i = 0; i < qALevel.length; i++) {
 			qALevel[i] = new LinkedList<Node>();
 			qLevel[i] = new LinkedList<Node>();
 		}
-		for (IElement ie : g.getNodes()) {
-			visited.put((Node) ie, counter);
-		}
 
 		Queue<Node> q = new LinkedList<Node>();
-		Stack<Node> s = new Stack<Node>();
+		// stack of stage 3, nodes are pushed in the order they are polled
+		Node[] s = new Node[this.g.getNodeCount()];
 
 		for (IElement ie : g.getNodes()) {
 			Node n = (Node) ie;
 			// stage ONE
-			s.clear();
 			q.clear();
-			HashMap<Node, HashSet<Node>> p = new HashMap<Node, HashSet<Node>>();
-			HashMap<Node, Integer> d = new HashMap<Node, Integer>();
-			HashMap<Node, Integer> spc = new HashMap<Node, Integer>();
-			HashMap<Node, Double> sums = new HashMap<Node, Double>();
-
-			for (IElement ieE : g.getNodes()) {
-				Node t = (Node) ieE;
-				if (t == n) {
-					d.put(t, 0);
-					spc.put(t, 1);
-				} else {
-					spc.put(t, 0);
-					d.put(t, Integer.MAX_VALUE);
-				}
-				sums.put(t, 0d);
-				p.put(t, new HashSet<Node>());
-			}
+			int top = 0;
+			ShortestPathTree tree = new ShortestPathTree(this.capacity, n);
+			int[] d = tree.d;
+			int[] spc = tree.spc;
+			double[] sums = tree.sums;
+			Node[][] p = tree.parents;
 
 			q.add(n);
 
@@ -104,19 +100,19 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 				// stage 2
 				while (!q.isEmpty()) {
 					DirectedNode v = (DirectedNode) q.poll();
-					s.push(v);
+					s[top++] = v;
 					for (IElement iEdges : v.getOutgoingEdges()) {
 						DirectedEdge edge = (DirectedEdge) iEdges;
 						DirectedNode w = (DirectedNode) edge
 								.getDifferingNode(v);
 
-						if (d.get(w).equals(Integer.MAX_VALUE)) {
+						if (d[w.getIndex()] == Integer.MAX_VALUE) {
 							q.add(w);
-							d.put(w, d.get(v) + 1);
+							d[w.getIndex()] = d[v.getIndex()] + 1;
 						}
-						if (d.get(w).equals(d.get(v) + 1)) {
-							spc.put(w, spc.get(w) + spc.get(v));
-							p.get(w).add(v);
+						if (d[w.getIndex()] == d[v.getIndex()] + 1) {
+							spc[w.getIndex()] += spc[v.getIndex()];
+							p[w.getIndex()] = add(p[w.getIndex()], v);
 
 						}
 					}
@@ -126,20 +122,20 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 				// stage 2
 				while (!q.isEmpty()) {
 					UndirectedNode v = (UndirectedNode) q.poll();
-					s.push(v);
+					s[top++] = v;
 
 					for (IElement iEdges : v.getEdges()) {
 						UndirectedEdge edge = (UndirectedEdge) iEdges;
 						UndirectedNode w = (UndirectedNode) edge
 								.getDifferingNode(v);
 
-						if (d.get(w).equals(Integer.MAX_VALUE)) {
+						if (d[w.getIndex()] == Integer.MAX_VALUE) {
 							q.add(w);
-							d.put(w, d.get(v) + 1);
+							d[w.getIndex()] = d[v.getIndex()] + 1;
 						}
-						if (d.get(w).equals(d.get(v) + 1)) {
-							spc.put(w, spc.get(w) + spc.get(v));
-							p.get(w).add(v);
+						if (d[w.getIndex()] == d[v.getIndex()] + 1) {
+							spc[w.getIndex()] += spc[v.getIndex()];
+							p[w.getIndex()] = add(p[w.getIndex()], v);
 
 						}
 					}
@@ -147,32 +143,24 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			}
 
 			// stage 3
-
-			// stage 3
-			while (!s.isEmpty()) {
-				Node w = s.pop();
-				for (Node parent : p.get(w)) {
-					double sumForCurretConnection = spc.get(parent)
-							* (1 + sums.get(w)) / spc.get(w);
-					sums.put(parent, sums.get(parent) + sumForCurretConnection);
+			while (top > 0) {
+				Node w = s[--top];
+				for (Node parent : p[w.getIndex()]) {
+					double sumForCurretConnection = spc[parent.getIndex()]
+							* (1 + sums[w.getIndex()]) / spc[w.getIndex()];
+					sums[parent.getIndex()] += sumForCurretConnection;
 				}
 				if (w != n) {
 					double currentScore = this.bCC.getValue(w.getIndex());
-					// this.bC.get(w);
-					// this.bC.put(w, currentScore + sums.get(w));
-					this.bCC.setValue(w.getIndex(), currentScore + sums.get(w));
-					this.bCSum += sums.get(w);
+					this.bCC.setValue(w.getIndex(),
+							currentScore + sums[w.getIndex()]);
+					this.bCSum += sums[w.getIndex()];
 				}
 			}
-			parents.put(n, p);
-			distances.put(n, d);
-			spcs.put(n, spc);
-			accSums.put(n, sums);
+			this.trees[n.getIndex()] = tree;
 		}
 
-		for (Entry<Node, HashMap<Node, Integer>> e : spcs.entrySet()) {
-			sumShortestPaths += sumSPFromHM(e.getValue(), e.getKey());
-		}
+		this.computeSumShortestPaths();
 		return true;
 	}
 
@@ -188,21 +176,21 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			for (IElement iE : g.getNodes()) {
 				DirectedNode root = (DirectedNode) iE;
 
-				HashMap<Node, Integer> d = distances.get(root);
-				HashMap<Node, HashSet<Node>> p = parents.get(root);
+				int[] d = this.trees[root.getIndex()].d;
+				Node[][] p = this.trees[root.getIndex()].parents;
 
-				if (!p.get(dst).contains(src)
-						|| d.get(src).equals(Integer.MAX_VALUE)
-						|| d.get(dst).equals(Integer.MAX_VALUE)) {
+				if (!contains(p[dst.getIndex()], src)
+						|| d[src.getIndex()] == Integer.MAX_VALUE
+						|| d[dst.getIndex()] == Integer.MAX_VALUE) {
 					continue;
 				}
 
 				// case 1: more than one parent => no shortest path tree
 				// change
-				if (p.get(dst).size() > 1) {
+				if (p[dst.getIndex()].length > 1) {
 					removeEdgeManyToMany(root, src, dst);
 					// case 2: the lower node has only one parent
-				} else if (p.get(dst).size() == 1) {
+				} else if (p[dst.getIndex()].length == 1) {
 					removeEdgeOneToMany(root, src, dst);
 				}
 			}
@@ -215,38 +203,35 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			for (IElement iE : g.getNodes()) {
 				UndirectedNode root = (UndirectedNode) iE;
 
-				HashMap<Node, Integer> d = distances.get(root);
-				HashMap<Node, HashSet<Node>> p = parents.get(root);
+				int[] d = this.trees[root.getIndex()].d;
+				Node[][] p = this.trees[root.getIndex()].parents;
 
 				// Find the above Tree Element
-				if (d.get(n1) > d.get(n2)) {
+				if (d[n1.getIndex()] > d[n2.getIndex()]) {
 					n1 = n2;
 					n2 = e.getDifferingNode(n1);
 				}
 
-				if (!p.get(n2).contains(n1)
-						|| d.get(n1).equals(Integer.MAX_VALUE)
-						|| d.get(n2).equals(Integer.MAX_VALUE)) {
+				if (!contains(p[n2.getIndex()], n1)
+						|| d[n1.getIndex()] == Integer.MAX_VALUE
+						|| d[n2.getIndex()] == Integer.MAX_VALUE) {
 					continue;
 				}
 
 				// case 1: more than one parent => no shortest path tree
 				// change
-				if (p.get(n2).size() > 1) {
+				if (p[n2.getIndex()].length > 1) {
 
 					removeEdgeManyToMany(root, n1, n2);
 					// case 2: the lower node has only one parent
-				} else if (p.get(n2).size() == 1) {
+				} else if (p[n2.getIndex()].length == 1) {
 					// recomp(g, root);
 					removeEdgeOneToMany(root, n1, n2);
 				}
 			}
 		}
 
-		sumShortestPaths = 0; // reinit necessary!
-		for (Entry<Node, HashMap<Node, Integer>> e : spcs.entrySet()) {
-			sumShortestPaths += sumSPFromHM(e.getValue(), e.getKey());
-		}
+		this.computeSumShortestPaths(); // reinit necessary!
 
 		return true;
 	}
@@ -255,26 +240,27 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		ShortestPathTree tree = this.trees[root.getIndex()];
+		int[] d = tree.d;
+		Node[][] p = tree.parents;
+		double[] oldSums = tree.sums;
+		int[] oldSpc = tree.spc;
 
 		// Queues and data structure for tree change
 		HashSet<Node> uncertain = new HashSet<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		int[] newSpc = oldSpc.clone();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
 		HashMap<Node, HashSet<Node>> newParents = new HashMap<Node, HashSet<Node>>();
 
 		// set data structure for dst Node
-		qLevel[d.get(dst)].add(dst);
+		qLevel[d[dst.getIndex()]].add(dst);
 		uncertain.add(dst);
 		newASums.put(dst, 0d);
 		newParents.put(dst, new HashSet<Node>());
-		visited.put(dst, counter);
-		int max = d.get(dst);
+		visited[dst.getIndex()] = counter;
+		int max = d[dst.getIndex()];
 		if (DirectedNode.class.isAssignableFrom(this.g.getGraphDatastructures()
 				.getNodeType())) {
 
@@ -289,13 +275,13 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 						DirectedEdge ed = (DirectedEdge) iEdges;
 						Node z = ed.getDifferingNode(w);
 
-						if (d.get(z) < dist) {
+						if (d[z.getIndex()] < dist) {
 							min.clear();
 							min.add(z);
-							dist = d.get(z);
+							dist = d[z.getIndex()];
 							continue;
 						}
-						if (d.get(z).equals(dist)) {
+						if (d[z.getIndex()] == dist) {
 							min.add(z);
 							continue;
 						}
@@ -304,22 +290,22 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 					for (IElement iEdges : w.getOutgoingEdges()) {
 						DirectedEdge ed = (DirectedEdge) iEdges;
 						Node z = ed.getDifferingNode(w);
-						if (d.get(z).equals(d.get(w) + 1)
-								&& Math.abs(visited.get(z)) < counter) {
+						if (d[z.getIndex()] == d[w.getIndex()] + 1
+								&& Math.abs(visited[z.getIndex()]) < counter) {
 							qLevel[i + 1].add(z);
 							newASums.put(z, 0d);
 							newParents.put(z, new HashSet<Node>());
 							max = Math.max(max, i + 1);
 							uncertain.add(z);
-							visited.put(z, counter);
+							visited[z.getIndex()] = counter;
 						}
 					}
 
 					// if their is no connection to the three, remove node form
 					// data set
 					if (dist == Integer.MAX_VALUE || dist >= qLevel.length - 1) {
-						d.put(w, Integer.MAX_VALUE);
-						newSpc.put(w, 0);
+						d[w.getIndex()] = Integer.MAX_VALUE;
+						newSpc[w.getIndex()] = 0;
 						newParents.get(w).clear();
 						qALevel[qALevel.length - 1].add(w);
 						uncertain.remove(w);
@@ -328,26 +314,26 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 					// connect to the highest uncertain node
 					boolean found = false;
-					newSpc.put(w, 0);
+					newSpc[w.getIndex()] = 0;
 					newParents.get(w).clear();
 					for (Node mNode : min) {
 
 						if ((!uncertain.contains(mNode))
-								&& d.get(mNode).intValue() + 1 == i) {
+								&& d[mNode.getIndex()] + 1 == i) {
 							uncertain.remove(w);
-							newSpc.put(w, newSpc.get(w) + newSpc.get(mNode));
+							newSpc[w.getIndex()] += newSpc[mNode.getIndex()];
 							found = true;
 							newParents.get(w).add(mNode);
 						}
-						d.put(w, d.get(mNode).intValue() + 1);
+						d[w.getIndex()] = d[mNode.getIndex()] + 1;
 
 					}
 					// else connect to another node
 					if (!found) {
-						qLevel[d.get(w)].add(w);
-						max = Math.max(max, d.get(w));
+						qLevel[d[w.getIndex()]].add(w);
+						max = Math.max(max, d[w.getIndex()]);
 					} else {
-						qALevel[d.get(w)].add(w);
+						qALevel[d[w.getIndex()]].add(w);
 					}
 				}
 			}
@@ -365,22 +351,22 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 						UndirectedEdge ed = (UndirectedEdge) iEdges;
 						Node z = ed.getDifferingNode(w);
 
-						if (d.get(z).equals(d.get(w) + 1)
-								&& Math.abs(visited.get(z)) < counter) {
+						if (d[z.getIndex()] == d[w.getIndex()] + 1
+								&& Math.abs(visited[z.getIndex()]) < counter) {
 							qLevel[i + 1].add(z);
 							newASums.put(z, 0d);
 							newParents.put(z, new HashSet<Node>());
 							uncertain.add(z);
-							visited.put(z, counter);
+							visited[z.getIndex()] = counter;
 							max = Math.max(max, i + 1);
 						}
-						if (d.get(z) < dist) {
+						if (d[z.getIndex()] < dist) {
 							min.clear();
 							min.add(z);
-							dist = d.get(z);
+							dist = d[z.getIndex()];
 							continue;
 						}
-						if (d.get(z).equals(dist)) {
+						if (d[z.getIndex()] == dist) {
 							min.add(z);
 							continue;
 						}
@@ -389,8 +375,8 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 					// if their is no connection to the three, remove node form
 					// data set
 					if (dist == Integer.MAX_VALUE || dist >= qALevel.length - 1) {
-						d.put(w, Integer.MAX_VALUE);
-						newSpc.put(w, 0);
+						d[w.getIndex()] = Integer.MAX_VALUE;
+						newSpc[w.getIndex()] = 0;
 						newParents.get(w).clear();
 						qALevel[qALevel.length - 1].add(w);
 						uncertain.remove(w);
@@ -399,25 +385,25 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 					// connect to the highest uncertain node
 					boolean found = false;
-					newSpc.put(w, 0);
+					newSpc[w.getIndex()] = 0;
 					newParents.get(w).clear();
 					for (Node mNode : min) {
 						if ((!uncertain.contains(mNode))
-								&& d.get(mNode).intValue() + 1 == i) {
+								&& d[mNode.getIndex()] + 1 == i) {
 							uncertain.remove(w);
-							newSpc.put(w, newSpc.get(w) + newSpc.get(mNode));
+							newSpc[w.getIndex()] += newSpc[mNode.getIndex()];
 							found = true;
 							newParents.get(w).add(mNode);
 						}
-						d.put(w, d.get(mNode).intValue() + 1);
+						d[w.getIndex()] = d[mNode.getIndex()] + 1;
 
 					}
 					// else connect to another node
 					if (!found) {
-						qLevel[d.get(w)].add(w);
-						max = Math.max(max, d.get(w));
+						qLevel[d[w.getIndex()]].add(w);
+						max = Math.max(max, d[w.getIndex()]);
 					} else {
-						qALevel[d.get(w)].add(w);
+						qALevel[d[w.getIndex()]].add(w);
 					}
 				}
 			}
@@ -427,41 +413,45 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			while (!qALevel[i].isEmpty()) {
 				Node w = qALevel[i].poll();
 
-				for (Node v : p.get(w)) {
+				for (Node v : p[w.getIndex()]) {
 					if (!newParents.get(w).contains(v)) {
 
-						if (Math.abs(visited.get(v)) < counter) {
-							qALevel[d.get(v)].add(v);
-							visited.put(v, -counter);
-							newASums.put(v, oldSums.get(v));
-							newParents.put(v, p.get(v));
+						if (Math.abs(visited[v.getIndex()]) < counter) {
+							qALevel[d[v.getIndex()]].add(v);
+							visited[v.getIndex()] = -counter;
+							newASums.put(v, oldSums[v.getIndex()]);
+							newParents.put(v, toSet(p[v.getIndex()]));
 						}
-						if (visited.get(v).equals(-counter)) {
-							double temp = newASums.get(v) - oldSpc.get(v)
-									* (1 + oldSums.get(w)) / oldSpc.get(w);
+						if (visited[v.getIndex()] == -counter) {
+							double temp = newASums.get(v)
+									- oldSpc[v.getIndex()]
+									* (1 + oldSums[w.getIndex()])
+									/ oldSpc[w.getIndex()];
 							newASums.put(v, temp);
 						}
 					}
 				}
 
 				for (Node v : newParents.get(w)) {
-					if (d.get(v).equals(d.get(w) - 1)) {
-						if (Math.abs(visited.get(v)) < counter) {
+					if (d[v.getIndex()] == d[w.getIndex()] - 1) {
+						if (Math.abs(visited[v.getIndex()]) < counter) {
 							qALevel[i - 1].add(v);
-							visited.put(v, -counter);
-							newASums.put(v, oldSums.get(v));
-							newParents.put(v, p.get(v));
+							visited[v.getIndex()] = -counter;
+							newASums.put(v, oldSums[v.getIndex()]);
+							newParents.put(v, toSet(p[v.getIndex()]));
 						}
 
-						double t = newASums.get(v) + newSpc.get(v)
-								* (1 + newASums.get(w)) / newSpc.get(w);
+						double t = newASums.get(v) + newSpc[v.getIndex()]
+								* (1 + newASums.get(w)) / newSpc[w.getIndex()];
 
 						newASums.put(v, t);
 
-						if (visited.get(v).equals(-counter)
-								&& p.get(w).contains(v)) {
-							double temp = newASums.get(v) - oldSpc.get(v)
-									* (1 + oldSums.get(w)) / oldSpc.get(w);
+						if (visited[v.getIndex()] == -counter
+								&& contains(p[w.getIndex()], v)) {
+							double temp = newASums.get(v)
+									- oldSpc[v.getIndex()]
+									* (1 + oldSums[w.getIndex()])
+									/ oldSpc[w.getIndex()];
 							newASums.put(v, temp);
 						}
 					}
@@ -469,19 +459,17 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 				if (!w.equals(root)) {
 					double currentScore = this.bCC.getValue(w.getIndex());
-					// this.bC.get(w);
-					// this.bC.put(w,
-					// currentScore + newASums.get(w) - oldSums.get(w));
-					this.bCSum = this.bCSum + newASums.get(w) - oldSums.get(w);
-					this.bCC.setValue(w.getIndex(),
-							currentScore + newASums.get(w) - oldSums.get(w));
+					this.bCSum = this.bCSum + newASums.get(w)
+							- oldSums[w.getIndex()];
+					this.bCC.setValue(w.getIndex(), currentScore
+							+ newASums.get(w) - oldSums[w.getIndex()]);
 				}
 			}
 		}
 
-		spcs.put(root, newSpc);
-		oldSums.putAll(newASums);
-		p.putAll(newParents);
+		tree.spc = newSpc;
+		tree.putSums(newASums);
+		tree.putParents(newParents);
 
 		return true;
 	}
@@ -489,27 +477,28 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 	private boolean removeEdgeManyToMany(Node root, Node src, Node dst) {
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		ShortestPathTree tree = this.trees[root.getIndex()];
+		int[] d = tree.d;
+		Node[][] p = tree.parents;
+		double[] oldSums = tree.sums;
+		int[] oldSpc = tree.spc;
 
 		// Queue for BFS Search
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
 		HashMap<Node, Integer> dP = new HashMap<Node, Integer>();
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		int[] newSpc = oldSpc.clone();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
 
 		// setup changes for dst node
 		qBFS.add(dst);
-		qALevel[d.get(dst)].add(dst);
-		visited.put(dst, counter);
-		dP.put(dst, oldSpc.get(src));
+		qALevel[d[dst.getIndex()]].add(dst);
+		visited[dst.getIndex()] = counter;
+		dP.put(dst, oldSpc[src.getIndex()]);
 		newASums.put(dst, 0d);
-		newSpc.put(dst, newSpc.get(dst) - dP.get(dst));
-		int maxHeight = d.get(dst);
+		newSpc[dst.getIndex()] -= dP.get(dst);
+		int maxHeight = d[dst.getIndex()];
 
 		if (DirectedNode.class.isAssignableFrom(this.g.getGraphDatastructures()
 				.getNodeType())) {
@@ -521,18 +510,18 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 					DirectedEdge edge = (DirectedEdge) iEdge;
 					Node w = edge.getDifferingNode(v);
 
-					if (d.get(w).equals(d.get(v) + 1)) {
-						if (Math.abs(visited.get(w)) < counter) {
+					if (d[w.getIndex()] == d[v.getIndex()] + 1) {
+						if (Math.abs(visited[w.getIndex()]) < counter) {
 							qBFS.add(w);
 							newASums.put(w, 0d);
-							qALevel[d.get(w)].add(w);
-							maxHeight = Math.max(maxHeight, d.get(w));
-							visited.put(w, counter);
+							qALevel[d[w.getIndex()]].add(w);
+							maxHeight = Math.max(maxHeight, d[w.getIndex()]);
+							visited[w.getIndex()] = counter;
 							dP.put(w, dP.get(v));
 						} else {
 							dP.put(w, dP.get(w) + dP.get(v));
 						}
-						newSpc.put(w, newSpc.get(w) - dP.get(v));
+						newSpc[w.getIndex()] -= dP.get(v);
 					}
 				}
 			}
@@ -546,18 +535,18 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 					UndirectedEdge edge = (UndirectedEdge) iEdge;
 					Node w = edge.getDifferingNode(v);
 
-					if (d.get(w).equals(d.get(v) + 1)) {
-						if (Math.abs(visited.get(w)) < counter) {
+					if (d[w.getIndex()] == d[v.getIndex()] + 1) {
+						if (Math.abs(visited[w.getIndex()]) < counter) {
 							qBFS.add(w);
 							newASums.put(w, 0d);
-							qALevel[d.get(w)].add(w);
-							maxHeight = Math.max(maxHeight, d.get(w));
-							visited.put(w, counter);
+							qALevel[d[w.getIndex()]].add(w);
+							maxHeight = Math.max(maxHeight, d[w.getIndex()]);
+							visited[w.getIndex()] = counter;
 							dP.put(w, dP.get(v));
 						} else {
 							dP.put(w, dP.get(w) + dP.get(v));
 						}
-						newSpc.put(w, newSpc.get(w) - dP.get(v));
+						newSpc[w.getIndex()] -= dP.get(v);
 					}
 				}
 			}
@@ -569,40 +558,39 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 		for (int i = maxHeight; i >= 0; i--) {
 			while (!qALevel[i].isEmpty()) {
 				Node w = qALevel[i].poll();
-				for (Node v : p.get(w)) {
-					if (Math.abs(visited.get(v)) < counter) {
+				for (Node v : p[w.getIndex()]) {
+					if (Math.abs(visited[v.getIndex()]) < counter) {
 						qALevel[i - 1].add(v);
-						visited.put(v, -counter);
-						newASums.put(v, oldSums.get(v));
+						visited[v.getIndex()] = -counter;
+						newASums.put(v, oldSums[v.getIndex()]);
 					}
 
 					if (!(v == src && w == dst)) {
-						double t = newASums.get(v) + newSpc.get(v)
-								* (1 + newASums.get(w)) / newSpc.get(w);
+						double t = newASums.get(v) + newSpc[v.getIndex()]
+								* (1 + newASums.get(w)) / newSpc[w.getIndex()];
 						newASums.put(v, t);
 					}
-					if (visited.get(v).equals(-counter)) {
-						double temp = newASums.get(v) - oldSpc.get(v)
-								* (1 + oldSums.get(w)) / oldSpc.get(w);
+					if (visited[v.getIndex()] == -counter) {
+						double temp = newASums.get(v) - oldSpc[v.getIndex()]
+								* (1 + oldSums[w.getIndex()])
+								/ oldSpc[w.getIndex()];
 						newASums.put(v, temp);
 					}
 				}
 				if (!w.equals(root)) {
 					double currentScore = this.bCC.getValue(w.getIndex());
-					// this.bC.get(w);
-					// this.bC.put(w,
-					// currentScore + newASums.get(w) - oldSums.get(w));
-					this.bCSum = this.bCSum + newASums.get(w) - oldSums.get(w);
-					this.bCC.setValue(w.getIndex(),
-							currentScore + newASums.get(w) - oldSums.get(w));
+					this.bCSum = this.bCSum + newASums.get(w)
+							- oldSums[w.getIndex()];
+					this.bCC.setValue(w.getIndex(), currentScore
+							+ newASums.get(w) - oldSums[w.getIndex()]);
 				}
 
 			}
 		}
 
-		p.get(dst).remove(src);
-		spcs.put(root, newSpc);
-		oldSums.putAll(newASums);
+		p[dst.getIndex()] = remove(p[dst.getIndex()], src);
+		tree.spc = newSpc;
+		tree.putSums(newASums);
 		return true;
 
 	}
@@ -618,22 +606,22 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 			for (IElement iE : g.getNodes()) {
 				DirectedNode root = (DirectedNode) iE;
-				HashMap<Node, Integer> d = this.distances.get(root);
+				int[] d = this.trees[root.getIndex()].d;
 
-				if (d.get(src).equals(Integer.MAX_VALUE)
-						|| d.get(src).equals(d.get(dst))
-						|| d.get(src).intValue() > d.get(dst).intValue()) {
+				if (d[src.getIndex()] == Integer.MAX_VALUE
+						|| d[src.getIndex()] == d[dst.getIndex()]
+						|| d[src.getIndex()] > d[dst.getIndex()]) {
 					// no change to shortes path tree
 					continue;
 				}
-				if (d.get(dst).equals(Integer.MAX_VALUE)) {
+				if (d[dst.getIndex()] == Integer.MAX_VALUE) {
 					// to components merge therefore new Nodes add to shortest
 					// path
 					// tree
 					nonAdjacentLevelInsertion(root, src, dst);
 					continue;
 				}
-				if (d.get(src).intValue() + 1 == d.get(dst).intValue()) {
+				if (d[src.getIndex()] + 1 == d[dst.getIndex()]) {
 					// the added edge connects nodes in adjacent Levels
 					// therefore
 					// only the new tree edge is added
@@ -641,7 +629,7 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 					adjacentLevelInsertion(root, src, dst);
 					continue;
 				}
-				if (d.get(src).intValue() + 1 < d.get(dst).intValue()) {
+				if (d[src.getIndex()] + 1 < d[dst.getIndex()]) {
 					// the added edge connects nodes in non adjacent Levels
 					// therefore all nodes in the subtree need to be checked if
 					// they
@@ -662,34 +650,33 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			for (IElement iE : g.getNodes()) {
 				UndirectedNode root = (UndirectedNode) iE;
 
-				HashMap<Node, Integer> d = distances.get(root);
+				int[] d = this.trees[root.getIndex()].d;
 
-				if (d.get(n1) > d.get(n2)) {
+				if (d[n1.getIndex()] > d[n2.getIndex()]) {
 					n2 = n1;
 					n1 = e.getDifferingNode(n2);
 				}
 
-				if ((d.get(n1).equals(Integer.MAX_VALUE) && d.get(n2).equals(
-						Integer.MAX_VALUE))
-						|| d.get(n1).equals(d.get(n2))) {
+				if ((d[n1.getIndex()] == Integer.MAX_VALUE && d[n2.getIndex()] == Integer.MAX_VALUE)
+						|| d[n1.getIndex()] == d[n2.getIndex()]) {
 					// no change to shortes path tree
 					continue;
 				}
-				if (d.get(n2).equals(Integer.MAX_VALUE)) {
+				if (d[n2.getIndex()] == Integer.MAX_VALUE) {
 					// to components merge therefore new Nodes add to shortest
 					// path
 					// tree
 					mergeOfComponentsInsertion(root, n1, n2);
 					continue;
 				}
-				if (d.get(n1).intValue() + 1 == d.get(n2).intValue()) {
+				if (d[n1.getIndex()] + 1 == d[n2.getIndex()]) {
 					// the added edge connects nodes in adjacent Levels
 					// therefore
 					// only the new tree edge is added
 					adjacentLevelInsertion(root, n1, n2);
 					continue;
 				}
-				if (d.get(n1).intValue() + 1 < d.get(n2).intValue()) {
+				if (d[n1.getIndex()] + 1 < d[n2.getIndex()]) {
 					// the added edge connects nodes in non adjacent Levels
 					// therefore all nodes in the subtree need to be checked if
 					// they
@@ -699,16 +686,14 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 				}
 
-				System.err.println(" shit" + d.get(n1) + " " + d.get(n2));
+				System.err.println(" shit" + d[n1.getIndex()] + " "
+						+ d[n2.getIndex()]);
 				return false;
 
 			}
 		}
 
-		sumShortestPaths = 0; // reinit necessary!
-		for (Entry<Node, HashMap<Node, Integer>> e : spcs.entrySet()) {
-			sumShortestPaths += sumSPFromHM(e.getValue(), e.getKey());
-		}
+		this.computeSumShortestPaths(); // reinit necessary!
 
 		return true;
 	}
@@ -717,36 +702,37 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			DirectedNode dst) {
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		ShortestPathTree tree = this.trees[root.getIndex()];
+		int[] d = tree.d;
+		Node[][] p = tree.parents;
+		double[] oldSums = tree.sums;
+		int[] oldSpc = tree.spc;
 
 		// Data Structure for BFS Search
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		int[] newSpc = oldSpc.clone();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
 		HashMap<Node, HashSet<Node>> newParents = new HashMap<Node, HashSet<Node>>();
 
 		// set Up data Structure for the lower node
 
 		qBFS.add(dst);
-		visited.put(dst, counter);
-		newSpc.put(dst, newSpc.get(src));
-		d.put(dst, d.get(src) + 1);
-		qALevel[d.get(dst)].add(dst);
+		visited[dst.getIndex()] = counter;
+		newSpc[dst.getIndex()] = newSpc[src.getIndex()];
+		d[dst.getIndex()] = d[src.getIndex()] + 1;
+		qALevel[d[dst.getIndex()]].add(dst);
 		newASums.put(dst, 0d);
 		newParents.put(dst, new HashSet<Node>());
 
-		int maxHeight = d.get(dst);
+		int maxHeight = d[dst.getIndex()];
 		HashSet<DirectedNode> bal = new HashSet<>();
 
 		// Stage 2
 		while (!qBFS.isEmpty()) {
 			DirectedNode v = (DirectedNode) qBFS.poll();
-			newSpc.put(v, 0);
+			newSpc[v.getIndex()] = 0;
 
 			// all neighbours of v
 			for (IElement iEdge : v.getOutgoingEdges()) {
@@ -754,28 +740,28 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 				DirectedNode n = ed.getDst();
 
 				// Lower Node moves up
-				if (d.get(n).intValue() > d.get(v).intValue() + 1) {
-					d.put(n, d.get(v).intValue() + 1);
+				if (d[n.getIndex()] > d[v.getIndex()] + 1) {
+					d[n.getIndex()] = d[v.getIndex()] + 1;
 					qBFS.add(n);
-					qALevel[d.get(n)].add(n);
+					qALevel[d[n.getIndex()]].add(n);
 					newASums.put(n, 0d);
 					newParents.put(n, new HashSet<Node>());
 					bal.remove(n);
-					visited.put(n, counter);
-					maxHeight = Math.max(maxHeight, d.get(n));
+					visited[n.getIndex()] = counter;
+					maxHeight = Math.max(maxHeight, d[n.getIndex()]);
 					continue;
 				}
 
 				// lower Node get a new Parent
-				if (d.get(n).intValue() == d.get(v).intValue() + 1) {
-					if (!visited.get(n).equals(counter)) {
-						visited.put(n, counter);
-						qALevel[d.get(n)].add(n);
+				if (d[n.getIndex()] == d[v.getIndex()] + 1) {
+					if (visited[n.getIndex()] != counter) {
+						visited[n.getIndex()] = counter;
+						qALevel[d[n.getIndex()]].add(n);
 						newParents.put(n, new HashSet<Node>());
 						qBFS.add(n);
 						newASums.put(n, 0d);
 						bal.remove(n);
-						maxHeight = Math.max(maxHeight, d.get(n));
+						maxHeight = Math.max(maxHeight, d[n.getIndex()]);
 					}
 					continue;
 				}
@@ -785,28 +771,28 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 				DirectedEdge ed = (DirectedEdge) iEdge;
 				DirectedNode n = ed.getSrc();
 
-				boolean b1 = p.get(v).contains(n);
-				boolean b2 = Math.abs(visited.get(n)) < counter;
-				boolean b3 = d.get(n).intValue() >= d.get(v).intValue();
+				boolean b1 = contains(p[v.getIndex()], n);
+				boolean b2 = Math.abs(visited[n.getIndex()]) < counter;
+				boolean b3 = d[n.getIndex()] >= d[v.getIndex()];
 				if (b1 && b2 && b3) {
-					visited.put(n, -counter);
+					visited[n.getIndex()] = -counter;
 					bal.add(n);
 				}
 
-				if (d.get(n).intValue() + 1 == d.get(v).intValue()) {
-					newSpc.put(v, newSpc.get(v).intValue()
-							+ newSpc.get(n).intValue());
+				if (d[n.getIndex()] + 1 == d[v.getIndex()]) {
+					newSpc[v.getIndex()] += newSpc[n.getIndex()];
 					newParents.get(v).add(n);
 
 				}
 			}
 		}
 		for (DirectedNode directedNode : bal) {
-			if (visited.get(directedNode).equals(-counter)) {
-				newASums.put(directedNode, oldSums.get(directedNode));
-				newParents.put(directedNode, p.get(directedNode));
-				qALevel[d.get(directedNode)].add(directedNode);
-				maxHeight = Math.max(maxHeight, d.get(directedNode));
+			if (visited[directedNode.getIndex()] == -counter) {
+				newASums.put(directedNode, oldSums[directedNode.getIndex()]);
+				newParents.put(directedNode,
+						toSet(p[directedNode.getIndex()]));
+				qALevel[d[directedNode.getIndex()]].add(directedNode);
+				maxHeight = Math.max(maxHeight, d[directedNode.getIndex()]);
 			}
 		}
 
@@ -815,13 +801,15 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			while (!qALevel[i].isEmpty()) {
 				DirectedNode w = (DirectedNode) qALevel[i].poll();
 
-				if (visited.get(w).equals(-counter)) {
+				if (visited[w.getIndex()] == -counter) {
 					for (IElement ie : w.getOutgoingEdges()) {
 						DirectedNode v = ((DirectedEdge) ie).getDst();
-						if (p.get(v).contains(w)
-								&& Math.abs(visited.get(v)) == counter) {
-							double temp = newASums.get(w) - oldSpc.get(w)
-									* (1 + oldSums.get(v)) / oldSpc.get(v);
+						if (contains(p[v.getIndex()], w)
+								&& Math.abs(visited[v.getIndex()]) == counter) {
+							double temp = newASums.get(w)
+									- oldSpc[w.getIndex()]
+									* (1 + oldSums[v.getIndex()])
+									/ oldSpc[v.getIndex()];
 							newASums.put(w, temp);
 
 						}
@@ -829,33 +817,34 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 				}
 				for (Node v : newParents.get(w)) {
 
-					if (d.get(v).intValue() == d.get(w).intValue() - 1) {
+					if (d[v.getIndex()] == d[w.getIndex()] - 1) {
 
-						if (Math.abs(visited.get(v)) < counter) {
-							newASums.put(v, oldSums.get(v));
-							newParents.put(v, p.get(v));
-							qALevel[d.get(v)].add(v);
-							visited.put(v, -counter);
+						if (Math.abs(visited[v.getIndex()]) < counter) {
+							newASums.put(v, oldSums[v.getIndex()]);
+							newParents.put(v, toSet(p[v.getIndex()]));
+							qALevel[d[v.getIndex()]].add(v);
+							visited[v.getIndex()] = -counter;
 						}
 
-						double t1 = newASums.get(v) + newSpc.get(v)
-								* (1 + newASums.get(w)) / newSpc.get(w);
+						double t1 = newASums.get(v) + newSpc[v.getIndex()]
+								* (1 + newASums.get(w)) / newSpc[w.getIndex()];
 						newASums.put(v, t1);
 					}
 				}
 				if (!w.equals(root)) {
 					double currentScore = this.bCC.getValue(w.getIndex());
-					this.bCSum = this.bCSum + newASums.get(w) - oldSums.get(w);
-					this.bCC.setValue(w.getIndex(),
-							currentScore + newASums.get(w) - oldSums.get(w));
+					this.bCSum = this.bCSum + newASums.get(w)
+							- oldSums[w.getIndex()];
+					this.bCC.setValue(w.getIndex(), currentScore
+							+ newASums.get(w) - oldSums[w.getIndex()]);
 				}
 
 			}
 		}
 
-		spcs.put(root, newSpc);
-		oldSums.putAll(newASums);
-		p.putAll(newParents);
+		tree.spc = newSpc;
+		tree.putSums(newASums);
+		tree.putParents(newParents);
 
 	}
 
@@ -863,45 +852,46 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 		counter++;
 
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		ShortestPathTree tree = this.trees[root.getIndex()];
+		int[] d = tree.d;
+		Node[][] p = tree.parents;
+		double[] oldSums = tree.sums;
+		int[] oldSpc = tree.spc;
 
 		// Queue for the BFS search down the shortes Path tree
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		int[] newSpc = oldSpc.clone();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
 
 		// new TreeElement and the current Values for the Tree Position
-		d.put(dst, d.get(src) + 1);
-		newSpc.put(dst, newSpc.get(src));
+		d[dst.getIndex()] = d[src.getIndex()] + 1;
+		newSpc[dst.getIndex()] = newSpc[src.getIndex()];
 		newASums.put(dst, 0d);
-		p.get(dst).add(src);
-		visited.put(dst, counter);
+		p[dst.getIndex()] = add(p[dst.getIndex()], src);
+		visited[dst.getIndex()] = counter;
 		int maxHeight = 0;
 
 		qBFS.add(dst);
 		// stage 2
 		while (!qBFS.isEmpty()) {
 			UndirectedNode v = (UndirectedNode) qBFS.poll();
-			qALevel[d.get(v)].add(v);
-			maxHeight = Math.max(maxHeight, d.get(v));
+			qALevel[d[v.getIndex()]].add(v);
+			maxHeight = Math.max(maxHeight, d[v.getIndex()]);
 			for (IElement iEdge : v.getEdges()) {
 				UndirectedEdge ed = (UndirectedEdge) iEdge;
 				Node n = ed.getDifferingNode(v);
-				if (Math.abs(visited.get(n)) < counter && n != src
-						&& d.get(n).equals(Integer.MAX_VALUE)) {
+				if (Math.abs(visited[n.getIndex()]) < counter && n != src
+						&& d[n.getIndex()] == Integer.MAX_VALUE) {
 					qBFS.add(n);
-					visited.put(n, counter);
+					visited[n.getIndex()] = counter;
 					newASums.put(n, 0d);
-					d.put(n, d.get(v) + 1);
+					d[n.getIndex()] = d[v.getIndex()] + 1;
 				}
-				if (d.get(n).intValue() == d.get(v).intValue() + 1) {
-					newSpc.put(n, newSpc.get(n) + newSpc.get(v));
-					p.get(n).add(v);
+				if (d[n.getIndex()] == d[v.getIndex()] + 1) {
+					newSpc[n.getIndex()] += newSpc[v.getIndex()];
+					p[n.getIndex()] = add(p[n.getIndex()], v);
 				}
 			}
 		}
@@ -912,72 +902,72 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			while (!qALevel[i].isEmpty()) {
 				UndirectedNode w = (UndirectedNode) qALevel[i].poll();
 
-				for (Node v : p.get(w)) {
-					if (Math.abs(visited.get(v)) < counter) {
+				for (Node v : p[w.getIndex()]) {
+					if (Math.abs(visited[v.getIndex()]) < counter) {
 						qALevel[i - 1].add(v);
-						visited.put(v, -counter);
-						newASums.put(v, oldSums.get(v));
+						visited[v.getIndex()] = -counter;
+						newASums.put(v, oldSums[v.getIndex()]);
 					}
-					double t = newSpc.get(v) * (1 + newASums.get(w))
-							/ newSpc.get(w);
+					double t = newSpc[v.getIndex()] * (1 + newASums.get(w))
+							/ newSpc[w.getIndex()];
 					newASums.put(v, newASums.get(v) + t);
 
-					if (visited.get(v).equals(-counter)
+					if (visited[v.getIndex()] == -counter
 							&& (v != src || w != dst)) {
-						double temp = newASums.get(v) - oldSpc.get(v)
-								* (1 + oldSums.get(w)) / oldSpc.get(w);
+						double temp = newASums.get(v) - oldSpc[v.getIndex()]
+								* (1 + oldSums[w.getIndex()])
+								/ oldSpc[w.getIndex()];
 						newASums.put(v, temp);
 					}
 				}
 				if (!w.equals(root)) {
 					double currentScore = this.bCC.getValue(w.getIndex());
-					// this.bC.get(w);
-					// this.bC.put(w,
-					// currentScore + newASums.get(w) - oldSums.get(w));
-					this.bCSum = this.bCSum + newASums.get(w) - oldSums.get(w);
-					this.bCC.setValue(w.getIndex(),
-							currentScore + newASums.get(w) - oldSums.get(w));
+					this.bCSum = this.bCSum + newASums.get(w)
+							- oldSums[w.getIndex()];
+					this.bCC.setValue(w.getIndex(), currentScore
+							+ newASums.get(w) - oldSums[w.getIndex()]);
 				}
 
 			}
 		}
-		spcs.put(root, newSpc);
-		oldSums.putAll(newASums);
+		tree.spc = newSpc;
+		tree.putSums(newASums);
 	}
 
 	private void nonAdjacentLevelInsertion(Node root, Node src, Node dst) {
 
 		counter++;
 		// old values
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		ShortestPathTree tree = this.trees[root.getIndex()];
+		int[] d = tree.d;
+		Node[][] p = tree.parents;
+		double[] oldSums = tree.sums;
+		int[] oldSpc = tree.spc;
 
 		// Data Structure for BFS Search
 		Queue<Node> qBFS = new LinkedList<Node>();
 
 		// data structure for Updates
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		int[] newSpc = oldSpc.clone();
 		HashMap<Node, Double> newASums = new HashMap<Node, Double>();
 		HashMap<Node, HashSet<Node>> newParents = new HashMap<Node, HashSet<Node>>();
 
 		// set Up data Structure for the lower node
 
 		qBFS.add(dst);
-		visited.put(dst, counter);
-		newSpc.put(dst, newSpc.get(src));
-		d.put(dst, d.get(src) + 1);
-		qALevel[d.get(dst)].add(dst);
+		visited[dst.getIndex()] = counter;
+		newSpc[dst.getIndex()] = newSpc[src.getIndex()];
+		d[dst.getIndex()] = d[src.getIndex()] + 1;
+		qALevel[d[dst.getIndex()]].add(dst);
 		newASums.put(dst, 0d);
 		newParents.put(dst, new HashSet<Node>());
 
-		int maxHeight = d.get(dst);
+		int maxHeight = d[dst.getIndex()];
 
 		// Stage 2
 		while (!qBFS.isEmpty()) {
 			UndirectedNode v = (UndirectedNode) qBFS.poll();
-			newSpc.put(v, 0);
+			newSpc[v.getIndex()] = 0;
 
 			// all neighbours of v
 			for (IElement iEdge : v.getEdges()) {
@@ -985,32 +975,32 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 				Node n = ed.getDifferingNode(v);
 
 				// Lower Node moves up
-				if (d.get(n).intValue() > d.get(v).intValue() + 1) {
-					d.put(n, d.get(v).intValue() + 1);
+				if (d[n.getIndex()] > d[v.getIndex()] + 1) {
+					d[n.getIndex()] = d[v.getIndex()] + 1;
 					qBFS.add(n);
-					qALevel[d.get(n)].add(n);
+					qALevel[d[n.getIndex()]].add(n);
 					newASums.put(n, 0d);
 					newParents.put(n, new HashSet<Node>());
-					visited.put(n, counter);
-					maxHeight = Math.max(maxHeight, d.get(n));
+					visited[n.getIndex()] = counter;
+					maxHeight = Math.max(maxHeight, d[n.getIndex()]);
 					continue;
 				}
 
 				// lower Node get a new Parent
-				if (d.get(n).intValue() == d.get(v).intValue() + 1) {
-					if (Math.abs(visited.get(n)) < counter) {
-						visited.put(n, counter);
-						qALevel[d.get(n)].add(n);
+				if (d[n.getIndex()] == d[v.getIndex()] + 1) {
+					if (Math.abs(visited[n.getIndex()]) < counter) {
+						visited[n.getIndex()] = counter;
+						qALevel[d[n.getIndex()]].add(n);
 						newParents.put(n, new HashSet<Node>());
 						qBFS.add(n);
 						newASums.put(n, 0d);
-						maxHeight = Math.max(maxHeight, d.get(n));
+						maxHeight = Math.max(maxHeight, d[n.getIndex()]);
 					}
 					continue;
 				}
 
-				if (d.get(n).intValue() < d.get(v).intValue()) {
-					newSpc.put(v, newSpc.get(v) + newSpc.get(n));
+				if (d[n.getIndex()] < d[v.getIndex()]) {
+					newSpc[v.getIndex()] += newSpc[n.getIndex()];
 					if (!newParents.get(v).contains(n)) {
 						newParents.get(v).add(n);
 					}
@@ -1022,17 +1012,19 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 		for (int i = maxHeight; i >= 0; i--) {
 			while (!qALevel[i].isEmpty()) {
 				UndirectedNode w = (UndirectedNode) qALevel[i].poll();
-				for (Node v : p.get(w)) {
+				for (Node v : p[w.getIndex()]) {
 					if (!newParents.get(w).contains(v)) {
-						if (Math.abs(visited.get(v)) < counter) {
-							qALevel[d.get(v)].add(v);
-							visited.put(v, -counter);
-							newASums.put(v, oldSums.get(v));
-							newParents.put(v, p.get(v));
+						if (Math.abs(visited[v.getIndex()]) < counter) {
+							qALevel[d[v.getIndex()]].add(v);
+							visited[v.getIndex()] = -counter;
+							newASums.put(v, oldSums[v.getIndex()]);
+							newParents.put(v, toSet(p[v.getIndex()]));
 						}
-						if (visited.get(v).equals(-counter)) {
-							double temp = newASums.get(v) - oldSpc.get(v)
-									* (1 + oldSums.get(w)) / oldSpc.get(w);
+						if (visited[v.getIndex()] == -counter) {
+							double temp = newASums.get(v)
+									- oldSpc[v.getIndex()]
+									* (1 + oldSums[w.getIndex()])
+									/ oldSpc[w.getIndex()];
 							newASums.put(v, temp);
 						}
 					}
@@ -1040,36 +1032,38 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 
 				for (Node v : newParents.get(w)) {
 
-					if (Math.abs(visited.get(v)) < counter) {
+					if (Math.abs(visited[v.getIndex()]) < counter) {
 						qALevel[i - 1].add(v);
-						visited.put(v, -counter);
-						newASums.put(v, oldSums.get(v));
-						newParents.put(v, p.get(v));
+						visited[v.getIndex()] = -counter;
+						newASums.put(v, oldSums[v.getIndex()]);
+						newParents.put(v, toSet(p[v.getIndex()]));
 					}
-					double t = newASums.get(v) + newSpc.get(v)
-							* (1 + newASums.get(w)) / newSpc.get(w);
+					double t = newASums.get(v) + newSpc[v.getIndex()]
+							* (1 + newASums.get(w)) / newSpc[w.getIndex()];
 					newASums.put(v, t);
 
-					if (visited.get(v).equals(-counter)
+					if (visited[v.getIndex()] == -counter
 							&& (dst != w || src != v)) {
-						double temp = newASums.get(v) - oldSpc.get(v)
-								* (1 + oldSums.get(w)) / oldSpc.get(w);
+						double temp = newASums.get(v) - oldSpc[v.getIndex()]
+								* (1 + oldSums[w.getIndex()])
+								/ oldSpc[w.getIndex()];
 						newASums.put(v, temp);
 					}
 
 				}
 				if (!w.equals(root)) {
 					double currentScore = this.bCC.getValue(w.getIndex());
-					this.bCSum = this.bCSum + newASums.get(w) - oldSums.get(w);
-					this.bCC.setValue(w.getIndex(),
-							currentScore + newASums.get(w) - oldSums.get(w));
+					this.bCSum = this.bCSum + newASums.get(w)
+							- oldSums[w.getIndex()];
+					this.bCC.setValue(w.getIndex(), currentScore
+							+ newASums.get(w) - oldSums[w.getIndex()]);
 				}
 			}
 		}
 
-		spcs.put(root, newSpc);
-		oldSums.putAll(newASums);
-		p.putAll(newParents);
+		tree.spc = newSpc;
+		tree.putSums(newASums);
+		tree.putParents(newParents);
 	}
 
 	private boolean adjacentLevelInsertion(Node root, Node src, Node dst) {
@@ -1078,25 +1072,26 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 		counter++;
 
 		// old values
-		HashMap<Node, Integer> d = distances.get(root);
-		HashMap<Node, HashSet<Node>> p = parents.get(root);
-		HashMap<Node, Double> oldSums = accSums.get(root);
-		HashMap<Node, Integer> oldSpc = spcs.get(root);
+		ShortestPathTree tree = this.trees[root.getIndex()];
+		int[] d = tree.d;
+		Node[][] p = tree.parents;
+		double[] oldSums = tree.sums;
+		int[] oldSpc = tree.spc;
 
 		// data structure for Updates
 		HashMap<Node, Integer> dP = new HashMap<Node, Integer>();
-		HashMap<Node, Integer> newSpc = new HashMap<Node, Integer>(oldSpc);
+		int[] newSpc = oldSpc.clone();
 		HashMap<Node, Double> newSums = new HashMap<Node, Double>();
 
 		// setup changes for dst node
 		qBFS.add(dst);
-		qALevel[d.get(dst)].add(dst);
-		visited.put(dst, counter);
+		qALevel[d[dst.getIndex()]].add(dst);
+		visited[dst.getIndex()] = counter;
 		newSums.put(dst, 0d);
-		dP.put(dst, oldSpc.get(src));
-		newSpc.put(dst, newSpc.get(dst) + dP.get(dst));
-		p.get(dst).add(src);
-		int maxHeight = d.get(dst);
+		dP.put(dst, oldSpc[src.getIndex()]);
+		newSpc[dst.getIndex()] += dP.get(dst);
+		p[dst.getIndex()] = add(p[dst.getIndex()], src);
+		int maxHeight = d[dst.getIndex()];
 
 		if (DirectedNode.class.isAssignableFrom(this.g.getGraphDatastructures()
 				.getNodeType())) {
@@ -1109,18 +1104,18 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 					DirectedEdge edge = (DirectedEdge) iEdges;
 					DirectedNode w = edge.getDst();
 
-					if (d.get(w).equals(d.get(v).intValue() + 1)) {
-						if (Math.abs(visited.get(w)) < counter) {
+					if (d[w.getIndex()] == d[v.getIndex()] + 1) {
+						if (Math.abs(visited[w.getIndex()]) < counter) {
 							qBFS.add(w);
-							qALevel[d.get(w)].add(w);
+							qALevel[d[w.getIndex()]].add(w);
 							newSums.put(w, 0d);
-							maxHeight = Math.max(maxHeight, d.get(w));
-							visited.put(w, counter);
+							maxHeight = Math.max(maxHeight, d[w.getIndex()]);
+							visited[w.getIndex()] = counter;
 							dP.put(w, dP.get(v));
 						} else {
 							dP.put(w, dP.get(w) + dP.get(v));
 						}
-						newSpc.put(w, newSpc.get(w) + dP.get(v));
+						newSpc[w.getIndex()] += dP.get(v);
 					}
 				}
 			}
@@ -1135,18 +1130,18 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 					UndirectedEdge edge = (UndirectedEdge) iEdges;
 					Node w = edge.getDifferingNode(v);
 
-					if (d.get(w).equals(d.get(v).intValue() + 1)) {
-						if (Math.abs(visited.get(w)) < counter) {
+					if (d[w.getIndex()] == d[v.getIndex()] + 1) {
+						if (Math.abs(visited[w.getIndex()]) < counter) {
 							qBFS.add(w);
-							qALevel[d.get(w)].add(w);
-							maxHeight = Math.max(maxHeight, d.get(w));
+							qALevel[d[w.getIndex()]].add(w);
+							maxHeight = Math.max(maxHeight, d[w.getIndex()]);
 							newSums.put(w, 0d);
-							visited.put(w, counter);
+							visited[w.getIndex()] = counter;
 							dP.put(w, dP.get(v));
 						} else {
 							dP.put(w, dP.get(w) + dP.get(v));
 						}
-						newSpc.put(w, newSpc.get(w) + dP.get(v));
+						newSpc[w.getIndex()] += dP.get(v);
 					}
 				}
 			}
@@ -1157,37 +1152,36 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			while (!qALevel[i].isEmpty()) {
 				Node w = (Node) qALevel[i].poll();
 
-				for (Node v : p.get(w)) {
-					if (Math.abs(visited.get(v)) < counter) {
+				for (Node v : p[w.getIndex()]) {
+					if (Math.abs(visited[v.getIndex()]) < counter) {
 						qALevel[i - 1].add(v);
-						visited.put(v, -counter);
-						newSums.put(v, oldSums.get(v));
+						visited[v.getIndex()] = -counter;
+						newSums.put(v, oldSums[v.getIndex()]);
 					}
-					double t = newSums.get(v) + newSpc.get(v)
-							* (1 + newSums.get(w)) / newSpc.get(w);
+					double t = newSums.get(v) + newSpc[v.getIndex()]
+							* (1 + newSums.get(w)) / newSpc[w.getIndex()];
 					newSums.put(v, t);
-					if (visited.get(v).equals(-counter)
+					if (visited[v.getIndex()] == -counter
 							&& (v != src || w != dst)) {
-						double temp = newSums.get(v) - oldSpc.get(v)
-								* (1 + oldSums.get(w)) / oldSpc.get(w);
+						double temp = newSums.get(v) - oldSpc[v.getIndex()]
+								* (1 + oldSums[w.getIndex()])
+								/ oldSpc[w.getIndex()];
 						newSums.put(v, temp);
 					}
 				}
 				if (!w.equals(root)) {
 					double currentScore = this.bCC.getValue(w.getIndex());
-					// this.bC.get(w);
-					// this.bC.put(w,
-					// currentScore + newSums.get(w) - oldSums.get(w));
-					this.bCSum = this.bCSum + newSums.get(w) - oldSums.get(w);
-					this.bCC.setValue(w.getIndex(),
-							currentScore + newSums.get(w) - oldSums.get(w));
+					this.bCSum = this.bCSum + newSums.get(w)
+							- oldSums[w.getIndex()];
+					this.bCC.setValue(w.getIndex(), currentScore
+							+ newSums.get(w) - oldSums[w.getIndex()]);
 				}
 
 			}
 		}
 
-		spcs.put(root, newSpc);
-		oldSums.putAll(newSums);
+		tree.spc = newSpc;
+		tree.putSums(newSums);
 		return true;
 	}
 
@@ -1208,23 +1202,18 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 			applyAfterUpdate(new EdgeRemoval(e));
 		}
 
-		for (Node n : this.accSums.get(node).keySet()) {
-			// this.bC.put(n, this.bC.get(n) - this.accSums.get(node).get(n));
-			this.bCC.setValue(n.getIndex(), this.bCC.getValue(n.getIndex())
-					- this.accSums.get(node).get(n));
-			this.bCSum = this.bCSum - this.accSums.get(node).get(n);
+		double[] sums = this.trees[node.getIndex()].sums;
+		for (int i = 0; i < sums.length; i++) {
+			if (sums[i] != 0) {
+				this.bCC.setValue(i, this.bCC.getValue(i) - sums[i]);
+				this.bCSum = this.bCSum - sums[i];
+			}
 		}
 
-		this.spcs.remove(node);
-		this.distances.remove(node);
-		this.accSums.remove(node);
-		this.parents.remove(node);
+		this.trees[node.getIndex()] = null;
 		g.removeNode(node);
 
-		sumShortestPaths = 0; // reinit necessary!
-		for (Entry<Node, HashMap<Node, Integer>> e : spcs.entrySet()) {
-			sumShortestPaths += sumSPFromHM(e.getValue(), e.getKey());
-		}
+		this.computeSumShortestPaths(); // reinit necessary!
 
 		return true;
 	}
@@ -1233,40 +1222,150 @@ public class BetweennessCentralityU extends BetweennessCentrality implements
 	public boolean applyAfterUpdate(NodeAddition na) {
 
 		Node node = (Node) na.getNode();
-		HashMap<Node, HashSet<Node>> p = new HashMap<Node, HashSet<Node>>();
-		HashMap<Node, Integer> spc = new HashMap<Node, Integer>();
-		HashMap<Node, Integer> d = new HashMap<Node, Integer>();
-		HashMap<Node, Double> sums = new HashMap<Node, Double>();
+		if (node.getIndex() >= this.capacity) {
+			this.grow(node.getIndex() + 1);
+		}
 
 		for (IElement ieE : g.getNodes()) {
 			Node t = (Node) ieE;
-			if (t == node) {
-				d.put(t, 0);
-				spc.put(t, 1);
-			} else {
-				spc.put(t, 0);
-				d.put(t, Integer.MAX_VALUE);
-				this.spcs.get(t).put(node, 0);
-				this.distances.get(t).put(node, Integer.MAX_VALUE);
-				this.accSums.get(t).put(node, 0d);
-				this.parents.get(t).put(node, new HashSet<Node>());
+			if (t != node) {
+				this.trees[t.getIndex()].reset(node);
 			}
-			sums.put(t, 0d);
-			p.put(t, new HashSet<Node>());
 		}
-		this.spcs.put(node, spc);
-		this.distances.put(node, d);
-		this.accSums.put(node, sums);
-		this.parents.put(node, p);
+		this.trees[node.getIndex()] = new ShortestPathTree(this.capacity,
+				node);
 		bCC.setValue(node.getIndex(), 0d);
-		visited.put(node, 0L);
+		visited[node.getIndex()] = 0L;
 
-		sumShortestPaths = 0; // reinit necessary!
-		for (Entry<Node, HashMap<Node, Integer>> e : spcs.entrySet()) {
-			sumShortestPaths += sumSPFromHM(e.getValue(), e.getKey());
-		}
+		this.computeSumShortestPaths(); // reinit necessary!
 
 		return true;
 	}
 
+	/**
+	 * increases the length of all arrays indexed by node index to at least
+	 * the given capacity
+	 * 
+	 * @param minCapacity
+	 *            minimum capacity
+	 */
+	protected void grow(int minCapacity) {
+		int newCapacity = Math.max(minCapacity, this.capacity * 2);
+		for (ShortestPathTree tree : this.trees) {
+			if (tree != null) {
+				tree.grow(newCapacity);
+			}
+		}
+		this.trees = Arrays.copyOf(this.trees, newCapacity);
+		this.visited = Arrays.copyOf(this.visited, newCapacity);
+		this.capacity = newCapacity;
+	}
+
+	protected void computeSumShortestPaths() {
+		this.sumShortestPaths = 0;
+		for (int i = 0; i < this.trees.length; i++) {
+			if (this.trees[i] != null) {
+				this.sumShortestPaths += sumSPFromArray(this.trees[i].spc, i);
+			}
+		}
+	}
+
+	private static boolean contains(Node[] nodes, Node n) {
+		for (Node node : nodes) {
+			if (node.getIndex() == n.getIndex()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Node[] add(Node[] nodes, Node n) {
+		if (contains(nodes, n)) {
+			return nodes;
+		}
+		Node[] added = Arrays.copyOf(nodes, nodes.length + 1);
+		added[nodes.length] = n;
+		return added;
+	}
+
+	private static Node[] remove(Node[] nodes, Node n) {
+		for (int i = 0; i < nodes.length; i++) {
+			if (nodes[i].getIndex() == n.getIndex()) {
+				if (nodes.length == 1) {
+					return noParents;
+				}
+				Node[] removed = new Node[nodes.length - 1];
+				System.arraycopy(nodes, 0, removed, 0, i);
+				System.arraycopy(nodes, i + 1, removed, i, nodes.length - i
+						- 1);
+				return removed;
+			}
+		}
+		return nodes;
+	}
+
+	private static HashSet<Node> toSet(Node[] nodes) {
+		return new HashSet<Node>(Arrays.asList(nodes));
+	}
+
+	/**
+	 * Shortest path tree of a single root node. Distances, number of shortest
+	 * paths, accumulated dependencies, and parents are stored in arrays
+	 * indexed by node index. Nodes without parents share an empty array.
+	 */
+	protected static class ShortestPathTree {
+		protected int[] d;
+		protected int[] spc;
+		protected double[] sums;
+		protected Node[][] parents;
+
+		public ShortestPathTree(int capacity, Node root) {
+			this.d = new int[capacity];
+			this.spc = new int[capacity];
+			this.sums = new double[capacity];
+			this.parents = new Node[capacity][];
+			Arrays.fill(this.d, Integer.MAX_VALUE);
+			Arrays.fill(this.parents, noParents);
+			this.d[root.getIndex()] = 0;
+			this.spc[root.getIndex()] = 1;
+		}
+
+		protected void grow(int capacity) {
+			int old = this.d.length;
+			this.d = Arrays.copyOf(this.d, capacity);
+			this.spc = Arrays.copyOf(this.spc, capacity);
+			this.sums = Arrays.copyOf(this.sums, capacity);
+			this.parents = Arrays.copyOf(this.parents, capacity);
+			Arrays.fill(this.d, old, capacity, Integer.MAX_VALUE);
+			Arrays.fill(this.parents, old, capacity, noParents);
+		}
+
+		/**
+		 * resets the entries of the given node (unreachable from the root)
+		 * 
+		 * @param n
+		 *            node
+		 */
+		protected void reset(Node n) {
+			this.d[n.getIndex()] = Integer.MAX_VALUE;
+			this.spc[n.getIndex()] = 0;
+			this.sums[n.getIndex()] = 0d;
+			this.parents[n.getIndex()] = noParents;
+		}
+
+		protected void putSums(HashMap<Node, Double> sums) {
+			for (Entry<Node, Double> e : sums.entrySet()) {
+				this.sums[e.getKey().getIndex()] = e.getValue();
+			}
+		}
+
+		protected void putParents(HashMap<Node, HashSet<Node>> parents) {
+			for (Entry<Node, HashSet<Node>> e : parents.entrySet()) {
+				HashSet<Node> p = e.getValue();
+				this.parents[e.getKey().getIndex()] = p.isEmpty() ? noParents
+						: p.toArray(new Node[p.size()]);
+			}
+		}
+	}
+
 }
@@ -0,0 +1,140 @@
+package dna.metrics.clustering;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import dna.graph.CSRGraph;
+import dna.util.ParallelExecution;
+
+/**
+ * Counts the triangles each node of an undirected graph is contained in using
+ * the forward algorithm: nodes are ranked by degree and each node only keeps
+ * its neighbors of higher rank (sorted by rank). Every triangle u < v < w is
+ * then found exactly once by intersecting the lists of u and v. As hubs have
+ * the highest ranks, their (short) lists are never traversed for all pairs of
+ * their neighbors.
+ *
+ * The nodes can be distributed among multiple threads, each counting into its
+ * own array.
+ */
+public class TriangleCounting {
+
+	/**
+	 *
+	 * @param csr
+	 *            snapshot of an undirected graph
+	 * @param threads
+	 *            number of threads to use
+	 * @return number of triangles each node is contained in (indexed by node
+	 *         index)
+	 */
+	public static long[] count(CSRGraph csr, int threads) {
+		int[] nodes = csr.getNodes();
+		int[] offsets = csr.getOffsets();
+		int[] targets = csr.getTargets();
+
+		// rank nodes by degree (ties broken by index)
+		long[] keys = new long[nodes.length];
+		for (int i = 0; i < nodes.length; i++) {
+			keys[i] = ((long) csr.getDegree(nodes[i]) << 32) | nodes[i];
+		}
+		Arrays.sort(keys);
+		int[] node = new int[nodes.length];
+		int[] rank = new int[csr.getMaxNodeIndex() + 1];
+		for (int r = 0; r < keys.length; r++) {
+			node[r] = (int) keys[r];
+			rank[node[r]] = r;
+		}
+
+		// neighbors of higher rank, sorted by rank
+		int[] fOffsets = new int[nodes.length + 1];
+		for (int r = 0; r < nodes.length; r++) {
+			int v = node[r];
+			int count = 0;
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				if (rank[targets[i]] > r) {
+					count++;
+				}
+			}
+			fOffsets[r + 1] = fOffsets[r] + count;
+		}
+		int[] fTargets = new int[fOffsets[nodes.length]];
+		for (int r = 0; r < nodes.length; r++) {
+			int v = node[r];
+			int pos = fOffsets[r];
+			for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+				if (rank[targets[i]] > r) {
+					fTargets[pos++] = rank[targets[i]];
+				}
+			}
+			Arrays.sort(fTargets, fOffsets[r], pos);
+		}
+
+		int workers = Math.max(1, Math.min(threads, nodes.length));
+		List<Forward> tasks = new ArrayList<Forward>(workers);
+		for (int i = 0; i < workers; i++) {
+			tasks.add(new Forward(fOffsets, fTargets, i, workers));
+		}
+		List<long[]> results = ParallelExecution.invokeAll(tasks, workers);
+
+		long[] triangles = new long[csr.getMaxNodeIndex() + 1];
+		for (long[] t : results) {
+			for (int r = 0; r < t.length; r++) {
+				triangles[node[r]] += t[r];
+			}
+		}
+		return triangles;
+	}
+
+	/**
+	 * Finds all triangles whose lowest ranked node is first, first + step,
+	 * ... and counts them for all three nodes (indexed by rank).
+	 */
+	private static class Forward implements Callable<long[]> {
+		private int[] fOffsets;
+		private int[] fTargets;
+		private int first;
+		private int step;
+
+		public Forward(int[] fOffsets, int[] fTargets, int first, int step) {
+			this.fOffsets = fOffsets;
+			this.fTargets = fTargets;
+			this.first = first;
+			this.step = step;
+		}
+
+		@Override
+		public long[] call() {
+			int[] fOffsets = this.fOffsets;
+			int[] fTargets = this.fTargets;
+			long[] triangles = new long[fOffsets.length - 1];
+			for (int u = this.first; u < triangles.length; u += this.step) {
+				for (int i = fOffsets[u]; i < fOffsets[u + 1]; i++) {
+					int v = fTargets[i];
+					// intersect sorted lists of u (after v) and v
+					int a = i + 1;
+					int b = fOffsets[v];
+					int aEnd = fOffsets[u + 1];
+					int bEnd = fOffsets[v + 1];
+					while (a < aEnd && b < bEnd) {
+						if (fTargets[a] < fTargets[b]) {
+							a++;
+						} else if (fTargets[a] > fTargets[b]) {
+							b++;
+						} else {
+							triangles[u]++;
+							triangles[v]++;
+							triangles[fTargets[a]]++;
+							a++;
+							b++;
+						}
+					}
+				}
+			}
+			return triangles;
+		}
+	}
+
+}
@@ -1,10 +1,10 @@
 package dna.metrics.clustering;
 
+import dna.graph.CSRGraph;
 import dna.graph.IElement;
 import dna.graph.IGraph;
-import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.DirectedNode;
-import dna.graph.nodes.UndirectedNode;
+import dna.graph.nodes.Node;
 import dna.series.data.lists.LongList;
 import dna.series.data.nodevaluelists.NodeValueList;
 import dna.updates.batch.Batch;
@@ -14,6 +14,11 @@ import dna.util.parameters.Parameter;
 public abstract class UndirectedClusteringCoefficient extends
 		ClusteringCoefficient {
 
+	/**
+	 * number of threads used to count the triangles of undirected graphs
+	 */
+	protected int threads = 1;
+
 	public UndirectedClusteringCoefficient(String name, Parameter... p) {
 		super(name, p);
 	}
@@ -55,31 +60,23 @@ public abstract class UndirectedClusteringCoefficient extends
 		return false;
 	}
 
+	/**
+	 * computes the number of triangles of all nodes using the forward
+	 * algorithm on a CSR snapshot of the graph (see TriangleCounting). the
+	 * potential count of a node with degree d is d * (d - 1) / 2.
+	 */
 	protected boolean computeUndirected() {
+		CSRGraph csr = CSRGraph.freeze(this.g);
+		long[] triangles = TriangleCounting.count(csr, this.threads);
 
 		// for (IElement aUncasted : g.getNodes()) {
 		for (IElement aUncasted : this.getNodesOfAssignedTypes()) {
-			UndirectedNode a = (UndirectedNode) aUncasted;
-
-			for (IElement e1Uncasted : a.getEdges()) {
-				UndirectedEdge e1 = (UndirectedEdge) e1Uncasted;
-				UndirectedNode b = (UndirectedNode) e1.getDifferingNode(a);
-				for (IElement e2Uncasted : a.getEdges()) {
-					UndirectedEdge e2 = (UndirectedEdge) e2Uncasted;
-					UndirectedNode c = (UndirectedNode) e2.getDifferingNode(a);
-					if (b.equals(c)) {
-						continue;
-					}
-					this.nodePotentialCount.incr(a.getIndex());
-					if (b.hasEdge(b, c)) {
-						this.nodeTriangleCount.incr(a.getIndex());
-					}
-				}
-			}
-			this.nodeTriangleCount.div(a.getIndex(), 2);
-			this.nodePotentialCount.div(a.getIndex(), 2);
+			int a = ((Node) aUncasted).getIndex();
+			long degree = csr.getDegree(a);
+			this.nodeTriangleCount.setValue(a, triangles[a]);
+			this.nodePotentialCount.setValue(a, degree * (degree - 1) / 2);
 
-			this.update(a.getIndex());
+			this.update(a);
 		}
 
 		this.update();
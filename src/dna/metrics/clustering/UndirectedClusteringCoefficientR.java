@@ -1,16 +1,22 @@
 package dna.metrics.clustering;
 
 import dna.metrics.algorithms.IRecomputation;
+import dna.util.Config;
+import dna.util.ParallelExecution;
 
 public class UndirectedClusteringCoefficientR extends
 		UndirectedClusteringCoefficient implements IRecomputation, Cloneable {
 
 	public UndirectedClusteringCoefficientR() {
 		super("UndirectedClusteringCoefficientR");
+		this.threads = ParallelExecution.getThreads(Config
+				.getInt("RECOMPUTATION_THREADS"));
 	}
 
 	public UndirectedClusteringCoefficientR(String[] nodeTypes) {
 		super("UndirectedClusteringCoefficientR", nodeTypes);
+		this.threads = ParallelExecution.getThreads(Config
+				.getInt("RECOMPUTATION_THREADS"));
 	}
 
 	@Override
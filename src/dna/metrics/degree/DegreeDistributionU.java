@@ -1,18 +1,26 @@
 package dna.metrics.degree;
 
+import java.util.HashMap;
+import java.util.Map.Entry;
+
 import dna.graph.IElement;
 import dna.graph.edges.DirectedEdge;
+import dna.graph.edges.IEdge;
 import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.DirectedNode;
+import dna.graph.nodes.Node;
 import dna.graph.nodes.UndirectedNode;
-import dna.metrics.algorithms.IBeforeUpdates;
+import dna.metrics.algorithms.IAfterEAs;
+import dna.metrics.algorithms.IAfterERs;
+import dna.metrics.algorithms.IBeforeNA;
+import dna.metrics.algorithms.IBeforeNR;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
 
 public class DegreeDistributionU extends DegreeDistribution implements
-		IBeforeUpdates {
+		IBeforeNA, IBeforeNR, IAfterEAs, IAfterERs {
 
 	public DegreeDistributionU() {
 		super("DegreeDistributionU");
@@ -84,44 +92,86 @@ public class DegreeDistributionU extends DegreeDistribution implements
 		return true;
 	}
 
-	@Override
-	public boolean applyBeforeUpdate(EdgeAddition ea) {
-		this.degree.decr(ea.getEdge().getN1().getDegree());
-		this.degree.decr(ea.getEdge().getN2().getDegree());
-		this.degree.incr(ea.getEdge().getN1().getDegree() + 1);
-		this.degree.incr(ea.getEdge().getN2().getDegree() + 1);
-		this.degree.truncate();
+	/*
+	 * edge additions and removals are processed as a slice after all of them
+	 * have been applied: the degree of each affected node is only moved once
+	 * from its previous to its new bin, no matter how many of its edges have
+	 * been added or removed
+	 */
 
-		if (ea.getEdge() instanceof DirectedEdge) {
-			DirectedEdge e = (DirectedEdge) ea.getEdge();
-			this.inDegree.decr(e.getDst().getInDegree());
-			this.outDegree.decr(e.getSrc().getOutDegree());
-			this.inDegree.incr(e.getDst().getInDegree() + 1);
-			this.outDegree.incr(e.getSrc().getOutDegree() + 1);
-			this.inDegree.truncate();
-			this.outDegree.truncate();
+	@Override
+	public boolean applyAfterEAs(Iterable<EdgeAddition> eas) {
+		HashMap<Node, int[]> changes = new HashMap<Node, int[]>();
+		for (EdgeAddition ea : eas) {
+			this.count(changes, ea.getEdge());
 		}
+		this.move(changes, 1);
 		return true;
 	}
 
 	@Override
-	public boolean applyBeforeUpdate(EdgeRemoval er) {
-		this.degree.decr(er.getEdge().getN1().getDegree());
-		this.degree.decr(er.getEdge().getN2().getDegree());
-		this.degree.incr(er.getEdge().getN1().getDegree() - 1);
-		this.degree.incr(er.getEdge().getN2().getDegree() - 1);
-		this.degree.truncate();
+	public boolean applyAfterERs(Iterable<EdgeRemoval> ers) {
+		HashMap<Node, int[]> changes = new HashMap<Node, int[]>();
+		for (EdgeRemoval er : ers) {
+			this.count(changes, er.getEdge());
+		}
+		this.move(changes, -1);
+		return true;
+	}
 
-		if (er.getEdge() instanceof DirectedEdge) {
-			DirectedEdge e = (DirectedEdge) er.getEdge();
-			this.inDegree.decr(e.getDst().getInDegree());
-			this.outDegree.decr(e.getSrc().getOutDegree());
-			this.inDegree.incr(e.getDst().getInDegree() - 1);
-			this.outDegree.incr(e.getSrc().getOutDegree() - 1);
+	/**
+	 * counts the changes of degree, in-degree, and out-degree of the nodes
+	 * of e
+	 */
+	private void count(HashMap<Node, int[]> changes, IEdge e) {
+		int[] c1 = this.getChanges(changes, e.getN1());
+		int[] c2 = this.getChanges(changes, e.getN2());
+		c1[0]++;
+		c2[0]++;
+		if (e instanceof DirectedEdge) {
+			// N1 is the source, N2 the destination
+			c1[2]++;
+			c2[1]++;
+		}
+	}
+
+	private int[] getChanges(HashMap<Node, int[]> changes, Node n) {
+		int[] c = changes.get(n);
+		if (c == null) {
+			c = new int[3];
+			changes.put(n, c);
+		}
+		return c;
+	}
+
+	/**
+	 * moves each node from the bins of its degrees before the changes to the
+	 * ones of its current degrees
+	 * 
+	 * @param sign
+	 *            1 for additions, -1 for removals
+	 */
+	private void move(HashMap<Node, int[]> changes, int sign) {
+		boolean directed = false;
+		for (Entry<Node, int[]> entry : changes.entrySet()) {
+			Node n = entry.getKey();
+			int[] c = entry.getValue();
+			this.degree.decr(n.getDegree() - sign * c[0]);
+			this.degree.incr(n.getDegree());
+			if (n instanceof DirectedNode) {
+				DirectedNode d = (DirectedNode) n;
+				this.inDegree.decr(d.getInDegree() - sign * c[1]);
+				this.inDegree.incr(d.getInDegree());
+				this.outDegree.decr(d.getOutDegree() - sign * c[2]);
+				this.outDegree.incr(d.getOutDegree());
+				directed = true;
+			}
+		}
+		this.degree.truncate();
+		if (directed) {
 			this.inDegree.truncate();
 			this.outDegree.truncate();
 		}
-		return true;
 	}
 
 }
@@ -6,16 +6,34 @@ import dna.graph.IElement;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.nodes.DirectedNode;
 import dna.metrics.algorithms.IBeforeUpdates;
+import dna.metrics.motifs.ParallelMotifEvaluation.Evaluation;
+import dna.series.data.distr.BinnedIntDistr;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
 import dna.updates.update.Update;
+import dna.util.Config;
 
 public class DirectedMotifsU extends DirectedMotifs implements IBeforeUpdates {
 
+	private ParallelMotifEvaluation evaluation;
+
 	public DirectedMotifsU() {
 		super("DirectedMotifsU");
+		this.evaluation = new ParallelMotifEvaluation();
+	}
+
+	/**
+	 *
+	 * @param threads
+	 *            number of threads to evaluate the node groups of a single
+	 *            update (cf. ParallelMotifEvaluation)
+	 */
+	public DirectedMotifsU(int threads) {
+		super("DirectedMotifsU");
+		this.evaluation = new ParallelMotifEvaluation(threads,
+				Config.getInt("MOTIF_UPDATE_MIN_GROUPS"));
 	}
 
 	@Override
@@ -81,65 +99,76 @@ public class DirectedMotifsU extends DirectedMotifs implements IBeforeUpdates {
 			e = (DirectedEdge) ((EdgeRemoval) u).getEdge();
 			add = false;
 		}
-		DirectedNode a = e.getSrc();
-		DirectedNode b = e.getDst();
+		final DirectedNode a = e.getSrc();
+		final DirectedNode b = e.getDst();
 
-		HashSet<DirectedNode> ab = this.getUnion(a, b);
+		HashSet<DirectedNode> union = this.getUnion(a, b);
+		final DirectedNode[] ab = union.toArray(new DirectedNode[union
+				.size()]);
+		final boolean both = a.hasEdge(b, a);
+		final boolean addition = add;
 
-		if (a.hasEdge(b, a)) {
-			this.processBothDirections(a, b, ab, add);
-		} else {
-			this.processSingleDirection(a, b, ab, add);
-		}
+		this.evaluation.evaluate(this.motifs, ab.length, new Evaluation() {
+			@Override
+			public void evaluate(BinnedIntDistr motifs, int from, int to) {
+				if (both) {
+					processBothDirections(motifs, a, b, ab, from, to, addition);
+				} else {
+					processSingleDirection(motifs, a, b, ab, from, to,
+							addition);
+				}
+			}
+		});
 		return true;
 	}
 
-	private void processSingleDirection(DirectedNode a, DirectedNode b,
-			HashSet<DirectedNode> ab, boolean add) {
-		for (DirectedNode c : ab) {
+	private void processSingleDirection(BinnedIntDistr motifs, DirectedNode a,
+			DirectedNode b, DirectedNode[] ab, int from, int to, boolean add) {
+		for (int i = from; i < to; i++) {
+			DirectedNode c = ab[i];
 			boolean ca = c.hasEdge(c, a);
 			boolean ac = c.hasEdge(a, c);
 			boolean cb = c.hasEdge(c, b);
 			boolean bc = c.hasEdge(b, c);
 
 			if (ca && !ac && !cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM03, add);
+				this.changeMotif(motifs, DirectedMotifType.DM03, add);
 			} else if (!ca && ac && !cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM01, add);
+				this.changeMotif(motifs, DirectedMotifType.DM01, add);
 			} else if (!ca && !ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM02, add);
+				this.changeMotif(motifs, DirectedMotifType.DM02, add);
 			} else if (!ca && !ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM03, add);
+				this.changeMotif(motifs, DirectedMotifType.DM03, add);
 			} else if (ca && ac && !cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM05, add);
+				this.changeMotif(motifs, DirectedMotifType.DM05, add);
 			} else if (!ca && !ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM06, add);
+				this.changeMotif(motifs, DirectedMotifType.DM06, add);
 			} else if (ca && !ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM01,
+				this.changeMotif(motifs, DirectedMotifType.DM01,
 						DirectedMotifType.DM04, add);
 			} else if (!ca && ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM02,
+				this.changeMotif(motifs, DirectedMotifType.DM02,
 						DirectedMotifType.DM04, add);
 			} else if (!ca && ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM03,
+				this.changeMotif(motifs, DirectedMotifType.DM03,
 						DirectedMotifType.DM04, add);
 			} else if (ca && !ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM03,
+				this.changeMotif(motifs, DirectedMotifType.DM03,
 						DirectedMotifType.DM07, add);
 			} else if (ca && ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM05,
+				this.changeMotif(motifs, DirectedMotifType.DM05,
 						DirectedMotifType.DM09, add);
 			} else if (ca && ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM06,
+				this.changeMotif(motifs, DirectedMotifType.DM06,
 						DirectedMotifType.DM10, add);
 			} else if (ca && !ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM05,
+				this.changeMotif(motifs, DirectedMotifType.DM05,
 						DirectedMotifType.DM10, add);
 			} else if (!ca && ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM06,
+				this.changeMotif(motifs, DirectedMotifType.DM06,
 						DirectedMotifType.DM08, add);
 			} else if (ca && ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM11,
+				this.changeMotif(motifs, DirectedMotifType.DM11,
 						DirectedMotifType.DM12, add);
 			} else if (!ca && !ac && !cb && !bc) {
 				System.err
@@ -148,58 +177,59 @@ public class DirectedMotifsU extends DirectedMotifs implements IBeforeUpdates {
 		}
 	}
 
-	private void processBothDirections(DirectedNode a, DirectedNode b,
-			HashSet<DirectedNode> ab, boolean add) {
-		for (DirectedNode c : ab) {
+	private void processBothDirections(BinnedIntDistr motifs, DirectedNode a,
+			DirectedNode b, DirectedNode[] ab, int from, int to, boolean add) {
+		for (int i = from; i < to; i++) {
+			DirectedNode c = ab[i];
 			boolean ca = c.hasEdge(c, a);
 			boolean ac = c.hasEdge(a, c);
 			boolean cb = c.hasEdge(c, b);
 			boolean bc = c.hasEdge(b, c);
 
 			if (ca && !ac && !cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM02,
+				this.changeMotif(motifs, DirectedMotifType.DM02,
 						DirectedMotifType.DM06, add);
 			} else if (!ca && ac && !cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM03,
+				this.changeMotif(motifs, DirectedMotifType.DM03,
 						DirectedMotifType.DM05, add);
 			} else if (!ca && !ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM03,
+				this.changeMotif(motifs, DirectedMotifType.DM03,
 						DirectedMotifType.DM06, add);
 			} else if (!ca && !ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM01,
+				this.changeMotif(motifs, DirectedMotifType.DM01,
 						DirectedMotifType.DM05, add);
 			} else if (ca && ac && !cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM06,
+				this.changeMotif(motifs, DirectedMotifType.DM06,
 						DirectedMotifType.DM11, add);
 			} else if (!ca && !ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM05,
+				this.changeMotif(motifs, DirectedMotifType.DM05,
 						DirectedMotifType.DM11, add);
 			} else if (ca && !ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM04,
+				this.changeMotif(motifs, DirectedMotifType.DM04,
 						DirectedMotifType.DM08, add);
 			} else if (!ca && ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM04,
+				this.changeMotif(motifs, DirectedMotifType.DM04,
 						DirectedMotifType.DM09, add);
 			} else if (!ca && ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM07,
+				this.changeMotif(motifs, DirectedMotifType.DM07,
 						DirectedMotifType.DM10, add);
 			} else if (ca && !ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM04,
+				this.changeMotif(motifs, DirectedMotifType.DM04,
 						DirectedMotifType.DM10, add);
 			} else if (ca && ac && cb && !bc) {
-				this.changeMotif(DirectedMotifType.DM10,
+				this.changeMotif(motifs, DirectedMotifType.DM10,
 						DirectedMotifType.DM12, add);
 			} else if (ca && ac && !cb && bc) {
-				this.changeMotif(DirectedMotifType.DM08,
+				this.changeMotif(motifs, DirectedMotifType.DM08,
 						DirectedMotifType.DM12, add);
 			} else if (ca && !ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM09,
+				this.changeMotif(motifs, DirectedMotifType.DM09,
 						DirectedMotifType.DM12, add);
 			} else if (!ca && ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM10,
+				this.changeMotif(motifs, DirectedMotifType.DM10,
 						DirectedMotifType.DM12, add);
 			} else if (ca && ac && cb && bc) {
-				this.changeMotif(DirectedMotifType.DM12,
+				this.changeMotif(motifs, DirectedMotifType.DM12,
 						DirectedMotifType.DM13, add);
 			} else if (!ca && !ac && !cb && !bc) {
 				System.err
@@ -228,22 +258,23 @@ public class DirectedMotifsU extends DirectedMotifs implements IBeforeUpdates {
 		return union;
 	}
 
-	private void changeMotif(DirectedMotifType t1, DirectedMotifType t2,
-			boolean add) {
+	private void changeMotif(BinnedIntDistr motifs, DirectedMotifType t1,
+			DirectedMotifType t2, boolean add) {
 		if (add) {
-			this.motifs.decr(DirectedMotifs.getIndex(t1));
-			this.motifs.incr(DirectedMotifs.getIndex(t2));
+			motifs.decr(DirectedMotifs.getIndex(t1));
+			motifs.incr(DirectedMotifs.getIndex(t2));
 		} else {
-			this.motifs.decr(DirectedMotifs.getIndex(t2));
-			this.motifs.incr(DirectedMotifs.getIndex(t1));
+			motifs.decr(DirectedMotifs.getIndex(t2));
+			motifs.incr(DirectedMotifs.getIndex(t1));
 		}
 	}
 
-	private void changeMotif(DirectedMotifType type, boolean add) {
+	private void changeMotif(BinnedIntDistr motifs, DirectedMotifType type,
+			boolean add) {
 		if (add) {
-			this.motifs.incr(DirectedMotifs.getIndex(type));
+			motifs.incr(DirectedMotifs.getIndex(type));
 		} else {
-			this.motifs.decr(DirectedMotifs.getIndex(type));
+			motifs.decr(DirectedMotifs.getIndex(type));
 		}
 	}
 
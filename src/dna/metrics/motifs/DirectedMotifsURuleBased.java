@@ -6,17 +6,35 @@ import dna.graph.IElement;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.nodes.DirectedNode;
 import dna.metrics.algorithms.IBeforeUpdates;
+import dna.metrics.motifs.ParallelMotifEvaluation.Evaluation;
+import dna.series.data.distr.BinnedIntDistr;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
+import dna.util.Config;
 
 public class DirectedMotifsURuleBased extends DirectedMotifs implements IBeforeUpdates {
 
 	private DirectedMotifsRule[][][][][] rules;
 
+	private ParallelMotifEvaluation evaluation;
+
 	public DirectedMotifsURuleBased() {
 		super("DirectedMotifsURuleBased");
+		this.evaluation = new ParallelMotifEvaluation();
+	}
+
+	/**
+	 *
+	 * @param threads
+	 *            number of threads to evaluate the node groups of a single
+	 *            update (cf. ParallelMotifEvaluation)
+	 */
+	public DirectedMotifsURuleBased(int threads) {
+		super("DirectedMotifsURuleBased");
+		this.evaluation = new ParallelMotifEvaluation(threads,
+				Config.getInt("MOTIF_UPDATE_MIN_GROUPS"));
 	}
 
 	@Override
@@ -143,26 +161,28 @@ public class DirectedMotifsURuleBased extends DirectedMotifs implements IBeforeU
 
 	@Override
 	public boolean applyBeforeUpdate(EdgeAddition ea) {
-		DirectedEdge e = (DirectedEdge) ea.getEdge();
-		DirectedNode a = e.getSrc();
-		DirectedNode b = e.getDst();
-
-		for (DirectedNode c : this.getN(a, b)) {
-			this.getRule(a, b, c).execute(this.motifs, true);
-		}
-
-		return true;
+		return this.processEdge((DirectedEdge) ea.getEdge(), true);
 	}
 
 	@Override
 	public boolean applyBeforeUpdate(EdgeRemoval er) {
-		DirectedEdge e = (DirectedEdge) er.getEdge();
-		DirectedNode a = e.getSrc();
-		DirectedNode b = e.getDst();
+		return this.processEdge((DirectedEdge) er.getEdge(), false);
+	}
 
-		for (DirectedNode c : this.getN(a, b)) {
-			this.getRule(a, b, c).execute(this.motifs, false);
-		}
+	private boolean processEdge(DirectedEdge e, final boolean add) {
+		final DirectedNode a = e.getSrc();
+		final DirectedNode b = e.getDst();
+		HashSet<DirectedNode> n = this.getN(a, b);
+		final DirectedNode[] N = n.toArray(new DirectedNode[n.size()]);
+
+		this.evaluation.evaluate(this.motifs, N.length, new Evaluation() {
+			@Override
+			public void evaluate(BinnedIntDistr motifs, int from, int to) {
+				for (int i = from; i < to; i++) {
+					getRule(a, b, N[i]).execute(motifs, add);
+				}
+			}
+		});
 
 		return true;
 	}
@@ -0,0 +1,125 @@
+package dna.metrics.motifs;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+import dna.series.data.distr.BinnedIntDistr;
+import dna.util.Config;
+import dna.util.ParallelExecution;
+
+/**
+ * Evaluates the groups of nodes (or node pairs) affected by a single update of
+ * a motif metric. Within an update, the evaluation of each group only reads
+ * the graph and changes the motif counts, i.e., the groups are independent.
+ *
+ * In case more than one thread is used and the number of groups reaches
+ * MOTIF_UPDATE_MIN_GROUPS, the groups are split into consecutive ranges that
+ * are evaluated in parallel (using a shared pool, cf.
+ * ParallelExecution.getSharedPool). Each range changes the counts of its own
+ * histogram, these are added to the motif distribution afterwards. Otherwise,
+ * all groups are evaluated sequentially on the motif distribution itself.
+ */
+public class ParallelMotifEvaluation {
+
+	/**
+	 * Evaluation of a range of groups of an update.
+	 */
+	public static interface Evaluation {
+		/**
+		 * evaluates the groups from (inclusive) to (exclusive) and changes the
+		 * counts of the given motif distribution accordingly.
+		 */
+		public void evaluate(BinnedIntDistr motifs, int from, int to);
+	}
+
+	private int threads;
+
+	private int minGroups;
+
+	/**
+	 * uses MOTIF_UPDATE_THREADS and MOTIF_UPDATE_MIN_GROUPS
+	 */
+	public ParallelMotifEvaluation() {
+		this(Config.getInt("MOTIF_UPDATE_THREADS"), Config
+				.getInt("MOTIF_UPDATE_MIN_GROUPS"));
+	}
+
+	/**
+	 *
+	 * @param threads
+	 *            number of threads (values <= 0 use the number of available
+	 *            processors)
+	 * @param minGroups
+	 *            minimum number of groups of an update to evaluate them in
+	 *            parallel
+	 */
+	public ParallelMotifEvaluation(int threads, int minGroups) {
+		this.threads = ParallelExecution.getThreads(threads);
+		this.minGroups = Math.max(1, minGroups);
+	}
+
+	public int getThreads() {
+		return this.threads;
+	}
+
+	/**
+	 * evaluates the given number of groups and changes the counts of the
+	 * given motif distribution.
+	 *
+	 * @param motifs
+	 *            motif distribution to change
+	 * @param groups
+	 *            number of groups of the update
+	 * @param evaluation
+	 *            evaluation of a range of the groups
+	 */
+	public void evaluate(BinnedIntDistr motifs, int groups,
+			Evaluation evaluation) {
+		if (this.threads <= 1 || groups < this.minGroups) {
+			evaluation.evaluate(motifs, 0, groups);
+			return;
+		}
+
+		int ranges = Math.min(this.threads, groups);
+		List<Range> tasks = new ArrayList<Range>(ranges);
+		for (int i = 0; i < ranges; i++) {
+			tasks.add(new Range(motifs, evaluation, (int) ((long) groups * i
+					/ ranges), (int) ((long) groups * (i + 1) / ranges)));
+		}
+		for (BinnedIntDistr local : ParallelExecution.invokeAll(tasks,
+				ParallelExecution.getSharedPool(this.threads))) {
+			motifs.add(local);
+		}
+	}
+
+	/**
+	 * Evaluates a range of groups using a separate histogram (with the same
+	 * number of motif types as the motif distribution).
+	 */
+	private static class Range implements Callable<BinnedIntDistr> {
+		private BinnedIntDistr local;
+
+		private Evaluation evaluation;
+
+		private int from;
+
+		private int to;
+
+		public Range(BinnedIntDistr motifs, Evaluation evaluation, int from,
+				int to) {
+			this.local = new BinnedIntDistr(motifs.getName(),
+					motifs.getBinSize(), new long[motifs.getValues().length],
+					0);
+			this.evaluation = evaluation;
+			this.from = from;
+			this.to = to;
+		}
+
+		@Override
+		public BinnedIntDistr call() {
+			this.evaluation.evaluate(this.local, this.from, this.to);
+			return this.local;
+		}
+	}
+}
@@ -6,17 +6,35 @@ import dna.graph.IElement;
 import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.UndirectedNode;
 import dna.metrics.algorithms.IBeforeUpdates;
+import dna.metrics.motifs.ParallelMotifEvaluation.Evaluation;
+import dna.series.data.distr.BinnedIntDistr;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
 import dna.updates.update.Update;
+import dna.util.Config;
 
 public class UndirectedMotifsU extends UndirectedMotifs implements
 		IBeforeUpdates {
 
+	private ParallelMotifEvaluation evaluation;
+
 	public UndirectedMotifsU() {
 		super("UndirectedMotifsU");
+		this.evaluation = new ParallelMotifEvaluation();
+	}
+
+	/**
+	 *
+	 * @param threads
+	 *            number of threads to evaluate the node groups of a single
+	 *            update (cf. ParallelMotifEvaluation)
+	 */
+	public UndirectedMotifsU(int threads) {
+		super("UndirectedMotifsU");
+		this.evaluation = new ParallelMotifEvaluation(threads,
+				Config.getInt("MOTIF_UPDATE_MIN_GROUPS"));
 	}
 
 	@Override
@@ -182,6 +200,13 @@ public class UndirectedMotifsU extends UndirectedMotifs implements
 		return this.processEdge(er);
 	}
 
+	/**
+	 * Changes the motif counts for the addition or removal of an edge (a,b).
+	 * All neighbors c of a or b are divided into those connected to a and b
+	 * (ab), only to a (aOnly), and only to b (bOnly). Each of them is
+	 * evaluated independently: all motifs (a,b,c,d) that are changed by the
+	 * update are counted for c, each motif exactly once for one of its nodes.
+	 */
 	private boolean processEdge(Update u) {
 		UndirectedEdge e = null;
 		if (u instanceof EdgeAddition) {
@@ -189,8 +214,9 @@ public class UndirectedMotifsU extends UndirectedMotifs implements
 		} else {
 			e = (UndirectedEdge) ((EdgeRemoval) u).getEdge();
 		}
-		UndirectedNode a = e.getNode1();
-		UndirectedNode b = e.getNode2();
+		final UndirectedNode a = e.getNode1();
+		final UndirectedNode b = e.getNode2();
+		final boolean add = u instanceof EdgeAddition;
 
 		HashSet<UndirectedNode> ab = new HashSet<UndirectedNode>();
 		HashSet<UndirectedNode> aOnly = new HashSet<UndirectedNode>();
@@ -219,148 +245,156 @@ public class UndirectedMotifsU extends UndirectedMotifs implements
 			}
 		}
 
-		this.addMotifs56(ab, u);
-
-		this.addMotifs13(aOnly, bOnly, u);
-
-		this.addMotif1(a, b, aOnly, u);
-		this.addMotif1(a, b, bOnly, u);
-
-		this.addMotif4(a, b, ab, u);
-
-		this.addMotifs24(aOnly, u);
-		this.addMotifs24(bOnly, u);
-
-		this.addMotifs45(ab, aOnly, u);
-		this.addMotifs45(ab, bOnly, u);
+		final UndirectedNode[] ab_ = ab.toArray(new UndirectedNode[ab.size()]);
+		final UndirectedNode[] aOnly_ = aOnly.toArray(new UndirectedNode[aOnly
+				.size()]);
+		final UndirectedNode[] bOnly_ = bOnly.toArray(new UndirectedNode[bOnly
+				.size()]);
+
+		int groups = ab_.length + aOnly_.length + bOnly_.length;
+		this.evaluation.evaluate(this.motifs, groups, new Evaluation() {
+			@Override
+			public void evaluate(BinnedIntDistr motifs, int from, int to) {
+				for (int i = from; i < to; i++) {
+					if (i < ab_.length) {
+						UndirectedNode c = ab_[i];
+						addMotifs56(motifs, c, ab_, add);
+						addMotif4(motifs, a, b, c, add);
+						addMotifs45(motifs, c, aOnly_, add);
+						addMotifs45(motifs, c, bOnly_, add);
+					} else if (i < ab_.length + aOnly_.length) {
+						UndirectedNode c = aOnly_[i - ab_.length];
+						addMotifs13(motifs, c, bOnly_, add);
+						addMotif1(motifs, a, b, c, add);
+						addMotifs24(motifs, c, aOnly_, add);
+					} else {
+						UndirectedNode c = bOnly_[i - ab_.length
+								- aOnly_.length];
+						addMotif1(motifs, a, b, c, add);
+						addMotifs24(motifs, c, bOnly_, add);
+					}
+				}
+			}
+		});
 
 		return true;
 	}
 
-	private void addMotifs56(HashSet<UndirectedNode> ab, Update u) {
-		for (UndirectedNode c : ab) {
-			for (UndirectedNode d : ab) {
-				if (c.getIndex() >= d.getIndex()) {
-					continue;
-				}
-				if (c.hasEdge(c, d)) {
-					this.changeMotif(UndirectedMotifType.UM5,
-							UndirectedMotifType.UM6, u);
-				} else {
-					this.changeMotif(UndirectedMotifType.UM3,
-							UndirectedMotifType.UM5, u);
-				}
+	private void addMotifs56(BinnedIntDistr motifs, UndirectedNode c,
+			UndirectedNode[] ab, boolean add) {
+		for (UndirectedNode d : ab) {
+			if (c.getIndex() >= d.getIndex()) {
+				continue;
+			}
+			if (c.hasEdge(c, d)) {
+				this.changeMotif(motifs, UndirectedMotifType.UM5,
+						UndirectedMotifType.UM6, add);
+			} else {
+				this.changeMotif(motifs, UndirectedMotifType.UM3,
+						UndirectedMotifType.UM5, add);
 			}
 		}
 	}
 
-	private void addMotifs13(HashSet<UndirectedNode> aOnly,
-			HashSet<UndirectedNode> bOnly, Update u) {
-		for (UndirectedNode c : aOnly) {
-			for (UndirectedNode d : bOnly) {
-				if (c.hasEdge(c, d)) {
-					this.changeMotif(UndirectedMotifType.UM1,
-							UndirectedMotifType.UM3, u);
-				} else {
-					this.changeMotif(UndirectedMotifType.UM1, u);
-				}
+	private void addMotifs13(BinnedIntDistr motifs, UndirectedNode c,
+			UndirectedNode[] bOnly, boolean add) {
+		for (UndirectedNode d : bOnly) {
+			if (c.hasEdge(c, d)) {
+				this.changeMotif(motifs, UndirectedMotifType.UM1,
+						UndirectedMotifType.UM3, add);
+			} else {
+				this.changeMotif(motifs, UndirectedMotifType.UM1, add);
 			}
 		}
 	}
 
-	private void addMotif1(UndirectedNode a, UndirectedNode b,
-			HashSet<UndirectedNode> only, Update u) {
-		for (UndirectedNode c : only) {
-			for (IElement e_c : c.getEdges()) {
-				UndirectedNode d = (UndirectedNode) ((UndirectedEdge) e_c)
-						.getDifferingNode(c);
-				if (d.hasEdge(d, a)) {
-					continue;
-				}
-				if (d.hasEdge(d, b)) {
-					continue;
-				}
-				if (d.getIndex() == a.getIndex()) {
-					continue;
-				}
-				if (d.getIndex() == b.getIndex()) {
-					continue;
-				}
-				this.changeMotif(UndirectedMotifType.UM1, u);
+	private void addMotif1(BinnedIntDistr motifs, UndirectedNode a,
+			UndirectedNode b, UndirectedNode c, boolean add) {
+		for (IElement e_c : c.getEdges()) {
+			UndirectedNode d = (UndirectedNode) ((UndirectedEdge) e_c)
+					.getDifferingNode(c);
+			if (d.hasEdge(d, a)) {
+				continue;
+			}
+			if (d.hasEdge(d, b)) {
+				continue;
 			}
+			if (d.getIndex() == a.getIndex()) {
+				continue;
+			}
+			if (d.getIndex() == b.getIndex()) {
+				continue;
+			}
+			this.changeMotif(motifs, UndirectedMotifType.UM1, add);
 		}
 	}
 
-	private void addMotif4(UndirectedNode a, UndirectedNode b,
-			HashSet<UndirectedNode> ab, Update u) {
-		for (UndirectedNode c : ab) {
-			for (IElement e_c : c.getEdges()) {
-				UndirectedNode d = (UndirectedNode) ((UndirectedEdge) e_c)
-						.getDifferingNode(c);
-				if (d.hasEdge(d, a)) {
-					continue;
-				}
-				if (d.hasEdge(d, b)) {
-					continue;
-				}
-				if (d.getIndex() == a.getIndex()) {
-					continue;
-				}
-				if (d.getIndex() == b.getIndex()) {
-					continue;
-				}
-				this.changeMotif(UndirectedMotifType.UM2,
-						UndirectedMotifType.UM4, u);
+	private void addMotif4(BinnedIntDistr motifs, UndirectedNode a,
+			UndirectedNode b, UndirectedNode c, boolean add) {
+		for (IElement e_c : c.getEdges()) {
+			UndirectedNode d = (UndirectedNode) ((UndirectedEdge) e_c)
+					.getDifferingNode(c);
+			if (d.hasEdge(d, a)) {
+				continue;
+			}
+			if (d.hasEdge(d, b)) {
+				continue;
 			}
+			if (d.getIndex() == a.getIndex()) {
+				continue;
+			}
+			if (d.getIndex() == b.getIndex()) {
+				continue;
+			}
+			this.changeMotif(motifs, UndirectedMotifType.UM2,
+					UndirectedMotifType.UM4, add);
 		}
 	}
 
-	private void addMotifs24(HashSet<UndirectedNode> only, Update u) {
-		for (UndirectedNode c : only) {
-			for (UndirectedNode d : only) {
-				if (c.getIndex() >= d.getIndex()) {
-					continue;
-				}
-				if (c.hasEdge(c, d)) {
-					this.changeMotif(UndirectedMotifType.UM4, u);
-				} else {
-					this.changeMotif(UndirectedMotifType.UM2, u);
-				}
+	private void addMotifs24(BinnedIntDistr motifs, UndirectedNode c,
+			UndirectedNode[] only, boolean add) {
+		for (UndirectedNode d : only) {
+			if (c.getIndex() >= d.getIndex()) {
+				continue;
+			}
+			if (c.hasEdge(c, d)) {
+				this.changeMotif(motifs, UndirectedMotifType.UM4, add);
+			} else {
+				this.changeMotif(motifs, UndirectedMotifType.UM2, add);
 			}
 		}
 	}
 
-	private void addMotifs45(HashSet<UndirectedNode> ab,
-			HashSet<UndirectedNode> only, Update u) {
-		for (UndirectedNode c : ab) {
-			for (UndirectedNode d : only) {
-				if (c.hasEdge(c, d)) {
-					this.changeMotif(UndirectedMotifType.UM4,
-							UndirectedMotifType.UM5, u);
-				} else {
-					this.changeMotif(UndirectedMotifType.UM1,
-							UndirectedMotifType.UM4, u);
-				}
+	private void addMotifs45(BinnedIntDistr motifs, UndirectedNode c,
+			UndirectedNode[] only, boolean add) {
+		for (UndirectedNode d : only) {
+			if (c.hasEdge(c, d)) {
+				this.changeMotif(motifs, UndirectedMotifType.UM4,
+						UndirectedMotifType.UM5, add);
+			} else {
+				this.changeMotif(motifs, UndirectedMotifType.UM1,
+						UndirectedMotifType.UM4, add);
 			}
 		}
 	}
 
-	private void changeMotif(UndirectedMotifType t1, UndirectedMotifType t2,
-			Update u) {
-		if (u instanceof EdgeAddition) {
-			this.motifs.decr(UndirectedMotifs.getIndex(t1));
-			this.motifs.incr(UndirectedMotifs.getIndex(t2));
-		} else if (u instanceof EdgeRemoval) {
-			this.motifs.decr(UndirectedMotifs.getIndex(t2));
-			this.motifs.incr(UndirectedMotifs.getIndex(t1));
+	private void changeMotif(BinnedIntDistr motifs, UndirectedMotifType t1,
+			UndirectedMotifType t2, boolean add) {
+		if (add) {
+			motifs.decr(UndirectedMotifs.getIndex(t1));
+			motifs.incr(UndirectedMotifs.getIndex(t2));
+		} else {
+			motifs.decr(UndirectedMotifs.getIndex(t2));
+			motifs.incr(UndirectedMotifs.getIndex(t1));
 		}
 	}
 
-	private void changeMotif(UndirectedMotifType type, Update u) {
-		if (u instanceof EdgeAddition) {
-			this.motifs.incr(UndirectedMotifs.getIndex(type));
-		} else if (u instanceof EdgeRemoval) {
-			this.motifs.decr(UndirectedMotifs.getIndex(type));
+	private void changeMotif(BinnedIntDistr motifs, UndirectedMotifType type,
+			boolean add) {
+		if (add) {
+			motifs.incr(UndirectedMotifs.getIndex(type));
+		} else {
+			motifs.decr(UndirectedMotifs.getIndex(type));
 		}
 	}
 
@@ -10,19 +10,37 @@ import dna.metrics.algorithms.IAfterER;
 import dna.metrics.algorithms.IBeforeEA;
 import dna.metrics.algorithms.IBeforeNA;
 import dna.metrics.algorithms.IBeforeNR;
+import dna.metrics.motifs.ParallelMotifEvaluation.Evaluation;
+import dna.series.data.distr.BinnedIntDistr;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
 import dna.updates.update.Update;
+import dna.util.Config;
 
 public class UndirectedMotifsURuleBased extends UndirectedMotifs implements
 		IBeforeNA, IBeforeNR, IBeforeEA, IAfterER {
 
 	private UndirectedMotifsRule[][][][][] rules;
 
+	private ParallelMotifEvaluation evaluation;
+
 	public UndirectedMotifsURuleBased() {
 		super("UndirectedMotifsURuleBased");
+		this.evaluation = new ParallelMotifEvaluation();
+	}
+
+	/**
+	 *
+	 * @param threads
+	 *            number of threads to evaluate the node groups of a single
+	 *            update (cf. ParallelMotifEvaluation)
+	 */
+	public UndirectedMotifsURuleBased(int threads) {
+		super("UndirectedMotifsURuleBased");
+		this.evaluation = new ParallelMotifEvaluation(threads,
+				Config.getInt("MOTIF_UPDATE_MIN_GROUPS"));
 	}
 
 	@Override
@@ -132,14 +150,7 @@ public class UndirectedMotifsURuleBased extends UndirectedMotifs implements
 	public boolean applyBeforeUpdate(EdgeAddition ea) {
 		UndirectedNode a = (UndirectedNode) ea.getEdge().getN1();
 		UndirectedNode b = (UndirectedNode) ea.getEdge().getN2();
-
-		HashSet<UndirectedEdge> N = this.getN(a, b);
-		for (UndirectedEdge cd : N) {
-			UndirectedNode c = cd.getNode1();
-			UndirectedNode d = cd.getNode2();
-			this.getRule(a, b, c, d).execute(this.motifs, true);
-		}
-
+		this.applyRules(a, b, true);
 		return true;
 	}
 
@@ -147,18 +158,28 @@ public class UndirectedMotifsURuleBased extends UndirectedMotifs implements
 	public boolean applyAfterUpdate(EdgeRemoval er) {
 		UndirectedNode a = (UndirectedNode) er.getEdge().getN1();
 		UndirectedNode b = (UndirectedNode) er.getEdge().getN2();
-
-		HashSet<UndirectedEdge> N = this.getN(a, b);
-		for (UndirectedEdge cd : N) {
-			UndirectedNode c = cd.getNode1();
-			UndirectedNode d = cd.getNode2();
-			this.getRule(a, b, c, d).execute(this.motifs, false);
-		}
-
+		this.applyRules(a, b, false);
 		return true;
 		// return this.processEdge(er);
 	}
 
+	private void applyRules(final UndirectedNode a, final UndirectedNode b,
+			final boolean add) {
+		HashSet<UndirectedEdge> n = this.getN(a, b);
+		final UndirectedEdge[] N = n.toArray(new UndirectedEdge[n.size()]);
+
+		this.evaluation.evaluate(this.motifs, N.length, new Evaluation() {
+			@Override
+			public void evaluate(BinnedIntDistr motifs, int from, int to) {
+				for (int i = from; i < to; i++) {
+					UndirectedNode c = N[i].getNode1();
+					UndirectedNode d = N[i].getNode2();
+					getRule(a, b, c, d).execute(motifs, add);
+				}
+			}
+		});
+	}
+
 	@Override
 	public boolean applyBeforeUpdate(NodeAddition na) {
 		return true;
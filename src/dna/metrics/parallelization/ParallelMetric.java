@@ -1,5 +1,10 @@
 package dna.metrics.parallelization;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+
 import dna.graph.IGraph;
 import dna.metrics.IMetric;
 import dna.metrics.Metric;
@@ -22,7 +27,28 @@ import dna.updates.update.EdgeRemoval;
 import dna.updates.update.NodeAddition;
 import dna.updates.update.NodeRemoval;
 import dna.util.ArrayUtils;
-
+import dna.util.Config;
+import dna.util.ParallelExecution;
+import dna.util.Timer;
+
+/**
+ * 
+ * Computes a metric on a partitioned graph. The partitions are initialized,
+ * recomputed, and updated concurrently using a fork-join pool of the given
+ * number of threads, which is shared by all metrics and runs (one thread
+ * executes all partitions sequentially in the calling thread). Afterwards,
+ * the results of all partitions are combined using the given collation.
+ * 
+ * Updates are propagated to the partitions one at a time, directly after
+ * each of them has been applied to the graph, as partitions (e.g.,
+ * OverlappingPartition) read the current state of the graph when an update
+ * is propagated.
+ * 
+ * Besides the runtime of each partition (used to estimate the runtime of a
+ * parallel execution), the wall-clock time of the actual execution of the
+ * partitions is recorded as well.
+ *
+ */
 public class ParallelMetric extends Metric implements IBeforeBatch,
 		IAfterBatch, IAfterUpdates {
 	protected PartitioningScheme partitioningScheme;
@@ -34,14 +60,46 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 
 	protected long[] partitionRuntimes;
 
+	protected int threads;
+
+	protected ForkJoinPool pool;
+
+	protected Timer parallelTimer;
+
 	public ParallelMetric(String name, PartitioningScheme partitioningScheme,
 			NodeAssignment nodeAssignment, Metric metric, Collation collation) {
+		this(name, partitioningScheme, nodeAssignment, metric, collation,
+				Config.getInt("PARALLEL_METRIC_THREADS"));
+	}
+
+	/**
+	 * 
+	 * @param name
+	 *            name of the metric
+	 * @param partitioningScheme
+	 *            scheme used to partition the graph
+	 * @param nodeAssignment
+	 *            assignment of added nodes to partitions
+	 * @param metric
+	 *            metric to compute on each partition
+	 * @param collation
+	 *            collation that combines the results of all partitions
+	 * @param threads
+	 *            number of threads used to execute partitions (values <= 0
+	 *            use the number of available processors, 1 executes all
+	 *            partitions sequentially)
+	 */
+	public ParallelMetric(String name, PartitioningScheme partitioningScheme,
+			NodeAssignment nodeAssignment, Metric metric, Collation collation,
+			int threads) {
 		super(name, MetricType.exact);
 		this.partitioningScheme = partitioningScheme;
 		this.nodeAssignment = nodeAssignment;
 		this.metric = metric;
 		this.collation = collation;
 		this.collation.setMetric(metric);
+		this.threads = ParallelExecution.getThreads(threads);
+		this.parallelTimer = new Timer();
 	}
 
 	@Override
@@ -58,12 +116,18 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 				"runtimeTotal",
 				(double) (ArrayUtils.sum(this.partitionRuntimes) + this.collation
 						.getTimer().getDutation()));
+		Value runtimeReal = new Value("runtimeReal",
+				(double) (this.parallelTimer.getDutation() + this.collation
+						.getTimer().getDutation()));
+		Value runtimeParallel = new Value("runtimeParallel",
+				(double) this.parallelTimer.getDutation());
 		Value[] runtimes = new Value[] { runtimeEstimated, runtimeMax,
-				runtimeCollation, runtimeTotal };
+				runtimeCollation, runtimeTotal, runtimeReal, runtimeParallel };
 
 		Value partitions = new Value("partitions",
 				this.partitioningScheme.partitions.length);
-		Value[] etc = new Value[] { partitions };
+		Value threads = new Value("threads", this.threads);
+		Value[] etc = new Value[] { partitions, threads };
 
 		Value[][] values = new Value[this.partitioningScheme.partitions.length][];
 		for (int i = 0; i < values.length; i++) {
@@ -166,21 +230,37 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 		super.setGraph(g);
 		this.partitioningScheme.init(g, this.metric);
 		this.partitionRuntimes = new long[this.partitioningScheme.partitions.length];
+		if (this.threads > 1) {
+			this.pool = ParallelExecution.getSharedPool(this.threads);
+		}
 	}
 
 	@Override
 	public boolean init() {
 		boolean success = true;
 
+		List<PartitionTask> tasks = new ArrayList<PartitionTask>(
+				this.partitioningScheme.partitions.length);
 		for (Partition p : this.partitioningScheme.partitions) {
-			p.getTimer().restart();
 			if (metric instanceof IRecomputation) {
-				success &= p.recompute();
+				tasks.add(new PartitionTask(p) {
+					@Override
+					protected boolean execute() {
+						return this.p.recompute();
+					}
+				});
 			} else {
-				success &= p.init();
+				tasks.add(new PartitionTask(p) {
+					@Override
+					protected boolean execute() {
+						return this.p.init();
+					}
+				});
 			}
-			p.getTimer().end();
 		}
+		this.parallelTimer.reset();
+		success &= this.execute(tasks);
+		this.parallelTimer.end();
 
 		this.collation.getTimer().restart();
 		success &= this.collation.collate(this.g,
@@ -200,6 +280,7 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 			p.getTimer().reset();
 		}
 		this.collation.getTimer().reset();
+		this.parallelTimer.reset();
 
 		return true;
 	}
@@ -209,11 +290,20 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 		boolean success = true;
 
 		if (metric instanceof IRecomputation) {
+			List<PartitionTask> tasks = new ArrayList<PartitionTask>(
+					this.partitioningScheme.partitions.length);
 			for (Partition p : this.partitioningScheme.partitions) {
-				p.getTimer().restart();
-				p.recompute();
-				p.getTimer().end();
+				tasks.add(new PartitionTask(p) {
+					@Override
+					protected boolean execute() {
+						this.p.recompute();
+						return true;
+					}
+				});
 			}
+			this.parallelTimer.restart();
+			this.execute(tasks);
+			this.parallelTimer.end();
 		}
 
 		this.collation.getTimer().reset();
@@ -245,15 +335,21 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 	 */
 
 	@Override
-	public boolean applyAfterUpdate(NodeRemoval nr) {
-		boolean success = true;
+	public boolean applyAfterUpdate(final NodeRemoval nr) {
+		List<PartitionTask> tasks = new ArrayList<PartitionTask>();
 		for (Partition p : this.partitioningScheme.partitions) {
 			if (p.shouldPropagate(nr)) {
-				p.getTimer().restart();
-				success &= p.propagate(nr);
-				p.getTimer().end();
+				tasks.add(new PartitionTask(p) {
+					@Override
+					protected boolean execute() {
+						return this.p.propagate(nr);
+					}
+				});
 			}
 		}
+		this.parallelTimer.restart();
+		boolean success = this.execute(tasks);
+		this.parallelTimer.end();
 		return success;
 	}
 
@@ -262,15 +358,21 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 	 */
 
 	@Override
-	public boolean applyAfterUpdate(EdgeAddition ea) {
-		boolean success = true;
+	public boolean applyAfterUpdate(final EdgeAddition ea) {
+		List<PartitionTask> tasks = new ArrayList<PartitionTask>();
 		for (Partition p : this.partitioningScheme.partitions) {
 			if (p.shouldPropagate(ea)) {
-				p.getTimer().restart();
-				success &= p.propagate(ea);
-				p.getTimer().end();
+				tasks.add(new PartitionTask(p) {
+					@Override
+					protected boolean execute() {
+						return this.p.propagate(ea);
+					}
+				});
 			}
 		}
+		this.parallelTimer.restart();
+		boolean success = this.execute(tasks);
+		this.parallelTimer.end();
 		return success;
 	}
 
@@ -279,15 +381,75 @@ public class ParallelMetric extends Metric implements IBeforeBatch,
 	 */
 
 	@Override
-	public boolean applyAfterUpdate(EdgeRemoval er) {
-		boolean success = true;
+	public boolean applyAfterUpdate(final EdgeRemoval er) {
+		List<PartitionTask> tasks = new ArrayList<PartitionTask>();
 		for (Partition p : this.partitioningScheme.partitions) {
 			if (p.shouldPropagate(er)) {
-				p.getTimer().restart();
-				success &= p.propagate(er);
-				p.getTimer().end();
+				tasks.add(new PartitionTask(p) {
+					@Override
+					protected boolean execute() {
+						return this.p.propagate(er);
+					}
+				});
 			}
 		}
+		this.parallelTimer.restart();
+		boolean success = this.execute(tasks);
+		this.parallelTimer.end();
 		return success;
 	}
+
+	/*
+	 * EXECUTION
+	 */
+
+	/**
+	 * 
+	 * Executes the given tasks and waits for their completion. In case more
+	 * than one task is given and more than one thread should be used, they
+	 * are executed concurrently, otherwise they are executed sequentially in
+	 * the calling thread.
+	 * 
+	 * @param tasks
+	 *            tasks to execute (at most one per partition)
+	 * @return true if all tasks were executed successfully
+	 */
+	protected boolean execute(List<PartitionTask> tasks) {
+		boolean success = true;
+		if (this.pool == null || tasks.size() <= 1) {
+			for (PartitionTask task : tasks) {
+				success &= task.call();
+			}
+			return success;
+		}
+
+		for (boolean s : ParallelExecution.invokeAll(tasks, this.pool)) {
+			success &= s;
+		}
+		return success;
+	}
+
+	/**
+	 * 
+	 * Task executed on a single partition, the runtime of the execution is
+	 * added to the partition's timer.
+	 *
+	 */
+	protected static abstract class PartitionTask implements Callable<Boolean> {
+		protected Partition p;
+
+		public PartitionTask(Partition p) {
+			this.p = p;
+		}
+
+		@Override
+		public Boolean call() {
+			this.p.getTimer().restart();
+			boolean success = this.execute();
+			this.p.getTimer().end();
+			return success;
+		}
+
+		protected abstract boolean execute();
+	}
 }
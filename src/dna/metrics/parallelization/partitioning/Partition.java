@@ -1,5 +1,6 @@
 package dna.metrics.parallelization.partitioning;
 
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
@@ -10,13 +11,21 @@ import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
 import dna.metrics.Metric;
 import dna.metrics.algorithms.IAfterEA;
+import dna.metrics.algorithms.IAfterEAs;
 import dna.metrics.algorithms.IAfterER;
+import dna.metrics.algorithms.IAfterERs;
 import dna.metrics.algorithms.IAfterNA;
+import dna.metrics.algorithms.IAfterNAs;
 import dna.metrics.algorithms.IAfterNR;
+import dna.metrics.algorithms.IAfterNRs;
 import dna.metrics.algorithms.IBeforeEA;
+import dna.metrics.algorithms.IBeforeEAs;
 import dna.metrics.algorithms.IBeforeER;
+import dna.metrics.algorithms.IBeforeERs;
 import dna.metrics.algorithms.IBeforeNA;
+import dna.metrics.algorithms.IBeforeNAs;
 import dna.metrics.algorithms.IBeforeNR;
+import dna.metrics.algorithms.IBeforeNRs;
 import dna.metrics.algorithms.IDynamicAlgorithm;
 import dna.metrics.algorithms.IRecomputation;
 import dna.metrics.clustering.UndirectedClusteringCoefficientR;
@@ -177,11 +186,17 @@ public abstract class Partition {
 
 	protected boolean apply(NodeAddition na) {
 		boolean success = true;
-		if (m instanceof IBeforeNA) {
+		if (m instanceof IBeforeNAs) {
+			success &= ((IBeforeNAs) m).applyBeforeNAs(Collections
+					.singletonList(na));
+		} else if (m instanceof IBeforeNA) {
 			success &= ((IBeforeNA) m).applyBeforeUpdate(na);
 		}
 		success &= na.apply(g);
-		if (m instanceof IAfterNA) {
+		if (m instanceof IAfterNAs) {
+			success &= ((IAfterNAs) m).applyAfterNAs(Collections
+					.singletonList(na));
+		} else if (m instanceof IAfterNA) {
 			success &= ((IAfterNA) m).applyAfterUpdate(na);
 		}
 		return success;
@@ -197,11 +212,17 @@ public abstract class Partition {
 
 	protected boolean apply(NodeRemoval nr) {
 		boolean success = true;
-		if (this.m instanceof IBeforeNR) {
+		if (this.m instanceof IBeforeNRs) {
+			success &= ((IBeforeNRs) m).applyBeforeNRs(Collections
+					.singletonList(nr));
+		} else if (this.m instanceof IBeforeNR) {
 			success &= ((IBeforeNR) m).applyBeforeUpdate(nr);
 		}
 		success &= nr.apply(this.g);
-		if (this.m instanceof IAfterNR) {
+		if (this.m instanceof IAfterNRs) {
+			success &= ((IAfterNRs) m).applyAfterNRs(Collections
+					.singletonList(nr));
+		} else if (this.m instanceof IAfterNR) {
 			success &= ((IAfterNR) m).applyAfterUpdate(nr);
 		}
 		return success;
@@ -217,11 +238,17 @@ public abstract class Partition {
 
 	protected boolean apply(EdgeAddition ea) {
 		boolean success = true;
-		if (m instanceof IBeforeEA) {
+		if (m instanceof IBeforeEAs) {
+			success &= ((IBeforeEAs) m).applyBeforeEAs(Collections
+					.singletonList(ea));
+		} else if (m instanceof IBeforeEA) {
 			success &= ((IBeforeEA) m).applyBeforeUpdate(ea);
 		}
 		success &= ea.apply(g);
-		if (m instanceof IAfterEA) {
+		if (m instanceof IAfterEAs) {
+			success &= ((IAfterEAs) m).applyAfterEAs(Collections
+					.singletonList(ea));
+		} else if (m instanceof IAfterEA) {
 			success &= ((IAfterEA) m).applyAfterUpdate(ea);
 		}
 		return success;
@@ -237,11 +264,17 @@ public abstract class Partition {
 
 	protected boolean apply(EdgeRemoval er) {
 		boolean success = true;
-		if (m instanceof IBeforeER) {
+		if (m instanceof IBeforeERs) {
+			success &= ((IBeforeERs) m).applyBeforeERs(Collections
+					.singletonList(er));
+		} else if (m instanceof IBeforeER) {
 			success &= ((IBeforeER) m).applyBeforeUpdate(er);
 		}
 		success &= er.apply(g);
-		if (m instanceof IAfterER) {
+		if (m instanceof IAfterERs) {
+			success &= ((IAfterERs) m).applyAfterERs(Collections
+					.singletonList(er));
+		} else if (m instanceof IAfterER) {
 			success &= ((IAfterER) m).applyAfterUpdate(er);
 		}
 		return success;
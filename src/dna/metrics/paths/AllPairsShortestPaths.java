@@ -1,5 +1,8 @@
 package dna.metrics.paths;
 
+import java.util.List;
+import java.util.concurrent.Callable;
+
 import dna.metrics.IMetric;
 import dna.metrics.Metric;
 import dna.series.data.Value;
@@ -7,6 +10,7 @@ import dna.series.data.distr.BinnedDistr;
 import dna.series.data.distr.Distr;
 import dna.series.data.nodevaluelists.NodeNodeValueList;
 import dna.series.data.nodevaluelists.NodeValueList;
+import dna.util.ParallelExecution;
 import dna.util.parameters.Parameter;
 
 public abstract class AllPairsShortestPaths extends Metric {
@@ -16,6 +20,12 @@ public abstract class AllPairsShortestPaths extends Metric {
 
 	public BinnedDistr apsp;
 
+	/**
+	 * number of threads used to compute the shortest paths from all sources
+	 * (only used by recomputation variants)
+	 */
+	protected int threads = 1;
+
 	public AllPairsShortestPaths(String name) {
 		super(name, MetricType.exact);
 	}
@@ -66,4 +76,65 @@ public abstract class AllPairsShortestPaths extends Metric {
 				&& this.apsp.equalsVerbose(((AllPairsShortestPaths) m).apsp);
 	}
 
+	/**
+	 * 
+	 * @param sources
+	 *            number of source nodes
+	 * @return number of tasks the sources should be distributed among
+	 */
+	protected int getTaskCount(int sources) {
+		return Math.max(1, Math.min(this.threads, sources));
+	}
+
+	/**
+	 * executes the given tasks using the configured number of threads and
+	 * adds the distributions computed by them to apsp (in the order of the
+	 * tasks).
+	 * 
+	 * @param tasks
+	 *            tasks to execute
+	 * @return executed tasks
+	 */
+	@SuppressWarnings("unchecked")
+	protected List<SourcesTask> execute(List<? extends SourcesTask> tasks) {
+		List<SourcesTask> results = ParallelExecution.invokeAll(tasks,
+				this.threads);
+		for (SourcesTask task : results) {
+			this.apsp.add(task.apsp);
+		}
+		return results;
+	}
+
+	/**
+	 * Computes the shortest paths from the sources sources[first],
+	 * sources[first + step], ... and counts their lengths in its own
+	 * distribution apsp.
+	 */
+	@SuppressWarnings("rawtypes")
+	protected static abstract class SourcesTask implements
+			Callable<SourcesTask> {
+		protected int[] sources;
+		protected int first;
+		protected int step;
+
+		protected BinnedDistr apsp;
+
+		public SourcesTask(int[] sources, int first, int step, BinnedDistr apsp) {
+			this.sources = sources;
+			this.first = first;
+			this.step = step;
+			this.apsp = apsp;
+		}
+
+		@Override
+		public SourcesTask call() {
+			for (int i = this.first; i < this.sources.length; i += this.step) {
+				this.compute(this.sources[i]);
+			}
+			return this;
+		}
+
+		protected abstract void compute(int source);
+	}
+
 }
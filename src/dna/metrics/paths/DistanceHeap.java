@@ -0,0 +1,83 @@
+package dna.metrics.paths;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of node indexes ordered by the (tentative) distance they
+ * were added with, used as the priority queue of Dijkstra's algorithm. A
+ * node can be contained multiple times, outdated entries have to be skipped
+ * by the caller.
+ */
+public class DistanceHeap {
+
+	private int[] nodes;
+
+	private double[] keys;
+
+	private int size;
+
+	public DistanceHeap(int initialCapacity) {
+		this.nodes = new int[Math.max(1, initialCapacity)];
+		this.keys = new double[this.nodes.length];
+		this.size = 0;
+	}
+
+	public boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	public void clear() {
+		this.size = 0;
+	}
+
+	public void add(int node, double key) {
+		if (this.size == this.nodes.length) {
+			this.nodes = Arrays.copyOf(this.nodes, this.size * 2);
+			this.keys = Arrays.copyOf(this.keys, this.size * 2);
+		}
+		int i = this.size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (this.keys[parent] <= key) {
+				break;
+			}
+			this.nodes[i] = this.nodes[parent];
+			this.keys[i] = this.keys[parent];
+			i = parent;
+		}
+		this.nodes[i] = node;
+		this.keys[i] = key;
+	}
+
+	/**
+	 * removes the entry with the smallest key
+	 *
+	 * @return node of the removed entry
+	 */
+	public int poll() {
+		int node = this.nodes[0];
+		this.size--;
+		if (this.size > 0) {
+			int last = this.nodes[this.size];
+			double key = this.keys[this.size];
+			int i = 0;
+			int half = this.size >>> 1;
+			while (i < half) {
+				int child = 2 * i + 1;
+				if (child + 1 < this.size
+						&& this.keys[child + 1] < this.keys[child]) {
+					child++;
+				}
+				if (key <= this.keys[child]) {
+					break;
+				}
+				this.nodes[i] = this.nodes[child];
+				this.keys[i] = this.keys[child];
+				i = child;
+			}
+			this.nodes[i] = last;
+			this.keys[i] = key;
+		}
+		return node;
+	}
+}
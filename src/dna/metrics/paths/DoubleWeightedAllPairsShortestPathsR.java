@@ -1,18 +1,14 @@
 package dna.metrics.paths;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
-
-import dna.graph.IElement;
-import dna.graph.edges.DirectedEdge;
-import dna.graph.edges.UndirectedEdge;
-import dna.graph.nodes.DirectedNode;
-import dna.graph.nodes.Node;
-import dna.graph.nodes.UndirectedNode;
-import dna.graph.weights.IWeighted;
-import dna.graph.weights.doubleW.DoubleWeight;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import dna.graph.CSRGraph;
 import dna.metrics.algorithms.IRecomputation;
 import dna.series.data.distr.BinnedDoubleDistr;
+import dna.util.Config;
+import dna.util.ParallelExecution;
 import dna.util.parameters.DoubleParameter;
 
 public class DoubleWeightedAllPairsShortestPathsR extends
@@ -21,64 +17,37 @@ public class DoubleWeightedAllPairsShortestPathsR extends
 	protected double binSize;
 
 	public DoubleWeightedAllPairsShortestPathsR(double binSize) {
+		this(binSize, Config.getInt("RECOMPUTATION_THREADS"));
+	}
+
+	/**
+	 * 
+	 * @param binSize
+	 *            bin size of the distribution of path lengths
+	 * @param threads
+	 *            number of threads used for the recomputation (values <= 0
+	 *            use the number of available processors)
+	 */
+	public DoubleWeightedAllPairsShortestPathsR(double binSize, int threads) {
 		super("DoubleWeightedAllPairsShortestPathsR", new DoubleParameter(
 				"binSize", binSize));
 		this.binSize = binSize;
+		this.threads = ParallelExecution.getThreads(threads);
 	}
 
 	@Override
 	public boolean recompute() {
 		this.apsp = new BinnedDoubleDistr("APSP", this.binSize);
 		this.characteristicPathLength = 0;
+		CSRGraph csr = CSRGraph.freeze(this.g, true);
 
-		for (IElement source_ : this.g.getNodes()) {
-			Node source = (Node) source_;
-
-			double[] dist = this.getInitialDist(this.g.getMaxNodeIndex() + 1);
-			Node[] previous = new Node[this.g.getMaxNodeIndex() + 1];
-			boolean[] visited = new boolean[g.getMaxNodeIndex() + 1];
-			PriorityQueue<Node> Q = new PriorityQueue<Node>(g.getNodeCount(),
-					new DistComparator(dist));
-
-			dist[source.getIndex()] = 0;
-			Q.add(source);
-
-			while (!Q.isEmpty()) {
-				Node current = (Node) Q.remove();
-
-				if (visited[current.getIndex()]) {
-					continue;
-				}
-				visited[current.getIndex()] = true;
-
-				if (current instanceof DirectedNode) {
-					for (IElement e : ((DirectedNode) current)
-							.getOutgoingEdges()) {
-						Node n = ((DirectedEdge) e).getDst();
-						DoubleWeight w = (DoubleWeight) ((IWeighted) e)
-								.getWeight();
-						this.process(source, current, n,
-								(double) w.getWeight(), dist, previous,
-								visited, Q);
-					}
-				} else if (current instanceof UndirectedNode) {
-					for (IElement e : ((UndirectedNode) current).getEdges()) {
-						Node n = ((UndirectedEdge) e).getDifferingNode(current);
-						DoubleWeight w = (DoubleWeight) ((IWeighted) e)
-								.getWeight();
-						this.process(source, current, n,
-								(double) w.getWeight(), dist, previous,
-								visited, Q);
-					}
-				}
-			}
-
-			for (double d : dist) {
-				if (d > 0 && d != Double.MAX_VALUE) {
-					((BinnedDoubleDistr) this.apsp).incr(d);
-					this.characteristicPathLength += d;
-				}
-			}
+		int tasks = this.getTaskCount(csr.getNodeCount());
+		List<Dijkstra> dijkstra = new ArrayList<Dijkstra>(tasks);
+		for (int i = 0; i < tasks; i++) {
+			dijkstra.add(new Dijkstra(csr, i, tasks, this.binSize));
+		}
+		for (SourcesTask task : this.execute(dijkstra)) {
+			this.characteristicPathLength += ((Dijkstra) task).pathLengthSum;
 		}
 
 		this.characteristicPathLength /= (double) this.apsp.getDenominator();
@@ -86,47 +55,75 @@ public class DoubleWeightedAllPairsShortestPathsR extends
 		return true;
 	}
 
-	protected class DistComparator implements Comparator<Node> {
-
+	/**
+	 * Dijkstra's algorithm from each source on the snapshot.
+	 */
+	protected static class Dijkstra extends SourcesTask {
+		private CSRGraph csr;
 		private double[] dist;
+		private boolean[] reached;
+		private boolean[] visited;
+		private DistanceHeap Q;
 
-		public DistComparator(double[] dist) {
-			this.dist = dist;
+		private double pathLengthSum;
+
+		public Dijkstra(CSRGraph csr, int first, int step, double binSize) {
+			super(csr.getNodes(), first, step, new BinnedDoubleDistr("APSP",
+					binSize));
+			this.csr = csr;
+			this.pathLengthSum = 0;
 		}
 
 		@Override
-		public int compare(Node o1, Node o2) {
-			double dist = this.dist[o1.getIndex()] - this.dist[o2.getIndex()];
-			if (dist < 0) {
-				return -1;
-			} else if (dist == 0) {
-				return 0;
-			} else {
-				return 1;
+		protected void compute(int source) {
+			int size = this.csr.getMaxNodeIndex() + 1;
+			if (this.dist == null) {
+				this.dist = new double[size];
+				this.reached = new boolean[size];
+				this.visited = new boolean[size];
+				this.Q = new DistanceHeap(this.csr.getNodeCount());
 			}
-		}
-	}
+			int[] offsets = this.csr.getOffsets();
+			int[] targets = this.csr.getTargets();
+			double[] weights = this.csr.getWeights();
+			Arrays.fill(this.dist, Double.MAX_VALUE);
+			Arrays.fill(this.reached, false);
+			Arrays.fill(this.visited, false);
+			this.Q.clear();
 
-	protected void process(Node source, Node current, Node n, double weight,
-			double[] dist, Node[] previous, boolean[] visited,
-			PriorityQueue<Node> Q) {
-		if (n.getIndex() == source.getIndex()) {
-			return;
-		}
-		double newDist = dist[current.getIndex()] + weight;
-		if (previous[n.getIndex()] == null || newDist < dist[n.getIndex()]) {
-			dist[n.getIndex()] = newDist;
-			previous[n.getIndex()] = current;
-			Q.add(n);
-		}
-	}
+			this.dist[source] = 0;
+			this.Q.add(source, 0);
+
+			while (!this.Q.isEmpty()) {
+				int current = this.Q.poll();
+
+				if (this.visited[current]) {
+					continue;
+				}
+				this.visited[current] = true;
 
-	protected double[] getInitialDist(int size) {
-		double[] dist = new double[size];
-		for (int i = 0; i < dist.length; i++) {
-			dist[i] = Double.MAX_VALUE;
+				for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+					int n = targets[i];
+					if (n == source) {
+						continue;
+					}
+					double newDist = this.dist[current] + weights[i];
+					if (!this.reached[n] || newDist < this.dist[n]) {
+						this.dist[n] = newDist;
+						this.reached[n] = true;
+						this.Q.add(n, newDist);
+					}
+				}
+			}
+
+			BinnedDoubleDistr apsp = (BinnedDoubleDistr) this.apsp;
+			for (double d : this.dist) {
+				if (d > 0 && d != Double.MAX_VALUE) {
+					apsp.incr(d);
+					this.pathLengthSum += d;
+				}
+			}
 		}
-		return dist;
 	}
 
 }
@@ -1,112 +1,112 @@
 package dna.metrics.paths;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
-
-import dna.graph.IElement;
-import dna.graph.edges.DirectedEdge;
-import dna.graph.edges.UndirectedEdge;
-import dna.graph.nodes.DirectedNode;
-import dna.graph.nodes.Node;
-import dna.graph.nodes.UndirectedNode;
-import dna.graph.weights.IWeighted;
-import dna.graph.weights.intW.IntWeight;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import dna.graph.CSRGraph;
 import dna.metrics.algorithms.IRecomputation;
 import dna.series.data.distr.BinnedIntDistr;
+import dna.util.Config;
+import dna.util.ParallelExecution;
 
 public class IntWeightedAllPairsShortestPathsR extends
 		IntWeightedAllPairsShortestPaths implements IRecomputation {
 
 	public IntWeightedAllPairsShortestPathsR() {
+		this(Config.getInt("RECOMPUTATION_THREADS"));
+	}
+
+	/**
+	 * 
+	 * @param threads
+	 *            number of threads used for the recomputation (values <= 0
+	 *            use the number of available processors)
+	 */
+	public IntWeightedAllPairsShortestPathsR(int threads) {
 		super("IntWeightedAllPairsShortestPathsR");
+		this.threads = ParallelExecution.getThreads(threads);
 	}
 
 	@Override
 	public boolean recompute() {
 		this.apsp = new BinnedIntDistr("APSP");
+		CSRGraph csr = CSRGraph.freeze(this.g, true);
+
+		int tasks = this.getTaskCount(csr.getNodeCount());
+		List<Dijkstra> dijkstra = new ArrayList<Dijkstra>(tasks);
+		for (int i = 0; i < tasks; i++) {
+			dijkstra.add(new Dijkstra(csr, i, tasks));
+		}
+		this.execute(dijkstra);
+
+		return true;
+	}
 
-		for (IElement source_ : this.g.getNodes()) {
-			Node source = (Node) source_;
+	/**
+	 * Dijkstra's algorithm from each source on the snapshot.
+	 */
+	protected static class Dijkstra extends SourcesTask {
+		private CSRGraph csr;
+		private int[] dist;
+		private boolean[] reached;
+		private boolean[] visited;
+		private DistanceHeap Q;
+
+		public Dijkstra(CSRGraph csr, int first, int step) {
+			super(csr.getNodes(), first, step, new BinnedIntDistr("APSP"));
+			this.csr = csr;
+		}
 
-			int[] dist = this.getInitialDist(this.g.getMaxNodeIndex() + 1);
-			Node[] previous = new Node[this.g.getMaxNodeIndex() + 1];
-			boolean[] visited = new boolean[g.getMaxNodeIndex() + 1];
-			PriorityQueue<Node> Q = new PriorityQueue<Node>(g.getNodeCount(),
-					new DistComparator(dist));
+		@Override
+		protected void compute(int source) {
+			int size = this.csr.getMaxNodeIndex() + 1;
+			if (this.dist == null) {
+				this.dist = new int[size];
+				this.reached = new boolean[size];
+				this.visited = new boolean[size];
+				this.Q = new DistanceHeap(this.csr.getNodeCount());
+			}
+			int[] offsets = this.csr.getOffsets();
+			int[] targets = this.csr.getTargets();
+			double[] weights = this.csr.getWeights();
+			Arrays.fill(this.dist, Integer.MAX_VALUE);
+			Arrays.fill(this.reached, false);
+			Arrays.fill(this.visited, false);
+			this.Q.clear();
 
-			dist[source.getIndex()] = 0;
-			Q.add(source);
+			this.dist[source] = 0;
+			this.Q.add(source, 0);
 
-			while (!Q.isEmpty()) {
-				Node current = (Node) Q.remove();
+			while (!this.Q.isEmpty()) {
+				int current = this.Q.poll();
 
-				if (visited[current.getIndex()]) {
+				if (this.visited[current]) {
 					continue;
 				}
-				visited[current.getIndex()] = true;
-
-				if (current instanceof DirectedNode) {
-					for (IElement e : ((DirectedNode) current)
-							.getOutgoingEdges()) {
-						Node n = ((DirectedEdge) e).getDst();
-						IntWeight w = (IntWeight) ((IWeighted) e).getWeight();
-						this.process(source, current, n, (int) w.getWeight(),
-								dist, previous, visited, Q);
+				this.visited[current] = true;
+
+				for (int i = offsets[current]; i < offsets[current + 1]; i++) {
+					int n = targets[i];
+					if (n == source) {
+						continue;
 					}
-				} else if (current instanceof UndirectedNode) {
-					for (IElement e : ((UndirectedNode) current).getEdges()) {
-						Node n = ((UndirectedEdge) e).getDifferingNode(current);
-						IntWeight w = (IntWeight) ((IWeighted) e).getWeight();
-						this.process(source, current, n, (int) w.getWeight(),
-								dist, previous, visited, Q);
+					int newDist = this.dist[current] + (int) weights[i];
+					if (!this.reached[n] || newDist < this.dist[n]) {
+						this.dist[n] = newDist;
+						this.reached[n] = true;
+						this.Q.add(n, newDist);
 					}
 				}
 			}
 
-			for (int d : dist) {
+			BinnedIntDistr apsp = (BinnedIntDistr) this.apsp;
+			for (int d : this.dist) {
 				if (d > 0 && d != Integer.MAX_VALUE) {
-					this.apsp.incr(d);
+					apsp.incr(d);
 				}
 			}
 		}
-
-		return true;
-	}
-
-	protected class DistComparator implements Comparator<Node> {
-
-		private int[] dist;
-
-		public DistComparator(int[] dist) {
-			this.dist = dist;
-		}
-
-		@Override
-		public int compare(Node o1, Node o2) {
-			return this.dist[o1.getIndex()] - this.dist[o2.getIndex()];
-		}
-	}
-
-	protected void process(Node source, Node current, Node n, int weight,
-			int[] dist, Node[] previous, boolean[] visited,
-			PriorityQueue<Node> Q) {
-		if (n.getIndex() == source.getIndex()) {
-			return;
-		}
-		int newDist = dist[current.getIndex()] + weight;
-		if (previous[n.getIndex()] == null || newDist < dist[n.getIndex()]) {
-			dist[n.getIndex()] = newDist;
-			previous[n.getIndex()] = current;
-			Q.add(n);
-		}
-	}
-
-	protected int[] getInitialDist(int size) {
-		int[] dist = new int[size];
-		for (int i = 0; i < dist.length; i++) {
-			dist[i] = Integer.MAX_VALUE;
-		}
-		return dist;
 	}
 
 }
@@ -0,0 +1,115 @@
+package dna.metrics.paths;
+
+import java.util.Arrays;
+
+import dna.graph.CSRGraph;
+import dna.series.data.distr.BinnedIntDistr;
+
+/**
+ * Bit-parallel breadth-first search from up to 64 sources at once (MS-BFS).
+ * For each node, the sources that have already reached it and the sources
+ * whose frontier currently contains it are stored as bits of a long. Hence,
+ * each edge is traversed once per level for all sources of a batch instead
+ * of once per source.
+ *
+ * An instance holds three long arrays with one entry per node index of the
+ * snapshot and must not be shared between threads.
+ */
+public class MultiSourceBFS {
+
+	/**
+	 * maximum number of sources processed in a single traversal
+	 */
+	public static final int MaxSources = 64;
+
+	private CSRGraph csr;
+
+	private long[] seen;
+
+	private long[] visit;
+
+	private long[] visitNext;
+
+	public MultiSourceBFS(CSRGraph csr) {
+		this.csr = csr;
+		int size = csr.getMaxNodeIndex() + 1;
+		this.seen = new long[size];
+		this.visit = new long[size];
+		this.visitNext = new long[size];
+	}
+
+	/**
+	 * executes a BFS from the sources sources[from] ... sources[from + count
+	 * - 1] and counts the distance to each node reachable from these sources
+	 * (except for the source itself).
+	 *
+	 * @param sources
+	 *            indexes of the source nodes
+	 * @param from
+	 *            position of the first source
+	 * @param count
+	 *            number of sources (at most MaxSources)
+	 * @param total
+	 *            distribution all distances are counted in (can be null)
+	 * @param perSource
+	 *            distributions the distances from sources[from + i] are
+	 *            counted in perSource[i] (can be null)
+	 */
+	public void traverse(int[] sources, int from, int count,
+			BinnedIntDistr total, BinnedIntDistr[] perSource) {
+		if (count > MaxSources) {
+			throw new IllegalArgumentException("cannot traverse from " + count
+					+ " sources at once (max. " + MaxSources + ")");
+		}
+		int[] offsets = this.csr.getOffsets();
+		int[] targets = this.csr.getTargets();
+		int size = this.seen.length;
+
+		Arrays.fill(this.seen, 0);
+		Arrays.fill(this.visit, 0);
+		for (int i = 0; i < count; i++) {
+			int s = sources[from + i];
+			this.seen[s] |= 1L << i;
+			this.visit[s] |= 1L << i;
+		}
+
+		boolean active = count > 0;
+		int level = 0;
+		while (active) {
+			level++;
+			active = false;
+
+			// expand the frontiers of all sources at once
+			for (int v = 0; v < size; v++) {
+				long bits = this.visit[v];
+				if (bits == 0) {
+					continue;
+				}
+				for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+					this.visitNext[targets[i]] |= bits;
+				}
+			}
+
+			// nodes reached for the first time by some sources
+			for (int w = 0; w < size; w++) {
+				long next = this.visitNext[w] & ~this.seen[w];
+				this.visitNext[w] = 0;
+				this.visit[w] = next;
+				if (next == 0) {
+					continue;
+				}
+				active = true;
+				this.seen[w] |= next;
+				if (total != null) {
+					total.incr(level, Long.bitCount(next));
+				}
+				if (perSource != null) {
+					while (next != 0) {
+						perSource[Long.numberOfTrailingZeros(next)].incr(level);
+						next &= next - 1;
+					}
+				}
+			}
+		}
+	}
+}
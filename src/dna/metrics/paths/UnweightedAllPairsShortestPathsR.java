@@ -1,28 +1,164 @@
 package dna.metrics.paths;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import dna.graph.CSRGraph;
 import dna.graph.IElement;
 import dna.graph.nodes.Node;
 import dna.metrics.algorithms.IRecomputation;
 import dna.series.data.distr.BinnedIntDistr;
+import dna.util.Config;
+import dna.util.ParallelExecution;
 
 public class UnweightedAllPairsShortestPathsR extends
 		UnweightedAllPairsShortestPaths implements IRecomputation {
 
+	protected boolean multiSourceBFS;
+
 	public UnweightedAllPairsShortestPathsR() {
-		super("UnweightedAllPairsShortestPathsR");
+		this(new String[0], Config.getInt("RECOMPUTATION_THREADS"));
 	}
 
 	public UnweightedAllPairsShortestPathsR(String[] nodeTypes) {
+		this(nodeTypes, Config.getInt("RECOMPUTATION_THREADS"));
+	}
+
+	public UnweightedAllPairsShortestPathsR(String[] nodeTypes, int threads) {
+		this(nodeTypes, threads, Config
+				.getBoolean("APSP_MULTI_SOURCE_BFS"));
+	}
+
+	/**
+	 * 
+	 * @param nodeTypes
+	 *            types of the source nodes (empty for all nodes)
+	 * @param threads
+	 *            number of threads used for the recomputation (values <= 0
+	 *            use the number of available processors)
+	 * @param multiSourceBFS
+	 *            if true, the BFS is executed from up to 64 sources at once
+	 *            (see MultiSourceBFS)
+	 */
+	public UnweightedAllPairsShortestPathsR(String[] nodeTypes, int threads,
+			boolean multiSourceBFS) {
 		super("UnweightedAllPairsShortestPathsR", nodeTypes);
+		this.threads = ParallelExecution.getThreads(threads);
+		this.multiSourceBFS = multiSourceBFS;
 	}
 
 	@Override
 	public boolean recompute() {
 		this.apsp = new BinnedIntDistr("APSP");
+		CSRGraph csr = CSRGraph.freeze(this.g);
+
+		ArrayList<Integer> sources_ = new ArrayList<Integer>();
 		for (IElement n_ : this.getNodesOfAssignedTypes()) {
-			this.compute((Node) n_);
+			sources_.add(((Node) n_).getIndex());
+		}
+		int[] sources = new int[sources_.size()];
+		for (int i = 0; i < sources.length; i++) {
+			sources[i] = sources_.get(i);
+		}
+
+		if (this.multiSourceBFS) {
+			int tasks = this.getTaskCount((sources.length
+					+ MultiSourceBFS.MaxSources - 1)
+					/ MultiSourceBFS.MaxSources);
+			List<MSBFS> bfs = new ArrayList<MSBFS>(tasks);
+			for (int i = 0; i < tasks; i++) {
+				bfs.add(new MSBFS(csr, sources, i, tasks));
+			}
+			this.execute(bfs);
+		} else {
+			int tasks = this.getTaskCount(sources.length);
+			List<BFS> bfs = new ArrayList<BFS>(tasks);
+			for (int i = 0; i < tasks; i++) {
+				bfs.add(new BFS(csr, sources, i, tasks));
+			}
+			this.execute(bfs);
 		}
 		return true;
 	}
 
+	/**
+	 * BFS from each source on the snapshot, equivalent to compute(Node).
+	 */
+	protected static class BFS extends SourcesTask {
+		private CSRGraph csr;
+		private int[] dist;
+		private int[] queue;
+
+		public BFS(CSRGraph csr, int[] sources, int first, int step) {
+			super(sources, first, step, new BinnedIntDistr("APSP"));
+			this.csr = csr;
+		}
+
+		@Override
+		protected void compute(int source) {
+			if (this.dist == null) {
+				this.dist = new int[this.csr.getMaxNodeIndex() + 1];
+				Arrays.fill(this.dist, -1);
+				this.queue = new int[this.csr.getNodeCount()];
+			}
+			int[] offsets = this.csr.getOffsets();
+			int[] targets = this.csr.getTargets();
+			BinnedIntDistr apsp = (BinnedIntDistr) this.apsp;
+			this.queue[0] = source;
+			this.dist[source] = 0;
+			int head = 0;
+			int tail = 1;
+
+			while (head < tail) {
+				int curr = this.queue[head++];
+				for (int i = offsets[curr]; i < offsets[curr + 1]; i++) {
+					int out = targets[i];
+					if (this.dist[out] == -1) {
+						this.queue[tail++] = out;
+						this.dist[out] = this.dist[curr] + 1;
+						apsp.incr(this.dist[out]);
+					}
+				}
+			}
+
+			for (int i = 0; i < tail; i++) {
+				this.dist[this.queue[i]] = -1;
+			}
+		}
+	}
+
+	/**
+	 * Multi-source BFS from the batches of sources with index first, first +
+	 * step, ... (each batch consisting of up to MultiSourceBFS.MaxSources
+	 * consecutive sources).
+	 */
+	protected static class MSBFS extends SourcesTask {
+		private CSRGraph csr;
+
+		public MSBFS(CSRGraph csr, int[] sources, int first, int step) {
+			super(sources, first, step, new BinnedIntDistr("APSP"));
+			this.csr = csr;
+		}
+
+		@Override
+		public SourcesTask call() {
+			MultiSourceBFS bfs = new MultiSourceBFS(this.csr);
+			int batch = MultiSourceBFS.MaxSources;
+			for (int i = this.first * batch; i < this.sources.length; i += this.step
+					* batch) {
+				bfs.traverse(this.sources, i,
+						Math.min(batch, this.sources.length - i),
+						(BinnedIntDistr) this.apsp, null);
+			}
+			return this;
+		}
+
+		@Override
+		protected void compute(int source) {
+			new MultiSourceBFS(this.csr).traverse(new int[] { source }, 0, 1,
+					(BinnedIntDistr) this.apsp, null);
+		}
+	}
+
 }
@@ -2,7 +2,9 @@ package dna.metrics.paths;
 
 import java.util.LinkedList;
 
+import dna.graph.CSRGraph;
 import dna.graph.IElement;
+import dna.graph.IGraph;
 import dna.graph.edges.DirectedEdge;
 import dna.graph.edges.UndirectedEdge;
 import dna.graph.nodes.DirectedNode;
@@ -67,4 +69,47 @@ public class UnweightedSingleSourceShortestPathsR extends
 		return true;
 	}
 
+	/**
+	 * recomputes all given metrics at once. the BFS of up to
+	 * MultiSourceBFS.MaxSources metrics is executed as a single multi-source
+	 * BFS on a snapshot of the graph. all metrics must be assigned to the same
+	 * graph.
+	 * 
+	 * @param metrics
+	 *            metrics to recompute
+	 * @return true if all metrics were recomputed successfully
+	 */
+	public static boolean recompute(UnweightedSingleSourceShortestPathsR... metrics) {
+		if (metrics.length == 0) {
+			return true;
+		}
+		IGraph g = metrics[0].g;
+		int[] sources = new int[metrics.length];
+		BinnedIntDistr[] sssp = new BinnedIntDistr[metrics.length];
+		int count = 0;
+		for (UnweightedSingleSourceShortestPathsR m : metrics) {
+			if (m.g != g) {
+				throw new IllegalArgumentException(
+						"cannot recompute metrics assigned to different graphs");
+			}
+			m.sssp = new BinnedIntDistr("SSSP");
+			if (!g.containsNode(g.getGraphDatastructures().newNodeInstance(0))
+					|| g.getNode(m.sourceIndex) == null) {
+				continue;
+			}
+			sources[count] = m.sourceIndex;
+			sssp[count] = m.sssp;
+			count++;
+		}
+
+		MultiSourceBFS bfs = new MultiSourceBFS(CSRGraph.freeze(g));
+		BinnedIntDistr[] perSource = new BinnedIntDistr[MultiSourceBFS.MaxSources];
+		for (int i = 0; i < count; i += MultiSourceBFS.MaxSources) {
+			int batch = Math.min(MultiSourceBFS.MaxSources, count - i);
+			System.arraycopy(sssp, i, perSource, 0, batch);
+			bfs.traverse(sources, i, batch, null, perSource);
+		}
+		return true;
+	}
+
 }
@@ -1,46 +1,62 @@
 package dna.metrics.similarityMeasures;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Arrays;
 
 import dna.graph.nodes.Node;
+import dna.series.data.nodevaluelists.NodeNodeValueList;
+import dna.series.data.nodevaluelists.NodeNodeValueList.Storage;
+import dna.util.Config;
 
 /**
- * A two-dimensional matrix.
- * 
- * @param <Node>
- *            The keys of columns and rows (e.g. {@link Integer}).
- * @param <Double>
- *            The matrix entries (e.g. {@link Integer}).
+ * A two-dimensional, triangular matrix of double values whose rows and columns
+ * are identified by the index of a node.
+ *
+ * The rows are stored in an array indexed by node index. Each row is a
+ * primitive hash map from the column index to the value (open addressing with
+ * linear probing), i.e., an entry requires 12 bytes (plus the free slots of
+ * its row) instead of a HashMap entry with a boxed key and value. Incremental
+ * updates (add) change the values in place without allocating any objects.
  */
 public class Matrix {
 
-	// <ROW, <COLUMN, value>
-	private Map<Node, Map<Node, Double>> values;
+	private static final int Free = -1;
+
+	private static final int InitialCapacity = 4;
+
+	/**
+	 * rows[i] stores the entries (i, j) with j <= i, null if row i does not
+	 * exist
+	 */
+	private Row[] rows;
 
 	/**
 	 * Creates an empty {@link Matrix}.
 	 */
 	public Matrix() {
-		this.values = new HashMap<Node, Map<Node, Double>>();
+		this.rows = new Row[0];
 	}
 
 	public boolean equals(Matrix m, double faultTolerance) {
 		boolean equals;
-		for (Node element1 : this.values.keySet()) {
-			for (Node element2 : this.values.keySet()) {
-				if ((this.values.get(element1).get(element2) == null && m.values
-						.get(element1).get(element2) == null)
-						|| (this.values.get(element1).get(element2) == null && m.values
-								.get(element1).get(element2) == 0.0)
-						|| ((Double) this.values.get(element1).get(element2) == 0.0 && m.values
-								.get(element1).get(element2) == null))
+		for (int element1 = 0; element1 < this.rows.length; element1++) {
+			if (this.rows[element1] == null)
+				continue;
+			Row mRow = element1 < m.rows.length ? m.rows[element1] : null;
+			for (int element2 = 0; element2 < this.rows.length; element2++) {
+				if (this.rows[element2] == null)
+					continue;
+				int pos1 = this.rows[element1].find(element2);
+				int pos2 = mRow == null ? Free : mRow.find(element2);
+				double value1 = pos1 == Free ? 0.0
+						: this.rows[element1].values[pos1];
+				double value2 = pos2 == Free ? 0.0 : mRow.values[pos2];
+				if (pos1 == Free && pos2 == Free)
+					equals = true;
+				else if ((pos1 == Free && value2 == 0.0)
+						|| (value1 == 0.0 && pos2 == Free))
 					equals = true;
 				else
-					equals = (Math
-							.abs((m.values.get(element1).get(element2) - (Double) this.values
-									.get(element1).get(element2))) <= faultTolerance);
+					equals = Math.abs(value2 - value1) <= faultTolerance;
 				if (!equals) {
 					return false;
 				}
@@ -51,10 +67,32 @@ public class Matrix {
 
 	@Override
 	public boolean equals(Object o) {
-		if (o != null && o instanceof Matrix)
-			return ((Matrix) o).values.equals(this.values);
+		if (o == null || !(o instanceof Matrix))
+			return false;
 
-		return false;
+		Matrix m = (Matrix) o;
+		int length = Math.max(this.rows.length, m.rows.length);
+		for (int i = 0; i < length; i++) {
+			Row row1 = i < this.rows.length ? this.rows[i] : null;
+			Row row2 = i < m.rows.length ? m.rows[i] : null;
+			if (row1 == null || row2 == null) {
+				if (row1 != row2)
+					return false;
+			} else if (!row1.equals(row2)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 0;
+		for (int i = 0; i < this.rows.length; i++) {
+			if (this.rows[i] != null)
+				hash += i ^ this.rows[i].hashCode();
+		}
+		return hash;
 	}
 
 	/**
@@ -67,52 +105,69 @@ public class Matrix {
 	 *         exist.
 	 */
 	public Double get(Node row, Node column) {
-		// triangular matrix
-		if (row.getIndex() < column.getIndex()) {
-			Node tmp = row;
-			row = column;
-			column = tmp;
-		}
-		if (this.values.containsKey(row))
-			if (this.values.get(row).containsKey(column))
-				return this.values.get(row).get(column);
-
-		return null;
+		Row r = this.getRow(row.getIndex(), column.getIndex());
+		if (r == null)
+			return null;
+		int pos = r.find(Math.min(row.getIndex(), column.getIndex()));
+		if (pos == Free)
+			return null;
+		return r.values[pos];
 	}
 
 	/**
-	 * @param The
-	 *            string from which we get the index.
-	 * 
-	 * @return The Index of a Node
+	 * @param row
+	 *            The row of the matrix entry to return.
+	 * @param column
+	 *            The column of the matrix entry to return.
+	 * @param defaultValue
+	 *            The value to return if the entry doesn't exist.
+	 * @return The matrix entry at given row and column or the defaultValue if
+	 *         either given row, given column or entry at this position doesn't
+	 *         exist.
 	 */
-	private int getNodeNumber(String positionString) {
-		String node = "";
-		int iPos = positionString.indexOf(' ');
-		node = positionString.substring(0, iPos).trim();
-		return Integer.parseInt(node);
+	public double get(Node row, Node column, double defaultValue) {
+		Row r = this.getRow(row.getIndex(), column.getIndex());
+		if (r == null)
+			return defaultValue;
+		int pos = r.find(Math.min(row.getIndex(), column.getIndex()));
+		if (pos == Free)
+			return defaultValue;
+		return r.values[pos];
+	}
 
+	/**
+	 * @return true if there is an entry at given row and column
+	 */
+	public boolean contains(Node row, Node column) {
+		Row r = this.getRow(row.getIndex(), column.getIndex());
+		return r != null
+				&& r.find(Math.min(row.getIndex(), column.getIndex())) != Free;
 	}
 
 	public double getRowSum(Node row) {
 		double sum = 0.0;
-		for (Node node : this.values.keySet())
-			sum = get(row, node) == null ? sum : sum + get(row, node);
+		for (int i = 0; i < this.rows.length; i++) {
+			if (this.rows[i] == null)
+				continue;
+			sum += this.get(row.getIndex(), i);
+		}
 		return sum;
 	}
 
 	public double getRowSumExceptGivenNode(Node row) {
 		double sum = 0.0;
-		for (Node node : this.values.keySet())
-			sum = get(row, node) == null ? sum : row.equals(node) ? sum : sum
-					+ get(row, node);
+		for (int i = 0; i < this.rows.length; i++) {
+			if (this.rows[i] == null || i == row.getIndex())
+				continue;
+			sum += this.get(row.getIndex(), i);
+		}
 		return sum;
 	}
 
 	/**
 	 * Inserts given value at given row and column(triangular matrix). If given
 	 * row or column does not exist yet, it will be created.
-	 * 
+	 *
 	 * @param row
 	 *            The row where to insert the given value.
 	 * @param column
@@ -120,60 +175,142 @@ public class Matrix {
 	 * @param value
 	 *            The value to insert.
 	 */
-	public void put(Node row, Node column, Double value) {
-		if (row.getIndex() < column.getIndex()) {
-			Node tmp = row;
-			row = column;
-			column = tmp;
-		}
+	public void put(Node row, Node column, double value) {
+		int r = Math.max(row.getIndex(), column.getIndex());
+		int c = Math.min(row.getIndex(), column.getIndex());
+		this.createRow(r).put(c, value);
+	}
 
-		if (this.values.containsKey(row))
-			this.values.get(row).put(column, value);
-		else {
-			final Map<Node, Double> newRow = new HashMap<Node, Double>();
-			newRow.put(column, value);
-			this.values.put(row, newRow);
-		}
+	/**
+	 * Adds the given value to the entry at given row and column (triangular
+	 * matrix) in place. If the entry does not exist yet, it is created with
+	 * the given value.
+	 *
+	 * @param row
+	 *            The row of the entry.
+	 * @param column
+	 *            The column of the entry.
+	 * @param value
+	 *            The value to add.
+	 * @return The new value of the entry.
+	 */
+	public double add(Node row, Node column, double value) {
+		int r = Math.max(row.getIndex(), column.getIndex());
+		int c = Math.min(row.getIndex(), column.getIndex());
+		return this.createRow(r).add(c, value);
 	}
 
 	/**
 	 * Removes a column with all its entries.
-	 * 
+	 *
 	 * @param column
 	 *            The column to remove.
 	 */
 	public void removeColumn(Node column) {
-		for (Node row : this.values.keySet())
-			this.values.get(row).remove(column);
+		for (int i = column.getIndex(); i < this.rows.length; i++) {
+			if (this.rows[i] != null)
+				this.rows[i].remove(column.getIndex());
+		}
 	}
 
 	/**
 	 * Removes the entry at given row and column.
-	 * 
+	 *
 	 * @param row
 	 *            The row of the entry to remove.
 	 * @param column
 	 *            The column of the entry to remove.
 	 */
 	public void removeEntry(Node row, Node column) {
-		if (this.values.containsKey(row))
-			this.values.get(row).remove(column);
+		if (row.getIndex() < this.rows.length
+				&& this.rows[row.getIndex()] != null)
+			this.rows[row.getIndex()].remove(column.getIndex());
 	}
 
 	/**
 	 * Removes a row with all its entries.
-	 * 
+	 *
 	 * @param row
 	 *            The row to remove.
 	 */
 	public void removeRow(Node row) {
-		this.values.remove(row);
+		if (row.getIndex() < this.rows.length)
+			this.rows[row.getIndex()] = null;
+	}
+
+	/**
+	 * Returns the storage of the NodeNodeValueLists written by the similarity
+	 * and matching measures as given by SIMILARITY_MATRIX_STORAGE, null in
+	 * case no list is written (none).
+	 */
+	public static Storage getOutputStorage() {
+		String storage = Config.get("SIMILARITY_MATRIX_STORAGE");
+		if (storage == null || storage.equals("none"))
+			return null;
+		return Storage.valueOf(storage);
+	}
+
+	/**
+	 * Returns the entries of this {@link Matrix} as a (symmetric)
+	 * NodeNodeValueList, entries that do not exist or are 0 are left empty.
+	 *
+	 * @param name
+	 *            name of the list
+	 * @param storage
+	 *            storage of the list, e.g., sparse as a similarity matrix
+	 *            usually contains far less than n*n entries
+	 */
+	public NodeNodeValueList toNodeNodeValueList(String name, Storage storage) {
+		int size = this.rows.length;
+		while (size > 0 && this.rows[size - 1] == null)
+			size--;
+		NodeNodeValueList list = NodeNodeValueList.create(name, size, storage);
+		for (int i = 0; i < size; i++) {
+			Row r = this.rows[i];
+			if (r == null)
+				continue;
+			for (int k = 0; k < r.columns.length; k++) {
+				int j = r.columns[k];
+				if (j == Free || r.values[k] == 0.0)
+					continue;
+				list.setValue(i, j, r.values[k]);
+				list.setValue(j, i, r.values[k]);
+			}
+		}
+		list.truncate();
+		return list;
+	}
+
+	/** Returns the entry (0 if it does not exist) at the given indices. **/
+	private double get(int index1, int index2) {
+		Row r = this.getRow(index1, index2);
+		if (r == null)
+			return 0.0;
+		int pos = r.find(Math.min(index1, index2));
+		return pos == Free ? 0.0 : r.values[pos];
+	}
+
+	/** Returns the row storing the entry of the given indices (or null). **/
+	private Row getRow(int index1, int index2) {
+		int r = Math.max(index1, index2);
+		if (r >= this.rows.length)
+			return null;
+		return this.rows[r];
+	}
+
+	private Row createRow(int index) {
+		if (index >= this.rows.length)
+			this.rows = Arrays.copyOf(this.rows,
+					Math.max(index + 1, this.rows.length * 2));
+		if (this.rows[index] == null)
+			this.rows[index] = new Row();
+		return this.rows[index];
 	}
 
 	/**
 	 * Returns a string representation of this {@link Matrix} for all current
 	 * nodes of the graph E.g.:
-	 * 
+	 *
 	 * <p>
 	 * 0|0:2, 0|1:0, 0|2:2, 0|3:0
 	 * </p>
@@ -186,35 +323,171 @@ public class Matrix {
 	 * <p>
 	 * 3|0:0, 3|1:2, 3|2:0, 3|3:2
 	 * </p>
-	 * 
-	 * 
+	 *
+	 *
 	 * @return The entries of this {@link Matrix}.
 	 */
 	@Override
 	public String toString() {
-		String oneRow = "";
-		String entry = "";
-		String output = "";
-		HashMap<Integer, String> rowS = new HashMap<Integer, String>();
-		HashMap<Integer, String> columnS;
-
-		for (Node row : this.values.keySet()) {
-			columnS = new HashMap<Integer, String>();
-			for (Node column : this.values.get(row).keySet()) {
-				entry = getNodeNumber(row.toString()) + "|"
-						+ getNodeNumber(column.toString()) + ":"
-						+ this.values.get(row).get(column).toString();
-				columnS.put(this.getNodeNumber(column.toString()), entry);
+		StringBuilder output = new StringBuilder();
+		for (int i = 0; i < this.rows.length; i++) {
+			Row r = this.rows[i];
+			if (r == null)
+				continue;
+			int[] columns = r.getColumns();
+			Arrays.sort(columns);
+			for (int k = 0; k < columns.length; k++) {
+				if (k > 0)
+					output.append(", ");
+				output.append(i).append("|").append(columns[k]).append(":")
+						.append(r.values[r.find(columns[k])]);
+			}
+			output.append(";\n");
+		}
+		return output.toString();
+	}
+
+	/**
+	 * Entries of a single row as map from column index to value, stored in two
+	 * arrays using open addressing with linear probing.
+	 */
+	private static class Row {
+		private int[] columns;
+
+		private double[] values;
+
+		private int size;
+
+		/** 32 - log2(capacity), used to take the high bits of the hash **/
+		private int shift;
+
+		public Row() {
+			this.columns = new int[InitialCapacity];
+			this.values = new double[InitialCapacity];
+			Arrays.fill(this.columns, Free);
+			this.size = 0;
+			this.shift = 32 - Integer.numberOfTrailingZeros(InitialCapacity);
+		}
+
+		/** multiplicative (Fibonacci) hashing **/
+		private int slot(int column) {
+			return (column * 0x9E3779B9) >>> this.shift;
+		}
+
+		/** Returns the position of the column or Free if not contained. **/
+		public int find(int column) {
+			int mask = this.columns.length - 1;
+			for (int i = this.slot(column);; i = (i + 1) & mask) {
+				if (this.columns[i] == column)
+					return i;
+				if (this.columns[i] == Free)
+					return Free;
+			}
+		}
 
+		/** Returns the position of the column, inserting it if necessary. **/
+		private int insert(int column, double value) {
+			int mask = this.columns.length - 1;
+			int i = this.slot(column);
+			for (; this.columns[i] != Free; i = (i + 1) & mask) {
+				if (this.columns[i] == column)
+					return i;
 			}
-			oneRow = (columnS.values().toString().substring(0, columnS.values()
-					.toString().length() - 1)).substring(1);
-			rowS.put(this.getNodeNumber(row.toString()), oneRow);
+			if ((this.size + 1) * 4 > this.columns.length * 3) {
+				this.grow();
+				return this.insert(column, value);
+			}
+			this.columns[i] = column;
+			this.values[i] = value;
+			this.size++;
+			return i;
 		}
-		for (Entry<Integer, String> element : rowS.entrySet()) {
-			output = output + element.getValue() + ";\n";
+
+		public void put(int column, double value) {
+			// insert first, it may replace the arrays
+			int pos = this.insert(column, value);
+			this.values[pos] = value;
+		}
+
+		public double add(int column, double value) {
+			int size = this.size;
+			int pos = this.insert(column, value);
+			if (size == this.size)
+				this.values[pos] += value;
+			return this.values[pos];
+		}
+
+		public void remove(int column) {
+			int pos = this.find(column);
+			if (pos == Free)
+				return;
+			// shift back the following entries of the cluster
+			int mask = this.columns.length - 1;
+			int i = pos;
+			for (int j = (i + 1) & mask; this.columns[j] != Free; j = (j + 1)
+					& mask) {
+				int home = this.slot(this.columns[j]);
+				if (((j - home) & mask) >= ((j - i) & mask)) {
+					this.columns[i] = this.columns[j];
+					this.values[i] = this.values[j];
+					i = j;
+				}
+			}
+			this.columns[i] = Free;
+			this.size--;
+		}
+
+		private void grow() {
+			int[] columns = this.columns;
+			double[] values = this.values;
+			this.columns = new int[columns.length * 2];
+			this.values = new double[columns.length * 2];
+			Arrays.fill(this.columns, Free);
+			this.size = 0;
+			this.shift--;
+			for (int i = 0; i < columns.length; i++) {
+				if (columns[i] != Free)
+					this.insert(columns[i], values[i]);
+			}
+		}
+
+		public int[] getColumns() {
+			int[] columns = new int[this.size];
+			int k = 0;
+			for (int c : this.columns) {
+				if (c != Free)
+					columns[k++] = c;
+			}
+			return columns;
 		}
-		return output;
-	}
 
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Row))
+				return false;
+			Row r = (Row) o;
+			if (r.size != this.size)
+				return false;
+			for (int i = 0; i < this.columns.length; i++) {
+				if (this.columns[i] == Free)
+					continue;
+				int pos = r.find(this.columns[i]);
+				if (pos == Free
+						|| Double.compare(r.values[pos], this.values[i]) != 0)
+					return false;
+			}
+			return true;
+		}
+
+		@Override
+		public int hashCode() {
+			int hash = 0;
+			for (int i = 0; i < this.columns.length; i++) {
+				if (this.columns[i] != Free)
+					hash += this.columns[i]
+							^ Double.valueOf(this.values[i]).hashCode();
+			}
+			return hash;
+		}
+	}
 }
@@ -26,6 +26,7 @@ import dna.metrics.similarityMeasures.overlap.Overlap;
 import dna.series.data.Value;
 import dna.series.data.distr.BinnedDoubleDistr;
 import dna.series.data.nodevaluelists.NodeNodeValueList;
+import dna.series.data.nodevaluelists.NodeNodeValueList.Storage;
 import dna.series.data.nodevaluelists.NodeValueList;
 import dna.updates.batch.Batch;
 import dna.util.parameters.Parameter;
@@ -102,6 +103,11 @@ public abstract class Measures extends Metric implements IMetric {
 	protected BinnedDoubleDistr binnedDistribution;
 	/** Average per Node Distribution */
 	protected BinnedDoubleDistr binnedDistributionEveryNodeToOtherNodes;
+	/**
+	 * Storage of the similarity matrix returned as NodeNodeValueList, null
+	 * if it is not returned (cf. {@link Matrix#getOutputStorage()}).
+	 */
+	protected Storage matrixStorage = Matrix.getOutputStorage();
 
 	/**
 	 * Initializes {@link Measures}. Implicitly sets degree type for directed
@@ -142,7 +148,7 @@ public abstract class Measures extends Metric implements IMetric {
 	 * Decreases the matching between the given nodes by 1.
 	 */
 	protected void decreaseMatching(Node node1, Node node2) {
-		this.matching.put(node1, node2, this.matching.get(node1, node2) - 1);
+		this.matching.add(node1, node2, -1);
 	}
 
 	/**
@@ -212,7 +218,7 @@ public abstract class Measures extends Metric implements IMetric {
 	 */
 	protected void decreaseMatchingWeighted(Node node1, Double value1,
 			Node node2, Double value2) {
-		double matchingG = this.matching.get(node1, node2)
+		double matchingG = this.matching.get(node1, node2, 0.0)
 				- Math.min(value1, value2);
 		if (matchingG < 0.0 && Math.abs(matchingG) <= 1.0E-4 || matchingG > 0.0
 				&& matchingG < 1.0E-6) {
@@ -466,26 +472,29 @@ public abstract class Measures extends Metric implements IMetric {
 		return neighbors;
 	}
 
+	/**
+	 * Sets the storage of the similarity matrix returned as
+	 * NodeNodeValueList, e.g., sparse as it usually contains far less than n*n
+	 * entries.
+	 * 
+	 * @param matrixStorage
+	 *            storage of the returned list, null to return no list
+	 */
+	public void setMatrixStorage(Storage matrixStorage) {
+		this.matrixStorage = matrixStorage;
+	}
+
+	/**
+	 * Returns the similarity of all pairs of nodes with a common neighbor
+	 * (if enabled via {@link #setMatrixStorage(Storage)}), the entries of all
+	 * other pairs (similarity 0) are empty.
+	 */
 	@Override
 	public NodeNodeValueList[] getNodeNodeValueLists() {
-		// final int numberOfNodesInGraph = this.g.getNodeCount();
-		// final NodeNodeValueList nodeNodeValueList = new NodeNodeValueList(
-		// "DiceDirectedWeighted", numberOfNodesInGraph);
-		// Double dice12;
-		// int node1Index, node2Index;
-		// for (IElement nodeOne : this.g.getNodes()) {
-		// DirectedNode node1 = (DirectedNode) nodeOne;
-		// node1Index = node1.getIndex();
-		// for (IElement nodeTwo : this.g.getNodes()) {
-		// DirectedNode node2 = (DirectedNode) nodeTwo;
-		// node2Index = node2.getIndex();
-		// dice12 = this.diceSimilarity.get(node1, node2);
-		// dice12 = dice12 == null ? 0.0 : dice12;
-		// nodeNodeValueList.setValue(node1Index, node2Index, dice12);
-		// }
-		// }
-
-		return new NodeNodeValueList[] {};
+		if (this.matrixStorage == null)
+			return new NodeNodeValueList[] {};
+		return new NodeNodeValueList[] { this.result.toNodeNodeValueList(
+				"Similarity", this.matrixStorage) };
 	}
 
 	@Override
@@ -504,8 +513,7 @@ public abstract class Measures extends Metric implements IMetric {
 	 * Increases the matching between the given nodes by 1.
 	 */
 	protected void increaseMatching(Node node1, Node node2) {
-		Double matchingG = this.matching.get(node1, node2);
-		this.matching.put(node1, node2, matchingG == null ? 1 : matchingG + 1);
+		this.matching.add(node1, node2, 1);
 	}
 
 	/**
@@ -540,12 +548,7 @@ public abstract class Measures extends Metric implements IMetric {
 	 */
 	protected void increaseMatchingWeighted(Node node1, Double value1,
 			Node node2, Double value2) {
-		Double matchingG = this.matching.get(node1, node2);
-		this.matching.put(
-				node1,
-				node2,
-				matchingG == null ? Math.min(value1, value2) : matchingG
-						+ Math.min(value1, value2));
+		this.matching.add(node1, node2, Math.min(value1, value2));
 
 	}
 
@@ -0,0 +1,183 @@
+package dna.metrics.similarityMeasures;
+
+import java.util.Arrays;
+
+import dna.graph.nodes.Node;
+
+/**
+ * A set of nodes for each node, e.g., the neighbors of each node, where all
+ * nodes are identified by their index.
+ *
+ * The sets are stored in an array indexed by node index. Each set is a
+ * sorted array of node indices, i.e., an element requires 4 bytes instead of
+ * a HashSet entry. Sizes of unions and intersections of two sets are computed
+ * by merging their arrays without creating any objects.
+ */
+public class NodeSets {
+
+	private static final int InitialCapacity = 4;
+
+	/** sets[i] contains the indices of the set of node i, sorted **/
+	private int[][] sets;
+
+	/** sizes[i] is the size of the set of node i, -1 if it does not exist **/
+	private int[] sizes;
+
+	/**
+	 * Creates an empty {@link NodeSets}.
+	 */
+	public NodeSets() {
+		this.sets = new int[0][];
+		this.sizes = new int[0];
+	}
+
+	/**
+	 * @return true if there is a set for the given node
+	 */
+	public boolean contains(Node node) {
+		int i = node.getIndex();
+		return i < this.sizes.length && this.sizes[i] >= 0;
+	}
+
+	/**
+	 * @return true if the set of the given node contains the given element
+	 */
+	public boolean contains(Node node, Node element) {
+		return this.contains(node)
+				&& this.find(node.getIndex(), element.getIndex()) >= 0;
+	}
+
+	/**
+	 * @return the size of the set of the given node (0 if it does not exist)
+	 */
+	public int size(Node node) {
+		return this.contains(node) ? this.sizes[node.getIndex()] : 0;
+	}
+
+	/**
+	 * Replaces the set of the given node by the given elements.
+	 */
+	public void put(Node node, Iterable<Node> elements) {
+		int i = node.getIndex();
+		this.ensureCapacity(i);
+		this.sets[i] = new int[InitialCapacity];
+		this.sizes[i] = 0;
+		for (Node element : elements)
+			this.add(node, element);
+	}
+
+	/**
+	 * Adds the given element to the set of the given node. If the set does not
+	 * exist yet, it is created.
+	 */
+	public void add(Node node, Node element) {
+		int i = node.getIndex();
+		this.ensureCapacity(i);
+		if (this.sizes[i] < 0) {
+			this.sets[i] = new int[InitialCapacity];
+			this.sizes[i] = 0;
+		}
+		int k = this.find(i, element.getIndex());
+		if (k >= 0)
+			return;
+		k = -(k + 1);
+		int size = this.sizes[i];
+		if (size == this.sets[i].length)
+			this.sets[i] = Arrays.copyOf(this.sets[i], size * 2);
+		System.arraycopy(this.sets[i], k, this.sets[i], k + 1, size - k);
+		this.sets[i][k] = element.getIndex();
+		this.sizes[i]++;
+	}
+
+	/**
+	 * Removes the given element from the set of the given node.
+	 */
+	public void remove(Node node, Node element) {
+		if (!this.contains(node))
+			return;
+		int i = node.getIndex();
+		int k = this.find(i, element.getIndex());
+		if (k < 0)
+			return;
+		System.arraycopy(this.sets[i], k + 1, this.sets[i], k,
+				this.sizes[i] - k - 1);
+		this.sizes[i]--;
+	}
+
+	/**
+	 * Removes the set of the given node.
+	 */
+	public void removeSet(Node node) {
+		if (!this.contains(node))
+			return;
+		this.sets[node.getIndex()] = null;
+		this.sizes[node.getIndex()] = -1;
+	}
+
+	/**
+	 * Removes the given element from all sets.
+	 */
+	public void removeFromAll(Node element) {
+		for (int i = 0; i < this.sizes.length; i++) {
+			if (this.sizes[i] <= 0)
+				continue;
+			int k = this.find(i, element.getIndex());
+			if (k >= 0) {
+				System.arraycopy(this.sets[i], k + 1, this.sets[i], k,
+						this.sizes[i] - k - 1);
+				this.sizes[i]--;
+			}
+		}
+	}
+
+	/**
+	 * @return the size of the intersection of the sets of the given nodes
+	 *         (sets that do not exist are empty)
+	 */
+	public int getIntersectionSize(Node node1, Node node2) {
+		if (!this.contains(node1) || !this.contains(node2))
+			return 0;
+		int[] set1 = this.sets[node1.getIndex()];
+		int[] set2 = this.sets[node2.getIndex()];
+		int size1 = this.sizes[node1.getIndex()];
+		int size2 = this.sizes[node2.getIndex()];
+		int intersection = 0;
+		for (int k1 = 0, k2 = 0; k1 < size1 && k2 < size2;) {
+			if (set1[k1] < set2[k2]) {
+				k1++;
+			} else if (set1[k1] > set2[k2]) {
+				k2++;
+			} else {
+				intersection++;
+				k1++;
+				k2++;
+			}
+		}
+		return intersection;
+	}
+
+	/**
+	 * @return the size of the union of the sets of the given nodes (sets that
+	 *         do not exist are empty)
+	 */
+	public int getUnionSize(Node node1, Node node2) {
+		return this.size(node1) + this.size(node2)
+				- this.getIntersectionSize(node1, node2);
+	}
+
+	/** Returns the position of the element or -(insertion + 1). **/
+	private int find(int set, int element) {
+		return Arrays.binarySearch(this.sets[set], 0, this.sizes[set],
+				element);
+	}
+
+	private void ensureCapacity(int index) {
+		if (index < this.sizes.length)
+			return;
+		int length = this.sizes.length;
+		int capacity = Math.max(index + 1, length * 2);
+		this.sets = Arrays.copyOf(this.sets, capacity);
+		this.sizes = Arrays.copyOf(this.sizes, capacity);
+		Arrays.fill(this.sizes, length, capacity, -1);
+	}
+}
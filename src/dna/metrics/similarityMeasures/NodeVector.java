@@ -0,0 +1,91 @@
+package dna.metrics.similarityMeasures;
+
+import java.util.Arrays;
+
+import dna.graph.nodes.Node;
+
+/**
+ * A vector of double values identified by the index of a node, e.g., the
+ * amount of neighbors of each node.
+ *
+ * The values are stored in a primitive array indexed by node index (cf.
+ * {@link Matrix}), Double.NaN marks a node without a value. In contrast to a
+ * HashMap, neither the node nor the value are boxed and updates do not
+ * allocate any objects.
+ */
+public class NodeVector {
+
+	private static final double Free = Double.NaN;
+
+	private double[] values;
+
+	/**
+	 * Creates an empty {@link NodeVector}.
+	 */
+	public NodeVector() {
+		this.values = new double[0];
+	}
+
+	/**
+	 * @param node
+	 *            The node whose value to return.
+	 * @param defaultValue
+	 *            The value to return if the node has no value.
+	 * @return The value of the given node or the defaultValue.
+	 */
+	public double get(Node node, double defaultValue) {
+		int i = node.getIndex();
+		if (i >= this.values.length || Double.isNaN(this.values[i]))
+			return defaultValue;
+		return this.values[i];
+	}
+
+	/**
+	 * @return true if the given node has a value
+	 */
+	public boolean contains(Node node) {
+		int i = node.getIndex();
+		return i < this.values.length && !Double.isNaN(this.values[i]);
+	}
+
+	/**
+	 * Sets the value of the given node.
+	 */
+	public void put(Node node, double value) {
+		this.ensureCapacity(node.getIndex());
+		this.values[node.getIndex()] = value;
+	}
+
+	/**
+	 * Adds the given value to the value of the given node in place. If the
+	 * node has no value yet, it is set to the given value.
+	 *
+	 * @return The new value of the node.
+	 */
+	public double add(Node node, double value) {
+		int i = node.getIndex();
+		this.ensureCapacity(i);
+		if (Double.isNaN(this.values[i]))
+			this.values[i] = value;
+		else
+			this.values[i] += value;
+		return this.values[i];
+	}
+
+	/**
+	 * Removes the value of the given node.
+	 */
+	public void remove(Node node) {
+		if (node.getIndex() < this.values.length)
+			this.values[node.getIndex()] = Free;
+	}
+
+	private void ensureCapacity(int index) {
+		if (index < this.values.length)
+			return;
+		int length = this.values.length;
+		this.values = Arrays.copyOf(this.values,
+				Math.max(index + 1, length * 2));
+		Arrays.fill(this.values, length, this.values.length, Free);
+	}
+}
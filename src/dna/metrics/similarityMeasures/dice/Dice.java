@@ -12,6 +12,7 @@ import dna.graph.nodes.UndirectedNode;
 import dna.metrics.IMetric;
 import dna.metrics.similarityMeasures.Matrix;
 import dna.metrics.similarityMeasures.Measures;
+import dna.metrics.similarityMeasures.NodeVector;
 import dna.series.data.distr.BinnedDoubleDistr;
 import dna.series.data.distr.Distr;
 
@@ -28,7 +29,7 @@ import dna.series.data.distr.Distr;
 public abstract class Dice extends Measures {
 
 	/** Contains the number of neighbors for each node */
-	protected HashMap<Node, Double> amountOfNeighbors;
+	protected NodeVector amountOfNeighbors;
 
 	/**
 	 * Initializes {@link Dice}.
@@ -396,7 +397,7 @@ public abstract class Dice extends Measures {
 
 	public void init_() {
 		this.result = new Matrix();
-		this.amountOfNeighbors = new HashMap<Node, Double>();
+		this.amountOfNeighbors = new NodeVector();
 		this.matching = new Matrix();
 		this.binnedDistribution = new BinnedDoubleDistr("BinnedDice", 0.01,
 				new long[] {}, 0);
@@ -415,7 +416,7 @@ public abstract class Dice extends Measures {
 
 	public void reset_() {
 		this.result = new Matrix();
-		this.amountOfNeighbors = new HashMap<Node, Double>();
+		this.amountOfNeighbors = new NodeVector();
 		this.matching = new Matrix();
 		this.binnedDistribution = new BinnedDoubleDistr("BinnedDice", 0.01,
 				new long[] {}, 0);
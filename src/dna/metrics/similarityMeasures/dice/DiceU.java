@@ -415,11 +415,8 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		if (isOutgoingMeasure()) {
@@ -462,11 +459,8 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		if (isOutgoingMeasure()) {
@@ -548,11 +542,8 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		this.updateDirectNeighborsMeasureWeighted(this
@@ -801,7 +792,7 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 	 */
 	private void decreaseAmountOfNeighborDirectedWeighted(
 			DirectedNode directedNode, double weight) {
-		double aoN = this.amountOfNeighbors.get(directedNode) - weight;
+		double aoN = this.amountOfNeighbors.get(directedNode, 0.0) - weight;
 
 		if (aoN < 0.0 && Math.abs(aoN) <= 1.0E-4 || aoN > 0.0 && aoN < 1.0E-6) {
 			aoN = 0.0;
@@ -867,9 +858,8 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 	 * Decrease the number of neighbors of the given node by 1.
 	 */
 	private void decreaseAmountOfNeighborsUnweighted(Node node) {
-		if (this.amountOfNeighbors.containsKey(node))
-			this.amountOfNeighbors.put(node,
-					this.amountOfNeighbors.get(node) - 1);
+		if (this.amountOfNeighbors.contains(node))
+			this.amountOfNeighbors.add(node, -1);
 		else
 			this.amountOfNeighbors.put(node, 0.0);
 
@@ -880,8 +870,7 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 	 */
 	private void decreaseAmountOfNeighborUndirectedWeighted(
 			UndirectedNode undirectedNode, double weight) {
-		this.amountOfNeighbors.put(undirectedNode,
-				this.amountOfNeighbors.get(undirectedNode) - weight);
+		this.amountOfNeighbors.add(undirectedNode, -weight);
 	}
 
 	/**
@@ -889,22 +878,14 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 	 */
 	private void increaseAmountOfNeighborDirectedWeighted(DirectedNode node,
 			double weight) {
-		if (amountOfNeighbors.containsKey(node))
-			this.amountOfNeighbors.put(node, this.amountOfNeighbors.get(node)
-					+ weight);
-		else
-			this.amountOfNeighbors.put(node, weight);
+		this.amountOfNeighbors.add(node, weight);
 	}
 
 	/**
 	 * Increases the number of neighbors of the given node by 1.
 	 */
 	private void increaseAmountOfNeighborsUnweighted(Node node) {
-		if (this.amountOfNeighbors.containsKey(node))
-			this.amountOfNeighbors.put(node,
-					this.amountOfNeighbors.get(node) + 1);
-		else
-			this.amountOfNeighbors.put(node, 1.0);
+		this.amountOfNeighbors.add(node, 1);
 
 	}
 
@@ -913,11 +894,7 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 	 */
 	private void increaseAmountOfNeighborUndirectedWeighted(
 			UndirectedNode node, double weight) {
-		if (amountOfNeighbors.containsKey(node))
-			this.amountOfNeighbors.put(node, this.amountOfNeighbors.get(node)
-					+ weight);
-		else
-			this.amountOfNeighbors.put(node, weight);
+		this.amountOfNeighbors.add(node, weight);
 	}
 
 	@Override
@@ -950,20 +927,15 @@ public class DiceU extends Dice implements IBeforeUpdates, IAfterUpdates,
 	@Override
 	protected void update(Node node1, Node node2) {
 		double fraction;
-		if (this.matching.get(node1, node2) == null
-				|| this.matching.get(node1, node2) == 0
-				|| (this.amountOfNeighbors.get(node1) + this.amountOfNeighbors
-						.get(node2)) == 0)
+		double matchingG = this.matching.get(node1, node2, 0.0);
+		double amount = this.amountOfNeighbors.get(node1, 0.0)
+				+ this.amountOfNeighbors.get(node2, 0.0);
+		if (matchingG == 0 || amount == 0)
 			fraction = 0;
 		else
-			fraction = ((2 * this.matching.get(node1, node2)) / (this.amountOfNeighbors
-					.get(node1) + this.amountOfNeighbors.get(node2)));
+			fraction = (2 * matchingG) / amount;
 
-		Double diceG = this.result.get(node1, node2);
-		if (diceG == null)
-			this.binnedDistribution.decr(0.0);
-		else
-			this.binnedDistribution.decr(diceG);
+		this.binnedDistribution.decr(this.result.get(node1, node2, 0.0));
 		this.result.put(node1, node2, fraction);
 		this.binnedDistribution.incr(fraction);
 
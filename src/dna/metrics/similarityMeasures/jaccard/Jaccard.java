@@ -16,6 +16,7 @@ import dna.graph.nodes.UndirectedNode;
 import dna.metrics.IMetric;
 import dna.metrics.similarityMeasures.Matrix;
 import dna.metrics.similarityMeasures.Measures;
+import dna.metrics.similarityMeasures.NodeSets;
 import dna.series.data.distr.BinnedDoubleDistr;
 import dna.series.data.distr.Distr;
 import dna.updates.batch.Batch;
@@ -32,7 +33,7 @@ import dna.updates.batch.Batch;
 public abstract class Jaccard extends Measures {
 
 	/** Contains the neighbors to each node for unweighted graphs */
-	protected HashMap<Node, HashSet<Node>> neighborNodesUnweighted;
+	protected NodeSets neighborNodesUnweighted;
 
 	/** Contains the neighbors to each node for weighted graphs */
 	protected HashMap<Node, HashMap<Node, Double>> neighborNodesWeighted;
@@ -425,7 +426,7 @@ public abstract class Jaccard extends Measures {
 			this.neighborNodesWeighted = new HashMap<Node, HashMap<Node, Double>>();
 		else
 			// directed unweighted
-			this.neighborNodesUnweighted = new HashMap<Node, HashSet<Node>>();
+			this.neighborNodesUnweighted = new NodeSets();
 		this.binnedDistribution = new BinnedDoubleDistr("BinnedJaccard", 0.1,
 				new long[] {}, 0);
 		this.binnedDistributionEveryNodeToOtherNodes = new BinnedDoubleDistr(
@@ -459,7 +460,7 @@ public abstract class Jaccard extends Measures {
 			this.neighborNodesWeighted = new HashMap<Node, HashMap<Node, Double>>();
 		else
 			// undirectedWeighted
-			this.neighborNodesUnweighted = new HashMap<Node, HashSet<Node>>();
+			this.neighborNodesUnweighted = new NodeSets();
 		this.binnedDistribution = new BinnedDoubleDistr("BinnedJaccard", 0.1,
 				new long[] {}, 0);
 		this.binnedDistributionEveryNodeToOtherNodes = new BinnedDoubleDistr(
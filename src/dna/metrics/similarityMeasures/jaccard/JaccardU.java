@@ -64,15 +64,7 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 	 * {@link Map} entry of the Dst node.
 	 */
 	private void addNeighborNodesDstDirectedUnweighted(DirectedEdge newEdge) {
-		if (this.neighborNodesUnweighted.containsKey(newEdge.getDst()))
-			this.neighborNodesUnweighted.get(newEdge.getDst()).add(
-					newEdge.getSrc());
-		else {
-			HashSet<Node> set = new HashSet<Node>();
-			set.add(newEdge.getSrc());
-			this.neighborNodesUnweighted.put(newEdge.getDst(), set);
-
-		}
+		this.neighborNodesUnweighted.add(newEdge.getDst(), newEdge.getSrc());
 	}
 
 	/**
@@ -98,15 +90,7 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 	 * {@link Map} entry of the Src node.
 	 */
 	private void addNeighborNodesSrcDirectedUnweighted(DirectedEdge newEdge) {
-		if (this.neighborNodesUnweighted.containsKey(newEdge.getSrc()))
-			this.neighborNodesUnweighted.get(newEdge.getSrc()).add(
-					newEdge.getDst());
-		else {
-			HashSet<Node> set = new HashSet<Node>();
-			set.add(newEdge.getDst());
-			this.neighborNodesUnweighted.put(newEdge.getSrc(), set);
-
-		}
+		this.neighborNodesUnweighted.add(newEdge.getSrc(), newEdge.getDst());
 	}
 
 	/**
@@ -130,24 +114,10 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 	 * {@link Map} containing all neighbors to each node
 	 */
 	private void addNeighborUndirectedUnweighted(UndirectedEdge newEdge) {
-		if (this.neighborNodesUnweighted.containsKey(newEdge.getNode1()))
-			this.neighborNodesUnweighted.get(newEdge.getNode1()).add(
-					newEdge.getNode2());
-		else {
-			HashSet<Node> set = new HashSet<Node>();
-			set.add(newEdge.getNode2());
-			this.neighborNodesUnweighted.put(newEdge.getNode1(), set);
-		}
-
-		if (this.neighborNodesUnweighted.containsKey(newEdge.getNode2()))
-			this.neighborNodesUnweighted.get(newEdge.getNode2()).add(
-					newEdge.getNode1());
-		else {
-			HashSet<Node> set = new HashSet<Node>();
-			set.add(newEdge.getNode1());
-			this.neighborNodesUnweighted.put(newEdge.getNode2(), set);
-		}
-
+		this.neighborNodesUnweighted.add(newEdge.getNode1(),
+				newEdge.getNode2());
+		this.neighborNodesUnweighted.add(newEdge.getNode2(),
+				newEdge.getNode1());
 	}
 
 	/**
@@ -365,12 +335,12 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 
 		if (isOutgoingMeasure()) {
 			this.decreaseMatchingUnweighted(neighborsIn, edgeToRemove.getSrc());
-			this.neighborNodesUnweighted.get(edgeToRemove.getSrc()).remove(
+			this.neighborNodesUnweighted.remove(edgeToRemove.getSrc(),
 					edgeToRemove.getDst());
 
 		} else {
 			this.decreaseMatchingUnweighted(neighborsOut, edgeToRemove.getDst());
-			this.neighborNodesUnweighted.get(edgeToRemove.getDst()).remove(
+			this.neighborNodesUnweighted.remove(edgeToRemove.getDst(),
 					edgeToRemove.getSrc());
 
 		}
@@ -427,9 +397,9 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 
 		this.decreaseMatchingUnweighted(neighborsNode1, edgeToRemove.getNode2());
 		this.decreaseMatchingUnweighted(neighborsNode2, edgeToRemove.getNode1());
-		this.neighborNodesUnweighted.get(edgeToRemove.getNode1()).remove(
+		this.neighborNodesUnweighted.remove(edgeToRemove.getNode1(),
 				edgeToRemove.getNode2());
-		this.neighborNodesUnweighted.get(edgeToRemove.getNode2()).remove(
+		this.neighborNodesUnweighted.remove(edgeToRemove.getNode2(),
 				edgeToRemove.getNode1());
 
 		this.updateUndirectedUnweighted(edgeToRemove, neighborsNode1,
@@ -554,11 +524,8 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		if (isOutgoingMeasure()) {
@@ -570,7 +537,7 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 		}
 
 		// remove the results of the removed node calculated so far
-		this.neighborNodesUnweighted.remove(nodeToRemove);
+		this.neighborNodesUnweighted.removeSet(nodeToRemove);
 		this.matching.removeRow(nodeToRemove);
 		this.matching.removeColumn(nodeToRemove);
 		this.result.removeRow(nodeToRemove);
@@ -599,11 +566,8 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		if (isOutgoingMeasure()) {
@@ -654,7 +618,7 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 		this.updateNodeRemoveMeasureUndirectedUnweighted(nodeToRemove);
 
 		// remove the results of the removed node calculated so far
-		this.neighborNodesUnweighted.remove(nodeToRemove);
+		this.neighborNodesUnweighted.removeSet(nodeToRemove);
 		this.matching.removeRow(nodeToRemove);
 		this.matching.removeColumn(nodeToRemove);
 		this.result.removeRow(nodeToRemove);
@@ -883,12 +847,8 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 	 *            {@link Node} to remove from the {@link Map}
 	 */
 	private void removeFromNeighborNodesUnweighted(Node nodeToRemove) {
-		this.neighborNodesUnweighted.remove(nodeToRemove);
-		for (Entry<Node, HashSet<Node>> iterable_element : this.neighborNodesUnweighted
-				.entrySet())
-			if (iterable_element.getValue().contains(nodeToRemove))
-				this.neighborNodesUnweighted.get(iterable_element.getKey())
-						.remove(nodeToRemove);
+		this.neighborNodesUnweighted.removeSet(nodeToRemove);
+		this.neighborNodesUnweighted.removeFromAll(nodeToRemove);
 
 	}
 
@@ -923,21 +883,16 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 	 * Updates the jaccard similarity measure for unweighted graphs.
 	 */
 	private void updateUnweighted(Node node1, Node node2) {
-		HashSet<Node> denominator = this.getUnionUnweighted(
-				this.neighborNodesUnweighted.get(node1),
-				this.neighborNodesUnweighted.get(node2));
+		int denominator = this.neighborNodesUnweighted.getUnionSize(node1,
+				node2);
 		double newJaccard;
-		Double matchingG = this.matching.get(node1, node2);
-		if (matchingG == null || matchingG == 0 || denominator.size() == 0)
+		double matchingG = this.matching.get(node1, node2, 0.0);
+		if (matchingG == 0 || denominator == 0)
 			newJaccard = 0;
 		else
-			newJaccard = matchingG / (double) denominator.size();
+			newJaccard = matchingG / (double) denominator;
 
-		Double jaccardG = this.result.get(node1, node2);
-		if (jaccardG == null)
-			this.binnedDistribution.decr(0.0);
-		else
-			this.binnedDistribution.decr(jaccardG);
+		this.binnedDistribution.decr(this.result.get(node1, node2, 0.0));
 		this.result.put(node1, node2, newJaccard);
 		this.binnedDistribution.incr(newJaccard);
 
@@ -951,22 +906,16 @@ public class JaccardU extends Jaccard implements IBeforeUpdates, IAfterUpdates,
 				this.neighborNodesWeighted.get(node1),
 				this.neighborNodesWeighted.get(node2));
 		double newJaccard;
-		if (this.matching.get(node1, node2) == null
-				|| this.matching.get(node1, node2) == 0
-				|| denominator.size() == 0)
+		double matchingG = this.matching.get(node1, node2, 0.0);
+		if (matchingG == 0 || denominator.size() == 0)
 			newJaccard = 0;
 		else
-			newJaccard = this.matching.get(node1, node2)
-					/ (double) getMapValueSum(denominator);
+			newJaccard = matchingG / (double) getMapValueSum(denominator);
 
 		if (newJaccard < 0.0 && Math.abs(newJaccard) <= 1.0E-4) {
 			newJaccard = 0.0;
 		}
-		Double jaccardG = this.result.get(node1, node2);
-		if (jaccardG == null)
-			this.binnedDistribution.decr(0.0);
-		else
-			this.binnedDistribution.decr(jaccardG);
+		this.binnedDistribution.decr(this.result.get(node1, node2, 0.0));
 		this.result.put(node1, node2, newJaccard);
 		this.binnedDistribution.incr(newJaccard);
 	}
@@ -29,6 +29,7 @@ import dna.series.data.Value;
 import dna.series.data.distr.BinnedDoubleDistr;
 import dna.series.data.distr.Distr;
 import dna.series.data.nodevaluelists.NodeNodeValueList;
+import dna.series.data.nodevaluelists.NodeNodeValueList.Storage;
 import dna.series.data.nodevaluelists.NodeValueList;
 import dna.updates.batch.Batch;
 import dna.util.parameters.Parameter;
@@ -139,6 +140,12 @@ public abstract class Matching extends Metric implements IMetric {
 	/** Average per Node Distribution */
 	protected BinnedDoubleDistr binnedDistributionEveryNodeToOtherNodes;
 
+	/**
+	 * Storage of the matching matrix returned as NodeNodeValueList, null if
+	 * it is not returned (cf. {@link Matrix#getOutputStorage()}).
+	 */
+	protected Storage matrixStorage = Matrix.getOutputStorage();
+
 	protected BinnedDoubleDistr matchingD;
 
 	/**
@@ -669,9 +676,28 @@ public abstract class Matching extends Metric implements IMetric {
 		return neighbors;
 	}
 
+	/**
+	 * Sets the storage of the matching matrix returned as NodeNodeValueList,
+	 * e.g., sparse as it usually contains far less than n*n entries.
+	 * 
+	 * @param matrixStorage
+	 *            storage of the returned list, null to return no list
+	 */
+	public void setMatrixStorage(Storage matrixStorage) {
+		this.matrixStorage = matrixStorage;
+	}
+
+	/**
+	 * Returns the matching of all pairs of nodes with a common neighbor (if
+	 * enabled via {@link #setMatrixStorage(Storage)}), the entries of all
+	 * other pairs (matching 0) are empty.
+	 */
 	@Override
 	public NodeNodeValueList[] getNodeNodeValueLists() {
-		return new NodeNodeValueList[] {};
+		if (this.matrixStorage == null)
+			return new NodeNodeValueList[] {};
+		return new NodeNodeValueList[] { this.matching.toNodeNodeValueList(
+				"Matching", this.matrixStorage) };
 	}
 
 	@Override
@@ -444,17 +444,11 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 			Node node = (Node) iterable_element;
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-				if (this.matching.get(nodeToRemove, node) == null)
-					this.matchingD.decr(0.0);
-				else
-					this.matchingD.decr(this.matching.get(nodeToRemove, node));
+				this.matchingD.decr(this.matching.get(nodeToRemove, node, 0.0));
 			} else {
 				if (nodeToRemove.getIndex() != node.getIndex()) {
-					if (this.matching.get(nodeToRemove, node) == null)
-						this.matchingD.decr(0.0);
-					else
-						this.matchingD.decr(this.matching.get(nodeToRemove,
-								node));
+					this.matchingD.decr(this.matching.get(nodeToRemove, node,
+							0.0));
 				}
 			}
 		}
@@ -487,17 +481,11 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 			Node node = (Node) iterable_element;
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-				if (this.matching.get(nodeToRemove, node) == null)
-					this.matchingD.decr(0.0);
-				else
-					this.matchingD.decr(this.matching.get(nodeToRemove, node));
+				this.matchingD.decr(this.matching.get(nodeToRemove, node, 0.0));
 			} else {
 				if (nodeToRemove.getIndex() != node.getIndex()) {
-					if (this.matching.get(nodeToRemove, node) == null)
-						this.matchingD.decr(0.0);
-					else
-						this.matchingD.decr(this.matching.get(nodeToRemove,
-								node));
+					this.matchingD.decr(this.matching.get(nodeToRemove, node,
+							0.0));
 				}
 			}
 		}
@@ -529,17 +517,11 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 			Node node = (Node) iterable_element;
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-				if (this.matching.get(nodeToRemove, node) == null)
-					this.matchingD.decr(0.0);
-				else
-					this.matchingD.decr(this.matching.get(nodeToRemove, node));
+				this.matchingD.decr(this.matching.get(nodeToRemove, node, 0.0));
 			} else {
 				if (nodeToRemove.getIndex() != node.getIndex()) {
-					if (this.matching.get(nodeToRemove, node) == null)
-						this.matchingD.decr(0.0);
-					else
-						this.matchingD.decr(this.matching.get(nodeToRemove,
-								node));
+					this.matchingD.decr(this.matching.get(nodeToRemove, node,
+							0.0));
 				}
 			}
 		}
@@ -574,18 +556,12 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 
 					if (computeDistributionWithoutMatrixDiagonal
 							.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-						if (this.matching.get(nodeToRemove, node) == null)
-							this.matchingD.decr(0.0);
-						else
-							this.matchingD.decr(this.matching.get(nodeToRemove,
-									node));
+						this.matchingD.decr(this.matching.get(nodeToRemove,
+								node, 0.0));
 					} else {
 						if (!(nodeToRemove.getIndex() == node.getIndex()))
-							if (this.matching.get(nodeToRemove, node) == null)
-								this.matchingD.decr(0.0);
-							else
-								this.matchingD.decr(this.matching.get(
-										nodeToRemove, node));
+							this.matchingD.decr(this.matching.get(nodeToRemove,
+									node, 0.0));
 					}
 				}
 			}
@@ -596,18 +572,12 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 
 				if (computeDistributionWithoutMatrixDiagonal
 						.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-					if (this.matching.get(nodeToRemove, node) == null)
-						this.matchingD.decr(0.0);
-					else
-						this.matchingD.decr(this.matching.get(nodeToRemove,
-								node));
+					this.matchingD.decr(this.matching.get(nodeToRemove, node,
+							0.0));
 				} else {
 					if (nodeToRemove.getIndex() != node.getIndex()) {
-						if (this.matching.get(nodeToRemove, node) == null)
-							this.matchingD.decr(0.0);
-						else
-							this.matchingD.decr(this.matching.get(nodeToRemove,
-									node));
+						this.matchingD.decr(this.matching.get(nodeToRemove,
+								node, 0.0));
 					}
 				}
 			}
@@ -784,23 +754,13 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 	 * Decreases the matching between the given nodes by 1.
 	 */
 	private void decreaseMatchingUnweighted(Node node1, Node node2) {
-
+		double matchingG = this.matching.get(node1, node2, 0.0);
+		double value = this.matching.add(node1, node2, -1);
 		if (computeDistributionWithoutMatrixDiagonal
-				.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-			this.matchingD.decr(this.matching.get(node1, node2));
-			this.matching
-					.put(node1, node2, this.matching.get(node1, node2) - 1);
-			this.matchingD.incr(this.matching.get(node1, node2));
-		} else {
-			if (node1.getIndex() != node2.getIndex()) {
-				this.matchingD.decr(this.matching.get(node1, node2));
-				this.matching.put(node1, node2,
-						this.matching.get(node1, node2) - 1);
-				this.matchingD.incr(this.matching.get(node1, node2));
-			} else {
-				this.matching.put(node1, node2,
-						this.matching.get(node1, node2) - 1);
-			}
+				.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)
+				|| node1.getIndex() != node2.getIndex()) {
+			this.matchingD.decr(matchingG);
+			this.matchingD.incr(value);
 		}
 	}
 
@@ -833,35 +793,36 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 
 				if (computeDistributionWithoutMatrixDiagonal
 						.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL))
-					this.matchingD.decr(this.matching.get(node1, node2));
+					this.matchingD.decr(this.matching.get(node1, node2, 0.0));
 				else {
 					if (node1.getIndex() != node2.getIndex())
-						this.matchingD.decr(this.matching.get(node1, node2));
+						this.matchingD.decr(this.matching.get(node1, node2,
+								0.0));
 				}
 
-			double value = this.matching.get(node1, node2)
+			double value = this.matching.get(node1, node2, 0.0)
 					- Math.min(value1, value2);
 			this.matching.put(node1, node2, value);
 
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL))
-				this.matchingD.incr(this.matching.get(node1, node2));
+				this.matchingD.incr(value);
 			else {
 				if (node1.getIndex() != node2.getIndex())
-					this.matchingD.incr(this.matching.get(node1, node2));
+					this.matchingD.incr(value);
 			}
 
 		} else {
 
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL))
-				this.matchingD.decr(this.matching.get(node1, node2));
+				this.matchingD.decr(this.matching.get(node1, node2, 0.0));
 			else {
 				if (node1.getIndex() != node2.getIndex())
-					this.matchingD.decr(this.matching.get(node1, node2));
+					this.matchingD.decr(this.matching.get(node1, node2, 0.0));
 			}
 
-			double value = this.matching.get(node1, node2)
+			double value = this.matching.get(node1, node2, 0.0)
 					- Math.min(value1, value2);
 			if ((value < 0.0) && (Math.abs(value) <= 1.0E-4))
 				value = 0.0;
@@ -869,10 +830,10 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL))
-				this.matchingD.incr(this.matching.get(node1, node2));
+				this.matchingD.incr(value);
 			else {
 				if (node1.getIndex() != node2.getIndex())
-					this.matchingD.incr(this.matching.get(node1, node2));
+					this.matchingD.incr(value);
 			}
 
 		}
@@ -970,29 +931,13 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 	 * Increases the matching between the given nodes by 1.
 	 */
 	private void increaseMatchingUnweighted(Node node1, Node node2) {
-		Double matchingG = this.matching.get(node1, node2);
-		if (computeDistributionWithoutMatrixDiagonal
-				.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-
-			if (matchingG == null)
-				this.matchingD.decr(0.0);
-			else
-				this.matchingD.decr(matchingG);
-		} else {
-			if (node1.getIndex() != node2.getIndex())
-				if (matchingG == null)
-					this.matchingD.decr(0.0);
-				else
-					this.matchingD.decr(matchingG);
-		}
-		this.matching.put(node1, node2, matchingG == null ? 1 : matchingG + 1);
+		double matchingG = this.matching.get(node1, node2, 0.0);
+		double value = this.matching.add(node1, node2, 1);
 		if (computeDistributionWithoutMatrixDiagonal
-				.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-
-			this.matchingD.incr(this.matching.get(node1, node2));
-		} else {
-			if (node1.getIndex() != node2.getIndex())
-				this.matchingD.incr(this.matching.get(node1, node2));
+				.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)
+				|| node1.getIndex() != node2.getIndex()) {
+			this.matchingD.decr(matchingG);
+			this.matchingD.incr(value);
 		}
 	}
 
@@ -1015,7 +960,7 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 	 */
 	private void increaseMatchingWeighted(Node node1, Double value1,
 			Node node2, Double value2) {
-		Double matchingG = this.matching.get(node1, node2);
+		double matchingG = this.matching.get(node1, node2, 0.0);
 
 		if (type != null) {
 			if (node1 instanceof UndirectedZalandoNode
@@ -1025,59 +970,45 @@ public class MatchingU extends Matching implements IBeforeUpdates,
 
 				if (computeDistributionWithoutMatrixDiagonal
 						.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-					if (matchingG == null)
-						this.matchingD.decr(0.0);
-					else
-						this.matchingD.decr(matchingG);
+					this.matchingD.decr(matchingG);
 				} else {
 					if (node1.getIndex() != node2.getIndex())
-						if (matchingG == null)
-							this.matchingD.decr(0.0);
-						else
-							this.matchingD.decr(matchingG);
+						this.matchingD.decr(matchingG);
 				}
 
-				double value = matchingG == null ? Math.min(value1, value2)
-						: matchingG + Math.min(value1, value2);
+				double value = matchingG + Math.min(value1, value2);
 
 				this.matching.put(node1, node2, value);
 
 				if (computeDistributionWithoutMatrixDiagonal
 						.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-					this.matchingD.incr(this.matching.get(node1, node2));
+					this.matchingD.incr(value);
 				} else {
 					if (node1.getIndex() != node2.getIndex())
-						this.matchingD.incr(this.matching.get(node1, node2));
+						this.matchingD.incr(value);
 				}
 			}
 		} else {
 
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-				if (matchingG == null)
-					this.matchingD.decr(0.0);
-				else
-					this.matchingD.decr(matchingG);
+				this.matchingD.decr(matchingG);
 			} else {
 				if (node1.getIndex() != node2.getIndex())
-					if (matchingG == null)
-						this.matchingD.decr(0.0);
-					else
-						this.matchingD.decr(matchingG);
+					this.matchingD.decr(matchingG);
 			}
 
-			double value = matchingG == null ? Math.min(value1, value2)
-					: matchingG + Math.min(value1, value2);
+			double value = matchingG + Math.min(value1, value2);
 			if ((value < 0.0) && (Math.abs(value) <= 1.0E-4))
 				value = 0.0;
 			this.matching.put(node1, node2, value);
 
 			if (computeDistributionWithoutMatrixDiagonal
 					.equals(ComputeDistributionWithoutMatrixDiagonal.USE_DIAGONAL)) {
-				this.matchingD.incr(this.matching.get(node1, node2));
+				this.matchingD.incr(value);
 			} else {
 				if (node1.getIndex() != node2.getIndex())
-					this.matchingD.incr(this.matching.get(node1, node2));
+					this.matchingD.incr(value);
 			}
 		}
 	}
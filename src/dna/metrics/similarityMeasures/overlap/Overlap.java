@@ -13,6 +13,7 @@ import dna.graph.nodes.UndirectedNode;
 import dna.metrics.IMetric;
 import dna.metrics.similarityMeasures.Matrix;
 import dna.metrics.similarityMeasures.Measures;
+import dna.metrics.similarityMeasures.NodeVector;
 import dna.series.data.distr.BinnedDoubleDistr;
 import dna.series.data.distr.Distr;
 
@@ -27,7 +28,7 @@ import dna.series.data.distr.Distr;
  */
 public abstract class Overlap extends Measures {
 	/** Contains the number of neighbors for each node */
-	protected HashMap<Node, Double> amountOfNeighbors;
+	protected NodeVector amountOfNeighbors;
 
 	/**
 	 * Initializes {@link Overlap}.
@@ -360,7 +361,7 @@ public abstract class Overlap extends Measures {
 
 	public void init_() {
 		this.result = new Matrix();
-		this.amountOfNeighbors = new HashMap<Node, Double>();
+		this.amountOfNeighbors = new NodeVector();
 		this.matching = new Matrix();
 		this.binnedDistribution = new BinnedDoubleDistr("BinnedOverlap", 0.1,
 				new long[] {}, 0);
@@ -379,7 +380,7 @@ public abstract class Overlap extends Measures {
 
 	public void reset_() {
 		this.result = new Matrix();
-		this.amountOfNeighbors = new HashMap<Node, Double>();
+		this.amountOfNeighbors = new NodeVector();
 		this.matching = new Matrix();
 		this.binnedDistribution = new BinnedDoubleDistr("BinnedOverlap", 0.1,
 				new long[] {}, 0);
@@ -402,11 +402,8 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		if (isOutgoingMeasure()) {
@@ -449,11 +446,8 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		if (isOutgoingMeasure()) {
@@ -496,11 +490,8 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		this.updateDirectNeighborsMeasureUnweighted(this
@@ -535,11 +526,8 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 
 		for (IElement iterable_element : this.g.getNodes()) {
 			Node node = (Node) iterable_element;
-			if (this.result.get(nodeToRemove, node) == null)
-				this.binnedDistribution.decr(0.0);
-			else
-				this.binnedDistribution.decr(this.result
-						.get(nodeToRemove, node));
+			this.binnedDistribution.decr(this.result.get(nodeToRemove, node,
+					0.0));
 		}
 
 		this.updateDirectNeighborsMeasureWeighted(this
@@ -822,9 +810,8 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 	 * Decreases the number of neighbors of the given node by 1.
 	 */
 	private void decreaseAmountOfNeighborsUnweighted(Node node) {
-		if (this.amountOfNeighbors.containsKey(node))
-			this.amountOfNeighbors.put(node,
-					this.amountOfNeighbors.get(node) - 1);
+		if (this.amountOfNeighbors.contains(node))
+			this.amountOfNeighbors.add(node, -1);
 		else
 			this.amountOfNeighbors.put(node, 0.0);
 
@@ -834,7 +821,7 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 	 * Decreases the number of neighbors of the given node.
 	 */
 	private void decreaseAmountOfNeighborsWeighted(Node node, double weight) {
-		double aoN = this.amountOfNeighbors.get(node) - weight;
+		double aoN = this.amountOfNeighbors.get(node, 0.0) - weight;
 
 		if (aoN < 0.0 && Math.abs(aoN) <= 1.0E-4 || aoN > 0.0 && aoN < 1.0E-6) {
 			aoN = 0.0;
@@ -847,11 +834,7 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 	 * Increases the number of neighbors of the given node by 1.
 	 */
 	private void increaseAmountOfNeighborsUnweighted(Node node) {
-		if (this.amountOfNeighbors.containsKey(node))
-			this.amountOfNeighbors.put(node,
-					this.amountOfNeighbors.get(node) + 1);
-		else
-			this.amountOfNeighbors.put(node, 1.0);
+		this.amountOfNeighbors.add(node, 1);
 
 	}
 
@@ -859,11 +842,7 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 	 * Increases the number of neighbors of the given node.
 	 */
 	private void increaseAmountOfNeighborsWeighted(Node node, double weight) {
-		if (amountOfNeighbors.containsKey(node))
-			this.amountOfNeighbors.put(node, this.amountOfNeighbors.get(node)
-					+ weight);
-		else
-			this.amountOfNeighbors.put(node, weight);
+		this.amountOfNeighbors.add(node, weight);
 	}
 
 	@Override
@@ -897,21 +876,15 @@ public class OverlapU extends Overlap implements IBeforeUpdates, IAfterUpdates,
 	@Override
 	protected void update(Node node1, Node node2) {
 		double fraction;
-		if (this.matching.get(node1, node2) == null
-				|| this.matching.get(node1, node2) == 0
-				|| Math.min(this.amountOfNeighbors.get(node1),
-						this.amountOfNeighbors.get(node2)) == 0)
+		double matchingG = this.matching.get(node1, node2, 0.0);
+		double amount = Math.min(this.amountOfNeighbors.get(node1, 0.0),
+				this.amountOfNeighbors.get(node2, 0.0));
+		if (matchingG == 0 || amount == 0)
 			fraction = 0;
 		else
-			fraction = (this.matching.get(node1, node2))
-					/ Math.min(this.amountOfNeighbors.get(node1),
-							this.amountOfNeighbors.get(node2));
+			fraction = matchingG / amount;
 
-		Double overlapG = this.result.get(node1, node2);
-		if (overlapG == null)
-			this.binnedDistribution.decr(0.0);
-		else
-			this.binnedDistribution.decr(overlapG);
+		this.binnedDistribution.decr(this.result.get(node1, node2, 0.0));
 		this.result.put(node1, node2, fraction);
 		this.binnedDistribution.incr(fraction);
 	}
@@ -0,0 +1,240 @@
+package dna.metrics.streaM_k;
+
+import java.util.Arrays;
+
+import dna.graph.IGraph;
+import dna.graph.nodes.Node;
+
+/**
+ * A set of node groups (of 1, 2, or 3 nodes) that are affected by an edge
+ * update. Each group is packed into a pair of longs (the sorted node indices
+ * with 32 bits each, the first two in the first long and the third one in
+ * the second long) and stored in a primitive hash set (open addressing with
+ * linear probing).
+ * The groups are additionally kept in the order in which they were added so
+ * that they can be accessed by their position.
+ *
+ * A set is meant to be re-used for all updates: clear() keeps the allocated
+ * arrays so that adding groups does not create any objects once the set has
+ * grown to the required size. Only the slots of the added groups are reset,
+ * i.e., clearing takes time linear in the size of the set, not of the table.
+ */
+public class GroupSet {
+
+	private static final long Free = -1;
+
+	private static final int InitialCapacity = 64;
+
+	private static final long Mask32 = (1L << 32) - 1;
+
+	private int groupSize;
+
+	/** hash table of the groups (2 longs per slot), Free for empty slots **/
+	private long[] table;
+
+	/** groups (2 longs each) in the order they were added **/
+	private long[] groups;
+
+	/** slots[k] is the slot of groups[k] in the table **/
+	private int[] slots;
+
+	private int size;
+
+	/** 64 - log2(number of slots), used to take the high bits of the hash **/
+	private int shift;
+
+	/**
+	 *
+	 * @param groupSize
+	 *            number of nodes per group (1, 2, or 3)
+	 */
+	public GroupSet(int groupSize) {
+		if (groupSize < 1 || groupSize > 3) {
+			throw new IllegalArgumentException("unsupported group size: "
+					+ groupSize);
+		}
+		this.groupSize = groupSize;
+		this.table = new long[2 * InitialCapacity];
+		this.groups = new long[InitialCapacity];
+		this.slots = new int[InitialCapacity / 2];
+		Arrays.fill(this.table, Free);
+		this.size = 0;
+		this.shift = 64 - Integer.numberOfTrailingZeros(InitialCapacity);
+	}
+
+	public int getGroupSize() {
+		return this.groupSize;
+	}
+
+	public int size() {
+		return this.size;
+	}
+
+	public void clear() {
+		for (int k = 0; k < this.size; k++) {
+			this.table[2 * this.slots[k]] = Free;
+		}
+		this.size = 0;
+	}
+
+	public boolean add(int a) {
+		this.check(1);
+		return this.add((long) a, 0);
+	}
+
+	public boolean add(int a, int b) {
+		this.check(2);
+		if (a > b) {
+			return this.add(((long) b << 32) | a, 0);
+		}
+		return this.add(((long) a << 32) | b, 0);
+	}
+
+	public boolean add(int a, int b, int c) {
+		this.check(3);
+		if (a > b) {
+			int temp = a;
+			a = b;
+			b = temp;
+		}
+		if (b > c) {
+			int temp = b;
+			b = c;
+			c = temp;
+			if (a > b) {
+				temp = a;
+				a = b;
+				b = temp;
+			}
+		}
+		return this.add(((long) a << 32) | b, c);
+	}
+
+	/**
+	 *
+	 * @param group
+	 *            position of the group (0 <= group < size())
+	 * @param i
+	 *            position of the node in the group (0 <= i < getGroupSize())
+	 * @return index of the i-th node (in ascending order) of the group
+	 */
+	public int getIndex(int group, int i) {
+		long packed = this.groups[2 * group];
+		if (this.groupSize == 1) {
+			return (int) packed;
+		}
+		switch (i) {
+		case 0:
+			return (int) (packed >>> 32);
+		case 1:
+			return (int) (packed & Mask32);
+		default:
+			return (int) this.groups[2 * group + 1];
+		}
+	}
+
+	/**
+	 * Computes the key of the motif formed by the nodes a and b and the nodes
+	 * of the given group. Each bit denotes the existence of an edge between
+	 * two of the nodes, starting with the highest bit: a and the group nodes,
+	 * b and the group nodes, and the group nodes among each other. The edge
+	 * between a and b is not included, cf. getOffset().
+	 *
+	 * @param g
+	 *            graph to resolve the node indices
+	 * @param a
+	 *            first node of the updated edge
+	 * @param b
+	 *            second node of the updated edge
+	 * @param group
+	 *            position of the group
+	 * @return key of the motif without the edge between a and b
+	 */
+	public int getKey(IGraph g, Node a, Node b, int group) {
+		Node n0 = g.getNode(this.getIndex(group, 0));
+		if (this.groupSize == 1) {
+			return edge(a, n0) << 1 | edge(b, n0);
+		}
+		Node n1 = g.getNode(this.getIndex(group, 1));
+		if (this.groupSize == 2) {
+			return edge(a, n0) << 4 | edge(a, n1) << 3 | edge(b, n0) << 2
+					| edge(b, n1) << 1 | edge(n0, n1);
+		}
+		Node n2 = g.getNode(this.getIndex(group, 2));
+		return edge(a, n0) << 8 | edge(a, n1) << 7 | edge(a, n2) << 6
+				| edge(b, n0) << 5 | edge(b, n1) << 4 | edge(b, n2) << 3
+				| edge(n0, n1) << 2 | edge(n0, n2) << 1 | edge(n1, n2);
+	}
+
+	/**
+	 *
+	 * @return value of the bit denoting the edge between the two nodes of the
+	 *         updated edge, i.e., the difference between the keys of a motif
+	 *         with and without that edge
+	 */
+	public int getOffset() {
+		int pairs = 2 * this.groupSize + this.groupSize * (this.groupSize - 1)
+				/ 2;
+		return 1 << pairs;
+	}
+
+	private static int edge(Node n1, Node n2) {
+		return n1.hasEdge(n1, n2) ? 1 : 0;
+	}
+
+	private void check(int groupSize) {
+		if (this.groupSize != groupSize) {
+			throw new IllegalArgumentException("cannot add group of size "
+					+ groupSize + " to set of groups of size "
+					+ this.groupSize);
+		}
+	}
+
+	/** multiplicative (Fibonacci) hashing **/
+	private int slot(long first, long second) {
+		long hash = (first * 0x9E3779B97F4A7C15L + second)
+				* 0x9E3779B97F4A7C15L;
+		return (int) (hash >>> this.shift);
+	}
+
+	private boolean add(long first, long second) {
+		int mask = this.table.length / 2 - 1;
+		int i = this.slot(first, second);
+		for (; this.table[2 * i] != Free; i = (i + 1) & mask) {
+			if (this.table[2 * i] == first && this.table[2 * i + 1] == second) {
+				return false;
+			}
+		}
+		if ((this.size + 1) * 4 > this.table.length) {
+			this.grow();
+			return this.add(first, second);
+		}
+		this.table[2 * i] = first;
+		this.table[2 * i + 1] = second;
+		this.slots[this.size] = i;
+		this.groups[2 * this.size] = first;
+		this.groups[2 * this.size + 1] = second;
+		this.size++;
+		return true;
+	}
+
+	private void grow() {
+		this.table = new long[this.table.length * 2];
+		this.groups = Arrays.copyOf(this.groups, this.table.length / 2);
+		this.slots = new int[this.table.length / 4];
+		Arrays.fill(this.table, Free);
+		this.shift--;
+		int mask = this.table.length / 2 - 1;
+		for (int k = 0; k < this.size; k++) {
+			long first = this.groups[2 * k];
+			long second = this.groups[2 * k + 1];
+			int i = this.slot(first, second);
+			while (this.table[2 * i] != Free) {
+				i = (i + 1) & mask;
+			}
+			this.table[2 * i] = first;
+			this.table[2 * i + 1] = second;
+			this.slots[k] = i;
+		}
+	}
+}
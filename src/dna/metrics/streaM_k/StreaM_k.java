@@ -1,7 +1,6 @@
 package dna.metrics.streaM_k;
 
 import java.io.IOException;
-import java.util.HashSet;
 
 import dna.graph.IElement;
 import dna.graph.IGraph;
@@ -12,6 +11,8 @@ import dna.metrics.Metric;
 import dna.metrics.algorithms.IAfterER;
 import dna.metrics.algorithms.IBeforeEA;
 import dna.metrics.algorithms.IDynamicAlgorithm;
+import dna.metrics.motifs.ParallelMotifEvaluation;
+import dna.metrics.motifs.ParallelMotifEvaluation.Evaluation;
 import dna.metrics.streaM_k.grouping.Grouping;
 import dna.metrics.streaM_k.groupingWithGroups.Grouping2;
 import dna.metrics.streaM_k.rules.motifs.UndirectedMotifsMapping;
@@ -23,6 +24,7 @@ import dna.series.data.nodevaluelists.NodeValueList;
 import dna.updates.batch.Batch;
 import dna.updates.update.EdgeAddition;
 import dna.updates.update.EdgeRemoval;
+import dna.util.Config;
 import dna.util.parameters.IntParameter;
 import dna.util.parameters.StringParameter;
 
@@ -36,27 +38,58 @@ public class StreaM_k extends Metric implements IDynamicAlgorithm, IBeforeEA,
 
 	protected UndirectedMotifsMapping umm;
 
+	/** groups affected by the current update, re-used for all updates **/
+	protected GroupSet groups;
+
 	protected BinnedIntDistr motifs;
 
+	protected ParallelMotifEvaluation evaluation;
+
 	public StreaM_k(int nodes, Grouping grouping) throws IOException {
+		this(nodes, grouping, new ParallelMotifEvaluation());
+	}
+
+	/**
+	 *
+	 * @param nodes
+	 *            number of nodes of the motifs
+	 * @param grouping
+	 *            grouping to determine the groups affected by an update
+	 * @param threads
+	 *            number of threads to evaluate the groups of a single update
+	 *            (cf. ParallelMotifEvaluation)
+	 */
+	public StreaM_k(int nodes, Grouping grouping, int threads)
+			throws IOException {
+		this(nodes, grouping, new ParallelMotifEvaluation(threads, Config
+				.getInt("MOTIF_UPDATE_MIN_GROUPS")));
+	}
+
+	private StreaM_k(int nodes, Grouping grouping,
+			ParallelMotifEvaluation evaluation) throws IOException {
 		super("StreaM_k", MetricType.exact, new IntParameter("nodes", nodes),
 				new StringParameter("grouping", grouping.getClass()
 						.getSimpleName()));
 		this.nodes = nodes;
 		this.grouping = grouping;
 		this.grouping2 = null;
+		this.groups = new GroupSet(nodes - 2);
+		this.evaluation = evaluation;
 		String dir = "config/motifs/";
 		String filename = "um-" + nodes;
 		this.umm = UndirectedMotifsMapping.read(dir, filename);
 	}
 
-	protected StreaM_k(int nodes, Grouping2 grouping2) throws IOException {
+	protected StreaM_k(int nodes, Grouping2 grouping2,
+			ParallelMotifEvaluation evaluation) throws IOException {
 		super("StreaM_k2", MetricType.exact, new IntParameter("nodes", nodes),
 				new StringParameter("grouping2", grouping2.getClass()
 						.getSimpleName()));
 		this.nodes = nodes;
 		this.grouping = null;
 		this.grouping2 = grouping2;
+		this.groups = new GroupSet(nodes - 2);
+		this.evaluation = evaluation;
 		String dir = "config/motifs/";
 		String filename = "um-" + nodes;
 		this.umm = UndirectedMotifsMapping.read(dir, filename);
@@ -113,42 +146,82 @@ public class StreaM_k extends Metric implements IDynamicAlgorithm, IBeforeEA,
 
 	@Override
 	public boolean applyBeforeUpdate(EdgeAddition ea) {
-		HashSet<String> groups = this.grouping.getGroups(this.g, this.nodes,
-				(Edge) ea.getEdge());
-		for (String group : groups) {
-			int[] keys = this.grouping.getKeys(g, ea.getEdge().getN1(), ea
-					.getEdge().getN2(), group);
-
-			int m0 = this.umm.getMotif(keys[0]);
-			int m1 = this.umm.getMotif(keys[1]);
-			if (m0 > 0) {
-				this.motifs.decr(m0);
-			}
-			if (m1 > 0) {
-				this.motifs.incr(m1);
-			}
-		}
+		Edge e = (Edge) ea.getEdge();
+		this.getGroups(e);
+		this.evaluation.evaluate(this.motifs, this.groups.size(),
+				new GroupEvaluation(e.getN1(), e.getN2(), true));
 		return true;
 	}
 
 	@Override
 	public boolean applyAfterUpdate(EdgeRemoval er) {
-		HashSet<String> groups = this.grouping.getGroups(this.g, this.nodes,
-				(Edge) er.getEdge());
-		for (String group : groups) {
-			int[] keys = this.grouping.getKeys(g, er.getEdge().getN1(), er
-					.getEdge().getN2(), group);
-
-			int m0 = this.umm.getMotif(keys[0]);
-			int m1 = this.umm.getMotif(keys[1]);
-			if (m0 > 0) {
-				this.motifs.incr(m0);
-			}
-			if (m1 > 0) {
-				this.motifs.decr(m1);
+		Edge e = (Edge) er.getEdge();
+		this.getGroups(e);
+		this.evaluation.evaluate(this.motifs, this.groups.size(),
+				new GroupEvaluation(e.getN1(), e.getN2(), false));
+		return true;
+	}
+
+	/**
+	 * fills this.groups with the groups affected by an update of the given
+	 * edge.
+	 */
+	protected void getGroups(Edge e) {
+		this.grouping.getGroups(this.g, this.nodes, e, this.groups);
+	}
+
+	/**
+	 *
+	 * @return key of the motif formed by a, b, and the given group of
+	 *         this.groups (without the edge between a and b)
+	 */
+	protected int getKey(Node a, Node b, int group) {
+		return this.grouping.getKey(this.g, a, b, this.groups, group);
+	}
+
+	/**
+	 * Changes the motif counts for a range of the groups affected by the
+	 * addition or removal of the edge between a and b, i.e., each group
+	 * changes from the motif without to the one with the edge (or vice versa).
+	 */
+	private class GroupEvaluation implements Evaluation {
+		private Node a;
+
+		private Node b;
+
+		private boolean addition;
+
+		public GroupEvaluation(Node a, Node b, boolean addition) {
+			this.a = a;
+			this.b = b;
+			this.addition = addition;
+		}
+
+		@Override
+		public void evaluate(BinnedIntDistr motifs, int from, int to) {
+			int offset = groups.getOffset();
+			for (int i = from; i < to; i++) {
+				int key0 = getKey(this.a, this.b, i);
+
+				int m0 = umm.getMotif(key0);
+				int m1 = umm.getMotif(key0 + offset);
+				if (this.addition) {
+					if (m0 > 0) {
+						motifs.decr(m0);
+					}
+					if (m1 > 0) {
+						motifs.incr(m1);
+					}
+				} else {
+					if (m0 > 0) {
+						motifs.incr(m0);
+					}
+					if (m1 > 0) {
+						motifs.decr(m1);
+					}
+				}
 			}
 		}
-		return true;
 	}
 
 	@Override
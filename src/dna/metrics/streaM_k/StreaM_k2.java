@@ -1,7 +1,6 @@
 package dna.metrics.streaM_k;
 
 import java.io.IOException;
-import java.util.HashSet;
 
 import dna.graph.IElement;
 import dna.graph.IGraph;
@@ -10,13 +9,13 @@ import dna.graph.nodes.Node;
 import dna.metrics.algorithms.IAfterER;
 import dna.metrics.algorithms.IBeforeEA;
 import dna.metrics.algorithms.IDynamicAlgorithm;
+import dna.metrics.motifs.ParallelMotifEvaluation;
 import dna.metrics.streaM_k.grouping.GroupingV1;
-import dna.metrics.streaM_k.groupingWithGroups.Group;
 import dna.metrics.streaM_k.groupingWithGroups.Grouping2;
 import dna.metrics.streaM_k.rules.motifs.UndirectedMotifsMapping;
 import dna.series.data.distr.BinnedIntDistr;
 import dna.updates.update.EdgeAddition;
-import dna.updates.update.EdgeRemoval;
+import dna.util.Config;
 
 public class StreaM_k2 extends StreaM_k implements IDynamicAlgorithm,
 		IBeforeEA, IAfterER {
@@ -30,7 +29,28 @@ public class StreaM_k2 extends StreaM_k implements IDynamicAlgorithm,
 	// protected BinnedIntDistr motifs;
 
 	public StreaM_k2(int nodes, Grouping2 grouping) throws IOException {
-		super(nodes, grouping);
+		this(nodes, grouping, new ParallelMotifEvaluation());
+	}
+
+	/**
+	 *
+	 * @param nodes
+	 *            number of nodes of the motifs
+	 * @param grouping
+	 *            grouping to determine the groups affected by an update
+	 * @param threads
+	 *            number of threads to evaluate the groups of a single update
+	 *            (cf. ParallelMotifEvaluation)
+	 */
+	public StreaM_k2(int nodes, Grouping2 grouping, int threads)
+			throws IOException {
+		this(nodes, grouping, new ParallelMotifEvaluation(threads, Config
+				.getInt("MOTIF_UPDATE_MIN_GROUPS")));
+	}
+
+	private StreaM_k2(int nodes, Grouping2 grouping,
+			ParallelMotifEvaluation evaluation) throws IOException {
+		super(nodes, grouping, evaluation);
 		// super("StreaM_k2", MetricType.exact, new IntParameter("nodes",
 		// nodes),
 		// new StringParameter("grouping", grouping.getClass()
@@ -43,43 +63,13 @@ public class StreaM_k2 extends StreaM_k implements IDynamicAlgorithm,
 	}
 
 	@Override
-	public boolean applyBeforeUpdate(EdgeAddition ea) {
-		HashSet<Group> groups = this.grouping2.getGroups(this.nodes,
-				(Edge) ea.getEdge());
-		for (Group group : groups) {
-			int[] keys = group.getKeys(ea.getEdge().getN1(), ea.getEdge()
-					.getN2());
-
-			int m0 = this.umm.getMotif(keys[0]);
-			int m1 = this.umm.getMotif(keys[1]);
-			if (m0 > 0) {
-				this.motifs.decr(m0);
-			}
-			if (m1 > 0) {
-				this.motifs.incr(m1);
-			}
-		}
-		return true;
+	protected void getGroups(Edge e) {
+		this.grouping2.getGroups(this.nodes, e, this.groups);
 	}
 
 	@Override
-	public boolean applyAfterUpdate(EdgeRemoval er) {
-		HashSet<Group> groups = this.grouping2.getGroups(this.nodes,
-				(Edge) er.getEdge());
-		for (Group group : groups) {
-			int[] keys = group.getKeys(er.getEdge().getN1(), er.getEdge()
-					.getN2());
-
-			int m0 = this.umm.getMotif(keys[0]);
-			int m1 = this.umm.getMotif(keys[1]);
-			if (m0 > 0) {
-				this.motifs.incr(m0);
-			}
-			if (m1 > 0) {
-				this.motifs.decr(m1);
-			}
-		}
-		return true;
+	protected int getKey(Node a, Node b, int group) {
+		return this.groups.getKey(this.g, a, b, group);
 	}
 
 	@Override
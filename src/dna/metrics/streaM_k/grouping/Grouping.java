@@ -1,88 +1,70 @@
 package dna.metrics.streaM_k.grouping;
 
-import java.util.Arrays;
-import java.util.HashSet;
-
 import dna.graph.IGraph;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.metrics.streaM_k.GroupSet;
 
 public abstract class Grouping {
 
-	public int[] getKeys(IGraph g, Node n1, Node n2, String group) {
-		int key0 = Integer.parseInt('0' + this.getKey(g, n1, n2, group), 2);
-		int key1 = Integer.parseInt('1' + this.getKey(g, n1, n2, group), 2);
-		return new int[] { key0, key1 };
+	/**
+	 *
+	 * @return key of the motif formed by the nodes a, b, and the given group
+	 *         without the edge between a and b (cf. GroupSet.getKey)
+	 */
+	public int getKey(IGraph g, Node a, Node b, GroupSet groups, int group) {
+		return groups.getKey(g, a, b, group);
 	}
 
-	protected String getKey(IGraph g, Node n1, Node n2, String group) {
-		String[] temp = group.split(";");
-		Node[] nodes = new Node[temp.length + 2];
-		nodes[0] = n1;
-		nodes[1] = n2;
-		for (int i = 0; i < temp.length; i++) {
-			nodes[i + 2] = g.getNode(Integer.parseInt(temp[i]));
-		}
-		String key = "";
-		for (int i = 0; i < nodes.length; i++) {
-			for (int j = i + 1; j < nodes.length; j++) {
-				if ((i == 0 && j == 1)) {
-					continue;
-				}
-				if (g.containsEdge(nodes[i], nodes[j])) {
-					key += '1';
-				} else {
-					key += '0';
-				}
-			}
+	protected static void add(GroupSet set, Node l, Node r, Node n1, Node n2) {
+		if (n1.equals(l) || n1.equals(r) || n2.equals(l) || n2.equals(r)
+				|| n1.equals(n2)) {
+			return;
 		}
-		return key;
+		set.add(n1.getIndex(), n2.getIndex());
 	}
 
-	protected static void add(HashSet<String> set, Node l, Node r,
-			Node... nodes) {
-		for (int i = 0; i < nodes.length; i++) {
-			if (nodes[i].equals(l) || nodes[i].equals(r)) {
-				return;
-			}
-			for (int j = i + 1; j < nodes.length; j++) {
-				if (nodes[i].equals(nodes[j])) {
-					return;
-				}
-			}
-		}
-		int[] indexes = new int[nodes.length];
-		for (int i = 0; i < nodes.length; i++) {
-			indexes[i] = nodes[i].getIndex();
-		}
-		Arrays.sort(indexes);
-		StringBuffer buff = new StringBuffer();
-		for (int index : indexes) {
-			if (buff.length() > 0) {
-				buff.append(";");
-			}
-			buff.append(index);
+	protected static void add(GroupSet set, Node l, Node r, Node n1, Node n2,
+			Node n3) {
+		if (n1.equals(l) || n1.equals(r) || n2.equals(l) || n2.equals(r)
+				|| n3.equals(l) || n3.equals(r) || n1.equals(n2)
+				|| n1.equals(n3) || n2.equals(n3)) {
+			return;
 		}
-		set.add(buff.toString());
+		set.add(n1.getIndex(), n2.getIndex(), n3.getIndex());
 	}
 
-	public HashSet<String> getGroups(IGraph g, int nodes, Edge e) {
+	/**
+	 * Clears the given set and adds all groups of nodes - 2 nodes that form a
+	 * motif with the nodes of the given edge.
+	 *
+	 * @param g
+	 *            graph
+	 * @param nodes
+	 *            number of nodes of the motifs
+	 * @param e
+	 *            updated edge
+	 * @param set
+	 *            set of groups of size nodes - 2
+	 */
+	public void getGroups(IGraph g, int nodes, Edge e, GroupSet set) {
+		set.clear();
 		if (nodes == 3) {
-			return getGroups3(e);
+			getGroups3(e, set);
 		} else if (nodes == 4) {
-			return getGroups4(e);
+			getGroups4(e, set);
 		} else if (nodes == 5) {
-			return getGroups5(e);
+			getGroups5(e, set);
 		} else {
 			throw new IllegalArgumentException("StreaM_k not implemented for "
 					+ nodes + "-vertex motifs yet");
 		}
 	}
 
-	protected abstract HashSet<String> getGroups3(Edge e);
+	protected abstract void getGroups3(Edge e, GroupSet set);
 
-	protected abstract HashSet<String> getGroups4(Edge e);
+	protected abstract void getGroups4(Edge e, GroupSet set);
 
-	protected abstract HashSet<String> getGroups5(Edge e);
+	protected abstract void getGroups5(Edge e, GroupSet set);
 
 }
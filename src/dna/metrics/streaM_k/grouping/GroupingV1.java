@@ -1,10 +1,9 @@
 package dna.metrics.streaM_k.grouping;
 
-import java.util.HashSet;
-
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.metrics.streaM_k.GroupSet;
 
 public class GroupingV1 extends Grouping {
 
@@ -13,15 +12,13 @@ public class GroupingV1 extends Grouping {
 	 */
 
 	@Override
-	protected HashSet<String> getGroups3(Edge e) {
-		HashSet<String> set = new HashSet<String>();
+	protected void getGroups3(Edge e, GroupSet set) {
 		for (IElement e_ : e.getN1().getEdges()) {
-			set.add(((Edge) e_).getDifferingNode(e.getN1()).getIndex() + "");
+			set.add(((Edge) e_).getDifferingNode(e.getN1()).getIndex());
 		}
 		for (IElement e_ : e.getN2().getEdges()) {
-			set.add(((Edge) e_).getDifferingNode(e.getN2()).getIndex() + "");
+			set.add(((Edge) e_).getDifferingNode(e.getN2()).getIndex());
 		}
-		return set;
 	}
 
 	/*
@@ -29,8 +26,7 @@ public class GroupingV1 extends Grouping {
 	 */
 
 	@Override
-	protected HashSet<String> getGroups4(Edge e) {
-		HashSet<String> set = new HashSet<String>();
+	protected void getGroups4(Edge e, GroupSet set) {
 
 		Node l = e.getN1();
 		Node r = e.getN2();
@@ -46,11 +42,9 @@ public class GroupingV1 extends Grouping {
 				add(set, l, r, l1, r1);
 			}
 		}
-
-		return set;
 	}
 
-	protected static void add4(HashSet<String> set, Node l, Node r) {
+	protected static void add4(GroupSet set, Node l, Node r) {
 		// L1, L1
 		for (IElement l1_ : l.getEdges()) {
 			Node l1 = ((Edge) l1_).getDifferingNode(l);
@@ -74,14 +68,12 @@ public class GroupingV1 extends Grouping {
 	 */
 
 	@Override
-	protected HashSet<String> getGroups5(Edge e) {
-		HashSet<String> set = new HashSet<String>();
+	protected void getGroups5(Edge e, GroupSet set) {
 		add_5(set, e.getN1(), e.getN2());
 		add_5(set, e.getN2(), e.getN1());
-		return set;
 	}
 
-	protected static void add_5(HashSet<String> set, Node l, Node r) {
+	protected static void add_5(GroupSet set, Node l, Node r) {
 		add_r1r1r1(set, l, r);
 		add_r1r1r2(set, l, r);
 		add_r1r2r2(set, l, r);
@@ -90,7 +82,7 @@ public class GroupingV1 extends Grouping {
 		add_l1r1r2(set, l, r);
 	}
 
-	protected static void add_r1r1r1(HashSet<String> set, Node l, Node r) {
+	protected static void add_r1r1r1(GroupSet set, Node l, Node r) {
 		for (IElement r1_ : r.getEdges()) {
 			Node r1 = ((Edge) r1_).getDifferingNode(r);
 			for (IElement r2_ : r.getEdges()) {
@@ -103,7 +95,7 @@ public class GroupingV1 extends Grouping {
 		}
 	}
 
-	protected static void add_r1r1r2(HashSet<String> set, Node l, Node r) {
+	protected static void add_r1r1r2(GroupSet set, Node l, Node r) {
 		for (IElement r1_ : r.getEdges()) {
 			Node r1 = ((Edge) r1_).getDifferingNode(r);
 			for (IElement r2_ : r.getEdges()) {
@@ -116,7 +108,7 @@ public class GroupingV1 extends Grouping {
 		}
 	}
 
-	protected static void add_r1r2r2(HashSet<String> set, Node l, Node r) {
+	protected static void add_r1r2r2(GroupSet set, Node l, Node r) {
 		for (IElement r1_ : r.getEdges()) {
 			Node r1 = ((Edge) r1_).getDifferingNode(r);
 			for (IElement r2_ : r1.getEdges()) {
@@ -129,7 +121,7 @@ public class GroupingV1 extends Grouping {
 		}
 	}
 
-	protected static void add_r1r2r3(HashSet<String> set, Node l, Node r) {
+	protected static void add_r1r2r3(GroupSet set, Node l, Node r) {
 		for (IElement r1_ : r.getEdges()) {
 			Node r1 = ((Edge) r1_).getDifferingNode(r);
 			for (IElement r2_ : r1.getEdges()) {
@@ -142,7 +134,7 @@ public class GroupingV1 extends Grouping {
 		}
 	}
 
-	protected static void add_l1r1r1(HashSet<String> set, Node l, Node r) {
+	protected static void add_l1r1r1(GroupSet set, Node l, Node r) {
 		for (IElement l1_ : l.getEdges()) {
 			Node l1 = ((Edge) l1_).getDifferingNode(l);
 			for (IElement r1_ : r.getEdges()) {
@@ -155,7 +147,7 @@ public class GroupingV1 extends Grouping {
 		}
 	}
 
-	protected static void add_l1r1r2(HashSet<String> set, Node l, Node r) {
+	protected static void add_l1r1r2(GroupSet set, Node l, Node r) {
 		for (IElement l1_ : l.getEdges()) {
 			Node l1 = ((Edge) l1_).getDifferingNode(l);
 			for (IElement r1_ : r.getEdges()) {
@@ -1,10 +1,9 @@
 package dna.metrics.streaM_k.grouping;
 
-import java.util.HashSet;
-
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.metrics.streaM_k.GroupSet;
 
 public class GroupingV2 extends GroupingV1 {
 	/*
@@ -12,8 +11,7 @@ public class GroupingV2 extends GroupingV1 {
 	 */
 
 	@Override
-	protected HashSet<String> getGroups4(Edge e) {
-		HashSet<String> set = new HashSet<String>();
+	protected void getGroups4(Edge e, GroupSet set) {
 
 		Node l = e.getN1();
 		Node r = e.getN2();
@@ -29,11 +27,9 @@ public class GroupingV2 extends GroupingV1 {
 				add(set, l, r, l1, r1);
 			}
 		}
-
-		return set;
 	}
 
-	protected static void add4(HashSet<String> set, Node l, Node r) {
+	protected static void add4(GroupSet set, Node l, Node r) {
 		// L1, L1
 		int counter1 = 0;
 		for (IElement l1_ : l.getEdges()) {
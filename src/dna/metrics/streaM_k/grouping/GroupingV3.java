@@ -1,33 +1,18 @@
 package dna.metrics.streaM_k.grouping;
 
-import java.util.HashSet;
-
 import dna.graph.IElement;
-import dna.graph.IGraph;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.metrics.streaM_k.GroupSet;
 
 public class GroupingV3 extends GroupingV1 {
 
-	@Override
-	protected String getKey(IGraph g, Node a, Node b, String group) {
-		String[] temp = group.split(";");
-
-		Node c = g.getNode(Integer.parseInt(temp[0]));
-		Node d = g.getNode(Integer.parseInt(temp[1]));
-
-		return "" + (a.hasEdge(a, c) ? '1' : '0')
-				+ (a.hasEdge(a, d) ? '1' : '0') + (b.hasEdge(b, c) ? '1' : '0')
-				+ (b.hasEdge(b, d) ? '1' : '0') + (c.hasEdge(c, d) ? '1' : '0');
-	}
-
 	/*
 	 * 4 4 4 4 4 4 4 4 4 4 4 4 4 4 4
 	 */
 
 	@Override
-	protected HashSet<String> getGroups4(Edge e) {
-		HashSet<String> set = new HashSet<String>();
+	protected void getGroups4(Edge e, GroupSet set) {
 
 		Node a = e.getN1();
 		Node b = e.getN2();
@@ -79,19 +64,13 @@ public class GroupingV3 extends GroupingV1 {
 				}
 			}
 		}
-
-		return set;
 	}
 
-	protected static void add(HashSet<String> set, Node n1, Node n2) {
-		if (n1.getIndex() < n2.getIndex()) {
-			set.add(n1.getIndex() + ";" + n2.getIndex());
-		} else {
-			set.add(n2.getIndex() + ";" + n1.getIndex());
-		}
+	protected static void add(GroupSet set, Node n1, Node n2) {
+		set.add(n1.getIndex(), n2.getIndex());
 	}
 
-	protected static void add4(HashSet<String> set, Node l, Node r) {
+	protected static void add4(GroupSet set, Node l, Node r) {
 		// L1, L1
 		int counter1 = 0;
 		for (IElement l1_ : l.getEdges()) {
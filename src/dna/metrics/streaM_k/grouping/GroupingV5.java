@@ -2,36 +2,39 @@ package dna.metrics.streaM_k.grouping;
 
 import dna.graph.IGraph;
 import dna.graph.nodes.Node;
+import dna.metrics.streaM_k.GroupSet;
 
 public class GroupingV5 extends GroupingV3 {
 
 	@Override
-	public int[] getKeys(IGraph g, Node a, Node b, String group) {
+	public int getKey(IGraph g, Node a, Node b, GroupSet groups, int group) {
 		int key0 = 0;
 
-		String[] temp = group.split(";");
+		int nodes = groups.getGroupSize() + 2;
 
-		Node[] nodes = new Node[temp.length + 2];
-		nodes[0] = a;
-		nodes[1] = b;
-		for (int i = 0; i < temp.length; i++) {
-			nodes[i + 2] = g.getNode(Integer.parseInt(temp[i]));
-		}
-
-		int offset = 1;
-
-		for (int i = 0; i < nodes.length; i++) {
-			for (int j = i + 1; j < nodes.length; j++) {
+		for (int i = 0; i < nodes; i++) {
+			Node n1 = node(g, a, b, groups, group, i);
+			for (int j = i + 1; j < nodes; j++) {
 				if (j == 1) {
 					continue;
 				}
+				Node n2 = node(g, a, b, groups, group, j);
 				key0 = key0 << 1;
-				if (nodes[i].hasEdge(nodes[i], nodes[j])) {
+				if (n1.hasEdge(n1, n2)) {
 					key0++;
 				}
-				offset = offset << 1;
 			}
 		}
-		return new int[] { key0, key0 + offset };
+		return key0;
+	}
+
+	private static Node node(IGraph g, Node a, Node b, GroupSet groups,
+			int group, int i) {
+		if (i == 0) {
+			return a;
+		} else if (i == 1) {
+			return b;
+		}
+		return g.getNode(groups.getIndex(group, i - 2));
 	}
 }
@@ -1,32 +1,39 @@
 package dna.metrics.streaM_k.groupingWithGroups;
 
-import java.util.HashSet;
-
 import dna.graph.edges.Edge;
+import dna.metrics.streaM_k.GroupSet;
 
 public abstract class Grouping2 {
 
-	public HashSet<Group> getGroups(int nodes, Edge e) {
+	/**
+	 * Clears the given set and adds all groups of nodes - 2 nodes that form a
+	 * motif with the nodes of the given edge.
+	 *
+	 * @param nodes
+	 *            number of nodes of the motifs
+	 * @param e
+	 *            updated edge
+	 * @param set
+	 *            set of groups of size nodes - 2
+	 */
+	public void getGroups(int nodes, Edge e, GroupSet set) {
+		set.clear();
 		if (nodes == 3) {
-			return getGroups3(e);
+			getGroups3(e, set);
 		} else if (nodes == 4) {
-			return getGroups4(e);
+			getGroups4(e, set);
 		} else if (nodes == 5) {
-			return getGroups5(e);
-		} else if (nodes == 6) {
-			return getGroups5(e);
+			getGroups5(e, set);
 		} else {
 			throw new IllegalArgumentException("unsupported motif size: "
 					+ nodes);
 		}
 	}
 
-	protected abstract HashSet<Group> getGroups3(Edge e);
-
-	protected abstract HashSet<Group> getGroups4(Edge e);
+	protected abstract void getGroups3(Edge e, GroupSet set);
 
-	protected abstract HashSet<Group> getGroups5(Edge e);
+	protected abstract void getGroups4(Edge e, GroupSet set);
 
-	protected abstract HashSet<Group> getGroups6(Edge e);
+	protected abstract void getGroups5(Edge e, GroupSet set);
 
 }
@@ -1,35 +1,30 @@
 package dna.metrics.streaM_k.groupingWithGroups;
 
-import java.util.HashSet;
-
 import dna.graph.IElement;
 import dna.graph.edges.Edge;
 import dna.graph.nodes.Node;
+import dna.metrics.streaM_k.GroupSet;
 
 public class Grouping2V1 extends Grouping2 {
 
 	@Override
-	protected HashSet<Group> getGroups3(Edge e) {
-		HashSet<Group> set = new HashSet<Group>();
+	protected void getGroups3(Edge e, GroupSet set) {
 		Node n1 = e.getN1();
 		Node n2 = e.getN2();
 
 		for (IElement a_ : n1.getEdges()) {
 			Node a = ((Edge) a_).getDifferingNode(n1);
-			set.add(new Group(a));
+			set.add(a.getIndex());
 		}
 
 		for (IElement b_ : n2.getEdges()) {
 			Node b = ((Edge) b_).getDifferingNode(n2);
-			set.add(new Group(b));
+			set.add(b.getIndex());
 		}
-
-		return set;
 	}
 
 	@Override
-	protected HashSet<Group> getGroups4(Edge e) {
-		HashSet<Group> set = new HashSet<Group>();
+	protected void getGroups4(Edge e, GroupSet set) {
 		Node n1 = e.getN1();
 		Node n2 = e.getN2();
 
@@ -39,7 +34,7 @@ public class Grouping2V1 extends Grouping2 {
 			for (IElement b_ : n2.getEdges()) {
 				Node b = ((Edge) b_).getDifferingNode(n2);
 				if (!a.equals(b)) {
-					set.add(new Group(a, b));
+					set.add(a.getIndex(), b.getIndex());
 				}
 			}
 		}
@@ -54,7 +49,7 @@ public class Grouping2V1 extends Grouping2 {
 					continue;
 				}
 				Node a2 = ((Edge) a2_).getDifferingNode(n1);
-				set.add(new Group(a, a2));
+				set.add(a.getIndex(), a2.getIndex());
 			}
 			counter++;
 		}
@@ -69,7 +64,7 @@ public class Grouping2V1 extends Grouping2 {
 					continue;
 				}
 				Node b2 = ((Edge) b2_).getDifferingNode(n2);
-				set.add(new Group(b, b2));
+				set.add(b.getIndex(), b2.getIndex());
 			}
 			counter++;
 		}
@@ -80,7 +75,7 @@ public class Grouping2V1 extends Grouping2 {
 			for (IElement c_ : a.getEdges()) {
 				Node c = ((Edge) c_).getDifferingNode(a);
 				if (!c.equals(n1) && !c.equals(n2)) {
-					set.add(new Group(a, c));
+					set.add(a.getIndex(), c.getIndex());
 				}
 			}
 		}
@@ -91,17 +86,14 @@ public class Grouping2V1 extends Grouping2 {
 			for (IElement d_ : b.getEdges()) {
 				Node d = ((Edge) d_).getDifferingNode(b);
 				if (!d.equals(n1) && !d.equals(n2)) {
-					set.add(new Group(b, d));
+					set.add(b.getIndex(), d.getIndex());
 				}
 			}
 		}
-
-		return set;
 	}
 
 	@Override
-	protected HashSet<Group> getGroups5(Edge e) {
-		HashSet<Group> set = new HashSet<Group>();
+	protected void getGroups5(Edge e, GroupSet set) {
 
 		Node n1 = e.getN1();
 		Node n2 = e.getN2();
@@ -119,29 +111,28 @@ public class Grouping2V1 extends Grouping2 {
 		addABC(set, n2, n1);
 		addAAD(set, n2, n1);
 		addABD(set, n2, n1);
-
-		return set;
 	}
 
-	protected void add(Node n1, Node n2, HashSet<Group> set, Group g) {
-		set.add(g);
+	protected void add(Node n1, Node n2, GroupSet set, Node g1, Node g2,
+			Node g3) {
+		set.add(g1.getIndex(), g2.getIndex(), g3.getIndex());
 		boolean ok = true;
-		ok &= !n1.equals(g.nodes[0]);
-		ok &= !n1.equals(g.nodes[1]);
-		ok &= !n1.equals(g.nodes[2]);
-		ok &= !n2.equals(g.nodes[0]);
-		ok &= !n2.equals(g.nodes[1]);
-		ok &= !n2.equals(g.nodes[2]);
-		ok &= !g.nodes[0].equals(g.nodes[1]);
-		ok &= !g.nodes[0].equals(g.nodes[2]);
-		ok &= !g.nodes[1].equals(g.nodes[2]);
+		ok &= !n1.equals(g1);
+		ok &= !n1.equals(g2);
+		ok &= !n1.equals(g3);
+		ok &= !n2.equals(g1);
+		ok &= !n2.equals(g2);
+		ok &= !n2.equals(g3);
+		ok &= !g1.equals(g2);
+		ok &= !g1.equals(g3);
+		ok &= !g2.equals(g3);
 		if (!ok) {
 			throw new IllegalStateException("NOT OK!!!: " + n1 + " / " + n2
-					+ " => " + g);
+					+ " => " + g1 + " / " + g2 + " / " + g3);
 		}
 	}
 
-	protected void addAAA(HashSet<Group> set, Node n1, Node n2) {
+	protected void addAAA(GroupSet set, Node n1, Node n2) {
 		for (IElement a1_ : n1.getEdges()) {
 			Node a1 = ((Edge) a1_).getDifferingNode(n1);
 			for (IElement a2_ : n1.getEdges()) {
@@ -151,16 +142,15 @@ public class Grouping2V1 extends Grouping2 {
 				}
 				for (IElement a3_ : n1.getEdges()) {
 					Node a3 = ((Edge) a3_).getDifferingNode(n1);
-					// set.add(new Group(a1, a2, a3));
 					if (!a3.equals(a1) && !a3.equals(a2)) {
-						add(n1, n2, set, new Group(a1, a2, a3));
+						add(n1, n2, set, a1, a2, a3);
 					}
 				}
 			}
 		}
 	}
 
-	protected void addAAB(HashSet<Group> set, Node n1, Node n2) {
+	protected void addAAB(GroupSet set, Node n1, Node n2) {
 		int counter1 = 0;
 		for (IElement a1_ : n1.getEdges()) {
 			Node a1 = ((Edge) a1_).getDifferingNode(n1);
@@ -172,15 +162,14 @@ public class Grouping2V1 extends Grouping2 {
 				for (IElement b_ : a1.getEdges()) {
 					Node b = ((Edge) b_).getDifferingNode(a1);
 					if (!b.equals(a2) && !b.equals(n1) && !b.equals(n2)) {
-						// set.add(new Group(a1, a2, b));
-						add(n1, n2, set, new Group(a1, a2, b));
+						add(n1, n2, set, a1, a2, b);
 					}
 				}
 			}
 		}
 	}
 
-	protected void addABB(HashSet<Group> set, Node n1, Node n2) {
+	protected void addABB(GroupSet set, Node n1, Node n2) {
 		for (IElement a_ : n1.getEdges()) {
 			Node a = ((Edge) a_).getDifferingNode(n1);
 			for (IElement b1_ : a.getEdges()) {
@@ -194,18 +183,17 @@ public class Grouping2V1 extends Grouping2 {
 						continue;
 					}
 					if (!b2.equals(n1) && !b2.equals(n2) && !b2.equals(b1)) {
-						// set.add(new Group(a, b1, b2));
 						// System.out.println(n1 + " // " + n2);
 						// System.out.println(a + " / " + b1 + " / " + b2);
 						// System.out.println(counter1 + " - " + counter2);
-						add(n1, n2, set, new Group(a, b1, b2));
+						add(n1, n2, set, a, b1, b2);
 					}
 				}
 			}
 		}
 	}
 
-	protected void addABC(HashSet<Group> set, Node n1, Node n2) {
+	protected void addABC(GroupSet set, Node n1, Node n2) {
 		for (IElement a_ : n1.getEdges()) {
 			Node a = ((Edge) a_).getDifferingNode(n1);
 			for (IElement b_ : a.getEdges()) {
@@ -216,15 +204,14 @@ public class Grouping2V1 extends Grouping2 {
 				for (IElement c_ : b.getEdges()) {
 					Node c = ((Edge) c_).getDifferingNode(b);
 					if (!c.equals(a) && !c.equals(n1) && !c.equals(n2)) {
-						// set.add(new Group(a, b, c));
-						add(n1, n2, set, new Group(a, b, c));
+						add(n1, n2, set, a, b, c);
 					}
 				}
 			}
 		}
 	}
 
-	protected void addAAD(HashSet<Group> set, Node n1, Node n2) {
+	protected void addAAD(GroupSet set, Node n1, Node n2) {
 		for (IElement a1_ : n1.getEdges()) {
 			Node a1 = ((Edge) a1_).getDifferingNode(n1);
 			int counter2 = 0;
@@ -236,15 +223,14 @@ public class Grouping2V1 extends Grouping2 {
 				for (IElement d_ : n2.getEdges()) {
 					Node d = ((Edge) d_).getDifferingNode(n2);
 					if (!d.equals(a1) && !d.equals(a2)) {
-						// set.add(new Group(a1, a2, d));
-						add(n1, n2, set, new Group(a1, a2, d));
+						add(n1, n2, set, a1, a2, d);
 					}
 				}
 			}
 		}
 	}
 
-	protected void addABD(HashSet<Group> set, Node n1, Node n2) {
+	protected void addABD(GroupSet set, Node n1, Node n2) {
 		for (IElement a_ : n1.getEdges()) {
 			Node a = ((Edge) a_).getDifferingNode(n1);
 			for (IElement b_ : a.getEdges()) {
@@ -255,18 +241,11 @@ public class Grouping2V1 extends Grouping2 {
 				for (IElement d_ : n2.getEdges()) {
 					Node d = ((Edge) d_).getDifferingNode(n2);
 					if (!d.equals(a) && !d.equals(b)) {
-						// set.add(new Group(a, b, d));
-						add(n1, n2, set, new Group(a, b, d));
+						add(n1, n2, set, a, b, d);
 					}
 				}
 			}
 		}
 	}
 
-	@Override
-	protected HashSet<Group> getGroups6(Edge e) {
-		// TODO Auto-generated method stub
-		return null;
-	}
-
 }
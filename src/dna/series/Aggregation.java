@@ -2,7 +2,10 @@ package dna.series;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
 
+import dna.io.RunStore;
 import dna.io.filesystem.Dir;
 import dna.series.aggdata.AggregatedBatch;
 import dna.series.aggdata.AggregatedBinnedDistribution;
@@ -36,6 +39,7 @@ import dna.util.ArrayUtils;
 import dna.util.Config;
 import dna.util.Log;
 import dna.util.Memory;
+import dna.util.ParallelExecution;
 
 /**
  * 
@@ -116,9 +120,16 @@ public class Aggregation {
 		}
 		Log.info("aggregating data for " + runInfo);
 
+		// remove the records of a previous aggregation
+		if (Config.get("GENERATION_AS_ZIP").equals("store"))
+			RunStore.getAggregationStore(dir).delete();
+
 		// treat single run as special case
-		if (runs.size() == 1)
-			return aggregateRun(dir, runs.get(0));
+		if (runs.size() == 1) {
+			AggregatedBatch[] aBatches = aggregateRun(dir, runs.get(0));
+			closeStores(dir, runs);
+			return aBatches;
+		}
 
 		long maxTimestamp = 0;
 		int maxAmountBatches = 0;
@@ -140,93 +151,113 @@ public class Aggregation {
 		else
 			Log.info("aggregation mode: /n+1, treating missing values as 0");
 
-		int gcCounter = 1;
-
 		RunData maxRun = runs.get(runId);
-		AggregatedBatch[] aBatches = new AggregatedBatch[maxAmountBatches];
-		AggregatedBatch tempBatch;
 
-		// iterate over batches
-		for (int batchId = 0; batchId < runs.get(runId).getBatches().size(); batchId++) {
-			ArrayList<BatchData> batches = new ArrayList<BatchData>(runs.size());
-			BatchData structure = maxRun.getBatches().get(batchId);
-			long timestamp = structure.getTimestamp();
+		// zipped batches and runs are read / written using a single
+		// filesystem at a time
+		int threads = ParallelExecution.getThreads(Config
+				.getInt("AGGREGATION_THREADS"));
+		if (threads > 1
+				&& (Config.get("GENERATION_AS_ZIP").equals("batches") || Config
+						.get("GENERATION_AS_ZIP").equals("runs"))) {
+			Log.info("aggregating zipped data sequentially");
+			threads = 1;
+		}
+
+		// aggregate batches
+		ArrayList<BatchAggregation> tasks = new ArrayList<BatchAggregation>(
+				maxAmountBatches);
+		for (int batchId = 0; batchId < maxAmountBatches; batchId++) {
+			tasks.add(new BatchAggregation(dir, runs, maxRun.getBatches().get(
+					batchId), batchId, nmode));
+		}
+		List<AggregatedBatch> aBatches;
+		try {
+			aBatches = ParallelExecution.invokeAll(tasks, threads);
+		} catch (IllegalStateException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw e;
+		}
+		closeStores(dir, runs);
+
+		// return
+		return aBatches.toArray(new AggregatedBatch[aBatches.size()]);
+	}
+
+	/**
+	 * Removes the stores of the aggregated runs and of the aggregation from
+	 * the cache of opened stores (in case the runs are stored).
+	 */
+	private static void closeStores(String dir, ArrayList<RunData> runs) {
+		if (!Config.get("GENERATION_AS_ZIP").equals("store"))
+			return;
+		for (RunData run : runs)
+			RunStore.closeRunStore(dir, run.getRun());
+		RunStore.closeAggregationStore(dir);
+	}
+
+	/**
+	 * Aggregates a single batch over several runs. The batch is read from one
+	 * run after the other and only its values are kept in an
+	 * AggregationBuffer. The aggregated batch is written and only its
+	 * timestamp is returned.
+	 */
+	private static class BatchAggregation implements Callable<AggregatedBatch> {
+		private String dir;
+		private ArrayList<RunData> runs;
+		private BatchData structure;
+		private int batchId;
+		private boolean nmode;
+
+		public BatchAggregation(String dir, ArrayList<RunData> runs,
+				BatchData structure, int batchId, boolean nmode) {
+			this.dir = dir;
+			this.runs = runs;
+			this.structure = structure;
+			this.batchId = batchId;
+			this.nmode = nmode;
+		}
+
+		@Override
+		public AggregatedBatch call() throws IOException {
+			long timestamp = this.structure.getTimestamp();
 
 			// record memory usage
 			double mem = (new Memory()).getUsed();
 			Log.info("\tBatch: " + timestamp + " (memory: " + mem + ")");
 
-			// iterate over runs and read batches
-			for (int i = 0; i < runs.size(); i++) {
+			// iterate over runs, read batches and add their values
+			AggregationBuffer buffer = new AggregationBuffer(timestamp,
+					this.runs.size());
+			for (RunData run : this.runs) {
 				try {
-					// read batch and add it
-					batches.add(BatchData.readBatchValuesIntelligent(
-							Dir.getBatchDataDir(dir, i, timestamp), timestamp,
-							structure));
+					buffer.add(BatchData.readBatchValuesIntelligent(
+							Dir.getBatchDataDir(this.dir, run.getRun(),
+									timestamp), timestamp, this.structure));
 				} catch (Exception e) {
 					e.printStackTrace();
-					if (nmode)
-						batches.add(new BatchData(-1));
+					if (this.nmode)
+						buffer.addMissing();
 				}
 			}
 
-			// aggregate
-			AggregatedValueList aStats = aggregateBatchStatistics(batches);
-			AggregatedRunTimeList aGeneralRuntimes = aggregateGeneralRuntimes(batches);
-			AggregatedRunTimeList aMetricRuntimes = aggregateMetricRuntimes(batches);
-			AggregatedMetricList aMetrics = aggregateMetrics(batches);
-
-			// craft aggregated batch
-			tempBatch = new AggregatedBatch(timestamp, aStats,
-					aGeneralRuntimes, aMetricRuntimes, aMetrics);
-
-			// write batch
-			tempBatch.writeIntelligent(Dir.getBatchDataDir(
-					Dir.getAggregationDataDir(dir), timestamp));
-
-			// overwrite tempbatch
-			tempBatch = null;
-			aBatches[batchId] = new AggregatedBatch(timestamp);
+			// aggregate and write batch
+			buffer.aggregate().writeIntelligent(
+					Dir.getBatchDataDir(Dir.getAggregationDataDir(this.dir),
+							timestamp));
+			buffer = null;
 
 			// call garbage collection
 			if (Config.getBoolean("AGGREGATION_CALL_GC")
-					&& batchId == Config.getInt("AGGREGATION_GC_OCCURENCE")
-							* gcCounter) {
+					&& this.batchId > 0
+					&& this.batchId
+							% Config.getInt("AGGREGATION_GC_OCCURENCE") == 0) {
 				System.gc();
-				gcCounter++;
 			}
-		}
 
-		// return
-		return aBatches;
-	}
-
-	/**
-	 * Aggregates the statistics of several batches.
-	 * 
-	 * @param batches
-	 *            Batches to be aggregated.
-	 * @return List of aggregated statistics.
-	 */
-	private static AggregatedValueList aggregateBatchStatistics(
-			ArrayList<BatchData> batches) {
-		if (batches.size() == 1)
-			return aggregateBatchStatistics(batches.get(0));
-
-		AggregatedValueList aStats = new AggregatedValueList(batches.get(0)
-				.getValues().size());
-		for (String stat : batches.get(0).getValues().getNames()) {
-			double[] values = new double[batches.size()];
-
-			for (int i = 0; i < batches.size(); i++) {
-				if (batches.get(i).getTimestamp() == -1)
-					values[i] = 0;
-				else
-					values[i] = batches.get(i).getValues().get(stat).getValue();
-			}
-			aStats.add(new AggregatedValue(stat, aggregate(values)));
+			return new AggregatedBatch(timestamp);
 		}
-		return aStats;
 	}
 
 	/**
@@ -248,35 +279,6 @@ public class Aggregation {
 		return aStats;
 	}
 
-	/**
-	 * Aggregates the general runtimes of several batches.
-	 * 
-	 * @param batches
-	 *            Batches to be aggregated.
-	 * @return Aggregated general runtimes.
-	 */
-	private static AggregatedRunTimeList aggregateGeneralRuntimes(
-			ArrayList<BatchData> batches) {
-		if (batches.size() == 1)
-			return aggregateGeneralRuntimes(batches.get(0));
-
-		AggregatedRunTimeList aGeneralRuntimes = new AggregatedRunTimeList(
-				Config.get("BATCH_GENERAL_RUNTIMES"));
-		for (RunTime gRuntime : batches.get(0).getGeneralRuntimes().getList()) {
-			double[] values = new double[batches.size()];
-			for (int i = 0; i < batches.size(); i++) {
-				if (batches.get(i).getTimestamp() == -1)
-					values[i] = 0;
-				else
-					values[i] = batches.get(i).getGeneralRuntimes()
-							.get(gRuntime.getName()).getRuntime();
-			}
-			aGeneralRuntimes.add(new AggregatedValue(gRuntime.getName(),
-					Aggregation.aggregate(values)));
-		}
-		return aGeneralRuntimes;
-	}
-
 	/**
 	 * Aggregates the general runtimes of a single batch.
 	 * 
@@ -298,35 +300,6 @@ public class Aggregation {
 		return aGeneralRuntimes;
 	}
 
-	/**
-	 * Aggregates the metric runtimes of several batches.
-	 * 
-	 * @param batches
-	 *            Batches to be aggregated.
-	 * @return Aggregated metric runtimes.
-	 */
-	private static AggregatedRunTimeList aggregateMetricRuntimes(
-			ArrayList<BatchData> batches) {
-		if (batches.size() == 1)
-			return aggregateMetricRuntimes(batches.get(0));
-
-		AggregatedRunTimeList aMetricRuntimes = new AggregatedRunTimeList(
-				Config.get("BATCH_METRIC_RUNTIMES"));
-		for (RunTime mRuntime : batches.get(0).getMetricRuntimes().getList()) {
-			double[] values = new double[batches.size()];
-			for (int i = 0; i < batches.size(); i++) {
-				if (batches.get(i).getTimestamp() == -1)
-					values[i] = 0;
-				else
-					values[i] = batches.get(i).getMetricRuntimes()
-							.get(mRuntime.getName()).getRuntime();
-			}
-			aMetricRuntimes.add(new AggregatedValue(mRuntime.getName(),
-					Aggregation.aggregate(values)));
-		}
-		return aMetricRuntimes;
-	}
-
 	/**
 	 * Aggregates the metric runtimes of a single batch.
 	 * 
@@ -348,142 +321,6 @@ public class Aggregation {
 		return aMetricRuntimes;
 	}
 
-	/**
-	 * Aggregates a metric over several batches.
-	 * 
-	 * @param batches
-	 *            Batches containing the metric
-	 * @param metric
-	 *            MetricData object to be aggregated
-	 * @return AggregatedMetric object
-	 */
-	private static AggregatedMetricList aggregateMetrics(
-			ArrayList<BatchData> batches) {
-		if (batches.size() == 1)
-			return aggregateMetrics(batches.get(0));
-
-		// get reference batch which contains data
-		BatchData refBatch = null;
-		AggregatedMetricList aMetrics = null;
-		for (BatchData b : batches) {
-			if (b.getTimestamp() != -1) {
-				refBatch = b;
-				aMetrics = new AggregatedMetricList(b.getMetrics().size());
-				break;
-			}
-		}
-
-		// iterate over metrics
-		for (String metric : refBatch.getMetrics().getNames()) {
-			MetricData refMetric = refBatch.getMetrics().get(metric);
-
-			// init aggregated lists
-			AggregatedValueList aValues = new AggregatedValueList(refMetric
-					.getValues().size());
-			AggregatedDistributionList aDistributions = new AggregatedDistributionList(
-					refMetric.getDistributions().size());
-			AggregatedNodeValueListList aNodeValues = new AggregatedNodeValueListList(
-					refMetric.getNodeValues().size());
-
-			// iterate over values
-			for (Value v : refMetric.getValues().getList()) {
-				// fill values array (keep null if run doesnt support
-				// batch -> timestamp == -1)
-				double[] values = new double[batches.size()];
-				for (int i = 0; i < batches.size(); i++) {
-					if (batches.get(i).getTimestamp() != -1)
-						values[i] = batches.get(i).getMetrics().get(metric)
-								.getValues().get(v.getName()).getValue();
-				}
-				aValues.add(new AggregatedValue(v.getName(), aggregate(values)));
-			}
-
-			// iterate over distributions
-			for (Distr<?, ?> d : refMetric.getDistributions().getList()) {
-				// fill distributions array (keep null if run doesnt support
-				// batch -> timestamp == -1)
-				Distr<?, ?>[] distributions = new Distr<?, ?>[batches.size()];
-				for (int i = 0; i < batches.size(); i++) {
-					if (batches.get(i).getTimestamp() != -1)
-						distributions[i] = batches.get(i).getMetrics()
-								.get(metric).getDistributions()
-								.get(d.getName());
-				}
-				aDistributions.add(aggregateDistributions(distributions));
-			}
-
-			// iterate over nodevaluelists
-			for (NodeValueList n : refMetric.getNodeValues().getList()) {
-				// fill nodevaluelists array (keep null if run doesnt support
-				// batch -> timestamp == -1)
-				NodeValueList[] nodevalues = new NodeValueList[batches.size()];
-				for (int i = 0; i < batches.size(); i++) {
-					if (batches.get(i).getTimestamp() != -1)
-						nodevalues[i] = batches.get(i).getMetrics().get(metric)
-								.getNodeValues().get(n.getName());
-				}
-				aNodeValues.add(aggregateNodeValueLists(nodevalues));
-			}
-
-			// TODO: nodenodevaluelists
-
-			// craft and add aggregated metric
-			aMetrics.add(new AggregatedMetric(refMetric.getName(), aValues,
-					aDistributions, aNodeValues));
-		}
-
-		// return
-		return aMetrics;
-	}
-
-	/**
-	 * Aggregates over given distributions array.
-	 * 
-	 * @param distributions
-	 *            Distributions to be aggregated
-	 * @return Aggregated distribution
-	 */
-	private static AggregatedDistribution aggregateDistributions(
-			Distr<?, ?>[] distributions) {
-		// get reference distribution which contains data
-		Distr<?, ?> refDist = null;
-		for (Distr<?, ?> d : distributions) {
-			if (d != null) {
-				refDist = d;
-				break;
-			}
-		}
-
-		// switch on different types
-		switch (refDist.getDistrType()) {
-		case BINNED_DOUBLE:
-			return aggregateBinnedDistributions(distributions);
-		case BINNED_INT:
-			return aggregateBinnedDistributions(distributions);
-		case BINNED_LONG:
-			return aggregateBinnedDistributions(distributions);
-		case QUALITY_DOUBLE:
-			return aggregateQualityDistributions(distributions);
-		case QUALITY_INT:
-			return aggregateQualityDistributions(distributions);
-		case QUALITY_LONG:
-			return aggregateQualityDistributions(distributions);
-		default:
-			Log.warn("Wrong distribution type in aggregation! Returning null.");
-			return null;
-		}
-	}
-
-	/** Aggregates over binned distributions. **/
-	private static AggregatedBinnedDistribution aggregateBinnedDistributions(
-			Distr<?, ?>[] dists) {
-		BinnedDistr<?>[] distributions = new BinnedDistr<?>[dists.length];
-		for (int i = 0; i < dists.length; i++) {
-			distributions[i] = (BinnedDistr<?>) dists[i];
-		}
-		return aggregateBinnedDistributions(distributions);
-	}
-
 	/** Aggregates over binned distributions. **/
 	public static AggregatedBinnedDistribution aggregateBinnedDistributions(
 			BinnedDistr<?>[] dists) {
@@ -545,17 +382,6 @@ public class Aggregation {
 		}
 	}
 
-	/** Aggregates over quality distributions. **/
-	private static AggregatedDistribution aggregateQualityDistributions(
-			Distr<?, ?>[] dists) {
-		// cast to quality-distributions
-		QualityDistr<?>[] distributions = new QualityDistr<?>[dists.length];
-		for (int i = 0; i < dists.length; i++) {
-			distributions[i] = (QualityDistr<?>) dists[i];
-		}
-		return aggregateQualityDistributions(distributions);
-	}
-
 	/** Aggregates over quality distributions. **/
 	public static AggregatedDistribution aggregateQualityDistributions(
 			QualityDistr<?>[] dists) {
@@ -603,58 +429,6 @@ public class Aggregation {
 		return new AggregatedDistribution(refDist.getName(), aValues);
 	}
 
-	/**
-	 * Aggregates over given node value lists array.
-	 * 
-	 * @param nodevalues
-	 *            NodeValueLists to be aggregated.
-	 * @return Aggregated node value lists.
-	 */
-	private static AggregatedNodeValueList aggregateNodeValueLists(
-			NodeValueList[] nodevalues) {
-		// get reference nodevaluelist which contains data
-		NodeValueList refNvl = null;
-		for (NodeValueList n : nodevalues) {
-			if (n != null) {
-				refNvl = n;
-				break;
-			}
-		}
-		// calc 'longest' nodevaluelist
-		int amountValues = 0;
-		for (NodeValueList n : nodevalues) {
-			if (n != null) {
-				if (n.getValues().length > amountValues)
-					amountValues = n.getValues().length;
-			}
-		}
-
-		AggregatedValue[] aValues = new AggregatedValue[amountValues];
-
-		for (int i = 0; i < amountValues; i++) {
-			double[] values = new double[nodevalues.length];
-			for (int j = 0; j < nodevalues.length; j++) {
-				if (nodevalues[j] == null)
-					values[j] = 0;
-				else {
-					try {
-						values[j] = nodevalues[j].getValues()[i];
-					} catch (IndexOutOfBoundsException | NullPointerException e) {
-						values[j] = 0;
-					}
-				}
-			}
-			double[] aggregatedValues = aggregate(values);
-			double[] temp = new double[aggregatedValues.length + 1];
-			temp[0] = i;
-			for (int j = 0; j < aggregatedValues.length; j++) {
-				temp[j + 1] = aggregatedValues[j];
-			}
-			aValues[i] = new AggregatedValue(refNvl.getName(), temp);
-		}
-		return new AggregatedNodeValueList(refNvl.getName(), aValues);
-	}
-
 	/**
 	 * Aggregates all metrics of a single batch.
 	 * 
@@ -862,7 +636,7 @@ public class Aggregation {
 	 * @param inputData
 	 * @return double array containing the aggregated data
 	 */
-	private static double[] aggregate(double[] inputData) {
+	public static double[] aggregate(double[] inputData) {
 		// aggregated array structure: { avg, min, max, median, variance,
 		// variance-low, variance-up, confidence-low, confidence-up }
 		double avg = ArrayUtils.avg(inputData);
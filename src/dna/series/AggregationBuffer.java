@@ -0,0 +1,314 @@
+package dna.series;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import dna.series.aggdata.AggregatedBatch;
+import dna.series.aggdata.AggregatedBinnedDistribution;
+import dna.series.aggdata.AggregatedDistribution;
+import dna.series.aggdata.AggregatedDistributionList;
+import dna.series.aggdata.AggregatedMetric;
+import dna.series.aggdata.AggregatedMetricList;
+import dna.series.aggdata.AggregatedNodeValueList;
+import dna.series.aggdata.AggregatedNodeValueListList;
+import dna.series.aggdata.AggregatedRunTimeList;
+import dna.series.aggdata.AggregatedValue;
+import dna.series.aggdata.AggregatedValueList;
+import dna.series.data.BatchData;
+import dna.series.data.MetricData;
+import dna.series.data.RunTime;
+import dna.series.data.Value;
+import dna.series.data.distr.BinnedDistr;
+import dna.series.data.distr.Distr;
+import dna.series.data.distr.QualityDistr;
+import dna.series.data.nodevaluelists.NodeValueList;
+import dna.util.Config;
+
+/**
+ * Collects the data of a single batch over several runs for its aggregation.
+ * The batch of each run is added once and only its values are kept, stored
+ * in primitive arrays per value, distribution and node value list. Hence, the
+ * BatchData objects of all runs do not have to be held in memory at the same
+ * time and each of them is traversed exactly once.
+ *
+ * Values that are missing in a run (or the batch of a run that is missing
+ * completely, cf. addMissing()) are treated as 0.
+ */
+public class AggregationBuffer {
+
+	private long timestamp;
+
+	private int runs;
+
+	private int added;
+
+	private LinkedHashMap<String, double[]> values;
+
+	private LinkedHashMap<String, double[]> generalRuntimes;
+
+	private LinkedHashMap<String, double[]> metricRuntimes;
+
+	private LinkedHashMap<String, MetricBuffer> metrics;
+
+	/**
+	 *
+	 * @param timestamp
+	 *            timestamp of the batch
+	 * @param runs
+	 *            maximum number of runs that are added
+	 */
+	public AggregationBuffer(long timestamp, int runs) {
+		this.timestamp = timestamp;
+		this.runs = runs;
+		this.added = 0;
+		this.values = new LinkedHashMap<String, double[]>();
+		this.generalRuntimes = new LinkedHashMap<String, double[]>();
+		this.metricRuntimes = new LinkedHashMap<String, double[]>();
+		this.metrics = new LinkedHashMap<String, MetricBuffer>();
+	}
+
+	public long getTimestamp() {
+		return this.timestamp;
+	}
+
+	/**
+	 * adds the values of the batch of the next run.
+	 *
+	 * @param b
+	 *            batch of the next run
+	 */
+	public void add(BatchData b) {
+		int run = this.next();
+		for (Value v : b.getValues().getList()) {
+			this.get(this.values, v.getName())[run] = v.getValue();
+		}
+		for (RunTime rt : b.getGeneralRuntimes().getList()) {
+			this.get(this.generalRuntimes, rt.getName())[run] = rt
+					.getRuntime();
+		}
+		for (RunTime rt : b.getMetricRuntimes().getList()) {
+			this.get(this.metricRuntimes, rt.getName())[run] = rt.getRuntime();
+		}
+		for (MetricData m : b.getMetrics().getList()) {
+			MetricBuffer mb = this.metrics.get(m.getName());
+			if (mb == null) {
+				mb = new MetricBuffer();
+				this.metrics.put(m.getName(), mb);
+			}
+			mb.add(m, run, this.runs);
+		}
+	}
+
+	/**
+	 * adds a run that does not contain the batch, all its values are treated
+	 * as 0.
+	 */
+	public void addMissing() {
+		this.next();
+	}
+
+	/**
+	 *
+	 * @return aggregation of the values of all runs added so far
+	 */
+	public AggregatedBatch aggregate() {
+		AggregatedValueList aStats = new AggregatedValueList(
+				this.values.size());
+		for (Map.Entry<String, double[]> e : this.values.entrySet()) {
+			aStats.add(new AggregatedValue(e.getKey(), Aggregation.aggregate(this
+					.trim(e.getValue()))));
+		}
+		AggregatedRunTimeList aGeneralRuntimes = new AggregatedRunTimeList(
+				Config.get("BATCH_GENERAL_RUNTIMES"));
+		for (Map.Entry<String, double[]> e : this.generalRuntimes.entrySet()) {
+			aGeneralRuntimes.add(new AggregatedValue(e.getKey(), Aggregation
+					.aggregate(this.trim(e.getValue()))));
+		}
+		AggregatedRunTimeList aMetricRuntimes = new AggregatedRunTimeList(
+				Config.get("BATCH_METRIC_RUNTIMES"));
+		for (Map.Entry<String, double[]> e : this.metricRuntimes.entrySet()) {
+			aMetricRuntimes.add(new AggregatedValue(e.getKey(), Aggregation
+					.aggregate(this.trim(e.getValue()))));
+		}
+		AggregatedMetricList aMetrics = new AggregatedMetricList(
+				this.metrics.size());
+		for (Map.Entry<String, MetricBuffer> e : this.metrics.entrySet()) {
+			aMetrics.add(e.getValue().aggregate(e.getKey()));
+		}
+		return new AggregatedBatch(this.timestamp, aStats, aGeneralRuntimes,
+				aMetricRuntimes, aMetrics);
+	}
+
+	private int next() {
+		if (this.added == this.runs) {
+			throw new IllegalStateException("cannot add more than "
+					+ this.runs + " runs to aggregation of batch "
+					+ this.timestamp);
+		}
+		return this.added++;
+	}
+
+	private double[] get(Map<String, double[]> map, String name) {
+		double[] v = map.get(name);
+		if (v == null) {
+			v = new double[this.runs];
+			map.put(name, v);
+		}
+		return v;
+	}
+
+	/** cuts off the entries of runs that have not been added **/
+	private double[] trim(double[] values) {
+		if (this.added == values.length) {
+			return values;
+		}
+		return Arrays.copyOf(values, this.added);
+	}
+
+	private double[][] trim(double[][] values) {
+		if (this.added == values.length) {
+			return values;
+		}
+		return Arrays.copyOf(values, this.added);
+	}
+
+	/**
+	 * aggregates the i-th entries of the given lists (one per run, null if
+	 * not contained in a run).
+	 */
+	private static AggregatedValue[] aggregate(String name, double[][] lists) {
+		int length = 0;
+		for (double[] list : lists) {
+			if (list != null && list.length > length) {
+				length = list.length;
+			}
+		}
+		AggregatedValue[] aValues = new AggregatedValue[length];
+		double[] values = new double[lists.length];
+		for (int i = 0; i < length; i++) {
+			for (int j = 0; j < lists.length; j++) {
+				if (lists[j] != null && i < lists[j].length) {
+					values[j] = lists[j][i];
+				} else {
+					values[j] = 0;
+				}
+			}
+			double[] aggregated = Aggregation.aggregate(values);
+			double[] temp = new double[aggregated.length + 1];
+			temp[0] = i;
+			System.arraycopy(aggregated, 0, temp, 1, aggregated.length);
+			aValues[i] = new AggregatedValue(name, temp);
+		}
+		return aValues;
+	}
+
+	/**
+	 * Values, distributions and node value lists of a single metric.
+	 */
+	private class MetricBuffer {
+		private LinkedHashMap<String, double[]> values;
+
+		private LinkedHashMap<String, DistrBuffer> distributions;
+
+		private LinkedHashMap<String, double[][]> nodeValues;
+
+		public MetricBuffer() {
+			this.values = new LinkedHashMap<String, double[]>();
+			this.distributions = new LinkedHashMap<String, DistrBuffer>();
+			this.nodeValues = new LinkedHashMap<String, double[][]>();
+		}
+
+		public void add(MetricData m, int run, int runs) {
+			for (Value v : m.getValues().getList()) {
+				AggregationBuffer.this.get(this.values, v.getName())[run] = v
+						.getValue();
+			}
+			for (Distr<?, ?> d : m.getDistributions().getList()) {
+				DistrBuffer db = this.distributions.get(d.getName());
+				if (db == null) {
+					db = new DistrBuffer(d, runs);
+					this.distributions.put(d.getName(), db);
+				}
+				db.add(d, run);
+			}
+			for (NodeValueList n : m.getNodeValues().getList()) {
+				double[][] lists = this.nodeValues.get(n.getName());
+				if (lists == null) {
+					lists = new double[runs][];
+					this.nodeValues.put(n.getName(), lists);
+				}
+				lists[run] = n.getValues();
+			}
+		}
+
+		public AggregatedMetric aggregate(String name) {
+			AggregatedValueList aValues = new AggregatedValueList(
+					this.values.size());
+			for (Map.Entry<String, double[]> e : this.values.entrySet()) {
+				aValues.add(new AggregatedValue(e.getKey(), Aggregation
+						.aggregate(trim(e.getValue()))));
+			}
+			AggregatedDistributionList aDistributions = new AggregatedDistributionList(
+					this.distributions.size());
+			for (Map.Entry<String, DistrBuffer> e : this.distributions
+					.entrySet()) {
+				aDistributions.add(e.getValue().aggregate(e.getKey()));
+			}
+			AggregatedNodeValueListList aNodeValues = new AggregatedNodeValueListList(
+					this.nodeValues.size());
+			for (Map.Entry<String, double[][]> e : this.nodeValues.entrySet()) {
+				aNodeValues.add(new AggregatedNodeValueList(e.getKey(),
+						AggregationBuffer.aggregate(e.getKey(),
+								trim(e.getValue()))));
+			}
+			return new AggregatedMetric(name, aValues, aDistributions,
+					aNodeValues);
+		}
+	}
+
+	/**
+	 * Values of a distribution, binned distributions are normalized by their
+	 * denominator.
+	 */
+	private class DistrBuffer {
+		private boolean binned;
+
+		private double binSize;
+
+		private double[][] values;
+
+		public DistrBuffer(Distr<?, ?> d, int runs) {
+			this.binned = d instanceof BinnedDistr;
+			if (this.binned) {
+				this.binSize = ((Number) d.getBinSize()).doubleValue();
+			}
+			this.values = new double[runs][];
+		}
+
+		public void add(Distr<?, ?> d, int run) {
+			if (d instanceof BinnedDistr) {
+				BinnedDistr<?> bd = (BinnedDistr<?>) d;
+				long[] v = bd.getValues();
+				double denominator = bd.getDenominator();
+				double[] normalized = new double[v.length];
+				for (int i = 0; i < v.length; i++) {
+					normalized[i] = v[i] / denominator;
+				}
+				this.values[run] = normalized;
+			} else {
+				this.values[run] = ((QualityDistr<?>) d).getValues();
+			}
+		}
+
+		public AggregatedDistribution aggregate(String name) {
+			AggregatedValue[] aValues = AggregationBuffer.aggregate(name,
+					trim(this.values));
+			if (this.binned) {
+				return new AggregatedBinnedDistribution(name, aValues,
+						this.binSize);
+			}
+			return new AggregatedDistribution(name, aValues);
+		}
+	}
+}
@@ -0,0 +1,12 @@
+package dna.series;
+
+/**
+ * Creates new Series instances. When generating runs concurrently, each run
+ * requires its own graph generator, batch generator, and metric instances.
+ * Therefore, each call of newSeries() must return a Series that does not
+ * share any of these objects with previously created ones. All created
+ * instances must use the same directory and name.
+ */
+public interface ISeriesFactory {
+	public Series newSeries();
+}
@@ -168,9 +168,23 @@ public class Series {
 		this.seed = seed;
 	}
 
+	private long timestampSeedOffset = 0;
+
+	/**
+	 * sets an offset that is added to timestamp-based seeds. This is used when
+	 * generating runs concurrently to prevent runs that reset their seed in
+	 * the same millisecond from using identical seeds.
+	 * 
+	 * @param timestampSeedOffset
+	 *            offset added to each timestamp-based seed
+	 */
+	public void setTimestampSeedOffset(long timestampSeedOffset) {
+		this.timestampSeedOffset = timestampSeedOffset;
+	}
+
 	public void resetRand() {
 		if (this.randomSeedType == RandomSeedType.timestamp) {
-			this.seed = System.currentTimeMillis();
+			this.seed = System.currentTimeMillis() + this.timestampSeedOffset;
 		}
 		Rand.init(this.seed);
 		Log.debug("resetting random seed to " + this.seed + " ("
@@ -2,7 +2,17 @@ package dna.series;
 
 import java.io.File;
 import java.io.IOException;
-
+import java.util.ArrayList;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import dna.graph.datastructures.count.Counting;
+import dna.graph.datastructures.count.OperationSampling;
+import dna.graph.datastructures.hotswap.Hotswap;
+import dna.io.RunStore;
 import dna.io.filesystem.Dir;
 import dna.io.filesystem.Files;
 import dna.metrics.IMetric;
@@ -10,18 +20,30 @@ import dna.metrics.MetricNotApplicableException;
 import dna.metrics.algorithms.Algorithms;
 import dna.metrics.algorithms.IAfterBatch;
 import dna.metrics.algorithms.IAfterEA;
+import dna.metrics.algorithms.IAfterEAs;
 import dna.metrics.algorithms.IAfterER;
+import dna.metrics.algorithms.IAfterERs;
 import dna.metrics.algorithms.IAfterEW;
+import dna.metrics.algorithms.IAfterEWs;
 import dna.metrics.algorithms.IAfterNA;
+import dna.metrics.algorithms.IAfterNAs;
 import dna.metrics.algorithms.IAfterNR;
+import dna.metrics.algorithms.IAfterNRs;
 import dna.metrics.algorithms.IAfterNW;
+import dna.metrics.algorithms.IAfterNWs;
 import dna.metrics.algorithms.IBeforeBatch;
 import dna.metrics.algorithms.IBeforeEA;
+import dna.metrics.algorithms.IBeforeEAs;
 import dna.metrics.algorithms.IBeforeER;
+import dna.metrics.algorithms.IBeforeERs;
 import dna.metrics.algorithms.IBeforeEW;
+import dna.metrics.algorithms.IBeforeEWs;
 import dna.metrics.algorithms.IBeforeNA;
+import dna.metrics.algorithms.IBeforeNAs;
 import dna.metrics.algorithms.IBeforeNR;
+import dna.metrics.algorithms.IBeforeNRs;
 import dna.metrics.algorithms.IBeforeNW;
+import dna.metrics.algorithms.IBeforeNWs;
 import dna.metrics.algorithms.IDynamicAlgorithm;
 import dna.metrics.algorithms.IRecomputation;
 import dna.series.Series.RandomSeedReset;
@@ -51,6 +73,7 @@ import dna.util.ArrayUtils;
 import dna.util.Config;
 import dna.util.Log;
 import dna.util.Memory;
+import dna.util.Rand;
 
 public class SeriesGeneration {
 
@@ -108,6 +131,9 @@ public class SeriesGeneration {
 		} else if (Config.get("GENERATION_AS_ZIP").equals("batches")) {
 			Log.info("r  = files");
 			Log.info("b  = zipped");
+		} else if (Config.get("GENERATION_AS_ZIP").equals("store")) {
+			Log.info("r  = store");
+			Log.info("b  = records");
 		} else {
 			Log.info("r  = files");
 			Log.info("b  = files");
@@ -218,6 +244,268 @@ public class SeriesGeneration {
 		return sd;
 	}
 
+	public static SeriesData generateParallel(ISeriesFactory factory,
+			int runs, int batches) throws AggregationException, IOException,
+			MetricNotApplicableException {
+		return SeriesGeneration.generateParallel(factory, runs, batches, true,
+				true, true, 0, Config.getInt("GENERATION_RUN_THREADS"));
+	}
+
+	/**
+	 * Generates a SeriesData object for the series created by the given
+	 * factory where the runs are generated concurrently. Each run is computed
+	 * on a separate Series instance (and hence graph, batch generator, and
+	 * metrics) obtained from the factory and uses its own Random instance.
+	 * 
+	 * For a fixed seed and a reset of the seed for each run or batch, the
+	 * results are identical to the ones obtained by sequential generation. In
+	 * case the random seed is reset only once for the whole series (or never)
+	 * or in case counting or hotswapping is enabled, the runs are generated
+	 * sequentially.
+	 * 
+	 * @param factory
+	 *            factory that creates a new Series instance for each run
+	 * @param runs
+	 *            Amount of runs to be generated
+	 * @param batches
+	 *            Amount of badges to be generated
+	 * @param compare
+	 *            Flag that decides whether metrics will be automatically
+	 *            compared or not
+	 * @param aggregate
+	 *            Flag that decides whether data will be aggregated or not
+	 * @param write
+	 *            Flag that decides whether data will be written on the
+	 *            filesystem or not
+	 * @param batchGenerationTime
+	 *            Long variable representing the artificial generation-time for
+	 *            each batch. Used to simulate a live system.
+	 * @param threads
+	 *            maximum number of runs generated concurrently (values <= 0
+	 *            use the number of available processors)
+	 * @return SeriesData object representing the given series
+	 * @throws AggregationException
+	 * @throws IOException
+	 * @throws MetricNotApplicableException
+	 */
+	public static SeriesData generateParallel(ISeriesFactory factory,
+			int runs, int batches, boolean compare, boolean aggregate,
+			boolean write, long batchGenerationTime, int threads)
+			throws AggregationException, IOException,
+			MetricNotApplicableException {
+		Series series = factory.newSeries();
+		if (!SeriesGeneration.isParallelizable(series)) {
+			return SeriesGeneration.generate(series, runs, batches, compare,
+					aggregate, write, batchGenerationTime);
+		}
+
+		Log.infoSep();
+		Log.info("generating series (parallel runs)");
+		Log.infoSep();
+		Log.info("gg = " + series.getGraphGenerator().getDescription());
+		Log.info("bg = " + series.getBatchGenerator().getDescription());
+		Log.info("p  = " + series.getDir());
+		Log.info("t  = " + SeriesGeneration.getRunThreads(threads)
+				+ " threads");
+
+		// generate all runs
+		SeriesGeneration.generateRunsParallel(factory, 0, runs - 1, batches,
+				compare, write, batchGenerationTime, threads);
+
+		// read series data structure for aggregation
+		SeriesData sd = SeriesData.read(series.getDir(), series.getName(),
+				false, false);
+
+		// compare metrics
+		if (compare) {
+			try {
+				sd.compareMetrics(true);
+			} catch (InterruptedException e) {
+				Log.warn("Error on comparing metrics");
+			}
+		}
+		// aggregate all runs
+		if (aggregate) {
+			Log.infoSep();
+
+			AggregatedSeries aSd = Aggregation.aggregateSeries(sd);
+			sd.setAggregation(aSd);
+			// end of aggregation
+			Log.infoSep();
+		}
+		return sd;
+	}
+
+	/**
+	 * Generates seperated runs for the series created by the given factory
+	 * concurrently. Parameters 'from' and 'to' mark the range (see
+	 * generateRuns). Each run is computed on a separate Series instance
+	 * obtained from the factory and uses its own Random instance.
+	 * 
+	 * @param factory
+	 *            factory that creates a new Series instance for each run
+	 * @param from
+	 *            Index of the first run
+	 * @param to
+	 *            Index of the last run
+	 * @param batches
+	 *            Amount of batches that will be generated
+	 * @param compare
+	 *            Flag that decides whether metrics will be automatically
+	 *            compared or not
+	 * @param write
+	 *            Flag that decides whether data will be written on the
+	 *            filesystem or not
+	 * @param batchGenerationTime
+	 *            Long variable representing the artificial generation-time for
+	 *            each batch. Used to simulate a live system.
+	 * @param threads
+	 *            maximum number of runs generated concurrently (values <= 0
+	 *            use the number of available processors)
+	 * @return SeriesData object containing the generated runs
+	 * @throws IOException
+	 * @throws MetricNotApplicableException
+	 */
+	public static SeriesData generateRunsParallel(ISeriesFactory factory,
+			int from, int to, int batches, boolean compare, boolean write,
+			long batchGenerationTime, int threads) throws IOException,
+			MetricNotApplicableException {
+		Series series = factory.newSeries();
+		if (!SeriesGeneration.isParallelizable(series)) {
+			return SeriesGeneration.generateRuns(series, from, to, batches,
+					compare, write, batchGenerationTime);
+		}
+
+		// make sure the config is loaded before workers access it
+		Config.get("GENERATION_AS_ZIP");
+
+		ExecutorService executor = Executors
+				.newFixedThreadPool(SeriesGeneration.getRunThreads(threads));
+		ArrayList<Future<Void>> futures = new ArrayList<Future<Void>>(to
+				- from + 1);
+		for (int r = from; r <= to; r++) {
+			futures.add(executor.submit(new RunGeneration(factory, r, batches,
+					compare, write, batchGenerationTime)));
+		}
+		executor.shutdown();
+
+		try {
+			for (Future<Void> f : futures) {
+				f.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("interrupted while generating runs", e);
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof MetricNotApplicableException) {
+				throw (MetricNotApplicableException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			} else if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// read structure
+		SeriesData sd = SeriesData.read(series.getDir(), series.getName(),
+				false, false);
+
+		// compare metrics
+		if (compare) {
+			try {
+				sd.compareMetrics(true);
+			} catch (InterruptedException e) {
+				Log.warn("Error on comparing metrics");
+			}
+		}
+
+		// return
+		return sd;
+	}
+
+	private static int getRunThreads(int threads) {
+		if (threads <= 0) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		return threads;
+	}
+
+	/**
+	 * Checks if the runs of the given series can be generated concurrently
+	 * without changing their results.
+	 * 
+	 * @param series
+	 *            series to check
+	 * @return true if runs can be generated concurrently
+	 */
+	private static boolean isParallelizable(Series series) {
+		if (series.getRandomSeedReset() != RandomSeedReset.eachRun
+				&& series.getRandomSeedReset() != RandomSeedReset.eachBatch) {
+			Log.warn("random seed is reset " + series.getRandomSeedReset()
+					+ " => generating runs sequentially");
+			return false;
+		}
+		if (Counting.isEnabled() || OperationSampling.isEnabled()
+				|| Hotswap.isEnabled()) {
+			// operations are counted / sampled in static counters
+			Log.warn("counting / sampling / hotswap enabled => generating runs sequentially");
+			return false;
+		}
+		if (Config.get("GENERATION_AS_ZIP").equals("runs")
+				|| Config.get("GENERATION_AS_ZIP").equals("batches")) {
+			// all zip files are written via the static ZipWriter file system
+			Log.warn("generating zip files => generating runs sequentially");
+			return false;
+		}
+		return true;
+	}
+
+	/**
+	 * Generates a single run on a separate Series instance using a
+	 * thread-local Random.
+	 */
+	private static class RunGeneration implements Callable<Void> {
+		private ISeriesFactory factory;
+		private int run;
+		private int batches;
+		private boolean compare;
+		private boolean write;
+		private long batchGenerationTime;
+
+		public RunGeneration(ISeriesFactory factory, int run, int batches,
+				boolean compare, boolean write, long batchGenerationTime) {
+			this.factory = factory;
+			this.run = run;
+			this.batches = batches;
+			this.compare = compare;
+			this.write = write;
+			this.batchGenerationTime = batchGenerationTime;
+		}
+
+		@Override
+		public Void call() throws Exception {
+			Series series = this.factory.newSeries();
+			series.setTimestampSeedOffset((long) this.run << 32);
+			Rand.initLocal(series.getSeed());
+			try {
+				if (series.getRandomSeedReset() == RandomSeedReset.eachRun) {
+					series.resetRand();
+				}
+				SeriesGeneration.generateRun(series, this.run, this.batches,
+						this.compare, this.write, this.batchGenerationTime);
+			} finally {
+				Rand.releaseLocal();
+			}
+			return null;
+		}
+	}
+
 	/**
 	 * Generates one run of a given series
 	 * 
@@ -258,11 +546,18 @@ public class SeriesGeneration {
 		// set zip flags
 		boolean zippedBatches = false;
 		boolean zippedRuns = false;
+		boolean storedRuns = false;
 
 		if (Config.get("GENERATION_AS_ZIP").equals("runs"))
 			zippedRuns = true;
 		if (Config.get("GENERATION_AS_ZIP").equals("batches"))
 			zippedBatches = true;
+		if (Config.get("GENERATION_AS_ZIP").equals("store"))
+			storedRuns = true;
+
+		// remove the records of a previous generation of this run
+		if (write && storedRuns)
+			RunStore.getRunStore(series.getDir(), run).delete();
 
 		// reset batch generator
 		series.getBatchGenerator().reset();
@@ -319,8 +614,8 @@ public class SeriesGeneration {
 							+ Dir.tempSuffix
 							+ Dir.delimiter;
 
-					// write, for zipped runs use actual dir
-					if (zippedRuns)
+					// write, for zipped or stored runs use actual dir
+					if (zippedRuns || storedRuns)
 						batchData.writeIntelligent(actualDir);
 					else
 						batchData.writeIntelligent(tempDir);
@@ -345,7 +640,7 @@ public class SeriesGeneration {
 					}
 
 					// rename
-					if (!zippedRuns) {
+					if (!zippedRuns && !storedRuns) {
 						File f1 = new File(tempDir);
 						File f2 = new File(actualDir);
 						if (f1.exists()) {
@@ -367,6 +662,10 @@ public class SeriesGeneration {
 				gcCounter++;
 			}
 		}
+
+		// the run is complete, its store is not kept open
+		if (write && storedRuns)
+			RunStore.closeRunStore(series.getDir(), run);
 	}
 
 	private static boolean compareMetrics(Series series) {
@@ -463,6 +762,15 @@ public class SeriesGeneration {
 			Algorithms algorithms) throws MetricNotApplicableException {
 		BatchData initialData = computeInitialData(series, algorithms);
 
+		// operations of the initial graph generation are not representative
+		// for the batches
+		if (OperationSampling.isEnabled()) {
+			OperationSampling.reset();
+			if (Hotswap.isEnabled() && !Counting.isEnabled()) {
+				initialData.getValues().add(new Value("hotswap", 0.0));
+			}
+		}
+
 		// add values
 		initialData.getValues().add(new Value("randomSeed", series.getSeed()));
 
@@ -604,6 +912,17 @@ public class SeriesGeneration {
 
 		BatchData batchData = computeNextBatch(series, algorithms);
 
+		// hotswap based on sampled operations (without counting aspects)
+		if (OperationSampling.isEnabled()) {
+			OperationSampling.endRound(series.getGraph());
+			if (Hotswap.isEnabled() && !Counting.isEnabled()) {
+				boolean swapped = Hotswap.swap(series.getGraph());
+				Hotswap.migrate(series.getGraph());
+				batchData.getValues().add(
+						new Value("hotswap", swapped ? 1.0 : 0.0));
+			}
+		}
+
 		// add values
 		batchData.getValues().add(
 				new Value(SeriesStats.nodesToAdd, batchData.getBatch()
@@ -692,6 +1011,16 @@ public class SeriesGeneration {
 			Iterable<NodeAddition> updates) {
 		int counter = 0;
 
+		for (IBeforeNAs m : algorithms.beforeNAs) {
+			if (!m.applyBeforeNAs(updates)) {
+				Log.error("could not apply before updates to metric "
+						+ m.getDescription());
+			}
+		}
+
+		ArrayList<NodeAddition> applied = algorithms.afterNAs.length == 0 ? null
+				: new ArrayList<NodeAddition>();
+
 		for (NodeAddition u : updates) {
 			for (IBeforeNA m : algorithms.beforeUpdateNA) {
 				if (!m.applyBeforeUpdate(u)) {
@@ -706,6 +1035,9 @@ public class SeriesGeneration {
 				continue;
 			}
 			counter++;
+			if (applied != null) {
+				applied.add(u);
+			}
 
 			for (IAfterNA m : algorithms.afterUpdateNA) {
 				if (!m.applyAfterUpdate(u)) {
@@ -715,6 +1047,13 @@ public class SeriesGeneration {
 			}
 		}
 
+		for (IAfterNAs m : algorithms.afterNAs) {
+			if (!m.applyAfterNAs(applied)) {
+				Log.error("could not apply after updates to metric "
+						+ m.getDescription());
+			}
+		}
+
 		return counter;
 	}
 
@@ -722,6 +1061,16 @@ public class SeriesGeneration {
 			Iterable<NodeRemoval> updates) {
 		int counter = 0;
 
+		for (IBeforeNRs m : algorithms.beforeNRs) {
+			if (!m.applyBeforeNRs(updates)) {
+				Log.error("could not apply before updates to metric "
+						+ m.getDescription());
+			}
+		}
+
+		ArrayList<NodeRemoval> applied = algorithms.afterNRs.length == 0 ? null
+				: new ArrayList<NodeRemoval>();
+
 		for (NodeRemoval u : updates) {
 			for (IBeforeNR m : algorithms.beforeUpdateNR) {
 				if (!m.applyBeforeUpdate(u)) {
@@ -736,6 +1085,9 @@ public class SeriesGeneration {
 				continue;
 			}
 			counter++;
+			if (applied != null) {
+				applied.add(u);
+			}
 
 			for (IAfterNR m : algorithms.afterUpdateNR) {
 				if (!m.applyAfterUpdate(u)) {
@@ -745,6 +1097,13 @@ public class SeriesGeneration {
 			}
 		}
 
+		for (IAfterNRs m : algorithms.afterNRs) {
+			if (!m.applyAfterNRs(applied)) {
+				Log.error("could not apply after updates to metric "
+						+ m.getDescription());
+			}
+		}
+
 		return counter;
 	}
 
@@ -752,6 +1111,16 @@ public class SeriesGeneration {
 			Iterable<NodeWeight> updates) {
 		int counter = 0;
 
+		for (IBeforeNWs m : algorithms.beforeNWs) {
+			if (!m.applyBeforeNWs(updates)) {
+				Log.error("could not apply before updates to metric "
+						+ m.getDescription());
+			}
+		}
+
+		ArrayList<NodeWeight> applied = algorithms.afterNWs.length == 0 ? null
+				: new ArrayList<NodeWeight>();
+
 		for (NodeWeight u : updates) {
 			for (IBeforeNW m : algorithms.beforeUpdateNW) {
 				if (!m.applyBeforeUpdate(u)) {
@@ -766,6 +1135,9 @@ public class SeriesGeneration {
 				continue;
 			}
 			counter++;
+			if (applied != null) {
+				applied.add(u);
+			}
 
 			for (IAfterNW m : algorithms.afterUpdateNW) {
 				if (!m.applyAfterUpdate(u)) {
@@ -775,6 +1147,13 @@ public class SeriesGeneration {
 			}
 		}
 
+		for (IAfterNWs m : algorithms.afterNWs) {
+			if (!m.applyAfterNWs(applied)) {
+				Log.error("could not apply after updates to metric "
+						+ m.getDescription());
+			}
+		}
+
 		return counter;
 	}
 
@@ -782,6 +1161,16 @@ public class SeriesGeneration {
 			Iterable<EdgeAddition> updates) {
 		int counter = 0;
 
+		for (IBeforeEAs m : algorithms.beforeEAs) {
+			if (!m.applyBeforeEAs(updates)) {
+				Log.error("could not apply before updates to metric "
+						+ m.getDescription());
+			}
+		}
+
+		ArrayList<EdgeAddition> applied = algorithms.afterEAs.length == 0 ? null
+				: new ArrayList<EdgeAddition>();
+
 		for (EdgeAddition u : updates) {
 			for (IBeforeEA m : algorithms.beforeUpdateEA) {
 				if (!m.applyBeforeUpdate(u)) {
@@ -796,6 +1185,9 @@ public class SeriesGeneration {
 				continue;
 			}
 			counter++;
+			if (applied != null) {
+				applied.add(u);
+			}
 
 			for (IAfterEA m : algorithms.afterUpdateEA) {
 				if (!m.applyAfterUpdate(u)) {
@@ -805,6 +1197,13 @@ public class SeriesGeneration {
 			}
 		}
 
+		for (IAfterEAs m : algorithms.afterEAs) {
+			if (!m.applyAfterEAs(applied)) {
+				Log.error("could not apply after updates to metric "
+						+ m.getDescription());
+			}
+		}
+
 		return counter;
 	}
 
@@ -812,6 +1211,16 @@ public class SeriesGeneration {
 			Iterable<EdgeRemoval> updates) {
 		int counter = 0;
 
+		for (IBeforeERs m : algorithms.beforeERs) {
+			if (!m.applyBeforeERs(updates)) {
+				Log.error("could not apply before updates to metric "
+						+ m.getDescription());
+			}
+		}
+
+		ArrayList<EdgeRemoval> applied = algorithms.afterERs.length == 0 ? null
+				: new ArrayList<EdgeRemoval>();
+
 		for (EdgeRemoval u : updates) {
 			for (IBeforeER m : algorithms.beforeUpdateER) {
 				if (!m.applyBeforeUpdate(u)) {
@@ -826,6 +1235,9 @@ public class SeriesGeneration {
 				continue;
 			}
 			counter++;
+			if (applied != null) {
+				applied.add(u);
+			}
 
 			for (IAfterER m : algorithms.afterUpdateER) {
 				if (!m.applyAfterUpdate(u)) {
@@ -835,6 +1247,13 @@ public class SeriesGeneration {
 			}
 		}
 
+		for (IAfterERs m : algorithms.afterERs) {
+			if (!m.applyAfterERs(applied)) {
+				Log.error("could not apply after updates to metric "
+						+ m.getDescription());
+			}
+		}
+
 		return counter;
 	}
 
@@ -842,6 +1261,16 @@ public class SeriesGeneration {
 			Iterable<EdgeWeight> updates) {
 		int counter = 0;
 
+		for (IBeforeEWs m : algorithms.beforeEWs) {
+			if (!m.applyBeforeEWs(updates)) {
+				Log.error("could not apply before updates to metric "
+						+ m.getDescription());
+			}
+		}
+
+		ArrayList<EdgeWeight> applied = algorithms.afterEWs.length == 0 ? null
+				: new ArrayList<EdgeWeight>();
+
 		for (EdgeWeight u : updates) {
 			for (IBeforeEW m : algorithms.beforeUpdateEW) {
 				if (!m.applyBeforeUpdate(u)) {
@@ -856,6 +1285,9 @@ public class SeriesGeneration {
 				continue;
 			}
 			counter++;
+			if (applied != null) {
+				applied.add(u);
+			}
 
 			for (IAfterEW m : algorithms.afterUpdateEW) {
 				if (!m.applyAfterUpdate(u)) {
@@ -865,6 +1297,13 @@ public class SeriesGeneration {
 			}
 		}
 
+		for (IAfterEWs m : algorithms.afterEWs) {
+			if (!m.applyAfterEWs(applied)) {
+				Log.error("could not apply after updates to metric "
+						+ m.getDescription());
+			}
+		}
+
 		return counter;
 	}
 
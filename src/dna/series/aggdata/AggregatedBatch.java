@@ -2,6 +2,7 @@ package dna.series.aggdata;
 
 import java.io.IOException;
 
+import dna.io.RunStore;
 import dna.io.ZipReader;
 import dna.io.ZipWriter;
 import dna.io.filesystem.Dir;
@@ -180,6 +181,9 @@ public class AggregatedBatch implements IBatch {
 				}
 			}
 
+		} else if (Config.get("GENERATION_AS_ZIP").equals("store")) {
+			// append batch to the aggregation store
+			RunStore.getIntelligent(dir).append(this);
 		} else {
 			// write normal batch
 			this.write(dir);
@@ -285,6 +289,10 @@ public class AggregatedBatch implements IBatch {
 					break;
 				}
 			}
+		} else if (Config.get("GENERATION_AS_ZIP").equals("store")) {
+			// get batch from the aggregation store
+			temp = RunStore.getIntelligent(dir).readAggregatedBatch(timestamp,
+					batchReadMode);
 		} else {
 			// get batch
 			temp = AggregatedBatch.read(dir, timestamp, batchReadMode);
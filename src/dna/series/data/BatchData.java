@@ -3,6 +3,7 @@ package dna.series.data;
 import java.io.IOException;
 import java.util.ArrayList;
 
+import dna.io.RunStore;
 import dna.io.ZipReader;
 import dna.io.ZipWriter;
 import dna.io.filesystem.Dir;
@@ -136,6 +137,9 @@ public class BatchData implements IBatch {
 	 * Zipped-Run will write the batch into the run-zip as
 	 * "data/scenario.1/series/run.0.zip/batch.0/".
 	 * 
+	 * Store will append the batch to the run store
+	 * "data/scenario.1/series/run.0.store".
+	 * 
 	 * @throws IOException
 	 **/
 	public void writeIntelligent(String dir) throws IOException {
@@ -206,6 +210,9 @@ public class BatchData implements IBatch {
 				}
 			}
 
+		} else if (Config.get("GENERATION_AS_ZIP").equals("store")) {
+			// append batch to the run store
+			RunStore.getIntelligent(dir).append(this);
 		} else {
 			// write normal batch
 			this.write(dir);
@@ -317,6 +324,10 @@ public class BatchData implements IBatch {
 					break;
 				}
 			}
+		} else if (Config.get("GENERATION_AS_ZIP").equals("store")) {
+			// get batch from the run store
+			temp = RunStore.getIntelligent(dir).readBatch(timestamp,
+					BatchReadMode.readAllValues);
 		} else {
 			// get batch
 			temp = BatchData.readBatchValues(dir, timestamp, b);
@@ -556,6 +567,10 @@ public class BatchData implements IBatch {
 					break;
 				}
 			}
+		} else if (Config.get("GENERATION_AS_ZIP").equals("store")) {
+			// get batch from the run store
+			temp = RunStore.getIntelligent(dir).readBatch(timestamp,
+					batchReadMode);
 		} else {
 			// get batch
 			temp = BatchData.read(dir, timestamp, batchReadMode);
@@ -2,6 +2,7 @@ package dna.series.data;
 
 import java.io.IOException;
 
+import dna.io.RunStore;
 import dna.io.ZipReader;
 import dna.io.filesystem.Dir;
 import dna.series.aggdata.AggregatedBatch.BatchReadMode;
@@ -59,6 +60,9 @@ public class RunData {
 
 	public static RunData read(String dir, int run, BatchReadMode batchReadMode)
 			throws NumberFormatException, IOException {
+		if (Config.get("GENERATION_AS_ZIP").equals("store"))
+			return RunStore.getIntelligent(dir).readRun(run, batchReadMode);
+
 		String[] batches = Dir.getBatches(dir);
 		RunData runData = new RunData(run, batches.length);
 
@@ -116,7 +116,7 @@ public class SeriesData {
 
 		for (String run : runs) {
 			int runId = Dir.getRun(run.replace(Config.get("SUFFIX_ZIP_FILE"),
-					""));
+					"").replace(Config.get("SUFFIX_STORE_FILE"), ""));
 
 			if (Config.get("GENERATION_AS_ZIP").equals("runs")) {
 				runList[runId] = RunData.readFromSingleFile(dir, Dir.delimiter,
@@ -102,6 +102,30 @@ public abstract class BinnedDistr<T> extends Distr<T, long[]> {
 		return this.values[index];
 	}
 
+	/**
+	 * adds the occurrences of all values (and the denominator) of the given
+	 * distribution to this one. both distributions must use the same bin size.
+	 *
+	 * @param d
+	 *            distribution whose occurrences are added
+	 */
+	public void add(BinnedDistr<T> d) {
+		if (!this.binSize.equals(d.binSize)) {
+			throw new IllegalArgumentException("cannot add distribution "
+					+ d.getName() + " with bin size " + d.binSize + " to "
+					+ this.getName() + " with bin size " + this.binSize);
+		}
+		if (d.values.length > this.values.length) {
+			long[] temp = this.values;
+			this.values = new long[d.values.length];
+			System.arraycopy(temp, 0, this.values, 0, temp.length);
+		}
+		for (int i = 0; i < d.values.length; i++) {
+			this.values[i] += d.values[i];
+		}
+		this.denominator += d.denominator;
+	}
+
 	/**
 	 * truncates the array used to store the occurrences of the respective
 	 * values, i.e., removes all tailing entries with a value of 0 occurrences.
@@ -0,0 +1,247 @@
+package dna.series.data.nodevaluelists;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.LongBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+import dna.util.Log;
+
+/**
+ * A NodeNodeValueList whose n*n values are stored in a temporary file that is
+ * mapped into memory, i.e., the values are paged in and out by the operating
+ * system instead of occupying the heap. The file is mapped in chunks of rows
+ * as a single mapping is limited to 2GB.
+ *
+ * The values are stored XOR-ed with the bits of the emptyValue so that the
+ * zeros of a new (sparse) file represent empty values and the file does not
+ * have to be initialized. Expanding or truncating the list requires copying
+ * all values into a new file, the size should therefore be known when it is
+ * created.
+ */
+public class MappedNodeNodeValueList extends NodeNodeValueList {
+
+	private static final long emptyBits = Double
+			.doubleToRawLongBits(NodeNodeValueList.emptyValue);
+
+	private static final int MaxChunkLength = Integer.MAX_VALUE / 8;
+
+	private int size;
+
+	private int rowsPerChunk;
+
+	private LongBuffer[] chunks;
+
+	public MappedNodeNodeValueList(String name, int size) {
+		super(name, (double[][]) null);
+		this.map(size);
+	}
+
+	/*
+	 * GET METHODS
+	 */
+
+	/** Materializes and returns the full value field of this object. **/
+	@Override
+	public double[][] getValues() {
+		double[][] values = new double[this.size][];
+		for (int i = 0; i < this.size; i++) {
+			values[i] = this.getValuesByIndex(i);
+		}
+		return values;
+	}
+
+	@Override
+	public int getSize() {
+		return this.size;
+	}
+
+	/**
+	 * Returns (a copy of) the node values of the node with the given index.
+	 **/
+	@Override
+	public double[] getValuesByIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			Log.error("NodeNodeValueList IndexOutOfBoundsException");
+			return new double[0];
+		}
+		double[] row = new double[this.size];
+		LongBuffer chunk = this.chunks[index / this.rowsPerChunk];
+		int offset = (index % this.rowsPerChunk) * this.size;
+		for (int j = 0; j < this.size; j++) {
+			row[j] = Double.longBitsToDouble(chunk.get(offset + j) ^ emptyBits);
+		}
+		return row;
+	}
+
+	@Override
+	public double getValue(int index1, int index2) {
+		if (index1 < 0 || index1 >= this.size || index2 < 0
+				|| index2 >= this.size) {
+			Log.error("NodeNodeValueList IndexOutOfBoundsException");
+			return 0;
+		}
+		return this.get(index1, index2);
+	}
+
+	/*
+	 * SET METHODS
+	 */
+
+	@Override
+	public void setValues(double[][] values) {
+		int size = values.length;
+		for (double[] row : values) {
+			size = Math.max(size, row.length);
+		}
+		this.map(size);
+		for (int i = 0; i < values.length; i++) {
+			this.setRow(i, values[i]);
+		}
+	}
+
+	@Override
+	public void setValuesByIndex(int index, double[] values) {
+		this.resize(Math.max(index + 1, values.length));
+		this.setRow(index, values);
+	}
+
+	@Override
+	public void setValueByColumnIndex(int index, double value) {
+		this.resize(index + 1);
+		for (int i = 0; i < this.size; i++) {
+			this.set(i, index, value);
+		}
+	}
+
+	@Override
+	public void setValueByRowIndex(int index, double value) {
+		this.resize(index + 1);
+		for (int i = 0; i < this.size; i++) {
+			this.set(i, index, NodeNodeValueList.emptyValue);
+			this.set(index, i, value);
+		}
+	}
+
+	@Override
+	public void setValue(int index1, int index2, double value) {
+		if (index1 < 0 || index2 < 0) {
+			Log.error("NodeNodeValueList IndexOutOfBoundsException e");
+			return;
+		}
+		this.resize(Math.max(index1, index2) + 1);
+		this.set(index1, index2, value);
+	}
+
+	/*
+	 * CLASS METHODS
+	 */
+
+	@Override
+	public void truncate() {
+		int sizeNew = 0;
+		for (int i = 0; i < this.size; i++) {
+			for (int j = 0; j < this.size; j++) {
+				if (!Double.isNaN(this.get(i, j)))
+					sizeNew = Math.max(sizeNew, Math.max(i, j) + 1);
+			}
+		}
+		if (sizeNew < this.size)
+			this.copyTo(sizeNew);
+	}
+
+	private double get(int row, int column) {
+		return Double.longBitsToDouble(this.chunks[row / this.rowsPerChunk]
+				.get((row % this.rowsPerChunk) * this.size + column)
+				^ emptyBits);
+	}
+
+	private void set(int row, int column, double value) {
+		this.chunks[row / this.rowsPerChunk].put((row % this.rowsPerChunk)
+				* this.size + column, Double.doubleToRawLongBits(value)
+				^ emptyBits);
+	}
+
+	/** Replaces the given row, missing values are set to the emptyValue. **/
+	private void setRow(int row, double[] values) {
+		for (int j = 0; j < this.size; j++) {
+			this.set(row, j, j < values.length ? values[j]
+					: NodeNodeValueList.emptyValue);
+		}
+	}
+
+	/** Expands the rows and columns to the given size (if necessary). **/
+	private void resize(int size) {
+		if (size > this.size)
+			this.copyTo(size);
+	}
+
+	/** Copies all values (that fit) into a new file of the given size. **/
+	private void copyTo(int size) {
+		int sizeOld = this.size;
+		int rowsPerChunkOld = this.rowsPerChunk;
+		LongBuffer[] chunksOld = this.chunks;
+		this.map(size);
+		int copy = Math.min(size, sizeOld);
+		for (int i = 0; i < copy; i++) {
+			LongBuffer from = chunksOld[i / rowsPerChunkOld];
+			int offset = (i % rowsPerChunkOld) * sizeOld;
+			for (int j = 0; j < copy; j++) {
+				this.chunks[i / this.rowsPerChunk].put(
+						(i % this.rowsPerChunk) * size + j,
+						from.get(offset + j));
+			}
+		}
+	}
+
+	/**
+	 * Maps a new temporary file containing size * size empty values. The file
+	 * is deleted right away (the mapping remains valid) or, if that is not
+	 * possible, when the JVM exits.
+	 */
+	private void map(int size) {
+		this.size = size;
+		this.rowsPerChunk = Math.max(1, MaxChunkLength / Math.max(1, size));
+		int chunks = (size + this.rowsPerChunk - 1) / this.rowsPerChunk;
+		this.chunks = new LongBuffer[chunks];
+		if (size == 0)
+			return;
+
+		try {
+			File file = File.createTempFile("nnvl", ".tmp");
+			RandomAccessFile raf = new RandomAccessFile(file, "rw");
+			try {
+				raf.setLength((long) size * size * 8);
+				FileChannel channel = raf.getChannel();
+				for (int c = 0; c < chunks; c++) {
+					long rows = Math.min(this.rowsPerChunk, size - (long) c
+							* this.rowsPerChunk);
+					this.chunks[c] = channel.map(MapMode.READ_WRITE,
+							(long) c * this.rowsPerChunk * size * 8,
+							rows * size * 8).asLongBuffer();
+				}
+			} finally {
+				raf.close();
+			}
+			if (!file.delete())
+				file.deleteOnExit();
+		} catch (IOException e) {
+			throw new IllegalStateException(
+					"could not map values of nodenodevaluelist \""
+							+ this.getName() + "\" of size " + size, e);
+		}
+	}
+
+	/*
+	 * IO METHODS
+	 */
+
+	@Override
+	public void write(String dir, String filename) throws IOException {
+		Log.debug("WRITING MappedNodeNodeValueList '" + filename + "' to "
+				+ dir);
+		this.writeRows(dir, filename);
+	}
+}
@@ -21,6 +21,12 @@ import dna.util.Log;
  * used to store the data will always have the same amount of rows and columns.
  * The use of truncate allows to free unused index-space.
  * 
+ * Besides this dense implementation, a sparse (SparseNodeNodeValueList) and a
+ * file-backed, memory-mapped (MappedNodeNodeValueList) implementation are
+ * available for large numbers of nodes. A metric selects one of them using
+ * create(name, size, storage). Note that getValues() materializes the full
+ * matrix for these implementations and should be avoided.
+ * 
  * @author Rwilmes
  * @date 02.02.2014
  */
@@ -30,6 +36,43 @@ public class NodeNodeValueList extends Data {
 	private double[][] values;
 	public static final double emptyValue = Double.NaN;
 
+	/**
+	 * dense: double[][] in memory, sparse: only values != emptyValue are
+	 * stored in memory (row-compressed), mapped: double[][] in a
+	 * memory-mapped temporary file
+	 */
+	public static enum Storage {
+		dense, sparse, mapped
+	};
+
+	/**
+	 * Creates a NodeNodeValueList of the given size using the given storage,
+	 * all values are initialized with the emptyValue.
+	 */
+	public static NodeNodeValueList create(String name, int size,
+			Storage storage) {
+		switch (storage) {
+		case sparse:
+			return new SparseNodeNodeValueList(name, size);
+		case mapped:
+			return new MappedNodeNodeValueList(name, size);
+		default:
+			return new NodeNodeValueList(name, size);
+		}
+	}
+
+	/**
+	 * Returns the storage used for dense NodeNodeValueLists of the given size
+	 * that are read, i.e., mapped in case the size exceeds
+	 * NODENODEVALUELIST_MAPPED_SIZE and dense otherwise.
+	 */
+	public static Storage getReadStorage(int size) {
+		int mappedSize = Config.getInt("NODENODEVALUELIST_MAPPED_SIZE");
+		if (mappedSize > 0 && size >= mappedSize)
+			return Storage.mapped;
+		return Storage.dense;
+	}
+
 	// constructors
 	public NodeNodeValueList(String name, int size) {
 		this(name, new double[size][size]);
@@ -54,6 +97,13 @@ public class NodeNodeValueList extends Data {
 		return this.values;
 	}
 
+	/** Returns the amount of rows (and columns) of this object. **/
+	public int getSize() {
+		if (this.values == null)
+			return 0;
+		return this.values.length;
+	}
+
 	/** Returns the node values of the node with the given index. **/
 	public double[] getValuesByIndex(int index) {
 		try {
@@ -281,16 +331,16 @@ public class NodeNodeValueList extends Data {
 
 	/** Prints all values **/
 	public void printValues() {
+		int size = this.getSize();
 		System.out.println("Printing values of '" + this.getName()
-				+ "' with Dimension: " + this.values.length + "x"
-				+ this.values.length);
+				+ "' with Dimension: " + size + "x" + size);
 		String columns = "\t";
-		for (int i = 0; i < this.values.length; i++) {
+		for (int i = 0; i < size; i++) {
 			columns += i + ":\t";
 		}
 		System.out.println(columns);
-		for (int i = 0; i < this.values.length; i++) {
-			double[] t = this.values[i];
+		for (int i = 0; i < size; i++) {
+			double[] t = this.getValuesByIndex(i);
 			String output = "" + i + ":\t";
 			for (int j = 0; j < t.length; j++) {
 				output += t[j] + "\t";
@@ -319,15 +369,23 @@ public class NodeNodeValueList extends Data {
 			throw new NullPointerException("no values for nodenodevaluelist \""
 					+ super.getName() + "\" set to be written to " + dir);
 		}
+		this.writeRows(dir, filename);
+	}
 
+	/** Writes all rows one after the other in the dense format. **/
+	protected void writeRows(String dir, String filename) throws IOException {
 		Writer w = Writer.getWriter(dir, filename);
-
-		for (int i = 0; i < this.values.length; i++) {
-			String line = i + Config.get("DATA_DELIMITER");
-			for (int j = 0; j < this.values.length; j++) {
-				line += this.values[i][j] + Config.get("DATA_DELIMITER");
+		String delimiter = Config.get("DATA_DELIMITER");
+		int size = this.getSize();
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < size; i++) {
+			double[] row = this.getValuesByIndex(i);
+			line.setLength(0);
+			line.append(i).append(delimiter);
+			for (int j = 0; j < size; j++) {
+				line.append(row[j]).append(delimiter);
 			}
-			w.writeln(line);
+			w.writeln(line.toString());
 		}
 		w.close();
 	}
@@ -345,6 +403,11 @@ public class NodeNodeValueList extends Data {
 	 * @param readValues
 	 *            Boolean. True: values from the file will be read. False: empty
 	 *            NodeValueList will be created.
+	 * 
+	 * Note: Lists written in the sparse format are read as
+	 * SparseNodeNodeValueList, dense lists are read into a
+	 * MappedNodeNodeValueList in case their size exceeds
+	 * NODENODEVALUELIST_MAPPED_SIZE.
 	 */
 	public static NodeNodeValueList read(String dir, String filename,
 			String name, boolean readValues) throws IOException {
@@ -353,10 +416,16 @@ public class NodeNodeValueList extends Data {
 		}
 
 		Reader r = Reader.getReader(dir, filename);
+		String line = r.readString();
+		if (line != null
+				&& line.startsWith(Config.get("KEYWORDS_NNVL_SPARSE"))) {
+			return SparseNodeNodeValueList.read(r, line, name);
+		}
+
 		ArrayList<double[]> list = new ArrayList<double[]>();
-		String line = null;
+		NodeNodeValueList mapped = null;
 		int index = 0;
-		while ((line = r.readString()) != null) {
+		while (line != null) {
 			String[] temp = line.split(Config.get("DATA_DELIMITER"));
 			if (Integer.parseInt(temp[0]) != index) {
 				throw new InvalidFormatException("expected index " + index
@@ -366,14 +435,25 @@ public class NodeNodeValueList extends Data {
 			for (int i = 1; i < temp.length; i++) {
 				tempValues[i - 1] = Double.parseDouble(temp[i]);
 			}
-			list.add(tempValues);
+			if (index == 0
+					&& getReadStorage(tempValues.length) == Storage.mapped) {
+				mapped = create(name, tempValues.length, Storage.mapped);
+			}
+			if (mapped != null)
+				mapped.setValuesByIndex(index, tempValues);
+			else
+				list.add(tempValues);
 			index++;
+			line = r.readString();
 		}
+		r.close();
+		if (mapped != null)
+			return mapped;
+
 		double[][] values = new double[list.size()][];
 		for (int i = 0; i < list.size(); i++) {
 			values[i] = list.get(i);
 		}
-		r.close();
 		return new NodeNodeValueList(name, values);
 	}
 }
@@ -0,0 +1,340 @@
+package dna.series.data.nodevaluelists;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import dna.io.Reader;
+import dna.io.Writer;
+import dna.util.Config;
+import dna.util.Log;
+
+/**
+ * A NodeNodeValueList that only stores the values that differ from the
+ * emptyValue. The entries of each row are stored as two arrays (column indices
+ * and values) sorted by column index, i.e., the memory required is linear in
+ * the number of set values instead of quadratic in the number of nodes.
+ * Accessing a single value requires a binary search in its row.
+ *
+ * The list is written in a sparse format: a header line with the size,
+ * followed by one line per non-empty row containing its index and pairs of
+ * column index and value.
+ */
+public class SparseNodeNodeValueList extends NodeNodeValueList {
+
+	private int size;
+
+	private int[][] columns;
+
+	private double[][] entries;
+
+	private int[] counts;
+
+	public SparseNodeNodeValueList(String name, int size) {
+		super(name, (double[][]) null);
+		this.size = 0;
+		this.columns = new int[0][];
+		this.entries = new double[0][];
+		this.counts = new int[0];
+		this.resize(size);
+	}
+
+	/*
+	 * GET METHODS
+	 */
+
+	/** Materializes and returns the full value field of this object. **/
+	@Override
+	public double[][] getValues() {
+		double[][] values = new double[this.size][];
+		for (int i = 0; i < this.size; i++) {
+			values[i] = this.getValuesByIndex(i);
+		}
+		return values;
+	}
+
+	@Override
+	public int getSize() {
+		return this.size;
+	}
+
+	/** Returns the amount of values that differ from the emptyValue. **/
+	public long getEntries() {
+		long entries = 0;
+		for (int i = 0; i < this.size; i++) {
+			entries += this.counts[i];
+		}
+		return entries;
+	}
+
+	/**
+	 * Returns the amount of values of the node with the given index that
+	 * differ from the emptyValue.
+	 */
+	public int getEntryCount(int index) {
+		return this.counts[index];
+	}
+
+	/**
+	 * Returns the column index of the k-th value of the node with the given
+	 * index (in ascending order of the column indices).
+	 */
+	public int getEntryColumn(int index, int k) {
+		return this.columns[index][k];
+	}
+
+	/** Returns the k-th value of the node with the given index. **/
+	public double getEntryValue(int index, int k) {
+		return this.entries[index][k];
+	}
+
+	/**
+	 * Returns (a copy of) the node values of the node with the given index.
+	 **/
+	@Override
+	public double[] getValuesByIndex(int index) {
+		if (index < 0 || index >= this.size) {
+			Log.error("NodeNodeValueList IndexOutOfBoundsException");
+			return new double[0];
+		}
+		double[] row = new double[this.size];
+		Arrays.fill(row, NodeNodeValueList.emptyValue);
+		for (int k = 0; k < this.counts[index]; k++) {
+			row[this.columns[index][k]] = this.entries[index][k];
+		}
+		return row;
+	}
+
+	@Override
+	public double getValue(int index1, int index2) {
+		if (index1 < 0 || index1 >= this.size || index2 < 0
+				|| index2 >= this.size) {
+			Log.error("NodeNodeValueList IndexOutOfBoundsException");
+			return 0;
+		}
+		int k = this.find(index1, index2);
+		if (k < 0)
+			return NodeNodeValueList.emptyValue;
+		return this.entries[index1][k];
+	}
+
+	/*
+	 * SET METHODS
+	 */
+
+	@Override
+	public void setValues(double[][] values) {
+		this.size = 0;
+		this.columns = new int[0][];
+		this.entries = new double[0][];
+		this.counts = new int[0];
+		int size = values.length;
+		for (double[] row : values) {
+			size = Math.max(size, row.length);
+		}
+		this.resize(size);
+		for (int i = 0; i < values.length; i++) {
+			this.setRow(i, values[i]);
+		}
+	}
+
+	@Override
+	public void setValuesByIndex(int index, double[] values) {
+		this.resize(Math.max(index + 1, values.length));
+		this.setRow(index, values);
+	}
+
+	@Override
+	public void setValueByColumnIndex(int index, double value) {
+		this.resize(index + 1);
+		for (int i = 0; i < this.size; i++) {
+			this.set(i, index, value);
+		}
+	}
+
+	@Override
+	public void setValueByRowIndex(int index, double value) {
+		this.resize(index + 1);
+		for (int i = 0; i < this.size; i++) {
+			this.set(i, index, NodeNodeValueList.emptyValue);
+			this.set(index, i, value);
+		}
+	}
+
+	@Override
+	public void setValue(int index1, int index2, double value) {
+		if (index1 < 0 || index2 < 0) {
+			Log.error("NodeNodeValueList IndexOutOfBoundsException e");
+			return;
+		}
+		this.resize(Math.max(index1, index2) + 1);
+		this.set(index1, index2, value);
+	}
+
+	/*
+	 * CLASS METHODS
+	 */
+
+	@Override
+	public void truncate() {
+		int sizeNew = 0;
+		for (int i = 0; i < this.size; i++) {
+			if (this.counts[i] > 0) {
+				sizeNew = Math.max(sizeNew, i + 1);
+				sizeNew = Math.max(sizeNew,
+						this.columns[i][this.counts[i] - 1] + 1);
+			}
+		}
+		if (sizeNew < this.size) {
+			this.size = sizeNew;
+			this.columns = Arrays.copyOf(this.columns, sizeNew);
+			this.entries = Arrays.copyOf(this.entries, sizeNew);
+			this.counts = Arrays.copyOf(this.counts, sizeNew);
+		}
+	}
+
+	/** Expands the rows and columns to the given size (if necessary). **/
+	private void resize(int size) {
+		if (size <= this.size)
+			return;
+		if (size > this.counts.length) {
+			int capacity = Math.max(size, this.counts.length * 2);
+			this.columns = Arrays.copyOf(this.columns, capacity);
+			this.entries = Arrays.copyOf(this.entries, capacity);
+			this.counts = Arrays.copyOf(this.counts, capacity);
+		}
+		for (int i = this.size; i < size; i++) {
+			this.columns[i] = null;
+			this.entries[i] = null;
+			this.counts[i] = 0;
+		}
+		this.size = size;
+	}
+
+	/** Returns the position of the column in the row or -(insertion + 1). **/
+	private int find(int row, int column) {
+		if (this.counts[row] == 0)
+			return -1;
+		return Arrays.binarySearch(this.columns[row], 0, this.counts[row],
+				column);
+	}
+
+	private void set(int row, int column, double value) {
+		int k = this.find(row, column);
+		if (Double.isNaN(value)) {
+			// remove entry
+			if (k >= 0) {
+				int moved = this.counts[row] - k - 1;
+				System.arraycopy(this.columns[row], k + 1, this.columns[row],
+						k, moved);
+				System.arraycopy(this.entries[row], k + 1, this.entries[row],
+						k, moved);
+				this.counts[row]--;
+			}
+		} else if (k >= 0) {
+			this.entries[row][k] = value;
+		} else {
+			// insert entry
+			k = -(k + 1);
+			int count = this.counts[row];
+			if (this.columns[row] == null) {
+				this.columns[row] = new int[4];
+				this.entries[row] = new double[4];
+			} else if (count == this.columns[row].length) {
+				this.columns[row] = Arrays.copyOf(this.columns[row], count * 2);
+				this.entries[row] = Arrays.copyOf(this.entries[row], count * 2);
+			}
+			System.arraycopy(this.columns[row], k, this.columns[row], k + 1,
+					count - k);
+			System.arraycopy(this.entries[row], k, this.entries[row], k + 1,
+					count - k);
+			this.columns[row][k] = column;
+			this.entries[row][k] = value;
+			this.counts[row]++;
+		}
+	}
+
+	/** Replaces the given row, missing values are set to the emptyValue. **/
+	private void setRow(int row, double[] values) {
+		int count = 0;
+		for (double v : values) {
+			if (!Double.isNaN(v))
+				count++;
+		}
+		this.columns[row] = count == 0 ? null : new int[count];
+		this.entries[row] = count == 0 ? null : new double[count];
+		this.counts[row] = count;
+		int k = 0;
+		for (int j = 0; j < values.length; j++) {
+			if (!Double.isNaN(values[j])) {
+				this.columns[row][k] = j;
+				this.entries[row][k] = values[j];
+				k++;
+			}
+		}
+	}
+
+	/*
+	 * IO METHODS
+	 */
+
+	@Override
+	public void write(String dir, String filename) throws IOException {
+		Log.debug("WRITING SparseNodeNodeValueList '" + filename + "' to "
+				+ dir);
+		Writer w = Writer.getWriter(dir, filename);
+		String delimiter = Config.get("DATA_DELIMITER");
+		w.writeln(Config.get("KEYWORDS_NNVL_SPARSE") + delimiter + this.size);
+		StringBuilder line = new StringBuilder();
+		for (int i = 0; i < this.size; i++) {
+			if (this.counts[i] == 0)
+				continue;
+			line.setLength(0);
+			line.append(i).append(delimiter);
+			for (int k = 0; k < this.counts[i]; k++) {
+				line.append(this.columns[i][k]).append(delimiter)
+						.append(this.entries[i][k]).append(delimiter);
+			}
+			w.writeln(line.toString());
+		}
+		w.close();
+	}
+
+	/**
+	 * Reads the rows of a list written in the sparse format and closes the
+	 * reader.
+	 *
+	 * @param r
+	 *            reader positioned after the header line
+	 * @param header
+	 *            header line containing the size of the list
+	 * @param name
+	 *            name of the list
+	 */
+	static SparseNodeNodeValueList read(Reader r, String header, String name)
+			throws IOException {
+		String delimiter = Config.get("DATA_DELIMITER");
+		String[] temp = header.split(delimiter);
+		if (temp.length != 2) {
+			throw new IllegalArgumentException("expected size in header @ \""
+					+ header + "\"");
+		}
+		SparseNodeNodeValueList list = new SparseNodeNodeValueList(name,
+				Integer.parseInt(temp[1]));
+		String line;
+		while ((line = r.readString()) != null) {
+			temp = line.split(delimiter);
+			if (temp.length % 2 != 1) {
+				throw new IllegalArgumentException(
+						"expected index and pairs of column and value @ \""
+								+ line + "\"");
+			}
+			int row = Integer.parseInt(temp[0]);
+			for (int k = 1; k < temp.length; k += 2) {
+				list.setValue(row, Integer.parseInt(temp[k]),
+						Double.parseDouble(temp[k + 1]));
+			}
+		}
+		r.close();
+		return list;
+	}
+}
@@ -37,7 +37,8 @@ public class NodeNodeValueListList extends List<NodeNodeValueList> {
 				NodeNodeValueLists.length);
 		for (String nodeNodeValueList : NodeNodeValueLists) {
 			list.add(NodeNodeValueList.read(dir, nodeNodeValueList,
-					Files.getNodeValueListName(nodeNodeValueList), readValues));
+					Files.getNodeNodeValueListName(nodeNodeValueList),
+					readValues));
 		}
 		return list;
 	}
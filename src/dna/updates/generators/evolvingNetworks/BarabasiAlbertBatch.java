@@ -1,12 +1,8 @@
 package dna.updates.generators.evolvingNetworks;
 
-import java.util.HashSet;
-
 import dna.graph.IGraph;
 import dna.graph.IElement;
-import dna.graph.nodes.DirectedNode;
 import dna.graph.nodes.Node;
-import dna.graph.nodes.UndirectedNode;
 import dna.updates.batch.Batch;
 import dna.updates.generators.BatchGenerator;
 import dna.updates.update.EdgeAddition;
@@ -27,87 +23,59 @@ public class BarabasiAlbertBatch extends BatchGenerator {
 		this.m = m;
 	}
 
+	/**
+	 * Each target is drawn uniformly from an array that contains every node
+	 * once per edge it is incident to, i.e., with a probability proportional
+	 * to its degree. The endpoints of the edges of a new node are appended
+	 * after all of its targets have been drawn, so that a node cannot be its
+	 * own target. This makes drawing a target O(1) instead of O(n).
+	 */
 	@Override
 	public Batch generate(IGraph g) {
 		Batch b = new Batch(g.getGraphDatastructures(), g.getTimestamp(),
 				g.getTimestamp() + 1, this.nodes, 0, 0, this.nodes * this.m, 0,
 				0);
-		Node[] newNodes = new Node[this.nodes];
-		int[] newDegrees = new int[this.nodes];
-		int[] oldDegrees = new int[g.getMaxNodeIndex() + 1];
 
+		int degrees = 0;
+		for (IElement n : g.getNodes()) {
+			degrees += ((Node) n).getDegree();
+		}
+		Node[] endpoints = new Node[degrees + 2 * this.nodes * this.m];
+		int size = 0;
+		for (IElement n : g.getNodes()) {
+			Node node = (Node) n;
+			for (int d = node.getDegree(); d > 0; d--) {
+				endpoints[size++] = node;
+			}
+		}
+
+		Node[] targets = new Node[this.m];
 		for (int i = 0; i < nodes; i++) {
-			newNodes[i] = g.getGraphDatastructures().newNodeInstance(
+			Node newNode = g.getGraphDatastructures().newNodeInstance(
 					g.getMaxNodeIndex() + i + 1);
-			b.add(new NodeAddition(newNodes[i]));
-
-			HashSet<Node> targets = new HashSet<Node>(this.m);
-			int total = 2 * (g.getEdgeCount() + i * this.m);
+			b.add(new NodeAddition(newNode));
 
 			for (int j = 0; j < this.m; j++) {
 				Node to = null;
 				while (to == null) {
-					int p = Rand.rand.nextInt(total);
-					int sum = 0;
-					for (IElement n : g.getNodes()) {
-						Node node = (Node) n;
-						if (node instanceof DirectedNode) {
-							sum += ((DirectedNode) node).getDegree();
-						} else if (node instanceof UndirectedNode) {
-							sum += ((UndirectedNode) node).getDegree();
-						}
-						sum += oldDegrees[node.getIndex()];
-
-						if (sum > p) {
-							if (!targets.contains(node)) {
-								to = node;
-								targets.add(node);
-								newDegrees[i]++;
-								oldDegrees[node.getIndex()]++;
-								// } else {
-								// System.out.println("duplicate... old");
-							}
+					to = endpoints[Rand.rand.nextInt(size)];
+					for (int k = 0; k < j; k++) {
+						if (targets[k] == to) {
+							to = null;
 							break;
 						}
 					}
-
-					if (to != null) {
-						break;
-					}
-
-					if (sum <= p) {
-						for (int k = 0; k < i; k++) {
-							sum += newDegrees[k];
-							if (sum > p) {
-								if (!targets.contains(newNodes[k])) {
-									to = newNodes[k];
-									targets.add(newNodes[k]);
-									newDegrees[i]++;
-									newDegrees[k]++;
-									// } else {
-									// System.out.println("duplicate... new");
-								}
-								break;
-							}
-						}
-					}
-
-					if (to != null) {
-						break;
-					}
-
-					// System.out.println("MISS   - (p,sum,total) (" + p + ","
-					// + sum + "," + total + ")");
 				}
-
+				targets[j] = to;
 				b.add(new EdgeAddition(g.getGraphDatastructures()
-						.newEdgeInstance(newNodes[i], to)));
+						.newEdgeInstance(newNode, to)));
 			}
-		}
 
-		// System.out.println("old: " + fromOld + " (" + g.getNodeCount() +
-		// ")");
-		// System.out.println("new: " + fromNew + " (" + this.nodes + ")");
+			for (int j = 0; j < this.m; j++) {
+				endpoints[size++] = newNode;
+				endpoints[size++] = targets[j];
+			}
+		}
 
 		return b;
 	}
@@ -94,6 +94,12 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 		int[] oldDegrees = collectOldDegrees(g);
 		int maxOldId = g.getMaxNodeIndex();
 		
+		// NPP weights of all nodes, indexed by node index
+		CumulativeWeights weights = new CumulativeWeights(maxOldId + 1 + this.nodes);
+		for (int j = 0; j <= maxOldId; j++) {
+			weights.add(j, getWeight(oldDegrees[j]));
+		}
+		
 
 		// add node by node
 		for (int i = 0; i < this.nodes; i++) {
@@ -111,17 +117,17 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 				// 1 of the host nodes: 1 link to a peer
 				
 				// calculate destination 1 - no need to ignore a node
-				Node to1 = getNPPNode(g, oldDegrees, newNodes, newDegrees, 
+				Node to1 = getNPPNode(g, weights, newNodes, 
 						maxOldId, newNodes[i].getIndex(), noIgnoredNode, newNodes[i].getIndex());
 				
 				// calculate destination 2 - ignore destination 1
-				Node to2 = getNPPNode(g, oldDegrees, newNodes, newDegrees, 
+				Node to2 = getNPPNode(g, weights, newNodes, 
 						maxOldId, newNodes[i].getIndex(), to1.getIndex(), newNodes[i].getIndex());
 				
 				// choose destination 1 or destination 2 randomly to be the source of the third edge
 				Node host = (Rand.rand.nextDouble() < 0.5) ? to1 : to2;
 				// calculate destination 3, ignore only the host/chosen destination/2
-				Node peer = getNPPNode(g, oldDegrees, newNodes, newDegrees, maxOldId, 
+				Node peer = getNPPNode(g, weights, newNodes, maxOldId, 
 						newNodes[i].getIndex(), host.getIndex(), host.getIndex());
 				
 				// add EdgeAdditions to batch
@@ -130,13 +136,13 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 				b.add(new EdgeAddition(g.getGraphDatastructures().newEdgeInstance(host, peer)));
 				
 				// increase degree of chosen nodes
-				increaseDegree(oldDegrees, newDegrees, maxOldId, new Node[]{to1, to2, host, peer, newNodes[i]});
+				increaseDegree(oldDegrees, newDegrees, weights, maxOldId, new Node[]{to1, to2, host, peer, newNodes[i]});
 			} else if (pi <= 1 - pPFP){
 				// new node: 1 link to a host node
 				// host node: 2 links to peers
 				
 				// calulate destination - no need to ignore a node
-				Node to = getNPPNode(g, oldDegrees, newNodes, newDegrees, 
+				Node to = getNPPNode(g, weights, newNodes, 
 						maxOldId, newNodes[i].getIndex(), noIgnoredNode, newNodes[i].getIndex());
 				b.add(new EdgeAddition(g.getGraphDatastructures().newEdgeInstance(newNodes[i], to)));
 				
@@ -145,7 +151,7 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 				Node peer1 = null;
 				Node peer2 = null;
 				for(int j=0; j<2; j++){
-					Node peer = getNPPNode(g, oldDegrees, newNodes, newDegrees, 
+					Node peer = getNPPNode(g, weights, newNodes, 
 							maxOldId, newNodes[i].getIndex(), to.getIndex(), to.getIndex());
 					if(j==0)
 						peer1 = peer;
@@ -163,23 +169,23 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 				}
 				
 				// increase degree of chosen nodes
-				increaseDegree(oldDegrees, newDegrees, maxOldId, new Node[]{to, peer1, peer2, newNodes[i]});
+				increaseDegree(oldDegrees, newDegrees, weights, maxOldId, new Node[]{to, peer1, peer2, newNodes[i]});
 			} else if (pi <= 1){
 				// new node: 1 link to a host node
 				// host node: 1 link to a peer
 				
 				// calculate destination node - no need to ignore a node
-				Node to = getNPPNode(g, oldDegrees, newNodes, newDegrees, 
+				Node to = getNPPNode(g, weights, newNodes, 
 						maxOldId, newNodes[i].getIndex(), noIgnoredNode, newNodes[i].getIndex());
 				b.add(new EdgeAddition(g.getGraphDatastructures().newEdgeInstance(newNodes[i], to)));
 				
 				// calculate the peer to connect the destination with
-				Node peer = getNPPNode(g, oldDegrees, newNodes, newDegrees,
+				Node peer = getNPPNode(g, weights, newNodes,
 						maxOldId, newNodes[i].getIndex(), to.getIndex(), to.getIndex());
 				b.add(new EdgeAddition(g.getGraphDatastructures().newEdgeInstance(to, peer)));
 				
 				// increase degree of chosen node
-				increaseDegree(oldDegrees, newDegrees, maxOldId, new Node[]{to, peer, newNodes[i]});
+				increaseDegree(oldDegrees, newDegrees, weights, maxOldId, new Node[]{to, peer, newNodes[i]});
 			}
 		}
 	}
@@ -188,95 +194,65 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 	 * increase the degree of the provided nodes by one
 	 * @param oldDegrees array with degrees of the in g contained nodes
 	 * @param newDegrees array with degrees of the in this batch added nodes
+	 * @param weights NPP weights of all nodes
 	 * @param maxOldIndex maximum index of nodes in g (to get the switch to the newDegree array)
 	 * @param nodes nodes with changed degree
 	 */
-	private void increaseDegree(int[] oldDegrees, int[] newDegrees, int maxOldIndex,
-			Node[] nodes) {
+	private void increaseDegree(int[] oldDegrees, int[] newDegrees, CumulativeWeights weights,
+			int maxOldIndex, Node[] nodes) {
 		for(Node n : nodes){
+			int degree;
 			if(n.getIndex() <= maxOldIndex) {
-				oldDegrees[n.getIndex()] += 1;
+				degree = oldDegrees[n.getIndex()]++;
 			} else {
-				newDegrees[n.getIndex()-maxOldIndex-1] +=1; 
+				degree = newDegrees[n.getIndex()-maxOldIndex-1]++;
 			}
+			weights.add(n.getIndex(), getWeight(degree + 1) - getWeight(degree));
 		}
 		
 	}
 
 	/**
-	 * Iterate over all nodes and calculate a valid one.
-	 * Probability formula is given by the paper:
+	 * Draws a node with a probability proportional to its weight (given by the
+	 * paper) in O(log n). In case the drawn node is not a valid destination,
+	 * the following nodes (ordered by index) are checked until a valid one is
+	 * found.
 	 * 
 	 * @param g	IGraph to retrieve the old nodes
-	 * @param oldDegrees	degrees of the old nodes
+	 * @param weights		NPP weights of all nodes
 	 * @param newNodes		array with new nodes
-	 * @param newDegrees	degrees of the new nodes
 	 * @param maxOldId		last old node index, nodes with higher index are new nodes
 	 * @param maxId			id of the last added nodes (highest id)
 	 * @param ignoreNode	node, that should be ignored as destination for this edge
 	 * @param srcNode		source node of this edge
 	 * @return				destination node
 	 */
-	private Node getNPPNode(IGraph g, int[] oldDegrees, Node[] newNodes, int[] newDegrees, int maxOldId, int maxId,
+	private Node getNPPNode(IGraph g, CumulativeWeights weights, Node[] newNodes, int maxOldId, int maxId,
 			int ignoreNode, int srcNode) {
 		
-		int npp = -1;		
-		double sumK = 0;
-		
-		// sum on old nodes
-		for (int j = 0; j <= maxOldId; j++){ 
-			int kj = oldDegrees[j];
-			if(kj!=0)	
-				sumK += Math.pow(kj,  calcExponent(kj));
-		}
-		// sum on new nodes
-		for(int j = 0; j < (maxId-maxOldId-1); j++){
-			int kj = newDegrees[j];
-			if(kj!=0)
-			sumK += Math.pow(kj, calcExponent(kj));
-		}
-		
-		double sumK2 = 0;
-		
-		
 		// get the source node, if srcNode id is > maxOldId, then is the src a new node and has to be retrieved from the new node array
 		Node src = (srcNode <= maxOldId) ? g.getNode(srcNode) : newNodes[srcNode-maxOldId-1];
 		
-		// iterate over all nodes ("old" and in this batch added) to find a destination for this edge
-		while(npp <0){
-			double takeNode = Rand.rand.nextDouble();
-			// check old nodes for valid destination
-			for(int k = 0; k <= maxOldId; k++){
-				int kj = oldDegrees[k];
-				if(kj!=0)
-					sumK2 += Math.pow(kj, calcExponent(kj)) / sumK;
-				
-				Node dst = g.getNode(k);
-				if(sumK2 > takeNode && 
-						k != srcNode && 
-						k != ignoreNode && 
-						!g.containsEdge(src, dst)){
-					return dst;
-				}
-			}
-			// check new nodes for valid destination
-			for(int k = 0; k <= maxId-maxOldId-1; k++){
-				int kj = newDegrees[k];
-				if(kj!=0)
-					sumK2 += Math.pow(kj, calcExponent(kj)) / sumK;
-				
-				Node dst = newNodes[k];
-				
-				if(sumK2 > takeNode && 
-						k+maxOldId+1 != srcNode &&
-						k+maxOldId+1 != ignoreNode && 
-						!g.containsEdge(src, dst)){
-					return dst;
-				}
+		int k = Math.min(weights.find(Rand.rand.nextDouble() * weights.getTotal()), maxId);
+		for (int checked = 0; checked <= maxId; checked++) {
+			Node dst = (k <= maxOldId) ? g.getNode(k) : newNodes[k-maxOldId-1];
+			if(k != srcNode && 
+					k != ignoreNode && 
+					!g.containsEdge(src, dst)){
+				return dst;
 			}
+			k = (k == maxId) ? 0 : k + 1;
 		}
-		// should not be reachable!
-		return null;
+		throw new IllegalStateException("no valid destination for node " + srcNode);
+	}
+
+	/**
+	 * calculates the weight of a node with the given degree
+	 * @param kj
+	 * @return
+	 */
+	private double getWeight(int kj) {
+		return kj == 0 ? 0 : Math.pow(kj, calcExponent(kj));
 	}
 
 	/**
@@ -313,6 +289,48 @@ public class PositiveFeedbackPreferenceBatch extends BatchGenerator {
 		return oldDegrees;
 	}
 
+	/**
+	 * Fenwick tree of the weights of all nodes that allows to update a weight
+	 * and to draw a node in O(log n).
+	 */
+	private static class CumulativeWeights {
+
+		private double[] tree;
+
+		private double total;
+
+		public CumulativeWeights(int size) {
+			this.tree = new double[size + 1];
+			this.total = 0;
+		}
+
+		public void add(int index, double delta) {
+			this.total += delta;
+			for (int i = index + 1; i < this.tree.length; i += i & -i) {
+				this.tree[i] += delta;
+			}
+		}
+
+		public double getTotal() {
+			return this.total;
+		}
+
+		/**
+		 * @return smallest index whose cumulative weight exceeds the value
+		 */
+		public int find(double value) {
+			int index = 0;
+			for (int step = Integer.highestOneBit(this.tree.length); step > 0; step >>= 1) {
+				if (index + step < this.tree.length
+						&& this.tree[index + step] <= value) {
+					index += step;
+					value -= this.tree[index];
+				}
+			}
+			return index;
+		}
+	}
+
 	@Override
 	public void reset() {
 	}
@@ -448,6 +448,10 @@ public class Config extends PropertiesHolder {
 		Config.overwrite("GENERATION_AS_ZIP", "runs");
 	}
 
+	public static void storeRuns() {
+		Config.overwrite("GENERATION_AS_ZIP", "store");
+	}
+
 	public static boolean[] getExtraValueGenerationFlags() {
 		return new boolean[] { Config.getBoolean("GENERATE_DISTRIBUTION_MIN"),
 				Config.getBoolean("GENERATE_DISTRIBUTION_MAX"),
@@ -0,0 +1,119 @@
+package dna.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Helper to execute a list of independent tasks using a given number of
+ * threads, e.g., to recompute a metric for disjoint sets of source nodes.
+ */
+public class ParallelExecution {
+
+	private static final HashMap<Integer, ForkJoinPool> pools = new HashMap<Integer, ForkJoinPool>();
+
+	/**
+	 *
+	 * @param threads
+	 *            number of threads
+	 * @return threads or the number of available processors in case threads
+	 *         <= 0
+	 */
+	public static int getThreads(int threads) {
+		if (threads <= 0) {
+			return Runtime.getRuntime().availableProcessors();
+		}
+		return threads;
+	}
+
+	/**
+	 * executes all tasks and returns their results in the order of the tasks.
+	 * In case only a single thread is requested or there is at most one task,
+	 * they are executed sequentially by the calling thread. Otherwise, a
+	 * fork-join pool is created for their execution and shut down afterwards.
+	 *
+	 * @param tasks
+	 *            tasks to execute
+	 * @param threads
+	 *            number of threads to use
+	 * @return results of the tasks
+	 */
+	public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks,
+			int threads) {
+		List<T> results = new ArrayList<T>(tasks.size());
+		if (threads <= 1 || tasks.size() <= 1) {
+			for (Callable<T> task : tasks) {
+				try {
+					results.add(task.call());
+				} catch (RuntimeException e) {
+					throw e;
+				} catch (Exception e) {
+					throw new IllegalStateException("could not execute task",
+							e);
+				}
+			}
+			return results;
+		}
+
+		ForkJoinPool pool = new ForkJoinPool(Math.min(threads, tasks.size()));
+		try {
+			return invokeAll(tasks, pool);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * returns a pool with the given number of threads that is shared by all
+	 * callers and never shut down (its threads are daemon threads). It should
+	 * be used for short and frequent executions, e.g., per update, for which
+	 * creating a new pool each time is too expensive.
+	 *
+	 * @param threads
+	 *            number of threads
+	 * @return shared pool with the given number of threads
+	 */
+	public static synchronized ForkJoinPool getSharedPool(int threads) {
+		ForkJoinPool pool = pools.get(threads);
+		if (pool == null) {
+			pool = new ForkJoinPool(threads);
+			pools.put(threads, pool);
+		}
+		return pool;
+	}
+
+	/**
+	 * executes all tasks using the given pool and returns their results in
+	 * the order of the tasks. The pool is not shut down afterwards.
+	 *
+	 * @param tasks
+	 *            tasks to execute
+	 * @param pool
+	 *            pool to execute the tasks
+	 * @return results of the tasks
+	 */
+	public static <T> List<T> invokeAll(List<? extends Callable<T>> tasks,
+			ForkJoinPool pool) {
+		List<T> results = new ArrayList<T>(tasks.size());
+		try {
+			for (Future<T> f : pool.invokeAll(tasks)) {
+				results.add(f.get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("interrupted while executing tasks",
+					e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException) {
+				throw (RuntimeException) e.getCause();
+			}
+			throw new IllegalStateException("could not execute task",
+					e.getCause());
+		}
+		return results;
+	}
+}
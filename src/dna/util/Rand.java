@@ -2,15 +2,120 @@ package dna.util;
 
 import java.util.Random;
 
+/**
+ * Global source of randomness used by graph / batch generators and metrics.
+ *
+ * By default, all threads share a single Random instance which is replaced
+ * by init(seed). A thread can bind its own Random via initLocal(seed), e.g.,
+ * to generate runs of a series concurrently. From then on, all accesses to
+ * Rand.rand and calls of init(seed) from this thread only affect its own
+ * instance until releaseLocal() is called.
+ */
 public class Rand {
 	public static long seed = System.currentTimeMillis();
 
-	public static Random rand = new Random(seed);
+	private static Random global = new Random(seed);
+
+	private static final ThreadLocal<Random> local = new ThreadLocal<Random>();
+
+	public static final Random rand = new ThreadAwareRandom();
 
 	public static void init(long seed) {
+		if (Rand.local.get() != null) {
+			Rand.local.set(new Random(seed));
+			Log.debug("initializing thread-local Rand with seed " + seed);
+			return;
+		}
 		Rand.seed = seed;
-		Rand.rand = new Random(seed);
+		Rand.global = new Random(seed);
 		Log.debug("initializing Rand with seed " + Rand.seed);
 	}
 
+	/**
+	 * binds a separate Random instance (initialized with the given seed) to
+	 * the calling thread
+	 *
+	 * @param seed
+	 *            seed for the thread-local Random instance
+	 */
+	public static void initLocal(long seed) {
+		Rand.local.set(new Random(seed));
+		Log.debug("initializing thread-local Rand with seed " + seed);
+	}
+
+	/**
+	 * removes the Random instance bound to the calling thread, accesses are
+	 * then delegated to the global instance again
+	 */
+	public static void releaseLocal() {
+		Rand.local.remove();
+	}
+
+	private static Random current() {
+		Random r = Rand.local.get();
+		return r != null ? r : Rand.global;
+	}
+
+	/**
+	 * Random that delegates all calls to the instance currently responsible
+	 * for the calling thread.
+	 */
+	private static class ThreadAwareRandom extends Random {
+
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		protected int next(int bits) {
+			return Rand.current().nextInt() >>> (32 - bits);
+		}
+
+		@Override
+		public synchronized void setSeed(long seed) {
+			// called by the constructor of Random
+			if (Rand.rand != null) {
+				Rand.init(seed);
+			}
+		}
+
+		@Override
+		public void nextBytes(byte[] bytes) {
+			Rand.current().nextBytes(bytes);
+		}
+
+		@Override
+		public int nextInt() {
+			return Rand.current().nextInt();
+		}
+
+		@Override
+		public int nextInt(int n) {
+			return Rand.current().nextInt(n);
+		}
+
+		@Override
+		public long nextLong() {
+			return Rand.current().nextLong();
+		}
+
+		@Override
+		public boolean nextBoolean() {
+			return Rand.current().nextBoolean();
+		}
+
+		@Override
+		public float nextFloat() {
+			return Rand.current().nextFloat();
+		}
+
+		@Override
+		public double nextDouble() {
+			return Rand.current().nextDouble();
+		}
+
+		@Override
+		public double nextGaussian() {
+			return Rand.current().nextGaussian();
+		}
+	}
+
 }
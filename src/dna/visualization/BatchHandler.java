@@ -15,6 +15,7 @@ import java.util.Random;
 
 import name.pachler.nio.file.ClosedWatchServiceException;
 import name.pachler.nio.file.StandardWatchEventKind;
+import dna.io.RunStore;
 import dna.io.filesystem.Dir;
 import dna.series.aggdata.AggregatedBatch.BatchReadMode;
 import dna.series.data.BatchData;
@@ -47,6 +48,7 @@ public class BatchHandler implements Runnable {
 	private boolean liveDisplay;
 	private boolean batchesZipped;
 	private boolean runsZipped;
+	private boolean runsStored;
 
 	private Thread t;
 
@@ -54,7 +56,7 @@ public class BatchHandler implements Runnable {
 	private int dirTimeout = 120;
 
 	public static enum ZipMode {
-		none, batches, runs
+		none, batches, runs, store
 	};
 
 	// constructors
@@ -71,6 +73,7 @@ public class BatchHandler implements Runnable {
 
 		this.batchesZipped = false;
 		this.runsZipped = false;
+		this.runsStored = false;
 
 		// switch mode
 		switch (zipMode) {
@@ -78,10 +81,13 @@ public class BatchHandler implements Runnable {
 			this.batchesZipped = true;
 			break;
 		case runs:
+		case store:
 			String[] splits = dir.split(Dir.delimiter);
 			this.runId = Dir.getRun(splits[splits.length - 1].replace(
-					Config.get("SUFFIX_ZIP_FILE"), ""));
-			this.runsZipped = true;
+					Config.get("SUFFIX_ZIP_FILE"), "").replace(
+					Config.get("SUFFIX_STORE_FILE"), ""));
+			this.runsZipped = zipMode.equals(ZipMode.runs);
+			this.runsStored = zipMode.equals(ZipMode.store);
 
 			String tempDir = "";
 			for (int i = 0; i < splits.length - 1; i++)
@@ -151,7 +157,10 @@ public class BatchHandler implements Runnable {
 			long timestamp = this.getBatches().get(0).getTimestamp();
 			BatchData tempBatch;
 
-			if (this.runsZipped) {
+			if (this.runsStored) {
+				tempBatch = RunStore.getRunStore(this.dir, this.runId)
+						.readBatch(timestamp, BatchReadMode.readAllValues);
+			} else if (this.runsZipped) {
 				RunData rd = RunData.readFromSingleFile(this.dir,
 						Dir.delimiter, this.runId, BatchReadMode.readAllValues);
 				tempBatch = rd.getBatches().get(0);
@@ -201,7 +210,11 @@ public class BatchHandler implements Runnable {
 	public void updateBatches() throws IOException {
 		BatchDataList tempBatches;
 
-		if (this.runsZipped) {
+		if (this.runsStored) {
+			RunData rd = RunStore.getRunStore(this.dir, this.runId).readRun(
+					this.runId, BatchReadMode.readNoValues);
+			tempBatches = rd.getBatches();
+		} else if (this.runsZipped) {
 			RunData rd = RunData.readFromSingleFile(this.dir, Dir.delimiter,
 					this.runId, BatchReadMode.readNoValues);
 			tempBatches = rd.getBatches();
@@ -597,7 +610,10 @@ public class BatchHandler implements Runnable {
 		try {
 			long timestamp = this.getBatches().get(index).getTimestamp();
 			BatchData tempBatch;
-			if (this.runsZipped) {
+			if (this.runsStored) {
+				tempBatch = RunStore.getRunStore(this.dir, this.runId)
+						.readBatch(timestamp, BatchReadMode.readAllValues);
+			} else if (this.runsZipped) {
 				RunData rd = RunData.readFromSingleFile(this.dir,
 						Dir.delimiter, this.runId, BatchReadMode.readAllValues);
 				tempBatch = rd.getBatches().get(index);
@@ -643,7 +659,11 @@ public class BatchHandler implements Runnable {
 		// send best matching batch to mainFrame
 		try {
 			BatchData tempBatch;
-			if (this.runsZipped) {
+			if (this.runsStored) {
+				tempBatch = RunStore.getRunStore(this.dir, this.runId)
+						.readBatch(bestMatchingTimestamp,
+								BatchReadMode.readAllValues);
+			} else if (this.runsZipped) {
 				RunData rd = RunData.readFromSingleFile(this.dir,
 						Dir.delimiter, this.runId, BatchReadMode.readAllValues);
 				tempBatch = null;
@@ -710,7 +730,10 @@ public class BatchHandler implements Runnable {
 		return counter;
 	}
 
-	/** Returns the id of the current run. Only works with zipped runs. **/
+	/**
+	 * Returns the id of the current run. Only works with zipped or stored
+	 * runs.
+	 **/
 	public int getRunId() {
 		return this.runId;
 	}
@@ -31,6 +31,7 @@ import javax.swing.JScrollPane;
 import javax.swing.border.EtchedBorder;
 
 import dna.io.filesystem.Dir;
+import dna.io.filesystem.Files;
 import dna.series.data.BatchData;
 import dna.util.Config;
 import dna.util.IOUtils;
@@ -64,6 +65,7 @@ public class MainDisplay extends JFrame {
 		boolean playbackFlag = false;
 		boolean zipBatchFlag = false;
 		boolean zipRunFlag = false;
+		boolean storeRunFlag = false;
 
 		try {
 			for (int i = 0; i < args.length; i++) {
@@ -91,6 +93,9 @@ public class MainDisplay extends JFrame {
 				case "-zr":
 					zipRunFlag = true;
 					break;
+				case "-zs":
+					storeRunFlag = true;
+					break;
 				}
 			}
 		} catch (IndexOutOfBoundsException e) {
@@ -114,6 +119,16 @@ public class MainDisplay extends JFrame {
 			helpFlag = true;
 		}
 
+		if (liveFlag && storeRunFlag) {
+			Log.warn("Live display AND stored run flag set. Showing -help and exiting.");
+			helpFlag = true;
+		}
+
+		if (storeRunFlag && (zipBatchFlag || zipRunFlag)) {
+			Log.warn("Stored run flag && zipped run or batch flag set. Showing -help and exiting.");
+			helpFlag = true;
+		}
+
 		if (helpFlag) {
 			System.out.println("DNA - Dynamic Network Analyzer");
 			System.out
@@ -143,6 +158,8 @@ public class MainDisplay extends JFrame {
 					+ "Enables zipped batches support");
 			System.out
 					.println("-zr" + "\t\t\t" + "Enables zipped runs support");
+			System.out.println("-zs" + "\t\t\t"
+					+ "Enables stored runs (run store files) support");
 
 			System.out.println("Example: run vis.jar -c " + '"'
 					+ "config/my_guy.cfg" + '"' + " -d " + '"'
@@ -177,12 +194,14 @@ public class MainDisplay extends JFrame {
 			}
 
 			ZipMode zipMode = ZipMode.none;
-			if (!zipBatchFlag && !zipRunFlag)
+			if (!zipBatchFlag && !zipRunFlag && !storeRunFlag)
 				zipMode = config.getZipMode();
 			else if (zipBatchFlag)
 				zipMode = ZipMode.batches;
 			else if (zipRunFlag)
 				zipMode = ZipMode.runs;
+			else if (storeRunFlag)
+				zipMode = ZipMode.store;
 
 			// init main window
 			Log.infoSep();
@@ -749,6 +768,18 @@ public class MainDisplay extends JFrame {
 							+ f.getPath()
 							+ "' not existing, BatchHandler could not be initialized.");
 				}
+			} else if (this.zipMode.equals(ZipMode.store)) {
+				f = new File(this.batchHandler.getDir()
+						+ Files.getRunStoreFilename(this.batchHandler
+								.getRunId()));
+				if (f.exists() && !f.isDirectory()) {
+					this.batchHandler.updateBatches();
+					this.batchHandler.init();
+				} else {
+					Log.info("Store '"
+							+ f.getPath()
+							+ "' not existing, BatchHandler could not be initialized.");
+				}
 			} else {
 				f = new File(this.batchHandler.getDir());
 				if (f.exists() && f.isDirectory()) {
@@ -779,11 +810,13 @@ public class MainDisplay extends JFrame {
 
 	/** sets the batch handlers directory **/
 	public void setBatchHandlerDir(String dir) {
-		if (this.zipMode.equals(ZipMode.runs)) {
+		if (this.zipMode.equals(ZipMode.runs)
+				|| this.zipMode.equals(ZipMode.store)) {
 			try {
 				String[] splits = dir.split(Dir.delimiter);
 				this.batchHandler.setRunId(Dir.getRun(splits[splits.length - 1]
-						.replace(Config.get("SUFFIX_ZIP_FILE"), "")));
+						.replace(Config.get("SUFFIX_ZIP_FILE"), "")
+						.replace(Config.get("SUFFIX_STORE_FILE"), "")));
 				String tempDir = "";
 				for (int i = 0; i < splits.length - 1; i++)
 					tempDir += splits[i] + Dir.delimiter;
@@ -228,6 +228,9 @@ public class MainDisplayConfig {
 			case "runs":
 				zipMode = ZipMode.runs;
 				break;
+			case "store":
+				zipMode = ZipMode.store;
+				break;
 			default:
 				zipMode = ZipMode.none;
 				break;
@@ -332,6 +335,9 @@ public class MainDisplayConfig {
 			case "runs":
 				zipMode = ZipMode.runs;
 				break;
+			case "store":
+				zipMode = ZipMode.store;
+				break;
 			default:
 				zipMode = ZipMode.none;
 				break;